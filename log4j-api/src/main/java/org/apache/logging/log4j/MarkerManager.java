@@ -16,18 +16,33 @@
  */
 package org.apache.logging.log4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
  * Applications create Markers by using the Marker Manager. All Markers created by this Manager are
  * immutable.
+ * <p>
+ * Each Marker is given an integer id when it is created and records the sorted ids of itself and all its
+ * ancestors, so checking whether one Marker is an instance of another is a binary search over its ancestry. The
+ * memory taken by a Marker depends only on the number of its ancestors. A Marker may have several parents.
+ * </p>
  */
 public final class MarkerManager {
 
+    private static final Marker[] NO_PARENTS = new Marker[0];
+
     private static ConcurrentMap<String, Marker> markerMap = new ConcurrentHashMap<String, Marker>();
 
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
     private MarkerManager() {
     }
 
@@ -37,8 +52,7 @@ public final class MarkerManager {
      * @return The Marker with the specified name.
      */
     public static Marker getMarker(final String name) {
-        markerMap.putIfAbsent(name, new Log4jMarker(name));
-        return markerMap.get(name);
+        return getMarker(name, NO_PARENTS);
     }
 
     /**
@@ -63,10 +77,34 @@ public final class MarkerManager {
      * @return The Marker with the specified name.
      */
     public static Marker getMarker(final String name, final Marker parent) {
-        markerMap.putIfAbsent(name, new Log4jMarker(name, parent));
+        return getMarker(name, parent == null ? NO_PARENTS : new Marker[] {parent});
+    }
+
+    /**
+     * Retrieves or creates a Marker with the specified parents. The Marker is an instance of each of its parents
+     * and of all their ancestors. {@link Marker#getParent()} returns the first parent.
+     * @param name The name of the Marker.
+     * @param parents The parent Markers.
+     * @return The Marker with the specified name.
+     */
+    public static Marker getMarker(final String name, final Marker... parents) {
+        final Marker marker = markerMap.get(name);
+        if (marker != null) {
+            return marker;
+        }
+        markerMap.putIfAbsent(name, new Log4jMarker(name, parents));
         return markerMap.get(name);
     }
 
+    /**
+     * Tests whether a Marker with the specified name has been created.
+     * @param name The name of the Marker.
+     * @return true if the Marker exists, false otherwise.
+     */
+    public static boolean exists(final String name) {
+        return markerMap.containsKey(name);
+    }
+
     /**
      * The actual Marker implementation.
      */
@@ -76,15 +114,49 @@ public final class MarkerManager {
 
         private final String name;
         private final Marker parent;
+        private final Marker[] parents;
 
-        public Log4jMarker(final String name) {
-            this.name = name;
-            this.parent = null;
-        }
+        /**
+         * The id of this Marker.
+         */
+        private final transient int id;
+
+        /**
+         * The ids of this Marker and all its ancestors in ascending order.
+         */
+        private final transient int[] ancestors;
+
+        /**
+         * True if an ancestor is not a Log4jMarker, in which case its ancestry has to be walked.
+         */
+        private final transient boolean foreign;
 
-        public Log4jMarker(final String name, final Marker parent) {
+        public Log4jMarker(final String name, final Marker[] parents) {
             this.name = name;
-            this.parent = parent;
+            final List<Marker> list = new ArrayList<Marker>(parents == null ? 0 : parents.length);
+            if (parents != null) {
+                for (final Marker p : parents) {
+                    if (p != null && !list.contains(p)) {
+                        list.add(p);
+                    }
+                }
+            }
+            this.parents = list.toArray(new Marker[list.size()]);
+            this.parent = this.parents.length == 0 ? null : this.parents[0];
+            this.id = NEXT_ID.getAndIncrement();
+            int[] ids = {id};
+            boolean isForeign = false;
+            for (final Marker p : this.parents) {
+                if (p instanceof Log4jMarker) {
+                    final Log4jMarker marker = (Log4jMarker) p;
+                    ids = union(ids, marker.ancestors);
+                    isForeign |= marker.foreign;
+                } else {
+                    isForeign = true;
+                }
+            }
+            this.ancestors = ids;
+            this.foreign = isForeign;
         }
 
         @Override
@@ -97,18 +169,48 @@ public final class MarkerManager {
             return this.parent;
         }
 
+        /**
+         * Merges two sorted arrays of ids, dropping duplicates.
+         */
+        private static int[] union(final int[] first, final int[] second) {
+            final int[] merged = new int[first.length + second.length];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < first.length || j < second.length) {
+                final int next;
+                if (j == second.length || (i < first.length && first[i] <= second[j])) {
+                    next = first[i++];
+                } else {
+                    next = second[j++];
+                }
+                if (count == 0 || merged[count - 1] != next) {
+                    merged[count++] = next;
+                }
+            }
+            return count == merged.length ? merged : Arrays.copyOf(merged, count);
+        }
+
+        private boolean hasAncestor(final int ancestorId) {
+            return Arrays.binarySearch(ancestors, ancestorId) >= 0;
+        }
+
         @Override
         public boolean isInstanceOf(final Marker m) {
             if (m == null) {
                 throw new IllegalArgumentException("A marker parameter is required");
             }
-            Marker test = this;
-            do {
-                if (test == m) {
+            if (m instanceof Log4jMarker && hasAncestor(((Log4jMarker) m).id)) {
+                return true;
+            }
+            if (!foreign) {
+                return false;
+            }
+            for (final Marker p : parents) {
+                if (p.isInstanceOf(m)) {
                     return true;
                 }
-                test = test.getParent();
-            } while (test != null);
+            }
             return false;
         }
 
@@ -117,16 +219,30 @@ public final class MarkerManager {
             if (name == null) {
                 throw new IllegalArgumentException("A marker name is required");
             }
-            Marker toTest = this;
-            do {
-                if (name.equals(toTest.getName())) {
+            if (!foreign) {
+                final Marker m = markerMap.get(name);
+                return m instanceof Log4jMarker && hasAncestor(((Log4jMarker) m).id);
+            }
+            if (name.equals(this.name)) {
+                return true;
+            }
+            for (final Marker p : parents) {
+                if (p.isInstanceOf(name)) {
                     return true;
                 }
-                toTest = toTest.getParent();
-            } while (toTest != null);
+            }
             return false;
         }
 
+        /**
+         * Markers are interned, so a deserialized Marker is replaced by the Marker of the same name in this JVM,
+         * which also assigns the ids used by {@link #isInstanceOf(Marker)}.
+         * @return The interned Marker.
+         */
+        protected Object readResolve() {
+            return getMarker(name, parents == null ? new Marker[] {parent} : parents);
+        }
+
         @Override
         public boolean equals(final Object o) {
             if (this == o) {
@@ -154,20 +270,42 @@ public final class MarkerManager {
         public String toString() {
             final StringBuilder sb = new StringBuilder(name);
             if (parent != null) {
-                Marker m = parent;
+                final Set<Marker> all = new LinkedHashSet<Marker>();
+                addAncestors(this, all);
                 sb.append("[ ");
                 boolean first = true;
-                while (m != null) {
+                for (final Marker m : all) {
                     if (!first) {
                         sb.append(", ");
                     }
                     sb.append(m.getName());
                     first = false;
-                    m = m.getParent();
                 }
                 sb.append(" ]");
             }
             return sb.toString();
         }
+
+        /**
+         * Collects the ancestors of a Marker, parents before grandparents along each line of descent.
+         */
+        private static void addAncestors(final Marker marker, final Set<Marker> all) {
+            if (marker instanceof Log4jMarker) {
+                final Marker[] direct = ((Log4jMarker) marker).parents;
+                final List<Marker> added = new ArrayList<Marker>(direct.length);
+                for (final Marker p : direct) {
+                    if (all.add(p)) {
+                        added.add(p);
+                    }
+                }
+                for (final Marker p : added) {
+                    addAncestors(p, all);
+                }
+            } else {
+                for (Marker m = marker.getParent(); m != null && all.add(m); m = m.getParent()) {
+                    // walk the chain of a Marker that has a single parent
+                }
+            }
+        }
     }
 }
@@ -103,10 +103,11 @@ public class StatusConsoleListener implements StatusListener {
     }
 
     private boolean filtered(final StatusData data) {
-        if (filters == null) {
+        final StackTraceElement element = data.getStackTraceElement();
+        if (filters == null || element == null) {
             return false;
         }
-        final String caller = data.getStackTraceElement().getClassName();
+        final String caller = element.getClassName();
         for (final String filter : filters) {
             if (caller.startsWith(filter)) {
                 return true;
@@ -61,8 +61,9 @@ public class StatusData implements Serializable {
     }
 
     /**
-     * Returns the StackTraceElement for the method that created the event.
-     * @return The StackTraceElement.
+     * Returns the StackTraceElement for the method that created the event. The StatusLogger only looks up the
+     * caller of events that a StatusListener receives.
+     * @return The StackTraceElement, or null if the caller was not looked up.
      */
     public StackTraceElement getStackTraceElement() {
         return caller;
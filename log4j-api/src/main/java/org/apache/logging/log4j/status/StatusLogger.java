@@ -17,13 +17,12 @@
 package org.apache.logging.log4j.status;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -53,17 +52,21 @@ public final class StatusLogger extends AbstractLogger {
 
     // private static final String FQCN = AbstractLogger.class.getName();
 
+    private static final StatusListener[] NO_LISTENERS = new StatusListener[0];
+
     private static final StatusLogger STATUS_LOGGER = new StatusLogger();
 
     private final SimpleLogger logger;
 
-    private final CopyOnWriteArrayList<StatusListener> listeners = new CopyOnWriteArrayList<StatusListener>();
-    private final ReentrantReadWriteLock listenersLock = new ReentrantReadWriteLock();
+    /**
+     * The listeners, replaced by a new array whenever a listener is added or removed.
+     */
+    private volatile StatusListener[] listeners = NO_LISTENERS;
+    private final Object listenersLock = new Object();
 
-    private final Queue<StatusData> messages = new BoundedQueue<StatusData>(MAX_ENTRIES);
-    private final ReentrantLock msgLock = new ReentrantLock();
+    private final Ring messages = new Ring(MAX_ENTRIES);
 
-    private int listenersLevel;
+    private volatile int listenersLevel;
 
     private StatusLogger() {
         this.logger = new SimpleLogger("StatusLogger", Level.ERROR, false, true, false, false, "", null, PROPS,
@@ -92,15 +95,15 @@ public final class StatusLogger extends AbstractLogger {
      * @param listener The StatusListener to register.
      */
     public void registerListener(final StatusListener listener) {
-        listenersLock.writeLock().lock();
-        try {
-            listeners.add(listener);
-            Level lvl = listener.getStatusLevel();
+        synchronized (listenersLock) {
+            final StatusListener[] current = listeners;
+            final StatusListener[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = listener;
+            listeners = updated;
+            final Level lvl = listener.getStatusLevel();
             if (listenersLevel < lvl.intLevel()) {
                 listenersLevel = lvl.intLevel();
             }
-        } finally {
-            listenersLock.writeLock().unlock();
         }
     }
 
@@ -109,19 +112,18 @@ public final class StatusLogger extends AbstractLogger {
      * @param listener The StatusListener to remove.
      */
     public void removeListener(final StatusListener listener) {
-        listenersLock.writeLock().lock();
-        try {
-            listeners.remove(listener);
+        synchronized (listenersLock) {
+            final List<StatusListener> remaining = new ArrayList<StatusListener>(Arrays.asList(listeners));
+            remaining.remove(listener);
             int lowest = Level.toLevel(DEFAULT_STATUS_LEVEL, Level.WARN).intLevel();
-            for (StatusListener l : listeners) {
-                int level = l.getStatusLevel().intLevel();
+            for (final StatusListener l : remaining) {
+                final int level = l.getStatusLevel().intLevel();
                 if (lowest < level) {
                     lowest = level;
                 }
             }
+            listeners = remaining.toArray(new StatusListener[remaining.size()]);
             listenersLevel = lowest;
-        } finally {
-            listenersLock.writeLock().unlock();
         }
     }
 
@@ -130,14 +132,16 @@ public final class StatusLogger extends AbstractLogger {
      * @return An Iterator for the list of StatusListeners.
      */
     public Iterator<StatusListener> getListeners() {
-        return listeners.iterator();
+        return Collections.unmodifiableList(Arrays.asList(listeners)).iterator();
     }
 
     /**
      * Clears the list of status events and listeners.
      */
     public void reset() {
-        listeners.clear();
+        synchronized (listenersLock) {
+            listeners = NO_LISTENERS;
+        }
         clear();
     }
 
@@ -146,24 +150,14 @@ public final class StatusLogger extends AbstractLogger {
      * @return The list of StatusData objects.
      */
     public List<StatusData> getStatusData() {
-        msgLock.lock();
-        try {
-            return new ArrayList<StatusData>(messages);
-        } finally {
-            msgLock.unlock();
-        }
+        return messages.toList();
     }
 
     /**
      * Clears the list of status events.
      */
     public void clear() {
-        msgLock.lock();
-        try {
-            messages.clear();
-        } finally {
-            msgLock.unlock();
-        }
+        messages.clear();
     }
 
 
@@ -177,21 +171,23 @@ public final class StatusLogger extends AbstractLogger {
      */
     @Override
     public void log(final Marker marker, final String fqcn, final Level level, final Message msg, final Throwable t) {
+        final StatusListener[] current = listeners;
         StackTraceElement element = null;
-        if (fqcn != null) {
+        // Walking the stack is expensive, it is only done for events a listener will receive.
+        if (fqcn != null && isListened(current, level)) {
             element = getStackTraceElement(fqcn, Thread.currentThread().getStackTrace());
         }
         final StatusData data = new StatusData(element, level, msg, t);
-        msgLock.lock();
-        try {
-            messages.add(data);
-        } finally {
-            msgLock.unlock();
-        }
-        if (listeners.size() > 0) {
-            for (final StatusListener listener : listeners) {
+        messages.add(data);
+        if (current.length > 0) {
+            for (final StatusListener listener : current) {
                 if (data.getLevel().isAtLeastAsSpecificAs(listener.getStatusLevel())) {
-                    listener.log(data);
+                    try {
+                        listener.log(data);
+                    } catch (final RuntimeException ex) {
+                        // A failing listener must not fail the caller or keep the other listeners from the event.
+                        logger.log(marker, fqcn, Level.ERROR, msg, ex);
+                    }
                 }
             }
         } else {
@@ -199,6 +195,15 @@ public final class StatusLogger extends AbstractLogger {
         }
     }
 
+    private static boolean isListened(final StatusListener[] current, final Level level) {
+        for (final StatusListener listener : current) {
+            if (level.isAtLeastAsSpecificAs(listener.getStatusLevel())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private StackTraceElement getStackTraceElement(final String fqcn, final StackTraceElement[] stackTrace) {
         if (fqcn == null) {
             return null;
@@ -245,7 +250,7 @@ public final class StatusLogger extends AbstractLogger {
 
     @Override
     public boolean isEnabled(final Level level, final Marker marker) {
-        if (listeners.size() > 0) {
+        if (listeners.length > 0) {
             return listenersLevel >= level.intLevel();
         }
         switch (level) {
@@ -267,25 +272,71 @@ public final class StatusLogger extends AbstractLogger {
     }
 
     /**
-     * Queue for status events.
-     * @param <E> Object type to be stored in the queue.
+     * Keeps the most recent status events without locking. Each event takes the next sequence number and is stored
+     * in the slot that number maps to, replacing the event logged a full turn of the ring earlier.
      */
-    private class BoundedQueue<E> extends ConcurrentLinkedQueue<E> {
+    private static final class Ring {
+
+        private final int capacity;
+        private final AtomicReferenceArray<Entry> slots;
+        private final AtomicLong next = new AtomicLong();
+        private volatile long cleared;
 
-        private static final long serialVersionUID = -3945953719763255337L;
+        public Ring(final int capacity) {
+            this.capacity = Math.max(capacity, 1);
+            this.slots = new AtomicReferenceArray<Entry>(this.capacity);
+        }
 
-        private final int size;
+        public void add(final StatusData data) {
+            final long sequence = next.getAndIncrement();
+            final int index = (int) (sequence % capacity);
+            final Entry entry = new Entry(sequence, data);
+            Entry current;
+            do {
+                current = slots.get(index);
+                if (current != null && current.sequence > sequence) {
+                    // A newer event was stored while this thread was delayed.
+                    return;
+                }
+            } while (!slots.compareAndSet(index, current, entry));
+        }
 
-        public BoundedQueue(final int size) {
-            this.size = size;
+        /**
+         * Returns the events in the order they were logged. An event whose slot has not been written yet, or has
+         * already been reused, is left out.
+         */
+        public List<StatusData> toList() {
+            final long end = next.get();
+            final long start = Math.max(end - capacity, cleared);
+            final List<StatusData> list = new ArrayList<StatusData>((int) Math.max(end - start, 0));
+            for (long sequence = start; sequence < end; ++sequence) {
+                final Entry entry = slots.get((int) (sequence % capacity));
+                if (entry != null && entry.sequence == sequence) {
+                    list.add(entry.data);
+                }
+            }
+            return list;
         }
 
-        @Override
-        public boolean add(final E object) {
-            while (messages.size() > size) {
-                messages.poll();
+        public void clear() {
+            cleared = next.get();
+            for (int i = 0; i < capacity; ++i) {
+                slots.set(i, null);
             }
-            return super.add(object);
+        }
+    }
+
+    /**
+     * A status event and its sequence number.
+     */
+    private static final class Entry {
+
+        private final long sequence;
+        private final StatusData data;
+
+        public Entry(final long sequence, final StatusData data) {
+            this.sequence = sequence;
+            this.data = data;
         }
     }
 }
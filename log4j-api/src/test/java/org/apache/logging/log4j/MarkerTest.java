@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class MarkerTest {
+
+    @Test
+    public void testMarkerHierarchy() {
+        final Marker parent = MarkerManager.getMarker("MarkerTestParent");
+        final Marker child = MarkerManager.getMarker("MarkerTestChild", parent);
+        final Marker grandChild = MarkerManager.getMarker("MarkerTestGrandChild", "MarkerTestChild");
+        assertSame(child, MarkerManager.getMarker("MarkerTestChild"));
+        assertSame(parent, child.getParent());
+        assertTrue(grandChild.isInstanceOf(parent));
+        assertTrue(grandChild.isInstanceOf("MarkerTestParent"));
+        assertTrue(grandChild.isInstanceOf(grandChild));
+        assertFalse(parent.isInstanceOf(child));
+        assertFalse(child.isInstanceOf("MarkerTestGrandChild"));
+        assertFalse(child.isInstanceOf("MarkerTestUndefined"));
+        assertEquals("MarkerTestGrandChild[ MarkerTestChild, MarkerTestParent ]", grandChild.toString());
+    }
+
+    @Test
+    public void testMultipleParents() {
+        final Marker audit = MarkerManager.getMarker("MarkerTestAudit");
+        final Marker security = MarkerManager.getMarker("MarkerTestSecurity");
+        final Marker root = MarkerManager.getMarker("MarkerTestRoot");
+        final Marker login = MarkerManager.getMarker("MarkerTestLogin", audit, security);
+        final Marker failed = MarkerManager.getMarker("MarkerTestLoginFailed", login);
+        assertTrue(MarkerManager.exists("MarkerTestLogin"));
+        assertSame(audit, login.getParent());
+        assertTrue(failed.isInstanceOf(audit));
+        assertTrue(failed.isInstanceOf(security));
+        assertTrue(failed.isInstanceOf("MarkerTestSecurity"));
+        assertFalse(failed.isInstanceOf(root));
+        assertFalse(audit.isInstanceOf(security));
+    }
+
+    @Test
+    public void testManyMarkers() {
+        // Markers used to hold a bit for every id created before them, which took gigabytes for this many.
+        final Marker root = MarkerManager.getMarker("MarkerTestManyRoot");
+        final Marker first = MarkerManager.getMarker("MarkerTestMany0", root);
+        Marker last = first;
+        for (int i = 1; i < 200000; ++i) {
+            last = MarkerManager.getMarker("MarkerTestMany" + i, root);
+        }
+        final Marker both = MarkerManager.getMarker("MarkerTestManyBoth", last, first);
+        assertTrue(both.isInstanceOf(root));
+        assertTrue(both.isInstanceOf(first));
+        assertTrue(both.isInstanceOf("MarkerTestMany199999"));
+        assertFalse(both.isInstanceOf("MarkerTestMany1"));
+        assertFalse(last.isInstanceOf(first));
+        assertFalse(root.isInstanceOf(both));
+    }
+
+    @Test
+    public void testForeignParent() {
+        final Marker foreign = new Marker() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public String getName() {
+                return "MarkerTestForeign";
+            }
+
+            @Override
+            public Marker getParent() {
+                return null;
+            }
+
+            @Override
+            public boolean isInstanceOf(final Marker m) {
+                return m == this;
+            }
+
+            @Override
+            public boolean isInstanceOf(final String name) {
+                return getName().equals(name);
+            }
+        };
+        final Marker marker = MarkerManager.getMarker("MarkerTestForeignChild", foreign);
+        assertTrue(marker.isInstanceOf(foreign));
+        assertTrue(marker.isInstanceOf("MarkerTestForeign"));
+        assertTrue(marker.isInstanceOf("MarkerTestForeignChild"));
+        assertFalse(marker.isInstanceOf("MarkerTestParent"));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final Marker parent = MarkerManager.getMarker("MarkerTestSerializedParent");
+        final Marker child = MarkerManager.getMarker("MarkerTestSerializedChild", parent);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(child);
+        oos.close();
+        final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        final Marker copy = (Marker) ois.readObject();
+        assertSame(child, copy);
+        assertTrue(copy.isInstanceOf(parent));
+    }
+}
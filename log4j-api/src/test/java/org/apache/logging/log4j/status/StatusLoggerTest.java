@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class StatusLoggerTest {
+
+    private final StatusLogger logger = StatusLogger.getLogger();
+
+    private final StatusListener listener = new StatusListener() {
+        @Override
+        public void log(final StatusData data) {
+        }
+
+        @Override
+        public Level getStatusLevel() {
+            return Level.DEBUG;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        logger.clear();
+        logger.registerListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        logger.removeListener(listener);
+        logger.clear();
+    }
+
+    private static List<String> messages(final List<StatusData> data) {
+        final List<String> messages = new ArrayList<String>(data.size());
+        for (final StatusData d : data) {
+            messages.add(d.getMessage().getFormattedMessage());
+        }
+        return messages;
+    }
+
+    @Test
+    public void testKeepsMostRecent() {
+        final int max = Integer.getInteger(StatusLogger.MAX_STATUS_ENTRIES, 200);
+        for (int i = 0; i < max + 50; ++i) {
+            logger.debug("message {}", i);
+        }
+        final List<String> messages = messages(logger.getStatusData());
+        assertEquals(max, messages.size());
+        assertEquals("message 50", messages.get(0));
+        assertEquals("message " + (max + 49), messages.get(max - 1));
+    }
+
+    @Test
+    public void testClear() {
+        logger.debug("before");
+        logger.clear();
+        logger.debug("after");
+        final List<String> messages = messages(logger.getStatusData());
+        assertEquals(1, messages.size());
+        assertEquals("after", messages.get(0));
+    }
+
+    @Test
+    public void testConcurrentLogging() throws Exception {
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            final int id = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; ++j) {
+                        logger.debug("thread {} message {}", id, j);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final List<StatusData> data = logger.getStatusData();
+        assertEquals(Integer.getInteger(StatusLogger.MAX_STATUS_ENTRIES, 200).intValue(), data.size());
+        for (int i = 1; i < data.size(); ++i) {
+            // events are returned in the order they were logged
+            assertTrue(data.get(i - 1).getTimestamp() <= data.get(i).getTimestamp());
+        }
+    }
+
+    @Test
+    public void testCallerOnlyForListenedEvents() {
+        final StatusConsoleListener console = new StatusConsoleListener(Level.TRACE);
+        logger.registerListener(console);
+        // the StatusLogger stays enabled for TRACE but no listener receives TRACE events
+        console.setLevel(Level.FATAL);
+        try {
+            logger.trace("not listened");
+            logger.debug("listened");
+        } finally {
+            logger.removeListener(console);
+        }
+        final List<StatusData> data = logger.getStatusData();
+        assertEquals(2, data.size());
+        assertNull(data.get(0).getStackTraceElement());
+        assertEquals(StatusLoggerTest.class.getName(), data.get(1).getStackTraceElement().getClassName());
+    }
+
+    @Test
+    public void testFailingListener() {
+        final List<StatusData> received = new ArrayList<StatusData>();
+        final StatusListener failing = new StatusListener() {
+            @Override
+            public void log(final StatusData data) {
+                throw new IllegalStateException("listener failed");
+            }
+
+            @Override
+            public Level getStatusLevel() {
+                return Level.DEBUG;
+            }
+        };
+        final StatusListener collecting = new StatusListener() {
+            @Override
+            public void log(final StatusData data) {
+                received.add(data);
+            }
+
+            @Override
+            public Level getStatusLevel() {
+                return Level.DEBUG;
+            }
+        };
+        logger.registerListener(failing);
+        logger.registerListener(collecting);
+        try {
+            logger.debug("delivered");
+        } finally {
+            logger.removeListener(failing);
+            logger.removeListener(collecting);
+        }
+        assertEquals(1, received.size());
+        assertEquals(1, logger.getStatusData().size());
+    }
+}
@@ -22,13 +22,12 @@ import java.io.File;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.BaseConfiguration;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.config.ConfigurationListener;
@@ -36,10 +35,13 @@ import org.apache.logging.log4j.core.config.DefaultConfiguration;
 import org.apache.logging.log4j.core.config.NullConfiguration;
 import org.apache.logging.log4j.core.config.Reconfigurable;
 import org.apache.logging.log4j.core.helpers.Assert;
+import org.apache.logging.log4j.core.helpers.Constants;
+import org.apache.logging.log4j.core.helpers.NameUtil;
 import org.apache.logging.log4j.core.helpers.NetUtils;
 import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.spi.AbstractLogger;
 import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  * The LoggerContext is the anchor for the logging system. It maintains a list
@@ -53,7 +55,7 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
     public static final String PROPERTY_CONFIG = "config";
     private static final StatusLogger LOGGER = StatusLogger.getLogger();
 
-    private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
+    private final LoggerRegistry loggers;
     private final CopyOnWriteArrayList<PropertyChangeListener> propertyChangeListeners = new CopyOnWriteArrayList<PropertyChangeListener>();
 
     /**
@@ -112,6 +114,7 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
      */
     public LoggerContext(final String name, final Object externalContext, final URI configLocn) {
         this.name = name;
+        this.loggers = LoggerRegistry.createRegistry(name);
         this.externalContext = externalContext;
         this.configLocation = configLocn;
     }
@@ -126,6 +129,7 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
      */
     public LoggerContext(final String name, final Object externalContext, final String configLocn) {
         this.name = name;
+        this.loggers = LoggerRegistry.createRegistry(name);
         this.externalContext = externalContext;
         if (configLocn != null) {
             URI uri;
@@ -279,9 +283,7 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
             return logger;
         }
 
-        logger = newInstance(this, name, messageFactory);
-        final Logger prev = loggers.putIfAbsent(name, logger);
-        return prev == null ? logger : prev;
+        return loggers.register(name, newInstance(this, name, messageFactory));
     }
 
     /**
@@ -291,7 +293,36 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
      */
     @Override
     public boolean hasLogger(final String name) {
-        return loggers.containsKey(name);
+        return loggers.get(name) != null;
+    }
+
+    /**
+     * Returns the number of Loggers held by this LoggerContext. When the Loggers are weakly or softly referenced
+     * this includes Loggers that have been reclaimed but not yet purged from the registry.
+     * @return The number of Loggers.
+     */
+    public int getLoggerCount() {
+        return loggers.size();
+    }
+
+    /**
+     * Returns the number of Loggers created by this LoggerContext. Together with {@link #getLoggersReclaimed()}
+     * this shows how quickly Loggers are being replaced.
+     * @return The number of Loggers created.
+     */
+    public long getLoggersCreated() {
+        return loggers.getCreatedCount();
+    }
+
+    /**
+     * Returns the number of Loggers that were reclaimed by the garbage collector after the application released
+     * them. This is always zero unless the {@link Constants#LOG4J_LOGGER_REGISTRY} property selects weak or soft
+     * references.
+     * @return The number of Loggers reclaimed.
+     */
+    public long getLoggersReclaimed() {
+        loggers.purge();
+        return loggers.getReclaimedCount();
     }
 
     /**
@@ -336,6 +367,10 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
         map.put("hostName", NetUtils.getLocalHostname());
         map.put("contextName", name);
         config.addComponent(Configuration.CONTEXT_PROPERTIES, map);
+        if (prev instanceof BaseConfiguration && config instanceof BaseConfiguration &&
+            PropertiesUtil.getProperties().getBooleanProperty(Constants.LOG4J_INCREMENTAL_RECONFIGURATION)) {
+            ((BaseConfiguration) config).setPreviousConfiguration((BaseConfiguration) prev);
+        }
         config.start();
         this.config = config;
         updateLoggers();
@@ -395,11 +430,33 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
      * @param config The Configuration.
      */
     public void updateLoggers(final Configuration config) {
-        for (final Logger logger : loggers.values()) {
+        for (final Logger logger : loggers.getLoggers()) {
             logger.updateConfiguration(config);
         }
     }
 
+    /**
+     * Cause only the Loggers at or below the named LoggerConfig to be updated against the current Configuration.
+     * @param name The name of the LoggerConfig that changed.
+     */
+    public void updateLoggers(final String name) {
+        updateLoggers(name, this.config);
+    }
+
+    /**
+     * Cause only the Loggers at or below the named LoggerConfig to be updated against the specified
+     * Configuration. Used when a single LoggerConfig has been added so the other Loggers are not affected.
+     * @param name The name of the LoggerConfig that changed.
+     * @param config The Configuration.
+     */
+    public void updateLoggers(final String name, final Configuration config) {
+        for (final Logger logger : loggers.getLoggers()) {
+            if (NameUtil.isDescendant(logger.getName(), name)) {
+                logger.updateConfiguration(config);
+            }
+        }
+    }
+
     /**
      * Cause a reconfiguration to take place when the underlying configuration
      * file changes.
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.core.helpers.Constants;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Holds the Loggers of a LoggerContext. By default Loggers are held strongly and live as long as the
+ * LoggerContext. Weak or soft references may be used instead so that Loggers created for short lived names are
+ * reclaimed once the application no longer refers to them.
+ */
+abstract class LoggerRegistry {
+
+    /**
+     * How the registry refers to its Loggers.
+     */
+    enum Mode {
+        /** Loggers are never reclaimed. */
+        STRONG,
+        /** Loggers are reclaimed as soon as they are no longer referenced. */
+        WEAK,
+        /** Loggers are reclaimed when no longer referenced and the JVM needs memory. */
+        SOFT
+    }
+
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reclaimed = new AtomicLong();
+    private final int maxSize;
+    private volatile boolean overMaxSize;
+
+    LoggerRegistry(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates the registry configured by the system properties.
+     * @param contextName The name of the LoggerContext, used in status messages.
+     * @return The LoggerRegistry.
+     */
+    static LoggerRegistry createRegistry(final String contextName) {
+        final PropertiesUtil props = PropertiesUtil.getProperties();
+        final String modeName = props.getStringProperty(Constants.LOG4J_LOGGER_REGISTRY, Mode.STRONG.name());
+        final int maxSize = props.getIntegerProperty(Constants.LOG4J_LOGGER_REGISTRY_MAX_SIZE, 0);
+        Mode mode;
+        try {
+            mode = Mode.valueOf(modeName.trim().toUpperCase());
+        } catch (final IllegalArgumentException ex) {
+            LOGGER.error("Invalid Logger registry {} for context {}, using {}", modeName, contextName, Mode.STRONG);
+            mode = Mode.STRONG;
+        }
+        return createRegistry(mode, maxSize);
+    }
+
+    /**
+     * Creates a registry.
+     * @param mode How Loggers are referenced.
+     * @param maxSize The number of Loggers above which a warning is issued. Zero or less disables the check.
+     * @return The LoggerRegistry.
+     */
+    static LoggerRegistry createRegistry(final Mode mode, final int maxSize) {
+        return mode == Mode.STRONG ? new Strong(maxSize) : new Referencing(mode, maxSize);
+    }
+
+    /**
+     * Returns the Logger with the given name.
+     * @param name The Logger name.
+     * @return The Logger or null if there is none or it has been reclaimed.
+     */
+    abstract Logger get(String name);
+
+    /**
+     * Returns the Loggers that are still live.
+     * @return A snapshot of the Loggers.
+     */
+    abstract Collection<Logger> getLoggers();
+
+    /**
+     * Returns the number of entries in the registry. Entries whose Logger was reclaimed but that have not been
+     * purged yet are included.
+     * @return The number of entries.
+     */
+    abstract int size();
+
+    /**
+     * Removes the entries whose Logger has been reclaimed.
+     */
+    abstract void purge();
+
+    abstract Logger putIfAbsent(String name, Logger logger);
+
+    /**
+     * Adds a Logger unless another thread has added one with the same name first.
+     * @param name The Logger name.
+     * @param logger The new Logger.
+     * @return The Logger held by the registry.
+     */
+    Logger register(final String name, final Logger logger) {
+        final Logger prev = putIfAbsent(name, logger);
+        if (prev != null) {
+            return prev;
+        }
+        created.incrementAndGet();
+        if (maxSize > 0) {
+            checkSize();
+        }
+        return logger;
+    }
+
+    private void checkSize() {
+        if (size() <= maxSize) {
+            overMaxSize = false;
+            return;
+        }
+        purge();
+        if (size() > maxSize && !overMaxSize) {
+            overMaxSize = true;
+            LOGGER.warn("The Logger registry holds more than {} Loggers. Consider the {} or {} modes of {}",
+                maxSize, Mode.WEAK, Mode.SOFT, Constants.LOG4J_LOGGER_REGISTRY);
+        }
+    }
+
+    void onReclaimed() {
+        reclaimed.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of Loggers created since the registry was created.
+     * @return The number of Loggers created.
+     */
+    long getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Returns the number of Loggers reclaimed by the garbage collector since the registry was created.
+     * @return The number of Loggers reclaimed.
+     */
+    long getReclaimedCount() {
+        return reclaimed.get();
+    }
+
+    /**
+     * The default registry, which never releases a Logger.
+     */
+    private static final class Strong extends LoggerRegistry {
+        private final ConcurrentMap<String, Logger> map = new ConcurrentHashMap<String, Logger>();
+
+        Strong(final int maxSize) {
+            super(maxSize);
+        }
+
+        @Override
+        Logger get(final String name) {
+            return map.get(name);
+        }
+
+        @Override
+        Logger putIfAbsent(final String name, final Logger logger) {
+            return map.putIfAbsent(name, logger);
+        }
+
+        @Override
+        Collection<Logger> getLoggers() {
+            return map.values();
+        }
+
+        @Override
+        int size() {
+            return map.size();
+        }
+
+        @Override
+        void purge() {
+        }
+    }
+
+    /**
+     * Registry holding weak or soft references. Cleared references are purged whenever a Logger is added.
+     */
+    private static final class Referencing extends LoggerRegistry {
+        private final ConcurrentMap<String, Reference<Logger>> map =
+            new ConcurrentHashMap<String, Reference<Logger>>();
+        private final ReferenceQueue<Logger> queue = new ReferenceQueue<Logger>();
+        private final boolean soft;
+
+        Referencing(final Mode mode, final int maxSize) {
+            super(maxSize);
+            this.soft = mode == Mode.SOFT;
+        }
+
+        @Override
+        Logger get(final String name) {
+            final Reference<Logger> ref = map.get(name);
+            return ref == null ? null : ref.get();
+        }
+
+        @Override
+        Logger putIfAbsent(final String name, final Logger logger) {
+            purge();
+            final Reference<Logger> ref = soft ? new SoftLoggerReference(name, logger, queue) :
+                new WeakLoggerReference(name, logger, queue);
+            while (true) {
+                final Reference<Logger> prev = map.putIfAbsent(name, ref);
+                if (prev == null) {
+                    return null;
+                }
+                final Logger existing = prev.get();
+                if (existing != null) {
+                    return existing;
+                }
+                if (map.replace(name, prev, ref)) {
+                    return null;
+                }
+            }
+        }
+
+        @Override
+        Collection<Logger> getLoggers() {
+            final Collection<Logger> loggers = new ArrayList<Logger>(map.size());
+            for (final Reference<Logger> ref : map.values()) {
+                final Logger logger = ref.get();
+                if (logger != null) {
+                    loggers.add(logger);
+                }
+            }
+            return loggers;
+        }
+
+        @Override
+        int size() {
+            return map.size();
+        }
+
+        @Override
+        void purge() {
+            Reference<? extends Logger> ref;
+            while ((ref = queue.poll()) != null) {
+                onReclaimed();
+                map.remove(((NamedReference) ref).getName(), ref);
+            }
+        }
+    }
+
+    /**
+     * A reference that remembers the name of its Logger so it can be removed after the Logger was reclaimed.
+     */
+    private interface NamedReference {
+        String getName();
+    }
+
+    private static final class WeakLoggerReference extends WeakReference<Logger> implements NamedReference {
+        private final String name;
+
+        WeakLoggerReference(final String name, final Logger logger, final ReferenceQueue<Logger> queue) {
+            super(logger, queue);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class SoftLoggerReference extends SoftReference<Logger> implements NamedReference {
+        private final String name;
+
+        SoftLoggerReference(final String name, final Logger logger, final ReferenceQueue<Logger> queue) {
+            super(logger, queue);
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
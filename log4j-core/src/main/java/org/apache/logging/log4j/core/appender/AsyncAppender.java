@@ -30,6 +30,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.config.AppenderRef;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationBound;
 import org.apache.logging.log4j.core.config.ConfigurationException;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAliases;
@@ -47,7 +48,7 @@ import org.apache.logging.log4j.core.impl.Log4jLogEvent;
  * the Appender references.
  */
 @Plugin(name = "Async", category = "Core", elementType = "appender", printObject = true)
-public final class AsyncAppender extends AbstractAppender {
+public final class AsyncAppender extends AbstractAppender implements ConfigurationBound {
 
     private static final int DEFAULT_QUEUE_SIZE = 128;
     private static final String SHUTDOWN = "Shutdown";
@@ -150,6 +151,22 @@ public final class AsyncAppender extends AbstractAppender {
         }
     }
 
+    /**
+     * Returns the number of events waiting in the queue.
+     * @return The number of events queued.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of events that can be added to the queue before it is full.
+     * @return The remaining capacity of the queue.
+     */
+    public int getQueueRemainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
     /**
      * Create an AsyncAppender.
      * @param appenderRefs The Appenders to reference.
@@ -19,6 +19,11 @@ package org.apache.logging.log4j.core.appender;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.core.Appender;
@@ -26,6 +31,7 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationBound;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
@@ -33,14 +39,34 @@ import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.Booleans;
 import org.apache.logging.log4j.core.helpers.Constants;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.OverlayLogEvent;
 
 /**
  * The FailoverAppender will capture exceptions in an Appender and then route the event
  * to a different appender. Hopefully it is obvious that the Appenders must be configured
  * to not suppress exceptions for the FailoverAppender to work.
+ * <p>
+ * The primary Appender is guarded by a circuit breaker. A failure, or a call that takes longer than the latency
+ * budget, opens the circuit and events are routed to the failover Appenders until the retry interval has elapsed.
+ * The primary Appender is then tried again, either with the next event on the logging thread or, when
+ * asyncRecovery is set, on a background thread while the other events keep going to the failover Appenders.
+ * </p>
  */
 @Plugin(name = "Failover", category = "Core", elementType = "appender", printObject = true)
-public final class FailoverAppender extends AbstractAppender {
+public final class FailoverAppender extends AbstractAppender implements ConfigurationBound {
+
+    /**
+     * The state of the circuit breaker guarding the primary Appender.
+     */
+    public enum State {
+        /** Events are written to the primary Appender. */
+        CLOSED,
+        /** The primary Appender failed, events are written to the failover Appenders. */
+        OPEN,
+        /** An event is being written to the primary Appender to check whether it recovered. */
+        HALF_OPEN
+    }
 
     private static final int DEFAULT_INTERVAL_SECONDS = 60;
 
@@ -56,17 +82,28 @@ public final class FailoverAppender extends AbstractAppender {
 
     private final long intervalMillis;
 
-    private long nextCheckMillis = 0;
+    private final long latencyBudgetNanos;
+
+    private final boolean asyncRecovery;
+
+    private volatile long nextCheckMillis = 0;
+
+    private final AtomicReference<State> state = new AtomicReference<State>(State.CLOSED);
+
+    private final AtomicLong tripCount = new AtomicLong();
 
-    private volatile boolean failure = false;
+    private ProbeThread probeThread;
 
     private FailoverAppender(final String name, final Filter filter, final String primary, final String[] failovers,
-                             final int intervalMillis, final Configuration config, final boolean ignoreExceptions) {
+                             final int intervalMillis, final int latencyBudgetMillis, final boolean asyncRecovery,
+                             final Configuration config, final boolean ignoreExceptions) {
         super(name, filter, null, ignoreExceptions);
         this.primaryRef = primary;
         this.failovers = failovers;
         this.config = config;
         this.intervalMillis = intervalMillis;
+        this.latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMillis);
+        this.asyncRecovery = asyncRecovery;
     }
 
 
@@ -92,10 +129,27 @@ public final class FailoverAppender extends AbstractAppender {
             ++errors;
         }
         if (errors == 0) {
+            if (asyncRecovery) {
+                probeThread = new ProbeThread();
+                probeThread.start();
+            }
             super.start();
         }
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        if (probeThread != null) {
+            probeThread.shutdown();
+            try {
+                probeThread.join();
+            } catch (final InterruptedException ex) {
+                LOGGER.warn("Interrupted while stopping FailoverAppender {}", getName());
+            }
+        }
+    }
+
     /**
      * Handle the Log event.
      * @param event The LogEvent.
@@ -106,25 +160,65 @@ public final class FailoverAppender extends AbstractAppender {
             error("FailoverAppender " + getName() + " did not start successfully");
             return;
         }
-        if (!failure) {
-            callAppender(event);
-        } else {
-            final long currentMillis = System.currentTimeMillis();
-            if (currentMillis >= nextCheckMillis) {
-                callAppender(event);
-            } else {
+        final State current = state.get();
+        if (current == State.CLOSED) {
+            callAppender(event, false);
+        } else if (current == State.OPEN && System.currentTimeMillis() >= nextCheckMillis &&
+            state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            // Only immutable events can be handed to the probe thread, others are retried inline.
+            if (probeThread != null && event instanceof Log4jLogEvent) {
+                final LogEvent probe = event instanceof OverlayLogEvent ?
+                    ((OverlayLogEvent) event).createMemento() : event;
+                if (probeThread.probe(probe)) {
+                    return;
+                }
+                state.compareAndSet(State.HALF_OPEN, State.OPEN);
                 failover(event, null);
+            } else {
+                callAppender(event, true);
             }
+        } else {
+            failover(event, null);
         }
     }
 
-    private void callAppender(final LogEvent event) {
+    /**
+     * Writes the event to the primary Appender.
+     * @param event The LogEvent.
+     * @param probe True if this call checks whether the primary Appender recovered and may close the circuit.
+     */
+    private void callAppender(final LogEvent event, final boolean probe) {
+        final long start = latencyBudgetNanos > 0 ? System.nanoTime() : 0;
         try {
             primary.callAppender(event);
         } catch (final Exception ex) {
-            nextCheckMillis = System.currentTimeMillis() + intervalMillis;
-            failure = true;
+            trip();
             failover(event, ex);
+            return;
+        }
+        checkLatency(start, probe);
+    }
+
+    private void checkLatency(final long start, final boolean probe) {
+        if (latencyBudgetNanos > 0) {
+            final long elapsed = System.nanoTime() - start;
+            if (elapsed > latencyBudgetNanos) {
+                LOGGER.warn("Primary Appender {} of FailoverAppender {} took {} ms, failing over", primaryRef,
+                    getName(), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(elapsed)));
+                trip();
+                return;
+            }
+        }
+        // Calls that started before the circuit was opened may still complete, only the probe may close it.
+        if (probe) {
+            state.compareAndSet(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    private void trip() {
+        nextCheckMillis = System.currentTimeMillis() + intervalMillis;
+        if (state.getAndSet(State.OPEN) == State.CLOSED) {
+            tripCount.incrementAndGet();
         }
     }
 
@@ -153,6 +247,22 @@ public final class FailoverAppender extends AbstractAppender {
         }
     }
 
+    /**
+     * Returns the current state of the circuit breaker guarding the primary Appender.
+     * @return The State.
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Returns the number of times the primary Appender was abandoned for the failover Appenders.
+     * @return The number of times the circuit was opened.
+     */
+    public long getTripCount() {
+        return tripCount.get();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder(getName());
@@ -165,7 +275,7 @@ public final class FailoverAppender extends AbstractAppender {
             sb.append(str);
             first = false;
         }
-        sb.append("}");
+        sb.append("}, state=").append(state.get());
         return sb.toString();
     }
 
@@ -175,6 +285,9 @@ public final class FailoverAppender extends AbstractAppender {
      * @param primary The name of the primary Appender (required).
      * @param failovers The name of one or more Appenders to fail over to (at least one is required).
      * @param retryIntervalString The retry intervalMillis.
+     * @param latencyBudget The number of milliseconds after which a call to the primary Appender is considered a
+     *                      failure, zero (the default) for no limit.
+     * @param asyncRecovery If {@code "true"} the primary Appender is retried on a background thread.
      * @param config The current Configuration (passed by the Configuration when the appender is created).
      * @param filter A Filter (optional).
      * @param ignore If {@code "true"} (default) exceptions encountered when appending events are logged; otherwise
@@ -187,6 +300,8 @@ public final class FailoverAppender extends AbstractAppender {
             @PluginAttribute("primary") final String primary,
             @PluginElement("Failovers") final String[] failovers,
             @PluginAttribute("retryInterval") final String retryIntervalString,
+            @PluginAttribute("latencyBudget") final String latencyBudget,
+            @PluginAttribute("asyncRecovery") final String asyncRecovery,
             @PluginConfiguration final Configuration config,
             @PluginElement("Filters") final Filter filter,
             @PluginAttribute("ignoreExceptions") final String ignore) {
@@ -212,8 +327,76 @@ public final class FailoverAppender extends AbstractAppender {
             retryIntervalMillis = DEFAULT_INTERVAL_SECONDS * Constants.MILLIS_IN_SECONDS;
         }
 
+        int latencyBudgetMillis = parseInt(latencyBudget, 0);
+        if (latencyBudgetMillis < 0) {
+            LOGGER.warn("Latency budget " + latencyBudget + " is less than zero. Ignoring it");
+            latencyBudgetMillis = 0;
+        }
+
         final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
 
-        return new FailoverAppender(name, filter, primary, failovers, retryIntervalMillis, config, ignoreExceptions);
+        return new FailoverAppender(name, filter, primary, failovers, retryIntervalMillis, latencyBudgetMillis,
+            Booleans.parseBoolean(asyncRecovery, false), config, ignoreExceptions);
+    }
+
+    /**
+     * Thread that retries the primary Appender while the circuit is half open.
+     */
+    private class ProbeThread extends Thread {
+
+        private volatile boolean shutdown = false;
+        private final BlockingQueue<LogEvent> probes = new ArrayBlockingQueue<LogEvent>(1);
+
+        public ProbeThread() {
+            setDaemon(true);
+            setName("FailoverAppenderProbe-" + FailoverAppender.this.getName());
+        }
+
+        public boolean probe(final LogEvent event) {
+            return probes.offer(event);
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                final LogEvent event;
+                try {
+                    event = probes.take();
+                } catch (final InterruptedException ex) {
+                    break;
+                }
+                retry(event, true);
+            }
+            final LogEvent event = probes.poll();
+            if (event != null) {
+                retry(event, false);
+            }
+        }
+
+        private void retry(final LogEvent event, final boolean usePrimary) {
+            try {
+                if (usePrimary) {
+                    final long start = latencyBudgetNanos > 0 ? System.nanoTime() : 0;
+                    try {
+                        primary.callAppender(event);
+                        checkLatency(start, true);
+                        return;
+                    } catch (final Exception ex) {
+                        LOGGER.debug("Primary Appender {} of FailoverAppender {} has not recovered", primaryRef,
+                            FailoverAppender.this.getName());
+                        trip();
+                    }
+                }
+                failover(event, null);
+            } catch (final Exception ex) {
+                LOGGER.error("Unable to write event to the failover appenders of {}", FailoverAppender.this.getName(),
+                    ex);
+            }
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            interrupt();
+        }
     }
 }
@@ -35,12 +35,18 @@ import org.apache.logging.log4j.core.net.JMSQueueManager;
 @Plugin(name = "JMSQueue", category = "Core", elementType = "appender", printObject = true)
 public final class JMSQueueAppender extends AbstractAppender {
 
+    private static final long DEFAULT_BATCH_DELAY = 1000;
+
     private final JMSQueueManager manager;
 
+    private final boolean bytesMessage;
+
     private JMSQueueAppender(final String name, final Filter filter, final Layout<? extends Serializable> layout,
-                             final JMSQueueManager manager, final boolean ignoreExceptions) {
+                             final JMSQueueManager manager, final boolean ignoreExceptions,
+                             final boolean bytesMessage) {
         super(name, filter, layout, ignoreExceptions);
         this.manager = manager;
+        this.bytesMessage = bytesMessage;
     }
 
     /**
@@ -51,12 +57,18 @@ public final class JMSQueueAppender extends AbstractAppender {
     @Override
     public void append(final LogEvent event) {
         try {
-            manager.send(getLayout().toSerializable(event));
+            manager.send(bytesMessage ? getLayout().toByteArray(event) : getLayout().toSerializable(event));
         } catch (final Exception ex) {
             throw new AppenderLoggingException(ex);
         }
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        manager.release();
+    }
+
     /**
      * Create a JMSQueueAppender.
      * @param name The name of the Appender.
@@ -70,6 +82,11 @@ public final class JMSQueueAppender extends AbstractAppender {
      * @param queueBindingName The name to use to locate the Queue.
      * @param userName The user ID to use to create the Queue Connection.
      * @param password The password to use to create the Queue Connection.
+     * @param poolSize The number of Sessions used to send messages in parallel (defaults to 1).
+     * @param batchSize The number of messages sent in each transaction (defaults to 1, which does not use
+     *                  transactions).
+     * @param batchDelay The maximum number of milliseconds a message remains uncommitted (defaults to 1000).
+     * @param bytesMessage If {@code "true"} the events are formatted by the Layout and sent as BytesMessages.
      * @param layout The layout to use (defaults to SerializedLayout).
      * @param filter The Filter or null.
      * @param ignore If {@code "true"} (default) exceptions encountered when appending events are logged; otherwise
@@ -88,6 +105,10 @@ public final class JMSQueueAppender extends AbstractAppender {
             @PluginAttribute("queueBindingName") final String queueBindingName,
             @PluginAttribute("userName") final String userName,
             @PluginAttribute("password") final String password,
+            @PluginAttribute("poolSize") final String poolSize,
+            @PluginAttribute("batchSize") final String batchSize,
+            @PluginAttribute("batchDelay") final String batchDelay,
+            @PluginAttribute("bytesMessage") final String bytesMessage,
             @PluginElement("Layout") Layout<? extends Serializable> layout,
             @PluginElement("Filter") final Filter filter,
             @PluginAttribute("ignoreExceptions") final String ignore) {
@@ -97,13 +118,16 @@ public final class JMSQueueAppender extends AbstractAppender {
         }
         final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
         final JMSQueueManager manager = JMSQueueManager.getJMSQueueManager(factoryName, providerURL, urlPkgPrefixes,
-            securityPrincipalName, securityCredentials, factoryBindingName, queueBindingName, userName, password);
+            securityPrincipalName, securityCredentials, factoryBindingName, queueBindingName, userName, password,
+            AbstractAppender.parseInt(poolSize, 1), AbstractAppender.parseInt(batchSize, 1),
+            batchDelay == null ? DEFAULT_BATCH_DELAY : Long.parseLong(batchDelay));
         if (manager == null) {
             return null;
         }
         if (layout == null) {
             layout = SerializedLayout.createLayout();
         }
-        return new JMSQueueAppender(name, filter, layout, manager, ignoreExceptions);
+        return new JMSQueueAppender(name, filter, layout, manager, ignoreExceptions,
+            Boolean.parseBoolean(bytesMessage));
     }
 }
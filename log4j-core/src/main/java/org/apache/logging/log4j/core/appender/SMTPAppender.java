@@ -48,12 +48,22 @@ import org.apache.logging.log4j.core.net.SMTPManager;
  * By default, an email message will be sent when an ERROR or higher severity
  * message is appended. This can be modified by setting a filter for the
  * appender.
+ *
+ * By default, the message is sent by the thread that logged the triggering
+ * event. When <b>async</b> is true the message is sent by a background thread
+ * instead, the triggers within <b>coalesceWindow</b> milliseconds are sent in a
+ * single message and no more than <b>maxEmails</b> messages are sent every
+ * <b>rateInterval</b> milliseconds.
  */
 @Plugin(name = "SMTP", category = "Core", elementType = "appender", printObject = true)
 public final class SMTPAppender extends AbstractAppender {
 
     private static final int DEFAULT_BUFFER_SIZE = 512;
 
+    private static final long DEFAULT_COALESCE_WINDOW = 1000;
+
+    private static final long DEFAULT_RATE_INTERVAL = 60000;
+
     /** The SMTP Manager */
     protected final SMTPManager manager;
 
@@ -93,6 +103,12 @@ public final class SMTPAppender extends AbstractAppender {
      * @param bufferSizeStr
      *            How many log events should be buffered for inclusion in the
      *            message?
+     * @param asyncStr If {@code "true"} messages are sent by a background thread.
+     * @param coalesceWindowStr The number of milliseconds the background thread waits after a trigger so that
+     *            further triggers are sent in the same message (defaults to 1000).
+     * @param maxEmailsStr The maximum number of messages sent by the background thread every rate interval
+     *            (defaults to no limit).
+     * @param rateIntervalStr The rate interval in milliseconds (defaults to 60000).
      * @param layout
      *            The layout to use (defaults to HTMLLayout).
      * @param filter
@@ -118,6 +134,10 @@ public final class SMTPAppender extends AbstractAppender {
             @PluginAttribute("smtpPassword") final String smtpPassword,
             @PluginAttribute("smtpDebug") final String smtpDebug,
             @PluginAttribute("bufferSize") final String bufferSizeStr,
+            @PluginAttribute("async") final String asyncStr,
+            @PluginAttribute("coalesceWindow") final String coalesceWindowStr,
+            @PluginAttribute("maxEmails") final String maxEmailsStr,
+            @PluginAttribute("rateInterval") final String rateIntervalStr,
             @PluginElement("Layout") Layout<? extends Serializable> layout,
             @PluginElement("Filter") Filter filter,
             @PluginAttribute("ignoreExceptions") final String ignore) {
@@ -130,6 +150,11 @@ public final class SMTPAppender extends AbstractAppender {
         final int smtpPort = AbstractAppender.parseInt(smtpPortStr, 0);
         final boolean isSmtpDebug = Boolean.parseBoolean(smtpDebug);
         final int bufferSize = bufferSizeStr == null ? DEFAULT_BUFFER_SIZE : Integer.parseInt(bufferSizeStr);
+        final boolean isAsync = Boolean.parseBoolean(asyncStr);
+        final long coalesceWindow = coalesceWindowStr == null ? DEFAULT_COALESCE_WINDOW :
+            Long.parseLong(coalesceWindowStr);
+        final int maxEmails = AbstractAppender.parseInt(maxEmailsStr, 0);
+        final long rateInterval = rateIntervalStr == null ? DEFAULT_RATE_INTERVAL : Long.parseLong(rateIntervalStr);
 
         if (layout == null) {
             layout = HTMLLayout.createLayout(null, null, null, null, null, null);
@@ -139,7 +164,8 @@ public final class SMTPAppender extends AbstractAppender {
         }
 
         final SMTPManager manager = SMTPManager.getSMTPManager(to, cc, bcc, from, replyTo, subject, smtpProtocol,
-            smtpHost, smtpPort, smtpUsername, smtpPassword, isSmtpDebug, filter.toString(),  bufferSize);
+            smtpHost, smtpPort, smtpUsername, smtpPassword, isSmtpDebug, filter.toString(),  bufferSize, isAsync,
+            coalesceWindow, maxEmails, rateInterval);
         if (manager == null) {
             return null;
         }
@@ -147,6 +173,20 @@ public final class SMTPAppender extends AbstractAppender {
         return new SMTPAppender(name, filter, layout, manager, ignoreExceptions);
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        manager.release();
+    }
+
+    /**
+     * Returns the SMTPManager.
+     * @return The SMTPManager.
+     */
+    public SMTPManager getManager() {
+        return manager;
+    }
+
     /**
      * Capture all events in CyclicBuffer.
      * @param event The Log event.
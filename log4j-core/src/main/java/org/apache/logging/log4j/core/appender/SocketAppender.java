@@ -22,6 +22,7 @@ import java.util.Map;
 
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
@@ -59,6 +60,29 @@ public class SocketAppender extends AbstractOutputStreamAppender {
         this.advertiser = advertiser;
     }
 
+    /**
+     * Writes the event onto the object stream of the connection when the manager streams serialized events,
+     * otherwise formats it with the Layout.
+     * @param event The LogEvent.
+     */
+    @Override
+    public void append(final LogEvent event) {
+        final OutputStreamManager manager = getManager();
+        if (!(manager instanceof TCPSocketManager) || !((TCPSocketManager) manager).isStreaming()) {
+            super.append(event);
+            return;
+        }
+        try {
+            ((TCPSocketManager) manager).writeEvent(event);
+            if (this.immediateFlush || event.isEndOfBatch()) {
+                manager.flush();
+            }
+        } catch (final AppenderLoggingException ex) {
+            error("Unable to write to stream " + manager.getName() + " for appender " + getName());
+            throw ex;
+        }
+    }
+
     @Override
     public void stop() {
         super.stop();
@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.appender.rewrite;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LogEvent;
@@ -26,13 +27,15 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.KeyValuePair;
-import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.OverlayLogEvent;
 import org.apache.logging.log4j.message.MapMessage;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
- * This policy modifies events by replacing or possibly adding keys and values to the MapMessage.
+ * This policy modifies events by replacing or possibly adding keys and values to the MapMessage. Events whose
+ * MapMessage already holds the values are returned unchanged, the others are wrapped in an OverlayLogEvent that only
+ * replaces the Message.
  */
 @Plugin(name = "MapRewritePolicy", category = "Core", elementType = "rewritePolicy", printObject = true)
 public final class MapRewritePolicy implements RewritePolicy {
@@ -63,7 +66,12 @@ public final class MapRewritePolicy implements RewritePolicy {
             return source;
         }
 
-        final Map<String, String> newMap = new HashMap<String, String>(((MapMessage) msg).getData());
+        final Map<String, String> data = ((MapMessage) msg).getData();
+        if (!isChanged(data)) {
+            return source;
+        }
+        // MapMessage keeps a SortedMap, creating it directly avoids a second copy.
+        final Map<String, String> newMap = new TreeMap<String, String>(data);
         switch (mode) {
             case Add: {
                 newMap.putAll(map);
@@ -78,15 +86,18 @@ public final class MapRewritePolicy implements RewritePolicy {
             }
         }
         final MapMessage message = ((MapMessage) msg).newInstance(newMap);
-        if (source instanceof Log4jLogEvent) {
-            Log4jLogEvent event = (Log4jLogEvent) source;
-            return Log4jLogEvent.createEvent(event.getLoggerName(), event.getMarker(), event.getFQCN(),
-                event.getLevel(), message, event.getThrownProxy(), event.getContextMap(), event.getContextStack(),
-                event.getThreadName(), event.getSource(), event.getMillis());
+        return new OverlayLogEvent(source, message, null);
+    }
+
+    private boolean isChanged(final Map<String, String> data) {
+        for (final Map.Entry<String, String> entry : map.entrySet()) {
+            final String value = data.get(entry.getKey());
+            if (value == null ? mode == Mode.Add || data.containsKey(entry.getKey())
+                : !value.equals(entry.getValue())) {
+                return true;
+            }
         }
-        return new Log4jLogEvent(source.getLoggerName(), source.getMarker(), source.getFQCN(), source.getLevel(),
-            message, source.getThrown(), source.getContextMap(), source.getContextStack(), source.getThreadName(),
-            source.getSource(), source.getMillis());
+        return false;
     }
 
     /**
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.appender.rewrite;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -29,11 +30,12 @@ import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
-import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.OverlayLogEvent;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
- * This policy modifies events by replacing or possibly adding keys and values to the MapMessage.
+ * This policy modifies events by replacing or possibly adding keys and values to the context Map. The events are
+ * wrapped in an OverlayLogEvent so the context Map of the event is not copied.
  */
 @Plugin(name = "PropertiesRewritePolicy", category = "Core", elementType = "rewritePolicy", printObject = true)
 public final class PropertiesRewritePolicy implements RewritePolicy {
@@ -46,6 +48,11 @@ public final class PropertiesRewritePolicy implements RewritePolicy {
 
     private final Configuration config;
 
+    /** The values of the properties that do not need to be interpolated, shared by all the events. */
+    private final Map<String, String> constants = new HashMap<String, String>();
+
+    private final List<Property> variables = new ArrayList<Property>();
+
     private PropertiesRewritePolicy(final Configuration config, final List<Property> props) {
         this.config = config;
         this.properties = new HashMap<Property, Boolean>(props.size());
@@ -53,6 +60,13 @@ public final class PropertiesRewritePolicy implements RewritePolicy {
             final Boolean interpolate = Boolean.valueOf(property.getValue().contains("${"));
             properties.put(property, interpolate);
         }
+        for (final Map.Entry<Property, Boolean> entry : properties.entrySet()) {
+            if (entry.getValue().booleanValue()) {
+                variables.add(entry.getKey());
+            } else {
+                constants.put(entry.getKey().getName(), entry.getKey().getValue());
+            }
+        }
     }
 
     /**
@@ -63,16 +77,14 @@ public final class PropertiesRewritePolicy implements RewritePolicy {
      */
     @Override
     public LogEvent rewrite(final LogEvent source) {
-        final Map<String, String> props = new HashMap<String, String>(source.getContextMap());
-        for (final Map.Entry<Property, Boolean> entry : properties.entrySet()) {
-            final Property prop = entry.getKey();
-            props.put(prop.getName(), entry.getValue().booleanValue() ?
-                config.getStrSubstitutor().replace(prop.getValue()) : prop.getValue());
+        Map<String, String> props = constants;
+        if (!variables.isEmpty()) {
+            props = new HashMap<String, String>(constants);
+            for (final Property prop : variables) {
+                props.put(prop.getName(), config.getStrSubstitutor().replace(prop.getValue()));
+            }
         }
-
-        return new Log4jLogEvent(source.getLoggerName(), source.getMarker(), source.getFQCN(), source.getLevel(),
-            source.getMessage(), source.getThrown(), props, source.getContextStack(), source.getThreadName(),
-            source.getSource(), source.getMillis());
+        return new OverlayLogEvent(source, null, props);
     }
 
     @Override
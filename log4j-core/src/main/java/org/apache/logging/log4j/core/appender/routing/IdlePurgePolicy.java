@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.routing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.helpers.Integers;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Purges the Appenders of the routes that have not been used for a given time. When a maximum number of Appenders is
+ * set the least recently used ones are also purged until that number is reached.
+ */
+@Plugin(name = "IdlePurgePolicy", category = "Core", elementType = "purgePolicy", printObject = true)
+public final class IdlePurgePolicy implements PurgePolicy {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final Comparator<Map.Entry<String, Long>> LEAST_RECENTLY_USED =
+        new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(final Map.Entry<String, Long> first, final Map.Entry<String, Long> second) {
+                return first.getValue().compareTo(second.getValue());
+            }
+        };
+
+    private final long timeToLive;
+    private final long checkInterval;
+    private final int maxAppenders;
+
+    private IdlePurgePolicy(final long timeToLive, final long checkInterval, final int maxAppenders) {
+        this.timeToLive = timeToLive;
+        this.checkInterval = checkInterval;
+        this.maxAppenders = maxAppenders;
+    }
+
+    @Override
+    public long getCheckInterval() {
+        return checkInterval;
+    }
+
+    @Override
+    public Collection<String> getPurgeableKeys(final Map<String, Long> lastAccess, final long now) {
+        final List<String> keys = new ArrayList<String>();
+        final List<Map.Entry<String, Long>> remaining = new ArrayList<Map.Entry<String, Long>>(lastAccess.size());
+        for (final Map.Entry<String, Long> entry : lastAccess.entrySet()) {
+            if (timeToLive > 0 && now - entry.getValue() >= timeToLive) {
+                keys.add(entry.getKey());
+            } else {
+                remaining.add(entry);
+            }
+        }
+        if (maxAppenders > 0 && remaining.size() > maxAppenders) {
+            Collections.sort(remaining, LEAST_RECENTLY_USED);
+            for (int i = 0; i < remaining.size() - maxAppenders; ++i) {
+                keys.add(remaining.get(i).getKey());
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        return "timeToLive=" + timeToLive + ", checkInterval=" + checkInterval + ", maxAppenders=" + maxAppenders;
+    }
+
+    /**
+     * Create the IdlePurgePolicy.
+     * @param timeToLive The time after which an unused Appender is purged, zero to only purge on size.
+     * @param checkInterval The time between two checks, defaults to the time to live.
+     * @param timeUnit The unit of the times, defaults to minutes.
+     * @param maxAppenders The maximum number of Appenders to keep, zero (the default) for no limit.
+     * @return The IdlePurgePolicy.
+     */
+    @PluginFactory
+    public static IdlePurgePolicy createPurgePolicy(
+            @PluginAttribute("timeToLive") final String timeToLive,
+            @PluginAttribute("checkInterval") final String checkInterval,
+            @PluginAttribute("timeUnit") final String timeUnit,
+            @PluginAttribute("maxAppenders") final String maxAppenders) {
+        TimeUnit unit = TimeUnit.MINUTES;
+        if (timeUnit != null) {
+            try {
+                unit = TimeUnit.valueOf(timeUnit.trim().toUpperCase(Locale.ENGLISH));
+            } catch (final IllegalArgumentException ex) {
+                LOGGER.error("Invalid time unit {}, using {}", timeUnit, unit);
+            }
+        }
+        final long ttl = unit.toMillis(Integers.parseInt(timeToLive, 0));
+        final int max = Integers.parseInt(maxAppenders, 0);
+        if (ttl <= 0 && max <= 0) {
+            LOGGER.error("A timeToLive or maxAppenders is required for the IdlePurgePolicy");
+            return null;
+        }
+        long interval = unit.toMillis(Integers.parseInt(checkInterval, 0));
+        if (interval <= 0) {
+            interval = ttl > 0 ? ttl : unit.toMillis(1);
+        }
+        return new IdlePurgePolicy(ttl, interval, max);
+    }
+}
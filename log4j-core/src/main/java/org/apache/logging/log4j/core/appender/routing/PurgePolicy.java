@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.routing;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Decides which of the Appenders a RoutingAppender created for its routes should be stopped and discarded. Appenders
+ * referenced by a route are never purged.
+ */
+public interface PurgePolicy {
+
+    /**
+     * Returns the number of milliseconds between two checks.
+     * @return The check interval in milliseconds.
+     */
+    long getCheckInterval();
+
+    /**
+     * Returns the keys of the routes whose Appenders should be purged.
+     * @param lastAccess The time in milliseconds at which each route was last used, by key.
+     * @param now The current time in milliseconds.
+     * @return The keys of the routes to purge.
+     */
+    Collection<String> getPurgeableKeys(Map<String, Long> lastAccess, long now);
+}
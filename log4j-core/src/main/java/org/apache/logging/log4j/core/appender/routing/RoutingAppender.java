@@ -16,6 +16,9 @@
  */
 package org.apache.logging.log4j.core.appender.routing;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -27,6 +30,7 @@ import org.apache.logging.log4j.core.appender.AbstractAppender;
 import org.apache.logging.log4j.core.appender.rewrite.RewritePolicy;
 import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationBound;
 import org.apache.logging.log4j.core.config.Node;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
@@ -41,24 +45,36 @@ import org.apache.logging.log4j.core.helpers.Booleans;
  * within this Appender as required. Routing is achieved by specifying a pattern on
  * the Routing appender declaration. The pattern should contain one or more substitution patterns of
  * the form "$${[key:]token}". The pattern will be resolved each time the Appender is called using
- * the built in StrSubstitutor and the StrLookup plugin that matches the specified key.
+ * the built in StrSubstitutor and the StrLookup plugin that matches the specified key. A pattern that
+ * only consists of a ThreadContext key, such as "$${ctx:tenant}", is resolved directly from the event.
+ * <p>
+ * Appenders created for a route are kept until the Appender is stopped unless a PurgePolicy is configured.
+ * </p>
  */
 @Plugin(name = "Routing", category = "Core", elementType = "appender", printObject = true)
-public final class RoutingAppender extends AbstractAppender {
+public final class RoutingAppender extends AbstractAppender implements ConfigurationBound {
     private static final String DEFAULT_KEY = "ROUTING_APPENDER_DEFAULT";
+    private static final String CONTEXT_VARIABLE_START = "${ctx:";
+    private static final String VARIABLE_END = "}";
     private final Routes routes;
     private final Route defaultRoute;
+    private final Map<String, Route> dynamicRoutes = new HashMap<String, Route>();
+    private final String contextKey;
     private final Configuration config;
-    private final ConcurrentMap<String, AppenderControl> appenders =
-            new ConcurrentHashMap<String, AppenderControl>();
+    private final ConcurrentMap<String, RoutedAppender> appenders =
+            new ConcurrentHashMap<String, RoutedAppender>();
     private final RewritePolicy rewritePolicy;
+    private final PurgePolicy purgePolicy;
+    private PurgeThread purgeThread;
 
     private RoutingAppender(final String name, final Filter filter, final boolean ignoreExceptions, final Routes routes,
-                            final RewritePolicy rewritePolicy, final Configuration config) {
+                            final RewritePolicy rewritePolicy, final PurgePolicy purgePolicy,
+                            final Configuration config) {
         super(name, filter, null, ignoreExceptions);
         this.routes = routes;
         this.config = config;
         this.rewritePolicy = rewritePolicy;
+        this.purgePolicy = purgePolicy;
         Route defRoute = null;
         for (final Route route : routes.getRoutes()) {
             if (route.getKey() == null) {
@@ -67,9 +83,29 @@ public final class RoutingAppender extends AbstractAppender {
                 } else {
                     error("Multiple default routes. Route " + route.toString() + " will be ignored");
                 }
+            } else if (route.getAppenderRef() == null && !dynamicRoutes.containsKey(route.getKey())) {
+                dynamicRoutes.put(route.getKey(), route);
             }
         }
         defaultRoute = defRoute;
+        contextKey = getContextKey(routes.getPattern());
+    }
+
+    /**
+     * Returns the ThreadContext key if the pattern is a single "${ctx:key}" variable without a default value.
+     */
+    private static String getContextKey(final String pattern) {
+        if (pattern == null || !pattern.startsWith(CONTEXT_VARIABLE_START) || !pattern.endsWith(VARIABLE_END)) {
+            return null;
+        }
+        final String key = pattern.substring(CONTEXT_VARIABLE_START.length(), pattern.length() - 1);
+        for (int i = 0; i < key.length(); ++i) {
+            final char c = key.charAt(i);
+            if (c == '$' || c == '{' || c == '}' || c == ':') {
+                return null;
+            }
+        }
+        return key.length() > 0 ? key : null;
     }
 
     @Override
@@ -81,23 +117,38 @@ public final class RoutingAppender extends AbstractAppender {
                 final Appender appender = map.get(route.getAppenderRef());
                 if (appender != null) {
                     final String key = route == defaultRoute ? DEFAULT_KEY : route.getKey();
-                    appenders.put(key, new AppenderControl(appender, null, null));
+                    appenders.put(key, new RoutedAppender(new AppenderControl(appender, null, null), false));
                 } else {
                     LOGGER.error("Appender " + route.getAppenderRef() + " cannot be located. Route ignored");
                 }
             }
         }
+        if (purgePolicy != null) {
+            purgeThread = new PurgeThread();
+            purgeThread.start();
+        }
         super.start();
     }
 
     @Override
     public void stop() {
         super.stop();
+        if (purgeThread != null) {
+            purgeThread.shutdown();
+            try {
+                purgeThread.join();
+            } catch (final InterruptedException ex) {
+                LOGGER.warn("Interrupted while stopping the purge thread of RoutingAppender {}", getName());
+            }
+            for (final RoutedAppender retired : purgeThread.retired) {
+                retired.control.getAppender().stop();
+            }
+        }
         final Map<String, Appender> map = config.getAppenders();
-        for (final Map.Entry<String, AppenderControl> entry : appenders.entrySet()) {
-            final String name = entry.getValue().getAppender().getName();
-            if (!map.containsKey(name)) {
-                entry.getValue().getAppender().stop();
+        for (final Map.Entry<String, RoutedAppender> entry : appenders.entrySet()) {
+            final Appender appender = entry.getValue().control.getAppender();
+            if (!map.containsKey(appender.getName())) {
+                appender.stop();
             }
         }
     }
@@ -107,42 +158,57 @@ public final class RoutingAppender extends AbstractAppender {
         if (rewritePolicy != null) {
             event = rewritePolicy.rewrite(event);
         }
-        final String key = config.getStrSubstitutor().replace(event, routes.getPattern());
-        final AppenderControl control = getControl(key, event);
-        if (control != null) {
-            control.callAppender(event);
+        final RoutedAppender routed = getControl(getKey(event), event);
+        if (routed != null) {
+            if (purgePolicy != null) {
+                routed.access();
+            }
+            routed.control.callAppender(event);
         }
     }
 
-    private synchronized AppenderControl getControl(final String key, final LogEvent event) {
-        AppenderControl control = appenders.get(key);
-        if (control != null) {
-            return control;
-        }
-        Route route = null;
-        for (final Route r : routes.getRoutes()) {
-            if (r.getAppenderRef() == null && key.equals(r.getKey())) {
-                route = r;
-                break;
+    private String getKey(final LogEvent event) {
+        if (contextKey != null) {
+            final String value = event.getContextMap().get(contextKey);
+            // Missing values fall back to the default lookup and values holding variables are substituted again.
+            if (value != null && value.indexOf('$') < 0) {
+                return value;
             }
         }
+        return config.getStrSubstitutor().replace(event, routes.getPattern());
+    }
+
+    private RoutedAppender getControl(final String key, final LogEvent event) {
+        final RoutedAppender routed = appenders.get(key);
+        if (routed != null) {
+            return routed;
+        }
+        Route route = dynamicRoutes.get(key);
         if (route == null) {
-            route = defaultRoute;
-            control = appenders.get(DEFAULT_KEY);
-            if (control != null) {
-                return control;
+            final RoutedAppender defaultAppender = appenders.get(DEFAULT_KEY);
+            if (defaultAppender != null) {
+                return defaultAppender;
             }
-        }
-        if (route != null) {
-            final Appender app = createAppender(route, event);
-            if (app == null) {
+            route = defaultRoute;
+            if (route == null) {
                 return null;
             }
-            control = new AppenderControl(app, null, null);
-            appenders.put(key, control);
         }
+        return createControl(key, route, event);
+    }
 
-        return control;
+    private synchronized RoutedAppender createControl(final String key, final Route route, final LogEvent event) {
+        RoutedAppender routed = appenders.get(key);
+        if (routed != null) {
+            return routed;
+        }
+        final Appender app = createAppender(route, event);
+        if (app == null) {
+            return null;
+        }
+        routed = new RoutedAppender(new AppenderControl(app, null, null), true);
+        appenders.put(key, routed);
+        return routed;
     }
 
     private Appender createAppender(final Route route, final LogEvent event) {
@@ -164,6 +230,43 @@ public final class RoutingAppender extends AbstractAppender {
         return null;
     }
 
+    /**
+     * Removes the Appenders selected by the PurgePolicy. They are stopped on the next check so that events that were
+     * being routed to them while they were removed can complete.
+     * @param retired The Appenders removed by the previous check, replaced by the ones removed now.
+     */
+    private void purge(final List<RoutedAppender> retired) {
+        for (final RoutedAppender routed : retired) {
+            LOGGER.debug("Stopping idle Appender {} of RoutingAppender {}", routed.control.getAppender().getName(),
+                getName());
+            routed.control.getAppender().stop();
+        }
+        retired.clear();
+        final Map<String, Long> lastAccess = new HashMap<String, Long>();
+        for (final Map.Entry<String, RoutedAppender> entry : appenders.entrySet()) {
+            if (entry.getValue().created) {
+                lastAccess.put(entry.getKey(), Long.valueOf(entry.getValue().lastAccess));
+            }
+        }
+        if (lastAccess.isEmpty()) {
+            return;
+        }
+        for (final String key : purgePolicy.getPurgeableKeys(lastAccess, System.currentTimeMillis())) {
+            final RoutedAppender routed = appenders.get(key);
+            if (routed != null && routed.created && appenders.remove(key, routed)) {
+                retired.add(routed);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of Appenders currently used by the routes, including the referenced ones.
+     * @return The number of Appenders.
+     */
+    public int getAppenderCount() {
+        return appenders.size();
+    }
+
     /**
      * Create a RoutingAppender.
      * @param name The name of the Appender.
@@ -172,6 +275,7 @@ public final class RoutingAppender extends AbstractAppender {
      * @param routes The routing definitions.
      * @param config The Configuration (automatically added by the Configuration).
      * @param rewritePolicy A RewritePolicy, if any.
+     * @param purgePolicy A PurgePolicy that discards unused Appenders, if any.
      * @param filter A Filter to restrict events processed by the Appender or null.
      * @return The RoutingAppender
      */
@@ -182,6 +286,7 @@ public final class RoutingAppender extends AbstractAppender {
             @PluginElement("Routes") final Routes routes,
             @PluginConfiguration final Configuration config,
             @PluginElement("RewritePolicy") final RewritePolicy rewritePolicy,
+            @PluginElement("PurgePolicy") final PurgePolicy purgePolicy,
             @PluginElement("Filters") final Filter filter) {
 
         final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
@@ -193,6 +298,64 @@ public final class RoutingAppender extends AbstractAppender {
             LOGGER.error("No routes defined for RoutingAppender");
             return null;
         }
-        return new RoutingAppender(name, filter, ignoreExceptions, routes, rewritePolicy, config);
+        return new RoutingAppender(name, filter, ignoreExceptions, routes, rewritePolicy, purgePolicy, config);
+    }
+
+    /**
+     * An Appender used by a route with the time it was last used.
+     */
+    private static final class RoutedAppender {
+        private final AppenderControl control;
+        private final boolean created;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        RoutedAppender(final AppenderControl control, final boolean created) {
+            this.control = control;
+            this.created = created;
+        }
+
+        void access() {
+            final long now = System.currentTimeMillis();
+            // Avoid writing the shared field again for every event logged within the same millisecond.
+            if (lastAccess != now) {
+                lastAccess = now;
+            }
+        }
+    }
+
+    /**
+     * Thread that periodically applies the PurgePolicy.
+     */
+    private class PurgeThread extends Thread {
+
+        private volatile boolean shutdown = false;
+        private final List<RoutedAppender> retired = new ArrayList<RoutedAppender>();
+
+        public PurgeThread() {
+            setDaemon(true);
+            setName("RoutingAppenderPurge-" + RoutingAppender.this.getName());
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                try {
+                    Thread.sleep(purgePolicy.getCheckInterval());
+                } catch (final InterruptedException ex) {
+                    break;
+                }
+                try {
+                    purge(retired);
+                } catch (final RuntimeException ex) {
+                    LOGGER.error("Unable to purge the Appenders of RoutingAppender {}", RoutingAppender.this.getName(),
+                        ex);
+                }
+            }
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            interrupt();
+        }
     }
 }
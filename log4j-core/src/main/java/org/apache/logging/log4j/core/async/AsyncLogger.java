@@ -29,6 +29,7 @@ import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.helpers.Clock;
 import org.apache.logging.log4j.core.helpers.ClockFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.status.StatusLogger;
@@ -240,6 +241,28 @@ public class AsyncLogger extends Logger {
         config.logEvent(event);
     }
 
+    /**
+     * Creates the MBean that monitors the ring buffer shared by all AsyncLoggers.
+     *
+     * @param contextName name of the context the MBean is registered for
+     * @return a new RingBufferAdmin
+     */
+    public static RingBufferAdmin createRingBufferAdmin(final String contextName) {
+        return new RingBufferAdmin(contextName, null) {
+            @Override
+            public long getBufferSize() {
+                final Disruptor<RingBufferLogEvent> temp = disruptor;
+                return temp == null ? 0 : temp.getRingBuffer().getBufferSize();
+            }
+
+            @Override
+            public long getRemainingCapacity() {
+                final Disruptor<RingBufferLogEvent> temp = disruptor;
+                return temp == null ? 0 : temp.getRingBuffer().remainingCapacity();
+            }
+        };
+    }
+
     public static void stop() {
         final Disruptor<RingBufferLogEvent> temp = disruptor;
 
@@ -34,6 +34,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.Booleans;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -132,6 +133,16 @@ public class AsyncLoggerConfig extends LoggerConfig {
         super.stopFilter();
     }
 
+    /**
+     * Creates the MBean that monitors the ring buffer of this AsyncLoggerConfig.
+     *
+     * @param contextName name of the context the MBean is registered for
+     * @return a new RingBufferAdmin
+     */
+    public RingBufferAdmin createRingBufferAdmin(final String contextName) {
+        return helper.createRingBufferAdmin(contextName, getName());
+    }
+
     /**
      * Factory method to create a LoggerConfig.
      *
@@ -22,6 +22,7 @@ import java.util.concurrent.ThreadFactory;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
 import org.apache.logging.log4j.status.StatusLogger;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
@@ -278,6 +279,29 @@ class AsyncLoggerConfigHelper {
         executor = null; // release reference to allow GC
     }
 
+    /**
+     * Creates the MBean that monitors the ring buffer shared by all AsyncLoggerConfigs.
+     *
+     * @param contextName name of the context the MBean is registered for
+     * @param loggerConfigName name of the AsyncLoggerConfig the MBean is registered for
+     * @return a new RingBufferAdmin
+     */
+    public RingBufferAdmin createRingBufferAdmin(final String contextName, final String loggerConfigName) {
+        return new RingBufferAdmin(contextName, loggerConfigName) {
+            @Override
+            public long getBufferSize() {
+                final Disruptor<Log4jEventWrapper> temp = disruptor;
+                return temp == null ? 0 : temp.getRingBuffer().getBufferSize();
+            }
+
+            @Override
+            public long getRemainingCapacity() {
+                final Disruptor<Log4jEventWrapper> temp = disruptor;
+                return temp == null ? 0 : temp.getRingBuffer().remainingCapacity();
+            }
+        };
+    }
+
     public void callAppendersFromAnotherThread(final LogEvent event) {
         currentLogEvent.set(event);
         disruptor.publishEvent(translator);
@@ -22,6 +22,7 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
+import org.apache.logging.log4j.core.filter.FilterPlan;
 import org.apache.logging.log4j.core.filter.Filterable;
 
 /**
@@ -37,6 +38,10 @@ public class AppenderControl extends AbstractFilterable {
 
     private final int intLevel;
 
+    private final AppenderMetrics metrics;
+
+    private volatile Reduction reduction;
+
     /**
      * Constructor.
      * @param appender The target Appender.
@@ -48,6 +53,7 @@ public class AppenderControl extends AbstractFilterable {
         this.appender = appender;
         this.level = level;
         this.intLevel = level == null ? Level.ALL.intLevel() : level.intLevel();
+        this.metrics = AppenderMetrics.getMetrics(appender);
         startFilter();
     }
 
@@ -59,23 +65,45 @@ public class AppenderControl extends AbstractFilterable {
         return appender;
     }
 
+    /**
+     * Returns the metrics of the Appender, which are shared with every other AppenderControl of the Appender.
+     * @return The AppenderMetrics.
+     */
+    public AppenderMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Call the appender.
      * @param event The event to process.
      */
     public void callAppender(final LogEvent event) {
-        if (getFilter() != null) {
-            final Filter.Result r = getFilter().filter(event);
+        callAppender(event, null);
+    }
+
+    /**
+     * Call the appender for an event that the given Filter did not deny. Filters of this AppenderControl that are
+     * equivalent to Filters already evaluated by that Filter are skipped.
+     * @param event The event to process.
+     * @param passed The Filter that did not deny the event, or null.
+     */
+    public void callAppender(final LogEvent event, final Filter passed) {
+        final Filter filter = getFilter(passed);
+        if (filter != null) {
+            final Filter.Result r = filter.filter(event);
             if (r == Filter.Result.DENY) {
+                metrics.filtered();
                 return;
             }
         }
         if (level != null) {
             if (intLevel < event.getLevel().intLevel()) {
+                metrics.filtered();
                 return;
             }
         }
         if (recursive.get() != null) {
+            metrics.failed();
             appender.getHandler().error("Recursive call to appender " + appender.getName());
             return;
         }
@@ -92,17 +120,22 @@ public class AppenderControl extends AbstractFilterable {
             }
 
             if (appender instanceof Filterable && ((Filterable) appender).isFiltered(event)) {
+                metrics.filtered();
                 return;
             }
 
+            final long start = System.nanoTime();
             try {
                 appender.append(event);
+                metrics.appended(System.nanoTime() - start);
             } catch (final RuntimeException ex) {
+                metrics.failed(System.nanoTime() - start);
                 appender.getHandler().error("An exception occurred processing Appender " + appender.getName(), ex);
                 if (!appender.ignoreExceptions()) {
                     throw ex;
                 }
             } catch (final Exception ex) {
+                metrics.failed(System.nanoTime() - start);
                 appender.getHandler().error("An exception occurred processing Appender " + appender.getName(), ex);
                 if (!appender.ignoreExceptions()) {
                     throw new AppenderLoggingException(ex);
@@ -113,4 +146,31 @@ public class AppenderControl extends AbstractFilterable {
         }
     }
 
+    private Filter getFilter(final Filter passed) {
+        final Filter filter = getFilter();
+        if (filter == null || passed == null) {
+            return filter;
+        }
+        Reduction r = reduction;
+        if (r == null || r.filter != filter || r.passed != passed) {
+            r = new Reduction(filter, passed, FilterPlan.reduce(filter, passed));
+            reduction = r;
+        }
+        return r.reduced;
+    }
+
+    /**
+     * The Filter of this AppenderControl without the Filters another Filter has already evaluated.
+     */
+    private static final class Reduction {
+        private final Filter filter;
+        private final Filter passed;
+        private final Filter reduced;
+
+        public Reduction(final Filter filter, final Filter passed, final Filter reduced) {
+            this.filter = filter;
+            this.passed = passed;
+            this.reduced = reduced;
+        }
+    }
 }
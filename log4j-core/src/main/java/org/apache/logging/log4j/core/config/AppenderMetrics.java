@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.helpers.LatencyHistogram;
+import org.apache.logging.log4j.core.helpers.StripedCounter;
+
+/**
+ * Counts the events passed to an {@link Appender} and how long the Appender took to append them. The
+ * AppenderControls wrapping an Appender, whether they belong to a LoggerConfig or to another Appender such as the
+ * AsyncAppender, all update the same AppenderMetrics.
+ */
+public final class AppenderMetrics {
+
+    private static final Map<Appender, AppenderMetrics> METRICS = new WeakHashMap<Appender, AppenderMetrics>();
+
+    private final StripedCounter appended = new StripedCounter();
+    private final StripedCounter filtered = new StripedCounter();
+    private final StripedCounter failed = new StripedCounter();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private AppenderMetrics() {
+    }
+
+    /**
+     * Returns the metrics of an Appender. The metrics are discarded once the Appender is no longer referenced.
+     * @param appender The Appender.
+     * @return The AppenderMetrics of the Appender.
+     */
+    public static AppenderMetrics getMetrics(final Appender appender) {
+        synchronized (METRICS) {
+            AppenderMetrics metrics = METRICS.get(appender);
+            if (metrics == null) {
+                metrics = new AppenderMetrics();
+                METRICS.put(appender, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Records an event the Appender appended.
+     * @param duration The time taken by the Appender, in nanoseconds.
+     */
+    void appended(final long duration) {
+        appended.increment();
+        latency.record(duration);
+    }
+
+    /**
+     * Records an event that was not passed to the Appender because of a Filter or Level.
+     */
+    void filtered() {
+        filtered.increment();
+    }
+
+    /**
+     * Records an event that could not be passed to the Appender.
+     */
+    void failed() {
+        failed.increment();
+    }
+
+    /**
+     * Records an event the Appender failed to append.
+     * @param duration The time taken by the Appender before failing, in nanoseconds.
+     */
+    void failed(final long duration) {
+        failed.increment();
+        latency.record(duration);
+    }
+
+    /**
+     * Returns the number of events the Appender appended.
+     * @return The number of events appended.
+     */
+    public long getAppendedCount() {
+        return appended.get();
+    }
+
+    /**
+     * Returns the number of events that were not passed to the Appender because of a Filter or Level.
+     * @return The number of events filtered.
+     */
+    public long getFilteredCount() {
+        return filtered.get();
+    }
+
+    /**
+     * Returns the number of events the Appender failed to append, whether or not the exception was ignored.
+     * @return The number of failures.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Returns the durations of the calls to {@link Appender#append}, including those that failed.
+     * @return The LatencyHistogram.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "appended=" + appended + ", filtered=" + filtered + ", failed=" + failed + ", latency=[" + latency +
+            ']';
+    }
+}
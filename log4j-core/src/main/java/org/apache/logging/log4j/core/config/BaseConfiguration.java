@@ -17,15 +17,16 @@
 package org.apache.logging.log4j.core.config;
 
 import java.io.Serializable;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -37,18 +38,13 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.ConsoleAppender;
-import org.apache.logging.log4j.core.config.plugins.PluginAliases;
-import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
-import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
-import org.apache.logging.log4j.core.config.plugins.PluginElement;
-import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.config.plugins.PluginManager;
-import org.apache.logging.log4j.core.config.plugins.PluginNode;
+import org.apache.logging.log4j.core.config.plugins.PluginParameter;
 import org.apache.logging.log4j.core.config.plugins.PluginType;
-import org.apache.logging.log4j.core.config.plugins.PluginValue;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.Filterable;
 import org.apache.logging.log4j.core.helpers.Constants;
-import org.apache.logging.log4j.core.helpers.NameUtil;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.lookup.Interpolator;
 import org.apache.logging.log4j.core.lookup.MapLookup;
@@ -105,6 +101,8 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
 
     private ConcurrentMap<String, LoggerConfig> loggers = new ConcurrentHashMap<String, LoggerConfig>();
 
+    private volatile LoggerConfigIndex loggerIndex = new LoggerConfigIndex(loggers);
+
     private final StrLookup tempLookup = new Interpolator();
 
     private final StrSubstitutor subst = new StrSubstitutor(tempLookup);
@@ -117,6 +115,18 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
 
     protected PluginManager pluginManager;
 
+    /**
+     * Copies of the Appender Nodes as they were defined, with their variables substituted, each holding the
+     * Appender created from it.
+     */
+    private List<Node> appenderDefinitions = Collections.emptyList();
+
+    private Node propertiesDefinition;
+
+    private BaseConfiguration previous;
+
+    private final Set<String> reusedAppenders = new HashSet<String>();
+
     /**
      * Constructor.
      */
@@ -140,6 +150,10 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
         setup();
         setupAdvertisement();
         doConfigure();
+        if (previous != null) {
+            previous.releaseAppenders(reusedAppenders);
+            previous = null;
+        }
         for (final LoggerConfig logger : loggers.values()) {
             logger.startFilter();
         }
@@ -172,6 +186,35 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
         }
     }
 
+    /**
+     * Allows this Configuration, before it is started, to take over the Appenders of the Configuration it replaces
+     * whose definitions have not changed, along with their Layouts, Filters and managers. Appenders that are, or
+     * whose Layout or Filters are, {@link ConfigurationBound} are always recreated, as are all Appenders when the
+     * Properties have changed. Loggers and the Configuration's own Filters are always recreated; unlike Appenders
+     * they hold no resources, so only the Appenders are compared.
+     * @param previous The Configuration being replaced.
+     */
+    public void setPreviousConfiguration(final BaseConfiguration previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Returns the names of the Appenders taken over from the previous Configuration.
+     * @return The names of the reused Appenders.
+     */
+    public Set<String> getReusedAppenders() {
+        return Collections.unmodifiableSet(reusedAppenders);
+    }
+
+    /**
+     * Removes Appenders now owned by the replacing Configuration so they are not stopped along with this one.
+     */
+    private synchronized void releaseAppenders(final Set<String> names) {
+        for (final String appenderName : names) {
+            appenders.remove(appenderName);
+        }
+    }
+
     @Override
     public boolean isShutdownHookEnabled() {
         return isShutdownHookEnabled;
@@ -241,7 +284,18 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
         boolean setRoot = false;
         boolean setLoggers = false;
         for (final Node child : rootNode.getChildren()) {
+            final boolean isAppenders = child.getName().equalsIgnoreCase("Appenders");
+            final List<Node> definitions = isAppenders ? copyChildren(child) : null;
+            if (child.getName().equalsIgnoreCase("Properties")) {
+                propertiesDefinition = substitute(child);
+            }
             createConfiguration(child, null);
+            if (isAppenders) {
+                for (int i = 0; i < definitions.size(); ++i) {
+                    definitions.get(i).setObject(child.getChildren().get(i).getObject());
+                }
+                appenderDefinitions = definitions;
+            }
             if (child.getObject() == null) {
                 continue;
             }
@@ -428,7 +482,7 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
             nlc.setParent(lc);
             loggers.putIfAbsent(name, nlc);
             setParents();
-            logger.getContext().updateLoggers();
+            logger.getContext().updateLoggers(name);
         }
     }
     /**
@@ -453,7 +507,7 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
             nlc.setParent(lc);
             loggers.putIfAbsent(name, nlc);
             setParents();
-            logger.getContext().updateLoggers();
+            logger.getContext().updateLoggers(name);
         }
     }
     /**
@@ -477,7 +531,7 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
             nlc.setParent(lc);
             loggers.putIfAbsent(name, nlc);
             setParents();
-            logger.getContext().updateLoggers();
+            logger.getContext().updateLoggers(name);
         }
     }
 
@@ -506,16 +560,8 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
      */
     @Override
     public LoggerConfig getLoggerConfig(final String name) {
-        if (loggers.containsKey(name)) {
-            return loggers.get(name);
-        }
-        String substr = name;
-        while ((substr = NameUtil.getSubName(substr)) != null) {
-            if (loggers.containsKey(substr)) {
-                return loggers.get(substr);
-            }
-        }
-        return root;
+        final LoggerConfig loggerConfig = loggerIndex.get(name);
+        return loggerConfig != null ? loggerConfig : root;
     }
 
     /**
@@ -579,6 +625,16 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
 
     @Override
     public void createConfiguration(final Node node, final LogEvent event) {
+        if (previous != null && event == null && node.getParent() != null &&
+            "Appenders".equalsIgnoreCase(node.getParent().getName())) {
+            final Appender appender = previous.getReusableAppender(substitute(node), propertiesDefinition);
+            if (appender != null) {
+                LOGGER.debug("Reusing unchanged appender {}", appender.getName());
+                reusedAppenders.add(appender.getName());
+                node.setObject(appender);
+                return;
+            }
+        }
         final PluginType<?> type = node.getType();
         if (type != null && type.isDeferChildren()) {
             node.setObject(createPluginObject(type, node, event));
@@ -644,20 +700,13 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
             }
         }
 
-        Method factoryMethod = null;
-
-        for (final Method method : clazz.getMethods()) {
-            if (method.isAnnotationPresent(PluginFactory.class)) {
-                factoryMethod = method;
-                break;
-            }
-        }
+        final Method factoryMethod = type.getFactoryMethod();
         if (factoryMethod == null) {
             return null;
         }
 
-        final Annotation[][] parmArray = factoryMethod.getParameterAnnotations();
-        final Class<?>[] parmClasses = factoryMethod.getParameterTypes();
+        final PluginParameter[] parmArray = type.getFactoryParameters();
+        final Class<?>[] parmClasses = type.getFactoryParameterTypes();
         if (parmArray.length != parmClasses.length) {
             LOGGER.error("Number of parameter annotations does not equal the number of paramters");
         }
@@ -679,113 +728,59 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
          *     Store the array into the parameter array.
          *   If not an array, store the object in the child node into the parameter array.
          */
-        for (final Annotation[] parmTypes : parmArray) {
-            String[] aliases = null;
-            for (final Annotation a: parmTypes) {
-                if (a instanceof PluginAliases) {
-                    aliases = ((PluginAliases) a).value();
-                }
+        for (final PluginParameter parm : parmArray) {
+            final PluginParameter.Kind kind = parm.getKind();
+            if (kind == PluginParameter.Kind.NONE) {
+                ++index;
+                continue;
             }
-            for (final Annotation a : parmTypes) {
-                if (a instanceof PluginAliases) {
-                    continue;
-                }
-                if (sb.length() == 0) {
-                    sb.append(" with params(");
+            if (sb.length() == 0) {
+                sb.append(" with params(");
+            } else {
+                sb.append(", ");
+            }
+            final String name = parm.getName();
+            if (kind == PluginParameter.Kind.NODE) {
+                parms[index] = node;
+                sb.append("Node=").append(node.getName());
+            } else if (kind == PluginParameter.Kind.CONFIGURATION) {
+                parms[index] = this;
+                if (this.name != null) {
+                    sb.append("Configuration(").append(this.name).append(")");
                 } else {
-                    sb.append(", ");
+                    sb.append("Configuration");
                 }
-                if (a instanceof PluginNode) {
-                    parms[index] = node;
-                    sb.append("Node=").append(node.getName());
-                } else if (a instanceof PluginConfiguration) {
-                    parms[index] = this;
-                    if (this.name != null) {
-                        sb.append("Configuration(").append(name).append(")");
-                    } else {
-                        sb.append("Configuration");
-                    }
-                } else if (a instanceof PluginValue) {
-                    final String name = ((PluginValue) a).value();
-                    String v = node.getValue();
-                    if (v == null) {
-                        v = getAttrValue("value", null, attrs);
-                    }
-                    final String value = subst.replace(event, v);
-                    sb.append(name).append("=\"").append(value).append("\"");
-                    parms[index] = value;
-                } else if (a instanceof PluginAttribute) {
-                    PluginAttribute attr = (PluginAttribute) a;
-                    final String name = attr.value();
-                    final String value = subst.replace(event, getAttrValue(name, aliases, attrs));
-                    sb.append(name).append("=\"").append(value).append("\"");
-                    parms[index] = value;
-                } else if (a instanceof PluginElement) {
-                    final PluginElement elem = (PluginElement) a;
-                    final String name = elem.value();
-                    if (parmClasses[index].isArray()) {
-                        final Class<?> parmClass = parmClasses[index].getComponentType();
-                        final List<Object> list = new ArrayList<Object>();
-                        sb.append(name).append("={");
-                        boolean first = true;
-                        for (final Node child : children) {
-                            final PluginType<?> childType = child.getType();
-                            if (elem.value().equalsIgnoreCase(childType.getElementName()) ||
-                                parmClass.isAssignableFrom(childType.getPluginClass())) {
-                                used.add(child);
-                                if (!first) {
-                                    sb.append(", ");
-                                }
-                                first = false;
-                                final Object obj = child.getObject();
-                                if (obj == null) {
-                                    LOGGER.error("Null object returned for " + child.getName() + " in " +
-                                        node.getName());
-                                    continue;
-                                }
-                                if (obj.getClass().isArray()) {
-                                    printArray(sb, (Object[]) obj);
-                                    parms[index] = obj;
-                                    break;
-                                }
-                                sb.append(child.toString());
-                                list.add(obj);
-                            }
-                        }
-                        sb.append("}");
-                        if (parms[index] != null) {
-                            break;
-                        }
-                        if (list.size() > 0 && !parmClass.isAssignableFrom(list.get(0).getClass())) {
-                            LOGGER.error("Attempted to assign List containing class " +
-                                list.get(0).getClass().getName() + " to array of type " + parmClass +
-                                " for attribute " + name);
+            } else if (kind == PluginParameter.Kind.VALUE) {
+                String v = node.getValue();
+                if (v == null) {
+                    v = getAttrValue("value", null, attrs);
+                }
+                final String value = subst.replace(event, v);
+                sb.append(name).append("=\"").append(value).append("\"");
+                parms[index] = value;
+            } else if (kind == PluginParameter.Kind.ATTRIBUTE) {
+                final String value = subst.replace(event, getAttrValue(name, parm.getAliases(), attrs));
+                sb.append(name).append("=\"").append(value).append("\"");
+                parms[index] = value;
+            } else if (kind == PluginParameter.Kind.ELEMENT) {
+                if (parmClasses[index].isArray()) {
+                    parms[index] = createElementArray(node, name, parmClasses[index].getComponentType(), used, sb);
+                } else {
+                    final Class<?> parmClass = parmClasses[index];
+                    boolean present = false;
+                    for (final Node child : children) {
+                        final PluginType<?> childType = child.getType();
+                        if (name.equals(childType.getElementName()) ||
+                            parmClass.isAssignableFrom(childType.getPluginClass())) {
+                            sb.append(child.getName()).append("(").append(child.toString()).append(")");
+                            present = true;
+                            used.add(child);
+                            parms[index] = child.getObject();
                             break;
                         }
-                        final Object[] array = (Object[]) Array.newInstance(parmClass, list.size());
-                        int i = 0;
-                        for (final Object obj : list) {
-                            array[i] = obj;
-                            ++i;
-                        }
-                        parms[index] = array;
-                    } else {
-                        final Class<?> parmClass = parmClasses[index];
-                        boolean present = false;
-                        for (final Node child : children) {
-                            final PluginType<?> childType = child.getType();
-                            if (elem.value().equals(childType.getElementName()) ||
-                                parmClass.isAssignableFrom(childType.getPluginClass())) {
-                                sb.append(child.getName()).append("(").append(child.toString()).append(")");
-                                present = true;
-                                used.add(child);
-                                parms[index] = child.getObject();
-                                break;
-                            }
-                        }
-                        if (!present) {
-                            sb.append("null");
-                        }
+                    }
+                    if (!present) {
+                        sb.append("null");
                     }
                 }
             }
@@ -848,6 +843,149 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
         return null;
     }
 
+    /**
+     * Creates the array passed to an element parameter from the matching child nodes, or returns the array
+     * held by a child. Returns null if the children cannot be assigned to the parameter.
+     */
+    private Object createElementArray(final Node node, final String name, final Class<?> parmClass,
+                                      final List<Node> used, final StringBuilder sb) {
+        final List<Object> list = new ArrayList<Object>();
+        sb.append(name).append("={");
+        boolean first = true;
+        for (final Node child : node.getChildren()) {
+            final PluginType<?> childType = child.getType();
+            if (name.equalsIgnoreCase(childType.getElementName()) ||
+                parmClass.isAssignableFrom(childType.getPluginClass())) {
+                used.add(child);
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                final Object obj = child.getObject();
+                if (obj == null) {
+                    LOGGER.error("Null object returned for " + child.getName() + " in " +
+                        node.getName());
+                    continue;
+                }
+                if (obj.getClass().isArray()) {
+                    printArray(sb, (Object[]) obj);
+                    sb.append("}");
+                    return obj;
+                }
+                sb.append(child.toString());
+                list.add(obj);
+            }
+        }
+        sb.append("}");
+        if (list.size() > 0 && !parmClass.isAssignableFrom(list.get(0).getClass())) {
+            LOGGER.error("Attempted to assign List containing class " +
+                list.get(0).getClass().getName() + " to array of type " + parmClass +
+                " for attribute " + name);
+            return null;
+        }
+        final Object[] array = (Object[]) Array.newInstance(parmClass, list.size());
+        int i = 0;
+        for (final Object obj : list) {
+            array[i] = obj;
+            ++i;
+        }
+        return array;
+    }
+
+    private List<Node> copyChildren(final Node node) {
+        final List<Node> copies = new ArrayList<Node>(node.getChildren().size());
+        for (final Node child : node.getChildren()) {
+            copies.add(substitute(child));
+        }
+        return copies;
+    }
+
+    /**
+     * Returns a copy of the Node with the variables in its attributes and values replaced, so definitions are
+     * compared by what they resolve to rather than by how they are written.
+     */
+    private Node substitute(final Node node) {
+        final Node copy = new Node(node);
+        replaceVariables(copy);
+        return copy;
+    }
+
+    private void replaceVariables(final Node node) {
+        for (final Map.Entry<String, String> entry : node.getAttributes().entrySet()) {
+            entry.setValue(subst.replace(entry.getValue()));
+        }
+        if (node.getValue() != null) {
+            node.setValue(subst.replace(node.getValue()));
+        }
+        for (final Node child : node.getChildren()) {
+            replaceVariables(child);
+        }
+    }
+
+    /**
+     * Returns the Appender created from a definition identical to the given Node, or null if there is none or
+     * it cannot be shared with another Configuration.
+     */
+    private Appender getReusableAppender(final Node node, final Node properties) {
+        if (!isSameDefinition(propertiesDefinition, properties)) {
+            return null;
+        }
+        for (final Node definition : appenderDefinitions) {
+            if (definition.getObject() instanceof Appender && isSameDefinition(definition, node)) {
+                final Appender appender = (Appender) definition.getObject();
+                return appenders.get(appender.getName()) == appender && !isBound(appender) ?
+                    appender : null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameDefinition(final Node first, final Node second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        final Class<?> firstClass = first.getType() == null ? null : first.getType().getPluginClass();
+        final Class<?> secondClass = second.getType() == null ? null : second.getType().getPluginClass();
+        if (!first.getName().equals(second.getName()) || firstClass != secondClass ||
+            !first.getAttributes().equals(second.getAttributes()) ||
+            (first.getValue() == null ? second.getValue() != null : !first.getValue().equals(second.getValue()))) {
+            return false;
+        }
+        final List<Node> firstChildren = first.getChildren();
+        final List<Node> secondChildren = second.getChildren();
+        if (firstChildren.size() != secondChildren.size()) {
+            return false;
+        }
+        for (int i = 0; i < firstChildren.size(); ++i) {
+            if (!isSameDefinition(firstChildren.get(i), secondChildren.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the Appender, its Layout or one of its Filters needs the Configuration it was created for.
+     */
+    private static boolean isBound(final Appender appender) {
+        if (appender instanceof ConfigurationBound || appender.getLayout() instanceof ConfigurationBound) {
+            return true;
+        }
+        return appender instanceof Filterable && isBound(((Filterable) appender).getFilter());
+    }
+
+    private static boolean isBound(final Filter filter) {
+        if (filter instanceof CompositeFilter) {
+            for (final Filter child : ((CompositeFilter) filter).getFilters()) {
+                if (isBound(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return filter instanceof ConfigurationBound;
+    }
+
     private void printArray(final StringBuilder sb, final Object... array) {
         boolean first = true;
         for (final Object obj : array) {
@@ -880,6 +1018,7 @@ public class BaseConfiguration extends AbstractFilterable implements Configurati
     }
 
     private void setParents() {
+        loggerIndex = new LoggerConfigIndex(loggers);
          for (final Map.Entry<String, LoggerConfig> entry : loggers.entrySet()) {
             final LoggerConfig logger = entry.getValue();
             String name = entry.getKey();
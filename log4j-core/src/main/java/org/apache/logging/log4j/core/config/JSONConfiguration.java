@@ -29,6 +29,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -43,11 +44,14 @@ import org.apache.logging.log4j.status.StatusListener;
 import org.apache.logging.log4j.status.StatusLogger;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
- * Creates a Node hierarchy from a JSON file.
+ * Creates a Node hierarchy from a JSON file. By default the file is read into a Jackson tree which is then
+ * converted into Nodes. In streaming mode the Nodes are built directly from the JsonParser; only the
+ * individual elements of JSON arrays are read as trees.
  */
 public class JSONConfiguration extends BaseConfiguration implements Reconfigurable {
 
@@ -63,22 +67,44 @@ public class JSONConfiguration extends BaseConfiguration implements Reconfigurab
 
     private final File configFile;
 
+    private final ObjectMapper mapper = new ObjectMapper().configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+
+    private final boolean streaming;
+
+    private byte[] streamBuffer;
+
+    private boolean wrappedRoot;
+
     public JSONConfiguration(final ConfigurationFactory.ConfigurationSource configSource) {
+        this(configSource, false);
+    }
+
+    /**
+     * Constructor.
+     * @param configSource The configuration source.
+     * @param streaming true if the Node hierarchy should be built from the JsonParser instead of a tree.
+     */
+    public JSONConfiguration(final ConfigurationFactory.ConfigurationSource configSource, final boolean streaming) {
         this.configFile = configSource.getFile();
+        this.streaming = streaming;
         byte[] buffer;
 
         try {
             final InputStream configStream = configSource.getInputStream();
             buffer = toByteArray(configStream);
             configStream.close();
-            final InputStream is = new ByteArrayInputStream(buffer);
-            final ObjectMapper mapper = new ObjectMapper().configure(JsonParser.Feature.ALLOW_COMMENTS, true);
-            root = mapper.readTree(is);
-            if (root.size() == 1) {
-                final Iterator<JsonNode> i = root.elements();
-                root = i.next();
+            if (streaming) {
+                processRootAttributes(buffer);
+                streamBuffer = buffer;
+            } else {
+                final InputStream is = new ByteArrayInputStream(buffer);
+                root = mapper.readTree(is);
+                if (root.size() == 1) {
+                    final Iterator<JsonNode> i = root.elements();
+                    root = i.next();
+                }
+                processAttributes(rootNode, root);
             }
-            processAttributes(rootNode, root);
             Level status = getDefaultStatus();
             boolean verbose = false;
             PrintStream stream = System.out;
@@ -165,6 +191,27 @@ public class JSONConfiguration extends BaseConfiguration implements Reconfigurab
 
     @Override
     public void setup() {
+        if (streamBuffer != null) {
+            try {
+                constructRoot();
+            } catch (final IOException ex) {
+                LOGGER.error("Error parsing configuration", ex);
+                return;
+            }
+            streamBuffer = null;
+        } else {
+            constructRoot(root);
+        }
+        LOGGER.debug("Completed parsing configuration");
+        if (status.size() > 0) {
+            for (final Status s : status) {
+                LOGGER.error("Error processing element " + s.name + ": " + s.errorType);
+            }
+            return;
+        }
+    }
+
+    private void constructRoot(final JsonNode root) {
         final Iterator<Map.Entry<String, JsonNode>> iter = root.fields();
         final List<Node> children = rootNode.getChildren();
         while (iter.hasNext()) {
@@ -177,22 +224,111 @@ public class JSONConfiguration extends BaseConfiguration implements Reconfigurab
                 LOGGER.error("Arrays are not supported at the root configuration.");
             }
         }
-        LOGGER.debug("Completed parsing configuration");
-        if (status.size() > 0) {
-            for (final Status s : status) {
-                LOGGER.error("Error processing element " + s.name + ": " + s.errorType);
+    }
+
+    /**
+     * Streams the root object, creating a Node for each object valued field.
+     */
+    private void constructRoot() throws IOException {
+        final JsonParser parser = createRootParser(streamBuffer, wrappedRoot);
+        try {
+            final List<Node> children = rootNode.getChildren();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String key = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT) {
+                    LOGGER.debug("Processing node for object " + key);
+                    children.add(constructNode(key, rootNode, parser));
+                } else if (token == JsonToken.START_ARRAY) {
+                    LOGGER.error("Arrays are not supported at the root configuration.");
+                    parser.skipChildren();
+                }
             }
-            return;
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Reads the attributes of the root object and determines whether it is wrapped in a single field
+     * object, as is done when the configuration is read as a tree.
+     */
+    private void processRootAttributes(final byte[] buffer) throws IOException {
+        final JsonParser parser = mapper.getFactory().createParser(buffer);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            final Map<String, String> attrs = new HashMap<String, String>();
+            final Map<String, String> wrappedAttrs = new HashMap<String, String>();
+            int fields = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String key = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if (++fields == 1 && token == JsonToken.START_OBJECT) {
+                    readAttributes(parser, wrappedAttrs);
+                } else if (token.isScalarValue()) {
+                    if (!key.equalsIgnoreCase("type")) {
+                        attrs.put(key, getText(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            wrappedRoot = fields == 1;
+            rootNode.getAttributes().putAll(wrappedRoot ? wrappedAttrs : attrs);
+        } finally {
+            parser.close();
         }
     }
 
+    private void readAttributes(final JsonParser parser, final Map<String, String> attrs) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            if (token.isScalarValue()) {
+                if (!key.equalsIgnoreCase("type")) {
+                    attrs.put(key, getText(parser));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Returns a parser positioned on the start of the root object.
+     */
+    private JsonParser createRootParser(final byte[] buffer, final boolean wrapped) throws IOException {
+        final JsonParser parser = mapper.getFactory().createParser(buffer);
+        parser.nextToken();
+        if (wrapped) {
+            parser.nextToken();
+            parser.nextToken();
+        }
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+        }
+        return parser;
+    }
+
+    /**
+     * Returns the text of a scalar value as JsonNode.asText() would.
+     */
+    private static String getText(final JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+            return Double.toString(parser.getDoubleValue());
+        }
+        return parser.getText();
+    }
+
     @Override
     public Configuration reconfigure() {
         if (configFile != null) {
             try {
                 final ConfigurationFactory.ConfigurationSource source =
                     new ConfigurationFactory.ConfigurationSource(new FileInputStream(configFile), configFile);
-                return new JSONConfiguration(source);
+                return new JSONConfiguration(source, streaming);
             } catch (final FileNotFoundException ex) {
                 LOGGER.error("Cannot locate file " + configFile, ex);
             }
@@ -216,25 +352,7 @@ public class JSONConfiguration extends BaseConfiguration implements Reconfigurab
                 if (n.isArray()) {
                     LOGGER.debug("Processing node for array " + entry.getKey());
                     for (int i = 0; i < n.size(); ++i) {
-                        final String pluginType = getType(n.get(i), entry.getKey());
-                        final PluginType<?> entryType = pluginManager.getPluginType(pluginType);
-                        final Node item = new Node(node, entry.getKey(), entryType);
-                        processAttributes(item, n.get(i));
-                        if (pluginType.equals(entry.getKey())) {
-                            LOGGER.debug("Processing " + entry.getKey() + "[" + i + "]");
-                        } else {
-                            LOGGER.debug("Processing " + pluginType + " " + entry.getKey() + "[" + i + "]");
-                        }
-                        final Iterator<Map.Entry<String, JsonNode>> itemIter = n.get(i).fields();
-                        final List<Node> itemChildren = item.getChildren();
-                        while (itemIter.hasNext()) {
-                            final Map.Entry<String, JsonNode> itemEntry = itemIter.next();
-                            if (itemEntry.getValue().isObject()) {
-                                LOGGER.debug("Processing node for object " + itemEntry.getKey());
-                                itemChildren.add(constructNode(itemEntry.getKey(), item, itemEntry.getValue()));
-                            }
-                        }
-                        children.add(item);
+                        children.add(constructArrayItem(entry.getKey(), node, n.get(i), i));
                     }
                 } else {
                     LOGGER.debug("Processing node for object " + entry.getKey());
@@ -243,6 +361,68 @@ public class JSONConfiguration extends BaseConfiguration implements Reconfigurab
             }
         }
 
+        logNode(node, type);
+        return node;
+    }
+
+    /**
+     * Streams the object the parser is positioned on, leaving the parser on its end. Produces the same
+     * Node as {@link #constructNode(String, Node, JsonNode)}.
+     */
+    private Node constructNode(final String name, final Node parent, final JsonParser parser) throws IOException {
+        final PluginType<?> type = pluginManager.getPluginType(name);
+        final Node node = new Node(parent, name, type);
+        final Map<String, String> attrs = node.getAttributes();
+        final List<Node> children = node.getChildren();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                if (type == null) {
+                    status.add(new Status(name, null, ErrorType.CLASS_NOT_FOUND));
+                }
+                if (token == JsonToken.START_ARRAY) {
+                    LOGGER.debug("Processing node for array " + key);
+                    int i = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        final JsonNode item = mapper.readTree(parser);
+                        children.add(constructArrayItem(key, node, item, i++));
+                    }
+                } else {
+                    LOGGER.debug("Processing node for object " + key);
+                    children.add(constructNode(key, node, parser));
+                }
+            } else if (!key.equalsIgnoreCase("type")) {
+                attrs.put(key, getText(parser));
+            }
+        }
+        logNode(node, type);
+        return node;
+    }
+
+    private Node constructArrayItem(final String name, final Node parent, final JsonNode jsonNode, final int index) {
+        final String pluginType = getType(jsonNode, name);
+        final PluginType<?> entryType = pluginManager.getPluginType(pluginType);
+        final Node item = new Node(parent, name, entryType);
+        processAttributes(item, jsonNode);
+        if (pluginType.equals(name)) {
+            LOGGER.debug("Processing " + name + "[" + index + "]");
+        } else {
+            LOGGER.debug("Processing " + pluginType + " " + name + "[" + index + "]");
+        }
+        final Iterator<Map.Entry<String, JsonNode>> itemIter = jsonNode.fields();
+        final List<Node> itemChildren = item.getChildren();
+        while (itemIter.hasNext()) {
+            final Map.Entry<String, JsonNode> itemEntry = itemIter.next();
+            if (itemEntry.getValue().isObject()) {
+                LOGGER.debug("Processing node for object " + itemEntry.getKey());
+                itemChildren.add(constructNode(itemEntry.getKey(), item, itemEntry.getValue()));
+            }
+        }
+        return item;
+    }
+
+    private void logNode(final Node node, final PluginType<?> type) {
         String t;
         if (type == null) {
             t = "null";
@@ -253,7 +433,6 @@ public class JSONConfiguration extends BaseConfiguration implements Reconfigurab
         final String p = node.getParent() == null ? "null" : node.getParent().getName() == null ?
             "root" : node.getParent().getName();
         LOGGER.debug("Returning " + node.getName() + " with parent " + p + " of type " +  t);
-        return node;
     }
 
     private String getType(final JsonNode node, final String name) {
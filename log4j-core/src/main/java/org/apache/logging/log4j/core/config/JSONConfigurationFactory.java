@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.config;
 import java.io.File;
 
 import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  *
@@ -32,6 +33,11 @@ public class JSONConfigurationFactory extends ConfigurationFactory {
      */
     public static final String[] SUFFIXES = new String[] {".json", ".jsn"};
 
+    /**
+     * Name of the system property that, when true, builds the configuration directly from the Jackson JsonParser.
+     */
+    public static final String STREAMING_PROPERTY = "log4j.jsonConfigurationStreaming";
+
     private static String[] dependencies = new String[] {
             "com.fasterxml.jackson.databind.ObjectMapper",
             "com.fasterxml.jackson.databind.JsonNode",
@@ -65,7 +71,7 @@ public class JSONConfigurationFactory extends ConfigurationFactory {
         if (!isActive) {
             return null;
         }
-        return new JSONConfiguration(source);
+        return new JSONConfiguration(source, PropertiesUtil.getProperties().getBooleanProperty(STREAMING_PROPERTY));
     }
 
     @Override
@@ -34,6 +34,7 @@ import org.apache.logging.log4j.core.filter.AbstractFilterable;
 import org.apache.logging.log4j.core.helpers.Booleans;
 import org.apache.logging.log4j.core.helpers.Constants;
 import org.apache.logging.log4j.core.helpers.Loader;
+import org.apache.logging.log4j.core.helpers.StripedCounter;
 import org.apache.logging.log4j.core.helpers.Strings;
 import org.apache.logging.log4j.core.impl.DefaultLogEventFactory;
 import org.apache.logging.log4j.core.impl.LogEventFactory;
@@ -73,6 +74,8 @@ public class LoggerConfig extends AbstractFilterable {
     private boolean includeLocation = true;
     private LoggerConfig parent;
     private final AtomicInteger counter = new AtomicInteger();
+    private final StripedCounter[] levelCounts = newCounters();
+    private final StripedCounter filtered = new StripedCounter();
     private boolean shutdown = false;
     private final Map<Property, Boolean> properties;
     private final Configuration config;
@@ -337,6 +340,34 @@ public class LoggerConfig extends AbstractFilterable {
                 .unmodifiableMap(properties);
     }
 
+    private static StripedCounter[] newCounters() {
+        final StripedCounter[] counters = new StripedCounter[Level.values().length];
+        for (int i = 0; i < counters.length; ++i) {
+            counters[i] = new StripedCounter();
+        }
+        return counters;
+    }
+
+    /**
+     * Returns the number of events of a Level passed to this LoggerConfig,
+     * including the events passed on by its child LoggerConfigs.
+     *
+     * @param eventLevel The Level of the events.
+     * @return the number of events.
+     */
+    public long getEventCount(final Level eventLevel) {
+        return levelCounts[eventLevel.ordinal()].get();
+    }
+
+    /**
+     * Returns the number of events denied by the Filter of this LoggerConfig.
+     *
+     * @return the number of events filtered.
+     */
+    public long getFilteredCount() {
+        return filtered.get();
+    }
+
     /**
      * Logs an event.
      *
@@ -396,8 +427,10 @@ public class LoggerConfig extends AbstractFilterable {
     public void log(final LogEvent event) {
 
         counter.incrementAndGet();
+        levelCounts[event.getLevel().ordinal()].increment();
         try {
             if (isFiltered(event)) {
+                filtered.increment();
                 return;
             }
 
@@ -421,8 +454,9 @@ public class LoggerConfig extends AbstractFilterable {
     }
 
     protected void callAppenders(final LogEvent event) {
+        final Filter filter = getFilter();
         for (final AppenderControl control : appenders.values()) {
-            control.callAppender(event);
+            control.callAppender(event, filter);
         }
     }
 
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.Map;
+
+/**
+ * Immutable index of LoggerConfigs keyed by the dot separated segments of their names. Locating the
+ * LoggerConfig for a Logger walks the segments of the Logger name once and keeps the deepest match, without
+ * creating substrings of the name.
+ */
+final class LoggerConfigIndex {
+
+    private final Segment root = new Segment("", 0);
+
+    /**
+     * Constructor.
+     * @param loggers The LoggerConfigs to index by name.
+     */
+    LoggerConfigIndex(final Map<String, LoggerConfig> loggers) {
+        for (final Map.Entry<String, LoggerConfig> entry : loggers.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void put(final String name, final LoggerConfig config) {
+        Segment node = root;
+        if (name.length() > 0) {
+            int start = 0;
+            while (true) {
+                final int end = endOfSegment(name, start);
+                Segment child = node.getChild(name, start, end);
+                if (child == null) {
+                    child = node.addChild(name.substring(start, end), hash(name, start, end));
+                }
+                node = child;
+                if (end == name.length()) {
+                    break;
+                }
+                start = end + 1;
+            }
+        }
+        node.config = config;
+    }
+
+    /**
+     * Returns the LoggerConfig with the given name or, failing that, the one for the closest ancestor. This gives
+     * the same result as repeatedly removing the last segment of the name with NameUtil.getSubName.
+     * @param name The Logger name.
+     * @return The LoggerConfig or null if neither the name nor any of its ancestors is configured.
+     */
+    LoggerConfig get(final String name) {
+        LoggerConfig result = root.config;
+        if (name.length() == 0) {
+            return result;
+        }
+        Segment node = root;
+        int start = 0;
+        while (true) {
+            final int end = endOfSegment(name, start);
+            node = node.getChild(name, start, end);
+            if (node == null) {
+                return result;
+            }
+            if (node.config != null) {
+                result = node.config;
+            }
+            if (end == name.length()) {
+                return result;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static int endOfSegment(final String name, final int start) {
+        final int end = name.indexOf('.', start);
+        return end < 0 ? name.length() : end;
+    }
+
+    private static int hash(final String name, final int start, final int end) {
+        int h = 0;
+        for (int i = start; i < end; ++i) {
+            h = 31 * h + name.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * One segment of a name, with its children held in an open addressing table.
+     */
+    private static final class Segment {
+        private static final int INITIAL_CAPACITY = 4;
+
+        private final String text;
+        private final int hash;
+        private Segment[] children;
+        private int size;
+        private LoggerConfig config;
+
+        Segment(final String text, final int hash) {
+            this.text = text;
+            this.hash = hash;
+        }
+
+        Segment getChild(final String name, final int start, final int end) {
+            if (children == null) {
+                return null;
+            }
+            final int h = hash(name, start, end);
+            final int mask = children.length - 1;
+            for (int i = h & mask; ; i = (i + 1) & mask) {
+                final Segment child = children[i];
+                if (child == null) {
+                    return null;
+                }
+                if (child.hash == h && child.text.length() == end - start &&
+                    child.text.regionMatches(0, name, start, end - start)) {
+                    return child;
+                }
+            }
+        }
+
+        Segment addChild(final String segment, final int h) {
+            if (children == null) {
+                children = new Segment[INITIAL_CAPACITY];
+            } else if ((size + 1) * 2 > children.length) {
+                final Segment[] old = children;
+                children = new Segment[old.length * 2];
+                for (final Segment child : old) {
+                    if (child != null) {
+                        insert(child);
+                    }
+                }
+            }
+            final Segment child = new Segment(segment, h);
+            insert(child);
+            ++size;
+            return child;
+        }
+
+        private void insert(final Segment child) {
+            final int mask = children.length - 1;
+            int i = child.hash & mask;
+            while (children[i] != null) {
+                i = (i + 1) & mask;
+            }
+            children[i] = child;
+        }
+    }
+}
@@ -37,6 +37,10 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
@@ -61,7 +65,9 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
- * Creates a Node hierarchy from an XML file.
+ * Creates a Node hierarchy from an XML file. By default the file is parsed into a DOM which is then converted
+ * into Nodes. In streaming mode the Nodes are built directly from StAX events, which avoids holding the DOM for
+ * large configurations. XInclude is only supported by the DOM parser.
  */
 public class XMLConfiguration extends BaseConfiguration implements Reconfigurable {
 
@@ -75,6 +81,8 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
 
     private static final int BUF_SIZE = 16384;
 
+    private static final String XINCLUDE_NAMESPACE = "http://www.w3.org/2001/XInclude";
+
     private final List<Status> status = new ArrayList<Status>();
 
     private Element rootElement;
@@ -85,6 +93,10 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
 
     private final File configFile;
 
+    private final boolean streaming;
+
+    private byte[] streamBuffer;
+
     /**
      * Creates a new DocumentBuilder suitable for parsing a configuration file.
      *
@@ -133,8 +145,39 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
         }
     }
 
+    /**
+     * Creates a StAX reader positioned on the root element of the given content.
+     *
+     * @param buffer the configuration content.
+     * @return a reader whose current event is the start of the root element.
+     * @throws XMLStreamException if the content cannot be parsed.
+     */
+    static XMLStreamReader newStreamReader(final byte[] buffer) throws XMLStreamException {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        final XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(buffer));
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return reader;
+            }
+        }
+        reader.close();
+        throw new XMLStreamException("No root element found");
+    }
+
     public XMLConfiguration(final ConfigurationFactory.ConfigurationSource configSource) {
+        this(configSource, false);
+    }
+
+    /**
+     * Constructor.
+     * @param configSource The configuration source.
+     * @param streaming true if the Node hierarchy should be built from StAX events instead of a DOM.
+     */
+    public XMLConfiguration(final ConfigurationFactory.ConfigurationSource configSource, final boolean streaming) {
         this.configFile = configSource.getFile();
+        this.streaming = streaming;
         byte[] buffer = null;
 
         try {
@@ -142,10 +185,21 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
             final InputStream configStream = configSource.getInputStream();
             buffer = toByteArray(configStream);
             configStream.close();
-            final InputSource source = new InputSource(new ByteArrayInputStream(buffer));
-            final Document document = newDocumentBuilder().parse(source);
-            rootElement = document.getDocumentElement();
-            final Map<String, String> attrs = processAttributes(rootNode, rootElement);
+            final Map<String, String> attrs;
+            if (streaming) {
+                final XMLStreamReader reader = newStreamReader(buffer);
+                try {
+                    attrs = processAttributes(rootNode, reader, -1);
+                } finally {
+                    reader.close();
+                }
+                streamBuffer = buffer;
+            } else {
+                final InputSource source = new InputSource(new ByteArrayInputStream(buffer));
+                final Document document = newDocumentBuilder().parse(source);
+                rootElement = document.getDocumentElement();
+                attrs = processAttributes(rootNode, rootElement);
+            }
             Level status = getDefaultStatus();
             boolean verbose = false;
             PrintStream stream = System.out;
@@ -227,6 +281,8 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
             LOGGER.error("Error parsing " + configSource.getLocation(), ioe);
         } catch (final ParserConfigurationException pex) {
             LOGGER.error("Error parsing " + configSource.getLocation(), pex);
+        } catch (final XMLStreamException xse) {
+            LOGGER.error("Error parsing " + configSource.getLocation(), xse);
         }
         if (strict && schema != null && buffer != null) {
             InputStream is = null;
@@ -264,11 +320,26 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
 
     @Override
     public void setup() {
-        if (rootElement == null) {
+        if (rootElement == null && streamBuffer == null) {
             LOGGER.error("No logging configuration");
             return;
         }
-        constructHierarchy(rootNode, rootElement);
+        if (streamBuffer != null) {
+            try {
+                final XMLStreamReader reader = newStreamReader(streamBuffer);
+                try {
+                    constructHierarchy(rootNode, reader);
+                } finally {
+                    reader.close();
+                }
+            } catch (final XMLStreamException ex) {
+                LOGGER.error("Error parsing configuration", ex);
+                return;
+            }
+            streamBuffer = null;
+        } else {
+            constructHierarchy(rootNode, rootElement);
+        }
         if (status.size() > 0) {
             for (final Status s : status) {
                 LOGGER.error("Error processing element " + s.name + ": " + s.errorType);
@@ -284,7 +355,7 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
             try {
                 final ConfigurationFactory.ConfigurationSource source =
                     new ConfigurationFactory.ConfigurationSource(new FileInputStream(configFile), configFile);
-                return new XMLConfiguration(source);
+                return new XMLConfiguration(source, streaming);
             } catch (final FileNotFoundException ex) {
                 LOGGER.error("Cannot locate file " + configFile, ex);
             }
@@ -327,6 +398,73 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
         }
     }
 
+    /**
+     * Builds the Node hierarchy from the element the reader is positioned on, leaving the reader on the
+     * matching end element. Produces the same Nodes as the DOM based conversion.
+     */
+    private void constructHierarchy(final Node node, final XMLStreamReader reader) throws XMLStreamException {
+        processAttributes(node, reader, node.isRoot() ? -1 : getTypeIndex(reader));
+        final StringBuilder buffer = new StringBuilder();
+        final List<Node> children = node.getChildren();
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    final int typeIndex = getTypeIndex(reader);
+                    final String name = typeIndex < 0 ? getQualifiedName(reader.getPrefix(), reader.getLocalName()) :
+                        reader.getAttributeValue(typeIndex);
+                    if (XINCLUDE_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        LOGGER.error("XInclude is not supported when streaming the configuration");
+                    }
+                    final PluginType<?> type = pluginManager.getPluginType(name);
+                    final Node childNode = new Node(node, name, type);
+                    constructHierarchy(childNode, reader);
+                    if (type == null) {
+                        final String value = childNode.getValue();
+                        if (!childNode.hasChildren() && value != null) {
+                            node.getAttributes().put(name, value);
+                        } else {
+                            status.add(new Status(name, null, ErrorType.CLASS_NOT_FOUND));
+                        }
+                    } else {
+                        children.add(childNode);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    buffer.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    final String text = buffer.toString().trim();
+                    if (text.length() > 0 || (!node.hasChildren() && !node.isRoot())) {
+                        node.setValue(text);
+                    }
+                    return;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the attribute naming the element type when strict, -1 otherwise.
+     */
+    private int getTypeIndex(final XMLStreamReader reader) {
+        if (strict) {
+            for (int i = 0; i < reader.getAttributeCount(); ++i) {
+                if (getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i))
+                        .equalsIgnoreCase("type")) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String getQualifiedName(final String prefix, final String localName) {
+        return prefix == null || prefix.length() == 0 ? localName : prefix + ':' + localName;
+    }
+
     private String getType(final Element element) {
         if (strict) {
             final NamedNodeMap attrs = element.getAttributes();
@@ -375,6 +513,28 @@ public class XMLConfiguration extends BaseConfiguration implements Reconfigurabl
         return attributes;
     }
 
+    private Map<String, String> processAttributes(final Node node, final XMLStreamReader reader,
+                                                  final int skipIndex) {
+        final Map<String, String> attributes = node.getAttributes();
+        // The DOM exposes namespace declarations as attributes.
+        for (int i = 0; i < reader.getNamespaceCount(); ++i) {
+            final String prefix = reader.getNamespacePrefix(i);
+            attributes.put(prefix == null || prefix.length() == 0 ? "xmlns" : "xmlns:" + prefix,
+                reader.getNamespaceURI(i));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); ++i) {
+            if (i == skipIndex) {
+                continue;
+            }
+            final String name = getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+            if (name.equals("xml:base")) {
+                continue;
+            }
+            attributes.put(name, reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
     /**
      * The error that occurred.
      */
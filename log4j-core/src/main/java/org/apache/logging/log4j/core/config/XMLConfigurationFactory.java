@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.config;
 
 import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  * Factory to construct an XMLConfiguration.
@@ -30,6 +31,11 @@ public class XMLConfigurationFactory extends ConfigurationFactory {
      */
     public static final String[] SUFFIXES = new String[] {".xml", "*"};
 
+    /**
+     * Name of the system property that, when true, builds the configuration directly from StAX events.
+     */
+    public static final String STREAMING_PROPERTY = "log4j.xmlConfigurationStreaming";
+
     /**
      * Returns the Configuration.
      * @param source The InputSource.
@@ -37,7 +43,7 @@ public class XMLConfigurationFactory extends ConfigurationFactory {
      */
     @Override
     public Configuration getConfiguration(final ConfigurationSource source) {
-        return new XMLConfiguration(source);
+        return new XMLConfiguration(source, PropertiesUtil.getProperties().getBooleanProperty(STREAMING_PROPERTY));
     }
 
     /**
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads and writes the plugin index shared by {@link PluginManager} and {@link PluginProcessor}.
+ * <p>
+ * The index starts with {@link #VERSION}, followed by the number of categories. Each category holds its name, the
+ * number of entries and, for each entry, the lower case plugin key, the plugin class name, the element name, the
+ * printable and defer children flags and the factory method with the binding of each of its parameters. Indexes
+ * written by earlier releases start with the number of categories and have no factory metadata; they are still
+ * read.
+ */
+final class PluginIndex {
+
+    /**
+     * Marks the current format. Negative so it cannot be mistaken for the category count of the legacy format.
+     */
+    static final int VERSION = -2;
+
+    private static final PluginParameter.Kind[] KINDS = PluginParameter.Kind.values();
+
+    private PluginIndex() {
+    }
+
+    /**
+     * Reads an index.
+     * @param dis The stream holding the index.
+     * @return Category name to (plugin key to plugin entry).
+     * @throws IOException if the index cannot be read.
+     */
+    static Map<String, Map<String, Entry>> read(final DataInputStream dis) throws IOException {
+        final Map<String, Map<String, Entry>> categories = new TreeMap<String, Map<String, Entry>>();
+        int count = dis.readInt();
+        final boolean legacy = count >= 0;
+        if (!legacy) {
+            if (count != VERSION) {
+                throw new IOException("Unsupported plugin index version " + -count);
+            }
+            count = dis.readInt();
+        }
+        for (int j = 0; j < count; ++j) {
+            final String category = dis.readUTF();
+            final int entries = dis.readInt();
+            Map<String, Entry> map = categories.get(category);
+            if (map == null) {
+                map = new TreeMap<String, Entry>();
+                categories.put(category, map);
+            }
+            for (int i = 0; i < entries; ++i) {
+                final String key = dis.readUTF();
+                final String className = dis.readUTF();
+                final String elementName = dis.readUTF();
+                final boolean printable = dis.readBoolean();
+                final boolean defer = dis.readBoolean();
+                String factoryMethodName = null;
+                PluginParameter[] parameters = null;
+                if (!legacy && dis.readBoolean()) {
+                    factoryMethodName = dis.readUTF();
+                    parameters = new PluginParameter[dis.readInt()];
+                    for (int k = 0; k < parameters.length; ++k) {
+                        parameters[k] = readParameter(dis);
+                    }
+                }
+                map.put(key, new Entry(className, elementName, printable, defer, factoryMethodName, parameters));
+            }
+        }
+        return categories;
+    }
+
+    private static PluginParameter readParameter(final DataInputStream dis) throws IOException {
+        final String typeName = dis.readUTF();
+        final int kind = dis.readByte();
+        if (kind < 0 || kind >= KINDS.length) {
+            throw new IOException("Invalid plugin parameter kind " + kind);
+        }
+        final String name = dis.readBoolean() ? dis.readUTF() : null;
+        final String[] aliases = new String[dis.readInt()];
+        for (int i = 0; i < aliases.length; ++i) {
+            aliases[i] = dis.readUTF();
+        }
+        return new PluginParameter(KINDS[kind], name, aliases, typeName);
+    }
+
+    /**
+     * Writes an index in the current format.
+     * @param dos The stream to write to.
+     * @param categories Category name to (plugin key to plugin entry).
+     * @throws IOException if the index cannot be written.
+     */
+    static void write(final DataOutputStream dos, final Map<String, ? extends Map<String, Entry>> categories)
+        throws IOException {
+        dos.writeInt(VERSION);
+        dos.writeInt(categories.size());
+        for (final Map.Entry<String, ? extends Map<String, Entry>> outer : categories.entrySet()) {
+            dos.writeUTF(outer.getKey());
+            dos.writeInt(outer.getValue().size());
+            for (final Map.Entry<String, Entry> inner : outer.getValue().entrySet()) {
+                final Entry entry = inner.getValue();
+                dos.writeUTF(inner.getKey());
+                dos.writeUTF(entry.getClassName());
+                dos.writeUTF(entry.getElementName());
+                dos.writeBoolean(entry.isPrintable());
+                dos.writeBoolean(entry.isDefer());
+                final PluginParameter[] parameters = entry.getParameters();
+                dos.writeBoolean(parameters != null);
+                if (parameters != null) {
+                    dos.writeUTF(entry.getFactoryMethodName());
+                    dos.writeInt(parameters.length);
+                    for (final PluginParameter parameter : parameters) {
+                        writeParameter(dos, parameter);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeParameter(final DataOutputStream dos, final PluginParameter parameter)
+        throws IOException {
+        dos.writeUTF(parameter.getTypeName());
+        dos.writeByte(parameter.getKind().ordinal());
+        dos.writeBoolean(parameter.getName() != null);
+        if (parameter.getName() != null) {
+            dos.writeUTF(parameter.getName());
+        }
+        final String[] aliases = parameter.getAliases();
+        dos.writeInt(aliases.length);
+        for (final String alias : aliases) {
+            dos.writeUTF(alias);
+        }
+    }
+
+    /**
+     * A plugin as recorded in the index.
+     */
+    static final class Entry {
+        private final String className;
+        private final String elementName;
+        private final boolean printable;
+        private final boolean defer;
+        private final String factoryMethodName;
+        private final PluginParameter[] parameters;
+
+        Entry(final String className, final String elementName, final boolean printable, final boolean defer,
+              final String factoryMethodName, final PluginParameter[] parameters) {
+            this.className = className;
+            this.elementName = elementName;
+            this.printable = printable;
+            this.defer = defer;
+            this.factoryMethodName = factoryMethodName;
+            this.parameters = parameters;
+        }
+
+        String getClassName() {
+            return className;
+        }
+
+        String getElementName() {
+            return elementName;
+        }
+
+        boolean isPrintable() {
+            return printable;
+        }
+
+        boolean isDefer() {
+            return defer;
+        }
+
+        /**
+         * @return The name of the factory method, or null if the index does not record it.
+         */
+        String getFactoryMethodName() {
+            return factoryMethodName;
+        }
+
+        /**
+         * @return The factory method parameters, or null if the index does not record them.
+         */
+        PluginParameter[] getParameters() {
+            return parameters;
+        }
+    }
+}
@@ -24,14 +24,19 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.text.DecimalFormat;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.helpers.Closer;
@@ -49,8 +54,14 @@ public class PluginManager {
         new ConcurrentHashMap<String, ConcurrentMap<String, PluginType<?>>>();
 
     private static final CopyOnWriteArrayList<String> PACKAGES = new CopyOnWriteArrayList<String>();
-    private static final String PATH = "org/apache/logging/log4j/core/config/plugins/";
-    private static final String FILENAME = "Log4j2Plugins.dat";
+
+    /**
+     * The class path roots holding the plugin indexes that were read. Packages that only occur in these roots
+     * are not scanned.
+     */
+    private static final Set<String> INDEXED_ROOTS = new CopyOnWriteArraySet<String>();
+    static final String PATH = "org/apache/logging/log4j/core/config/plugins/";
+    static final String FILENAME = "Log4j2Plugins.dat";
     private static final String LOG4J_PACKAGES = "org.apache.logging.log4j.core";
 
     private static final Logger LOGGER = StatusLogger.getLogger();
@@ -171,6 +182,10 @@ public class PluginManager {
         }
         final ResolverUtil.Test test = new PluginTest(clazz);
         for (final String pkg : PACKAGES) {
+            if (isIndexed(classLoader, pkg)) {
+                LOGGER.debug("Not scanning package {}, its plugins are in the plugin index", pkg);
+                continue;
+            }
             resolver.findInPackage(test, pkg);
         }
         for (final Class<?> clazz : resolver.getClasses()) {
@@ -205,8 +220,37 @@ public class PluginManager {
         LOGGER.debug(sb.toString());
     }
 
-    @SuppressWarnings({ "unchecked" })
-    private static ConcurrentMap<String, ConcurrentMap<String, PluginType<?>>> decode(final ClassLoader classLoader) {
+    /**
+     * Returns true if every class path root containing the package also contains a plugin index that was read,
+     * so scanning the package cannot find any plugin that is not already known.
+     */
+    private static boolean isIndexed(final ClassLoader classLoader, final String pkg) {
+        if (classLoader == null || INDEXED_ROOTS.isEmpty()) {
+            return false;
+        }
+        final String path = pkg.replace('.', '/');
+        try {
+            final Enumeration<URL> urls = classLoader.getResources(path);
+            if (!urls.hasMoreElements()) {
+                return false;
+            }
+            while (urls.hasMoreElements()) {
+                String url = urls.nextElement().toExternalForm();
+                if (url.endsWith("/")) {
+                    url = url.substring(0, url.length() - 1);
+                }
+                if (!url.endsWith(path) || !INDEXED_ROOTS.contains(url.substring(0, url.length() - path.length()))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (final IOException ex) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static ConcurrentMap<String, ConcurrentMap<String, PluginType<?>>> decode(final ClassLoader classLoader) {
         Enumeration<URL> resources;
         try {
             resources = classLoader.getResources(PATH + FILENAME);
@@ -216,32 +260,33 @@ public class PluginManager {
         }
         final ConcurrentMap<String, ConcurrentMap<String, PluginType<?>>> map =
             new ConcurrentHashMap<String, ConcurrentMap<String, PluginType<?>>>();
+        final Set<String> roots = new HashSet<String>();
         while (resources.hasMoreElements()) {
             DataInputStream dis = null;
             try {
                 final URL url = resources.nextElement();
-                LOGGER.debug("Found Plugin Map at {}", url.toExternalForm());
+                final String location = url.toExternalForm();
+                LOGGER.debug("Found Plugin Map at {}", location);
                 final InputStream is = url.openStream();
                 final BufferedInputStream bis = new BufferedInputStream(is);
                 dis = new DataInputStream(bis);
-                final int count = dis.readInt();
-                for (int j = 0; j < count; ++j) {
-                    final String type = dis.readUTF();
-                    final int entries = dis.readInt();
-                    ConcurrentMap<String, PluginType<?>> types = map.get(type);
+                final Map<String, Map<String, PluginIndex.Entry>> index = PluginIndex.read(dis);
+                for (final Map.Entry<String, Map<String, PluginIndex.Entry>> outer : index.entrySet()) {
+                    ConcurrentMap<String, PluginType<?>> types = map.get(outer.getKey());
                     if (types == null) {
-                        types = new ConcurrentHashMap<String, PluginType<?>>(count);
+                        types = new ConcurrentHashMap<String, PluginType<?>>(outer.getValue().size());
+                        map.put(outer.getKey(), types);
                     }
-                    for (int i = 0; i < entries; ++i) {
-                        final String key = dis.readUTF();
-                        final String className = dis.readUTF();
-                        final String name = dis.readUTF();
-                        final boolean printable = dis.readBoolean();
-                        final boolean defer = dis.readBoolean();
-                        final Class<?> clazz = Class.forName(className);
-                        types.put(key, new PluginType(clazz, name, printable, defer));
+                    for (final Map.Entry<String, PluginIndex.Entry> inner : outer.getValue().entrySet()) {
+                        final PluginIndex.Entry entry = inner.getValue();
+                        final Class<?> clazz = Class.forName(entry.getClassName(), true, classLoader);
+                        types.put(inner.getKey(), new PluginType(clazz, entry.getElementName(),
+                            entry.isPrintable(), entry.isDefer(), entry.getFactoryMethodName(),
+                            entry.getParameters()));
                     }
-                    map.putIfAbsent(type, types);
+                }
+                if (location.endsWith(PATH + FILENAME)) {
+                    roots.add(location.substring(0, location.length() - (PATH + FILENAME).length()));
                 }
             } catch (final Exception ex) {
                 LOGGER.warn("Unable to preload plugins", ex);
@@ -250,7 +295,11 @@ public class PluginManager {
                 Closer.closeSilent(dis);
             }
         }
-        return map.size() == 0 ? null : map;
+        if (map.size() == 0) {
+            return null;
+        }
+        INDEXED_ROOTS.addAll(roots);
+        return map;
     }
 
     private static void encode(final ConcurrentMap<String, ConcurrentMap<String, PluginType<?>>> map) {
@@ -262,19 +311,20 @@ public class PluginManager {
             final FileOutputStream fos = new FileOutputStream(fileName);
             final BufferedOutputStream bos = new BufferedOutputStream(fos);
             dos = new DataOutputStream(bos);
-            dos.writeInt(map.size());
+            final Map<String, Map<String, PluginIndex.Entry>> index =
+                new TreeMap<String, Map<String, PluginIndex.Entry>>();
             for (final Map.Entry<String, ConcurrentMap<String, PluginType<?>>> outer : map.entrySet()) {
-                dos.writeUTF(outer.getKey());
-                dos.writeInt(outer.getValue().size());
+                final Map<String, PluginIndex.Entry> entries = new TreeMap<String, PluginIndex.Entry>();
                 for (final Map.Entry<String, PluginType<?>> entry : outer.getValue().entrySet()) {
-                    dos.writeUTF(entry.getKey());
                     final PluginType<?> pt = entry.getValue();
-                    dos.writeUTF(pt.getPluginClass().getName());
-                    dos.writeUTF(pt.getElementName());
-                    dos.writeBoolean(pt.isObjectPrintable());
-                    dos.writeBoolean(pt.isDeferChildren());
+                    final Method factory = pt.getFactoryMethod();
+                    entries.put(entry.getKey(), new PluginIndex.Entry(pt.getPluginClass().getName(),
+                        pt.getElementName(), pt.isObjectPrintable(), pt.isDeferChildren(),
+                        factory == null ? null : factory.getName(), pt.getFactoryParameters()));
                 }
+                index.put(outer.getKey(), entries);
             }
+            PluginIndex.write(dos, index);
         } catch (final Exception ex) {
             ex.printStackTrace();
         } finally {
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+
+/**
+ * Describes how a parameter of a {@link PluginFactory} method is bound to the configuration. The description is
+ * either read from the plugin index or built from the parameter annotations.
+ */
+public final class PluginParameter implements Serializable {
+
+    /**
+     * What a parameter is bound to.
+     */
+    public enum Kind {
+        /** The parameter has no binding annotation and is passed null. */
+        NONE,
+        /** {@link PluginNode}. */
+        NODE,
+        /** {@link PluginConfiguration}. */
+        CONFIGURATION,
+        /** {@link PluginValue}. */
+        VALUE,
+        /** {@link PluginAttribute}. */
+        ATTRIBUTE,
+        /** {@link PluginElement}. */
+        ELEMENT
+    }
+
+    private static final long serialVersionUID = 5304728149208613497L;
+
+    private static final String[] NO_ALIASES = new String[0];
+
+    private final Kind kind;
+    private final String name;
+    private final String[] aliases;
+    private final String typeName;
+
+    /**
+     * Constructor.
+     * @param kind What the parameter is bound to.
+     * @param name The attribute, element or value name, or null.
+     * @param aliases The aliases of an attribute, or null.
+     * @param typeName The name of the parameter type, as returned by {@code Class.getName()}.
+     */
+    public PluginParameter(final Kind kind, final String name, final String[] aliases, final String typeName) {
+        this.kind = kind;
+        this.name = name;
+        this.aliases = aliases == null ? NO_ALIASES : aliases;
+        this.typeName = typeName;
+    }
+
+    /**
+     * Creates the description of a parameter from its annotations.
+     * @param annotations The parameter annotations.
+     * @param type The parameter type.
+     * @return The parameter description.
+     */
+    public static PluginParameter fromAnnotations(final Annotation[] annotations, final Class<?> type) {
+        Kind kind = Kind.NONE;
+        String name = null;
+        String[] aliases = null;
+        for (final Annotation a : annotations) {
+            if (a instanceof PluginAliases) {
+                aliases = ((PluginAliases) a).value();
+            } else if (a instanceof PluginNode) {
+                kind = Kind.NODE;
+            } else if (a instanceof PluginConfiguration) {
+                kind = Kind.CONFIGURATION;
+            } else if (a instanceof PluginValue) {
+                kind = Kind.VALUE;
+                name = ((PluginValue) a).value();
+            } else if (a instanceof PluginAttribute) {
+                kind = Kind.ATTRIBUTE;
+                name = ((PluginAttribute) a).value();
+            } else if (a instanceof PluginElement) {
+                kind = Kind.ELEMENT;
+                name = ((PluginElement) a).value();
+            }
+        }
+        return new PluginParameter(kind, name, aliases, type.getName());
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String[] getAliases() {
+        return aliases;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+}
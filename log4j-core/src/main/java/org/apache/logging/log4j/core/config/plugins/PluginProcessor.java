@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.apache.logging.log4j.core.helpers.Closer;
+
+/**
+ * Annotation processor that writes the plugin index read by {@link PluginManager} while the plugins are
+ * compiled, so applications defining their own plugins do not need to fall back to scanning the class path
+ * at startup. The index also records the factory method of each plugin and how its parameters are bound, so
+ * the factory does not have to be searched for when the configuration is built.
+ * <p>
+ * The processor is not registered as a service and so does not run in every project that has Log4j on its
+ * class path. Projects that define plugins enable it explicitly, for example with
+ * {@code javac -processor org.apache.logging.log4j.core.config.plugins.PluginProcessor} or by listing it in the
+ * {@code annotationProcessors} of the maven-compiler-plugin.
+ * </p>
+ * <p>
+ * When only some classes are recompiled, the plugins already in the index of the output directory are kept as
+ * long as their classes still exist and are still plugins.
+ * </p>
+ */
+@SupportedAnnotationTypes("org.apache.logging.log4j.core.config.plugins.Plugin")
+public class PluginProcessor extends AbstractProcessor {
+
+    /**
+     * Category name to (lower case plugin key to plugin entry).
+     */
+    private final Map<String, Map<String, PluginIndex.Entry>> categories =
+        new TreeMap<String, Map<String, PluginIndex.Entry>>();
+
+    /**
+     * Names of the plugin classes found in this compilation.
+     */
+    private final Set<String> classNames = new HashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latest();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!categories.isEmpty()) {
+                mergeExistingIndex();
+                writeIndex();
+            }
+            return false;
+        }
+        for (final Element element : roundEnv.getElementsAnnotatedWith(Plugin.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            collect((TypeElement) element);
+        }
+        return false;
+    }
+
+    private void collect(final TypeElement element) {
+        final Plugin plugin = element.getAnnotation(Plugin.class);
+        final String className = processingEnv.getElementUtils().getBinaryName(element).toString();
+        classNames.add(className);
+        Map<String, PluginIndex.Entry> category = categories.get(plugin.category());
+        if (category == null) {
+            category = new TreeMap<String, PluginIndex.Entry>();
+            categories.put(plugin.category(), category);
+        }
+        final ExecutableElement factory = findFactory(element);
+        final String factoryName = factory == null ? null : factory.getSimpleName().toString();
+        final PluginParameter[] parameters = factory == null ? null : getParameters(factory);
+        final boolean noElementType = plugin.elementType().equals(Plugin.EMPTY);
+        category.put(plugin.name().toLowerCase(), new PluginIndex.Entry(className,
+            noElementType ? plugin.name() : plugin.elementType(), plugin.printObject(), plugin.deferChildren(),
+            factoryName, parameters));
+        final PluginAliases aliases = element.getAnnotation(PluginAliases.class);
+        if (aliases != null) {
+            for (final String alias : aliases.value()) {
+                category.put(alias.trim().toLowerCase(), new PluginIndex.Entry(className,
+                    noElementType ? alias : plugin.elementType(), plugin.printObject(), plugin.deferChildren(),
+                    factoryName, parameters));
+            }
+        }
+    }
+
+    /**
+     * Returns the method annotated with {@link PluginFactory} declared by the class or one of its super classes.
+     */
+    private ExecutableElement findFactory(final TypeElement element) {
+        TypeElement current = element;
+        while (current != null) {
+            for (final ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (method.getAnnotation(PluginFactory.class) != null) {
+                    return method;
+                }
+            }
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ?
+                (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return null;
+    }
+
+    private PluginParameter[] getParameters(final ExecutableElement factory) {
+        final List<? extends VariableElement> elements = factory.getParameters();
+        final PluginParameter[] parameters = new PluginParameter[elements.size()];
+        int i = 0;
+        for (final VariableElement element : elements) {
+            PluginParameter.Kind kind = PluginParameter.Kind.NONE;
+            String name = null;
+            if (element.getAnnotation(PluginNode.class) != null) {
+                kind = PluginParameter.Kind.NODE;
+            } else if (element.getAnnotation(PluginConfiguration.class) != null) {
+                kind = PluginParameter.Kind.CONFIGURATION;
+            } else if (element.getAnnotation(PluginValue.class) != null) {
+                kind = PluginParameter.Kind.VALUE;
+                name = element.getAnnotation(PluginValue.class).value();
+            } else if (element.getAnnotation(PluginAttribute.class) != null) {
+                kind = PluginParameter.Kind.ATTRIBUTE;
+                name = element.getAnnotation(PluginAttribute.class).value();
+            } else if (element.getAnnotation(PluginElement.class) != null) {
+                kind = PluginParameter.Kind.ELEMENT;
+                name = element.getAnnotation(PluginElement.class).value();
+            }
+            final PluginAliases aliases = element.getAnnotation(PluginAliases.class);
+            parameters[i++] = new PluginParameter(kind, name, aliases == null ? null : aliases.value(),
+                getClassName(processingEnv.getTypeUtils().erasure(element.asType())));
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns the name of a type in the form returned by {@code Class.getName()}.
+     */
+    private String getClassName(final TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase();
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return '[' + getDescriptor(((ArrayType) type).getComponentType());
+        }
+        return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement())
+            .toString();
+    }
+
+    private String getDescriptor(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return getClassName(type);
+            default:
+                return 'L' + getClassName(type) + ';';
+        }
+    }
+
+    /**
+     * Adds the plugins of the index already in the output directory that were not compiled this time but
+     * still exist, so compiling only some classes does not drop the others from the index.
+     */
+    private void mergeExistingIndex() {
+        Map<String, Map<String, PluginIndex.Entry>> existing;
+        DataInputStream dis = null;
+        try {
+            final FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                PluginManager.PATH + PluginManager.FILENAME);
+            dis = new DataInputStream(new BufferedInputStream(file.openInputStream()));
+            existing = PluginIndex.read(dis);
+        } catch (final IOException ex) {
+            // No index from an earlier compilation.
+            return;
+        } finally {
+            Closer.closeSilent(dis);
+        }
+        for (final Map.Entry<String, Map<String, PluginIndex.Entry>> outer : existing.entrySet()) {
+            for (final Iterator<PluginIndex.Entry> iter = outer.getValue().values().iterator(); iter.hasNext();) {
+                if (!isExistingPlugin(iter.next().getClassName())) {
+                    iter.remove();
+                }
+            }
+            if (outer.getValue().isEmpty()) {
+                continue;
+            }
+            Map<String, PluginIndex.Entry> category = categories.get(outer.getKey());
+            if (category == null) {
+                category = new TreeMap<String, PluginIndex.Entry>();
+                categories.put(outer.getKey(), category);
+            }
+            for (final Map.Entry<String, PluginIndex.Entry> entry : outer.getValue().entrySet()) {
+                if (!category.containsKey(entry.getKey())) {
+                    category.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if a plugin from an earlier compilation was not compiled this time and is still a plugin.
+     */
+    private boolean isExistingPlugin(final String className) {
+        if (classNames.contains(className)) {
+            return false;
+        }
+        final TypeElement element = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+        return element != null && element.getAnnotation(Plugin.class) != null;
+    }
+
+    /**
+     * Writes the index in the format read by {@link PluginManager}.
+     */
+    private void writeIndex() {
+        DataOutputStream dos = null;
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                PluginManager.PATH + PluginManager.FILENAME);
+            dos = new DataOutputStream(new BufferedOutputStream(file.openOutputStream()));
+            PluginIndex.write(dos, categories);
+        } catch (final IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Unable to write plugin index: " + ex.getMessage());
+        } finally {
+            Closer.closeSilent(dos);
+        }
+    }
+}
@@ -16,8 +16,14 @@
  */
 package org.apache.logging.log4j.core.config.plugins;
 
-
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
 
 /**
  * Plugin Descriptor.
@@ -28,16 +34,52 @@ public class PluginType<T> implements Serializable {
 
     private static final long serialVersionUID = 4743255148794846612L;
 
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        final Class<?>[] primitives = {boolean.class, byte.class, char.class, short.class, int.class, long.class,
+            float.class, double.class};
+        for (final Class<?> primitive : primitives) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
     private final Class<T> pluginClass;
     private final String elementName;
     private final boolean printObject;
     private final boolean deferChildren;
+    private final String factoryMethodName;
+    private final PluginParameter[] indexedParameters;
+
+    private transient volatile boolean factoryResolved;
+    private transient Method factoryMethod;
+    private transient PluginParameter[] factoryParameters;
+    private transient Class<?>[] factoryParameterTypes;
 
     public PluginType(final Class<T> clazz, final String name, final boolean printObj, final boolean deferChildren) {
+        this(clazz, name, printObj, deferChildren, null, null);
+    }
+
+    /**
+     * Creates a plugin type whose factory method was recorded in the plugin index, so it can be looked up
+     * directly instead of by scanning the methods of the plugin class.
+     * @param clazz The plugin class.
+     * @param name The element name.
+     * @param printObj true if the plugin object may be printed.
+     * @param deferChildren true if the plugin creates its own children.
+     * @param factoryMethodName The name of the factory method, or null if not known.
+     * @param parameters The factory method parameters, or null if not known.
+     */
+    public PluginType(final Class<T> clazz, final String name, final boolean printObj, final boolean deferChildren,
+                      final String factoryMethodName, final PluginParameter[] parameters) {
         this.pluginClass = clazz;
         this.elementName = name;
         this.printObject = printObj;
         this.deferChildren = deferChildren;
+        this.factoryMethodName = factoryMethodName;
+        this.indexedParameters = parameters;
     }
 
     public Class<T> getPluginClass() {
@@ -55,4 +97,102 @@ public class PluginType<T> implements Serializable {
     public boolean isDeferChildren() {
         return this.deferChildren;
     }
+
+    /**
+     * Returns the method annotated with {@link PluginFactory}. The method and its parameter metadata are
+     * resolved once and then reused for every configuration node of this type.
+     * @return The factory method or null if the plugin class does not declare one.
+     */
+    public Method getFactoryMethod() {
+        resolveFactory();
+        return this.factoryMethod;
+    }
+
+    /**
+     * Returns how each factory method parameter is bound to the configuration.
+     * @return The parameter bindings or null if there is no factory method.
+     */
+    public PluginParameter[] getFactoryParameters() {
+        resolveFactory();
+        return this.factoryParameters;
+    }
+
+    /**
+     * Returns the types of the factory method parameters.
+     * @return The parameter types or null if there is no factory method.
+     */
+    public Class<?>[] getFactoryParameterTypes() {
+        resolveFactory();
+        return this.factoryParameterTypes;
+    }
+
+    private void resolveFactory() {
+        if (factoryResolved) {
+            return;
+        }
+        synchronized (this) {
+            if (factoryResolved) {
+                return;
+            }
+            if (!resolveIndexedFactory()) {
+                scanForFactory();
+            }
+            factoryResolved = true;
+        }
+    }
+
+    /**
+     * Looks up the factory method recorded in the plugin index.
+     * @return false if the index has no usable record of the factory method.
+     */
+    private boolean resolveIndexedFactory() {
+        if (factoryMethodName == null || indexedParameters == null) {
+            return false;
+        }
+        final Class<?>[] types = new Class<?>[indexedParameters.length];
+        try {
+            for (int i = 0; i < types.length; ++i) {
+                types[i] = loadClass(indexedParameters[i].getTypeName());
+            }
+            final Method method = pluginClass.getMethod(factoryMethodName, types);
+            if (!method.isAnnotationPresent(PluginFactory.class)) {
+                LOGGER.debug("Indexed factory method {} of {} is not a plugin factory", factoryMethodName,
+                    pluginClass.getName());
+                return false;
+            }
+            this.factoryMethod = method;
+            this.factoryParameters = indexedParameters;
+            this.factoryParameterTypes = types;
+            return true;
+        } catch (final Exception ex) {
+            LOGGER.debug("Indexed factory method {} of {} is not available: {}", factoryMethodName,
+                pluginClass.getName(), ex.toString());
+            return false;
+        }
+    }
+
+    private void scanForFactory() {
+        for (final Method method : pluginClass.getMethods()) {
+            if (method.isAnnotationPresent(PluginFactory.class)) {
+                final Class<?>[] types = method.getParameterTypes();
+                final Annotation[][] annotations = method.getParameterAnnotations();
+                final PluginParameter[] parameters = new PluginParameter[types.length];
+                for (int i = 0; i < types.length; ++i) {
+                    parameters[i] = PluginParameter.fromAnnotations(annotations[i], types[i]);
+                }
+                this.factoryMethod = method;
+                this.factoryParameters = parameters;
+                this.factoryParameterTypes = types;
+                break;
+            }
+        }
+    }
+
+    private Class<?> loadClass(final String name) throws ClassNotFoundException {
+        final Class<?> primitive = PRIMITIVES.get(name);
+        if (primitive != null) {
+            return primitive;
+        }
+        return Class.forName(name, false, pluginClass.getClassLoader());
+    }
 }
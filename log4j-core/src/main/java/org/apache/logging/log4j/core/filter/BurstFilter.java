@@ -16,12 +16,10 @@
  */
 package org.apache.logging.log4j.core.filter;
 
-import java.util.Iterator;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -50,6 +48,14 @@ import org.apache.logging.log4j.message.Message;
  * &nbsp;&lt;/filters&gt;<br>
  * &lt;/Console&gt;<br>
  * </code><br>
+ * <p/>
+ * By default no more than <code>maxBurst</code> events are allowed in any window of <code>maxBurst / rate</code>
+ * seconds. Setting <code>algorithm="TokenBucket"</code> instead refills the budget continuously at
+ * <code>rate</code> events per second up to <code>maxBurst</code>. Setting <code>partition</code> to Logger, Marker
+ * or Message gives each Logger name, Marker name or message format its own budget so that one chatty code path
+ * cannot exhaust the budget of the others. Both algorithms are lock free and keep a fixed amount of state per
+ * budget. The sliding window counts events in slices of 1/64 of the window, so an event may be refused up to one
+ * slice later than an exact window would allow.
  */
 
 @Plugin(name = "BurstFilter", category = "Core", elementType = "filter", printObject = true)
@@ -61,7 +67,36 @@ public final class BurstFilter extends AbstractFilter {
 
     private static final int DEFAULT_RATE_MULTIPLE = 100;
 
-    private static final int HASH_SHIFT = 32;
+    /**
+     * The maximum number of partitions. Events for further keys share the budget of events without a key. Each
+     * partition keeps a fixed amount of state whatever maxBurst is, so the partitions take at most a few
+     * megabytes.
+     */
+    private static final int MAX_PARTITIONS = 1024;
+
+    /**
+     * How the budget of events is spent and replenished.
+     */
+    public enum Algorithm {
+        /** At most maxBurst events in any window of maxBurst / rate seconds. */
+        SLIDING_WINDOW,
+        /** A bucket of maxBurst tokens refilled at rate tokens per second. */
+        TOKEN_BUCKET
+    }
+
+    /**
+     * What the budget of events is divided by.
+     */
+    public enum Partition {
+        /** A single budget for all events. */
+        NONE,
+        /** A budget per Logger name. */
+        LOGGER,
+        /** A budget per Marker name. */
+        MARKER,
+        /** A budget per message format, for example the pattern of a ParameterizedMessage. */
+        MESSAGE
+    }
 
     /**
      * Level of messages to be filtered. Anything at or below this level will be
@@ -73,144 +108,318 @@ public final class BurstFilter extends AbstractFilter {
 
     private final long burstInterval;
 
-    private final DelayQueue<LogDelay> history = new DelayQueue<LogDelay>();
+    private final long maxBurst;
+
+    private final Algorithm algorithm;
+
+    private final Partition partition;
 
-    private final Queue<LogDelay> available = new ConcurrentLinkedQueue<LogDelay>();
+    private final Limiter limiter;
 
-    private BurstFilter(final Level level, final float rate, final long maxBurst, final Result onMatch,
-                        final Result onMismatch) {
+    private final ConcurrentMap<String, Limiter> partitions;
+
+    private BurstFilter(final Level level, final float rate, final long maxBurst, final Algorithm algorithm,
+                        final Partition partition, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.level = level;
         this.burstInterval = (long) (NANOS_IN_SECONDS * (maxBurst / rate));
-        for (int i = 0; i < maxBurst; ++i) {
-            available.add(new LogDelay());
-        }
+        this.maxBurst = maxBurst;
+        this.algorithm = algorithm;
+        this.partition = partition;
+        this.limiter = createLimiter();
+        this.partitions = partition == Partition.NONE ? null : new ConcurrentHashMap<String, Limiter>();
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
                          final Object... params) {
-        return filter(level);
+        if (!this.level.isAtLeastAsSpecificAs(level)) {
+            return onMatch;
+        }
+        return filter(getLimiter(logger == null ? null : logger.getName(), marker, msg));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
                          final Throwable t) {
-        return filter(level);
+        if (!this.level.isAtLeastAsSpecificAs(level)) {
+            return onMatch;
+        }
+        return filter(getLimiter(logger == null ? null : logger.getName(), marker,
+            msg == null ? null : msg.toString()));
     }
 
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
                          final Throwable t) {
-        return filter(level);
+        if (!this.level.isAtLeastAsSpecificAs(level)) {
+            return onMatch;
+        }
+        return filter(getLimiter(logger == null ? null : logger.getName(), marker,
+            msg == null ? null : msg.getFormat()));
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        return filter(event.getLevel());
+        if (!this.level.isAtLeastAsSpecificAs(event.getLevel())) {
+            return onMatch;
+        }
+        final Message msg = event.getMessage();
+        return filter(getLimiter(event.getLoggerName(), event.getMarker(), msg == null ? null : msg.getFormat()));
     }
 
     /**
-     * Decide if we're going to log <code>event</code> based on whether the
+     * Decide if we're going to log an event based on whether the
      * maximum burst of log statements has been exceeded.
      *
-     * @param level The log level.
+     * @param limiter The budget the event is charged to.
      * @return The onMatch value if the filter passes, onMismatch otherwise.
      */
-    private Result filter(final Level level) {
-        if (this.level.isAtLeastAsSpecificAs(level)) {
-            LogDelay delay = history.poll();
-            while (delay != null) {
-                available.add(delay);
-                delay = history.poll();
+    private Result filter(final Limiter limiter) {
+        return limiter.tryAcquire(System.nanoTime()) ? onMatch : onMismatch;
+    }
+
+    private Limiter getLimiter(final String loggerName, final Marker marker, final String format) {
+        final String key;
+        switch (partition) {
+            case LOGGER:
+                key = loggerName;
+                break;
+            case MARKER:
+                key = marker == null ? null : marker.getName();
+                break;
+            case MESSAGE:
+                key = format;
+                break;
+            default:
+                return limiter;
+        }
+        if (key == null) {
+            return limiter;
+        }
+        Limiter result = partitions.get(key);
+        if (result == null) {
+            if (partitions.size() >= MAX_PARTITIONS) {
+                return limiter;
             }
-            delay = available.poll();
-            if (delay != null) {
-                delay.setDelay(burstInterval);
-                history.add(delay);
-                return onMatch;
+            result = createLimiter();
+            final Limiter prev = partitions.putIfAbsent(key, result);
+            if (prev != null) {
+                result = prev;
             }
-            return onMismatch;
         }
-        return onMatch;
+        return result;
+    }
 
+    private Limiter createLimiter() {
+        if (maxBurst <= 0) {
+            return new Closed();
+        }
+        return algorithm == Algorithm.TOKEN_BUCKET ? new TokenBucket(burstInterval, maxBurst) :
+            new SlidingWindow(burstInterval, maxBurst);
     }
 
     /**
-     * Returns the number of available slots. Used for unit testing.
+     * Returns the number of available slots. Used for unit testing. When the filter is partitioned this is the
+     * budget shared by events without a partition key.
      * @return The number of available slots.
      */
     public int getAvailable() {
-        return available.size();
+        return limiter.getAvailable(System.nanoTime());
     }
 
     /**
      * Clear the history. Used for unit testing.
      */
     public void clear() {
-        final Iterator<LogDelay> iter = history.iterator();
-        while (iter.hasNext()) {
-            final LogDelay delay = iter.next();
-            history.remove(delay);
-            available.add(delay);
+        final long now = System.nanoTime();
+        limiter.clear(now);
+        if (partitions != null) {
+            partitions.clear();
         }
     }
 
     @Override
     public String toString() {
-        return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + history.size();
+        return "level=" + level.toString() + ", interval=" + burstInterval + ", max=" + maxBurst +
+            ", algorithm=" + algorithm + ", partition=" + partition;
     }
 
     /**
-     * Delay object to represent each log event that has occurred within the timespan.
+     * A budget of events.
      */
-    private class LogDelay implements Delayed {
+    private abstract static class Limiter {
 
-        private long expireTime;
+        /**
+         * Charges one event to the budget.
+         * @param now The current value of System.nanoTime().
+         * @return true if the event is within the budget.
+         */
+        abstract boolean tryAcquire(long now);
 
-        public LogDelay() {
-        }
+        abstract int getAvailable(long now);
+
+        abstract void clear(long now);
+    }
+
+    /**
+     * Counts the events of each of the last SUB_WINDOWS slices of the interval plus the current one, so its size
+     * does not depend on maxBurst. An event is allowed while the slices that may still hold events from the last
+     * interval count fewer than maxBurst events. Since a whole slice is counted until all of it has left the
+     * window, an event may be refused up to interval / SUB_WINDOWS later than with an exact window, but no
+     * window of the interval ever holds more than maxBurst events.
+     * <p>
+     * Each slice is replaced with a compare and set when a new slice begins, and an event is counted first and
+     * taken back if it exceeds the budget, so no lock is needed.
+     * </p>
+     */
+    private static final class SlidingWindow extends Limiter {
+
+        private static final int SUB_WINDOWS = 64;
+
+        private final long sliceInterval;
+        private final long maxBurst;
+        private final AtomicReferenceArray<Slice> slices = new AtomicReferenceArray<Slice>(SUB_WINDOWS + 1);
+        private final long origin = System.nanoTime();
 
-        public void setDelay(final long delay) {
-            this.expireTime = delay + System.nanoTime();
+        SlidingWindow(final long interval, final long maxBurst) {
+            this.sliceInterval = Math.max(interval / SUB_WINDOWS, 1);
+            this.maxBurst = maxBurst;
         }
 
         @Override
-        public long getDelay(final TimeUnit timeUnit) {
-            return timeUnit.convert(expireTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        boolean tryAcquire(final long now) {
+            final long epoch = getEpoch(now);
+            final Slice slice = getSlice(epoch);
+            slice.count.incrementAndGet();
+            if (count(epoch) > maxBurst) {
+                slice.count.decrementAndGet();
+                return false;
+            }
+            return true;
         }
 
-        @Override
-        public int compareTo(final Delayed delayed) {
-            if (this.expireTime < ((LogDelay) delayed).expireTime) {
-                return -1;
-            } else if (this.expireTime > ((LogDelay) delayed).expireTime) {
-                return 1;
+        private long getEpoch(final long now) {
+            final long elapsed = now - origin;
+            return elapsed > 0 ? elapsed / sliceInterval : 0;
+        }
+
+        private Slice getSlice(final long epoch) {
+            final int index = (int) (epoch % slices.length());
+            while (true) {
+                final Slice slice = slices.get(index);
+                // A thread delayed for a whole window counts its event in the newer slice.
+                if (slice != null && slice.epoch >= epoch) {
+                    return slice;
+                }
+                final Slice created = new Slice(epoch);
+                if (slices.compareAndSet(index, slice, created)) {
+                    return created;
+                }
             }
-            return 0;
+        }
+
+        /**
+         * Returns the number of events in the slices that may still hold events of the last interval.
+         */
+        private long count(final long epoch) {
+            long count = 0;
+            for (int i = 0; i < slices.length(); ++i) {
+                final Slice slice = slices.get(i);
+                if (slice != null && epoch - slice.epoch <= SUB_WINDOWS) {
+                    count += slice.count.get();
+                }
+            }
+            return count;
+        }
+
+        @Override
+        int getAvailable(final long now) {
+            final long available = maxBurst - count(getEpoch(now));
+            return (int) Math.max(0, Math.min(available, Integer.MAX_VALUE));
         }
 
         @Override
-        public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
+        void clear(final long now) {
+            for (int i = 0; i < slices.length(); ++i) {
+                slices.set(i, null);
             }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
+        }
+
+        /**
+         * The events of one slice of the interval.
+         */
+        private static final class Slice {
+            private final long epoch;
+            private final AtomicLong count = new AtomicLong();
+
+            Slice(final long epoch) {
+                this.epoch = epoch;
             }
+        }
+    }
 
-            final LogDelay logDelay = (LogDelay) o;
+    /**
+     * A token bucket held in a single long as the time at which the bucket will be full again, which makes the
+     * token count and the time of the last refill a single value that can be updated with a compare and set.
+     * Each event moves that time forward by the time it takes to earn one token. An event is refused when this
+     * would move it more than the whole burst interval into the future.
+     */
+    private static final class TokenBucket extends Limiter {
+        private final long interval;
+        private final long tokenInterval;
+        private final AtomicLong fullAt;
+
+        TokenBucket(final long interval, final long maxBurst) {
+            this.interval = interval;
+            this.tokenInterval = Math.max(interval / maxBurst, 1);
+            this.fullAt = new AtomicLong(System.nanoTime());
+        }
 
-            if (expireTime != logDelay.expireTime) {
-                return false;
+        @Override
+        boolean tryAcquire(final long now) {
+            while (true) {
+                final long current = fullAt.get();
+                final long next = (current - now > 0 ? current : now) + tokenInterval;
+                if (next - now > interval) {
+                    return false;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return true;
+                }
             }
+        }
 
-            return true;
+        @Override
+        int getAvailable(final long now) {
+            final long pending = fullAt.get() - now;
+            final long available = (interval - (pending > 0 ? pending : 0)) / tokenInterval;
+            return (int) Math.min(available, Integer.MAX_VALUE);
         }
 
         @Override
-        public int hashCode() {
-            return (int) (expireTime ^ (expireTime >>> HASH_SHIFT));
+        void clear(final long now) {
+            fullAt.set(now);
+        }
+    }
+
+    /**
+     * The budget when maxBurst is zero.
+     */
+    private static final class Closed extends Limiter {
+
+        @Override
+        boolean tryAcquire(final long now) {
+            return false;
+        }
+
+        @Override
+        int getAvailable(final long now) {
+            return 0;
+        }
+
+        @Override
+        void clear(final long now) {
         }
     }
 
@@ -219,6 +428,8 @@ public final class BurstFilter extends AbstractFilter {
      * @param rate   The average number of events per second to allow.
      * @param maxBurst  The maximum number of events that can occur before events are filtered for exceeding the
      * average rate. The default is 10 times the rate.
+     * @param algorithmName SlidingWindow (the default) or TokenBucket.
+     * @param partitionName None (the default), Logger, Marker or Message.
      * @param match  The Result to return when the filter matches. Defaults to Result.NEUTRAL.
      * @param mismatch The Result to return when the filter does not match. The default is Result.DENY.
      * @return A BurstFilter.
@@ -228,6 +439,8 @@ public final class BurstFilter extends AbstractFilter {
             @PluginAttribute("level") final String levelName,
             @PluginAttribute("rate") final String rate,
             @PluginAttribute("maxBurst") final String maxBurst,
+            @PluginAttribute("algorithm") final String algorithmName,
+            @PluginAttribute("partition") final String partitionName,
             @PluginAttribute("onMatch") final String match,
             @PluginAttribute("onMismatch") final String mismatch) {
         final Result onMatch = Result.toResult(match, Result.NEUTRAL);
@@ -238,6 +451,22 @@ public final class BurstFilter extends AbstractFilter {
             eventRate = DEFAULT_RATE;
         }
         final long max = maxBurst == null ? (long) (eventRate * DEFAULT_RATE_MULTIPLE) : Long.parseLong(maxBurst);
-        return new BurstFilter(level, eventRate, max, onMatch, onMismatch);
+        final Algorithm algorithm = toEnum(Algorithm.class, algorithmName, Algorithm.SLIDING_WINDOW);
+        final Partition partition = toEnum(Partition.class, partitionName, Partition.NONE);
+        return new BurstFilter(level, eventRate, max, algorithm, partition, onMatch, onMismatch);
+    }
+
+    private static <T extends Enum<T>> T toEnum(final Class<T> type, final String name, final T defaultValue) {
+        if (name == null) {
+            return defaultValue;
+        }
+        final String key = name.trim();
+        for (final T value : type.getEnumConstants()) {
+            if (value.name().replace("_", "").equalsIgnoreCase(key.replace("_", ""))) {
+                return value;
+            }
+        }
+        LOGGER.error("Invalid {} {} for BurstFilter, using {}", type.getSimpleName(), name, defaultValue);
+        return defaultValue;
     }
 }
@@ -40,22 +40,26 @@ import org.apache.logging.log4j.message.Message;
 public final class CompositeFilter implements Iterable<Filter>, Filter, LifeCycle {
 
     private final List<Filter> filters;
+    private final Filter[] plan;
     private final boolean hasFilters;
 
     private boolean isStarted;
 
     private CompositeFilter() {
         this.filters = new ArrayList<Filter>();
+        this.plan = new Filter[0];
         this.hasFilters = false;
     }
 
     private CompositeFilter(final List<Filter> filters) {
         if (filters == null) {
             this.filters = Collections.unmodifiableList(new ArrayList<Filter>());
+            this.plan = new Filter[0];
             this.hasFilters = false;
             return;
         }
         this.filters = Collections.unmodifiableList(filters);
+        this.plan = FilterPlan.compile(this.filters);
         this.hasFilters = this.filters.size() > 0;
     }
 
@@ -88,6 +92,14 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, LifeCycl
         return filters.size();
     }
 
+    /**
+     * Returns the Filters in the order they are evaluated, with nested CompositeFilters flattened.
+     * @return The compiled Filters.
+     */
+    Filter[] getPlan() {
+        return plan;
+    }
+
     @Override
     public void start() {
         for (final Filter filter : filters) {
@@ -152,7 +164,7 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, LifeCycl
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
                          final Object... params) {
         Result result = Result.NEUTRAL;
-        for (final Filter filter : filters) {
+        for (final Filter filter : plan) {
             result = filter.filter(logger, level, marker, msg, params);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
@@ -180,7 +192,7 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, LifeCycl
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
                          final Throwable t) {
         Result result = Result.NEUTRAL;
-        for (final Filter filter : filters) {
+        for (final Filter filter : plan) {
             result = filter.filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
@@ -208,7 +220,7 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, LifeCycl
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
                          final Throwable t) {
         Result result = Result.NEUTRAL;
-        for (final Filter filter : filters) {
+        for (final Filter filter : plan) {
             result = filter.filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
@@ -227,7 +239,7 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, LifeCycl
     @Override
     public Result filter(final LogEvent event) {
         Result result = Result.NEUTRAL;
-        for (final Filter filter : filters) {
+        for (final Filter filter : plan) {
             result = filter.filter(event);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.core.Filter;
+
+/**
+ * Works out the order in which a chain of Filters is evaluated and which Filters can be skipped because their
+ * result is already known.
+ * <p>
+ * Only Filters whose result depends on nothing but the LogEvent and that never change state are reordered or
+ * skipped. These are the ThresholdFilter, MarkerFilter, RegexFilter, ScrubberFilter, MapFilter, StructuredDataFilter,
+ * ThreadContextMapFilter and TimeFilter. Every other Filter keeps its position and is always evaluated.
+ * </p>
+ */
+public final class FilterPlan {
+
+    private FilterPlan() {
+    }
+
+    /**
+     * Compiles the Filters of a CompositeFilter into the order they are evaluated in. Nested CompositeFilters are
+     * flattened, ThresholdFilters and MarkerFilters are moved in front of the more expensive Filters they can be
+     * exchanged with and Filters equivalent to one evaluated earlier are removed. The result of the chain is
+     * the same as evaluating the Filters as configured.
+     * @param filters The configured Filters.
+     * @return The Filters in the order they should be evaluated.
+     */
+    static Filter[] compile(final List<Filter> filters) {
+        final List<Filter> flat = new ArrayList<Filter>(filters.size());
+        flatten(filters, flat);
+        final List<Filter> plan = new ArrayList<Filter>(flat.size());
+        for (final Filter filter : flat) {
+            if (isDuplicate(filter, plan, plan.size())) {
+                continue;
+            }
+            int index = plan.size();
+            if (isCheap(filter) && isTransparent(filter)) {
+                // A Filter that never accepts can be exchanged with another Filter that never accepts, as the
+                // chain then denies the event if and only if either of them does.
+                while (index > 0 && isTransparent(plan.get(index - 1)) && !isCheap(plan.get(index - 1))) {
+                    --index;
+                }
+            }
+            plan.add(index, filter);
+        }
+        return plan.toArray(new Filter[plan.size()]);
+    }
+
+    private static void flatten(final Iterable<Filter> filters, final List<Filter> flat) {
+        for (final Filter filter : filters) {
+            if (filter instanceof CompositeFilter) {
+                flatten((CompositeFilter) filter, flat);
+            } else if (filter != null) {
+                flat.add(filter);
+            }
+        }
+    }
+
+    /**
+     * Returns the Filter that remains to be evaluated for a LogEvent once another Filter is known not to have
+     * denied the same LogEvent. For example, when a LoggerConfig and one of its Appender references are both
+     * configured with the same ThresholdFilter the Appender reference does not need to evaluate it again.
+     * @param filter The Filter to reduce.
+     * @param passed A Filter that did not deny the LogEvent, or null.
+     * @return The Filter to evaluate, which is the original Filter if nothing can be skipped, or null if the
+     * Filter cannot deny the LogEvent.
+     */
+    public static Filter reduce(final Filter filter, final Filter passed) {
+        if (filter == null || passed == null) {
+            return filter;
+        }
+        final List<Filter> known = getPassed(passed);
+        if (known.isEmpty()) {
+            return filter;
+        }
+        final List<Filter> filters = new ArrayList<Filter>();
+        flatten(Collections.singletonList(filter), filters);
+        final List<Filter> remaining = new ArrayList<Filter>(filters.size());
+        for (final Filter f : filters) {
+            // A Filter that cannot accept and is equivalent to one that did not deny returns NEUTRAL.
+            if (!isTransparent(f) || !isDuplicate(f, known, known.size())) {
+                remaining.add(f);
+            }
+        }
+        if (remaining.size() == filters.size()) {
+            return filter;
+        }
+        if (remaining.isEmpty()) {
+            return null;
+        }
+        return remaining.size() == 1 ? remaining.get(0) :
+            CompositeFilter.createFilters(remaining.toArray(new Filter[remaining.size()]));
+    }
+
+    /**
+     * Returns the Filters that are certain to have been evaluated without denying the LogEvent when the Filter
+     * as a whole did not deny it. These are the Filters up to and including the first one that may accept the
+     * LogEvent, as evaluation may have stopped there.
+     */
+    private static List<Filter> getPassed(final Filter passed) {
+        final Filter[] plan = passed instanceof CompositeFilter ? ((CompositeFilter) passed).getPlan() :
+            new Filter[] {passed};
+        final List<Filter> known = new ArrayList<Filter>(plan.length);
+        for (final Filter filter : plan) {
+            if (isPure(filter)) {
+                known.add(filter);
+            }
+            if (!isTransparent(filter)) {
+                break;
+            }
+        }
+        return known;
+    }
+
+    private static boolean isDuplicate(final Filter filter, final List<Filter> filters, final int end) {
+        if (!isPure(filter)) {
+            return false;
+        }
+        for (int i = 0; i < end; ++i) {
+            if (isEquivalent(filter, filters.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the Filter depends only on the LogEvent and has no side effects.
+     */
+    private static boolean isPure(final Filter filter) {
+        return filter instanceof ThresholdFilter || filter instanceof MarkerFilter || filter instanceof RegexFilter ||
+            filter instanceof MapFilter || filter instanceof StructuredDataFilter ||
+            filter instanceof ThreadContextMapFilter || filter instanceof TimeFilter ||
+            filter instanceof ScrubberFilter;
+    }
+
+    private static boolean isCheap(final Filter filter) {
+        return filter instanceof ThresholdFilter || filter instanceof MarkerFilter;
+    }
+
+    /**
+     * Returns true if the Filter is pure and can only return NEUTRAL or DENY.
+     */
+    private static boolean isTransparent(final Filter filter) {
+        return isPure(filter) && filter.getOnMatch() != Filter.Result.ACCEPT &&
+            filter.getOnMismatch() != Filter.Result.ACCEPT;
+    }
+
+    private static boolean isEquivalent(final Filter filter, final Filter other) {
+        if (filter == other) {
+            return true;
+        }
+        if (filter.getClass() != other.getClass() || filter.getOnMatch() != other.getOnMatch() ||
+            filter.getOnMismatch() != other.getOnMismatch()) {
+            return false;
+        }
+        if (filter instanceof ThresholdFilter) {
+            return ((ThresholdFilter) filter).getLevel() == ((ThresholdFilter) other).getLevel();
+        }
+        if (filter instanceof MarkerFilter) {
+            return ((MarkerFilter) filter).getMarkerName().equals(((MarkerFilter) other).getMarkerName());
+        }
+        return false;
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.filter;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
@@ -35,6 +36,12 @@ public final class MarkerFilter extends AbstractFilter {
 
     private final String name;
 
+    /**
+     * The Marker named by this filter, once it has been created. Testing against the Marker itself avoids looking
+     * up the name for every event.
+     */
+    private volatile Marker marker;
+
     private MarkerFilter(final String name, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
         this.name = name;
@@ -64,7 +71,22 @@ public final class MarkerFilter extends AbstractFilter {
     }
 
     private Result filter(final Marker marker) {
-        return marker != null && marker.isInstanceOf(name) ? onMatch : onMismatch;
+        if (marker == null) {
+            return onMismatch;
+        }
+        Marker target = this.marker;
+        if (target == null) {
+            if (!MarkerManager.exists(name)) {
+                return marker.isInstanceOf(name) ? onMatch : onMismatch;
+            }
+            target = MarkerManager.getMarker(name);
+            this.marker = target;
+        }
+        return marker.isInstanceOf(target) ? onMatch : onMismatch;
+    }
+
+    String getMarkerName() {
+        return name;
     }
 
     @Override
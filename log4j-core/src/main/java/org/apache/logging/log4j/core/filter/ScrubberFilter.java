@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.pattern.RegexReplacement;
+import org.apache.logging.log4j.core.pattern.Scrubber;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * This filter returns the onMatch result if any of its regular expressions occurs in the message. All the
+ * expressions are searched for in a single pass, see {@link Scrubber}. The replacement of each replace element is
+ * not used.
+ *
+ * The "useRawMsg" attribute can be used to indicate whether the regular expressions should be
+ * applied to the result of calling Message.getMessageFormat (true) or Message.getFormattedMessage()
+ * (false). The default is false.
+ *
+ */
+@Plugin(name = "ScrubberFilter", category = "Core", elementType = "filter", printObject = true)
+public final class ScrubberFilter extends AbstractFilter {
+
+    private final Scrubber scrubber;
+    private final boolean useRawMessage;
+
+    private ScrubberFilter(final boolean raw, final Scrubber scrubber, final Result onMatch,
+                           final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.scrubber = scrubber;
+        this.useRawMessage = raw;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        return filter(msg);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        return filter(msg.toString());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        final String text = useRawMessage ? msg.getFormat() : msg.getFormattedMessage();
+        return filter(text);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        final String text = useRawMessage ? event.getMessage().getFormat() : event.getMessage().getFormattedMessage();
+        return filter(text);
+    }
+
+    private Result filter(final String msg) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        return scrubber.find(msg) ? onMatch : onMismatch;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("useRaw=").append(useRawMessage);
+        sb.append(", patterns=").append(scrubber.getReplacements());
+        return sb.toString();
+    }
+
+    /**
+     * Create a Filter that matches any of several regular expressions.
+     * @param replacements The regular expressions to search for.
+     * @param useRawMsg If true, the raw message will be used, otherwise the formatted message will be used.
+     * @param match The action to perform when a match occurs.
+     * @param mismatch The action to perform when a mismatch occurs.
+     * @return The ScrubberFilter.
+     */
+    @PluginFactory
+    public static ScrubberFilter createFilter(
+            @PluginElement("Replace") final RegexReplacement[] replacements,
+            @PluginAttribute("useRawMsg") final String useRawMsg,
+            @PluginAttribute("onMatch") final String match,
+            @PluginAttribute("onMismatch") final String mismatch) {
+        if (replacements == null || replacements.length == 0) {
+            LOGGER.error("At least one replace element must be provided for ScrubberFilter");
+            return null;
+        }
+        final Scrubber scrubber;
+        try {
+            scrubber = Scrubber.newInstance(replacements);
+        } catch (final IllegalArgumentException ex) {
+            LOGGER.error("ScrubberFilter caught exception compiling patterns: " + ex.getMessage());
+            return null;
+        }
+        if (scrubber == null) {
+            LOGGER.error("At least one replace element must be provided for ScrubberFilter");
+            return null;
+        }
+        final boolean raw = Boolean.parseBoolean(useRawMsg);
+        final Result onMatch = Result.toResult(match);
+        final Result onMismatch = Result.toResult(mismatch);
+
+        return new ScrubberFilter(raw, scrubber, onMatch, onMismatch);
+    }
+
+}
@@ -70,6 +70,10 @@ public final class ThresholdFilter extends AbstractFilter {
         return level.isAtLeastAsSpecificAs(this.level) ? onMatch : onMismatch;
     }
 
+    Level getLevel() {
+        return level;
+    }
+
     @Override
     public String toString() {
         return level.toString();
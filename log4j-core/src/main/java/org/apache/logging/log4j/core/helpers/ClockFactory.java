@@ -28,6 +28,12 @@ public final class ClockFactory {
      * implementation class.
      */
     public static final String PROPERTY_NAME = "log4j.Clock";
+
+    /**
+     * Name of the system property that can be used to specify the update
+     * period of the {@link CoarseCachedClock} in microseconds.
+     */
+    public static final String UPDATE_PERIOD_PROPERTY_NAME = "log4j.Clock.UpdatePeriodMicros";
     private static final StatusLogger LOGGER = StatusLogger.getLogger();
 
     // private static final Clock clock = createClock();
@@ -42,7 +48,9 @@ public final class ClockFactory {
      * If system property {@code AsyncLogger.Clock=CachedClock} is specified,
      * this method returns an instance of {@link CachedClock}. If system
      * property {@code AsyncLogger.Clock=CoarseCachedClock} is specified, this
-     * method returns an instance of {@link CoarseCachedClock}.
+     * method returns an instance of {@link CoarseCachedClock}. If system
+     * property {@code AsyncLogger.Clock=NanoClock} is specified, this method
+     * returns a new instance of {@link NanoClock}.
      * <p>
      * If another value is specified, this value is taken as the fully qualified
      * class name of a class that implements the {@code Clock} interface. An
@@ -74,6 +82,11 @@ public final class ClockFactory {
             LOGGER.debug("Using specified CoarseCachedClock for timestamps");
             return CoarseCachedClock.instance();
         }
+        if (NanoClock.class.getName().equals(userRequest) //
+                || "NanoClock".equals(userRequest)) {
+            LOGGER.debug("Using specified NanoClock for timestamps");
+            return new NanoClock();
+        }
         try {
             final Clock result = (Clock) Class.forName(userRequest).newInstance();
             LOGGER.debug("Using {} for timestamps", userRequest);
@@ -16,16 +16,27 @@
  */
 package org.apache.logging.log4j.core.helpers;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
 /**
  * This Clock implementation is similar to CachedClock. It is slightly faster at
- * the cost of some accuracy.
+ * the cost of some accuracy. Reading the time never writes to shared memory, so
+ * threads reading it at the same time do not slow each other down. The update
+ * period can be set with the {@code log4j.Clock.UpdatePeriodMicros} system
+ * property.
  */
 public final class CoarseCachedClock implements Clock {
-    private static CoarseCachedClock instance = new CoarseCachedClock();
+
+    /** The default update period in microseconds. */
+    public static final long DEFAULT_UPDATE_PERIOD_MICROS = 1000;
+
+    private static CoarseCachedClock instance = new CoarseCachedClock(
+        parseUpdatePeriodMicros(System.getProperty(ClockFactory.UPDATE_PERIOD_PROPERTY_NAME)));
     private volatile long millis = System.currentTimeMillis();
 
+    private final long updatePeriodNanos;
+
     private final Thread updater = new Thread("Clock Updater Thread") {
         @Override
         public void run() {
@@ -34,12 +45,13 @@ public final class CoarseCachedClock implements Clock {
                 millis = time;
 
                 // avoid explicit dependency on sun.misc.Util
-                LockSupport.parkNanos(1000 * 1000);
+                LockSupport.parkNanos(updatePeriodNanos);
             }
         }
     };
 
-    private CoarseCachedClock() {
+    private CoarseCachedClock(final long updatePeriodMicros) {
+        this.updatePeriodNanos = TimeUnit.MICROSECONDS.toNanos(updatePeriodMicros);
         updater.setDaemon(true);
         updater.start();
     }
@@ -53,9 +65,36 @@ public final class CoarseCachedClock implements Clock {
         return instance;
     }
 
+    /**
+     * Returns the update period given by the value of the system property, or
+     * the default if it is missing or not a positive number.
+     */
+    static long parseUpdatePeriodMicros(final String period) {
+        if (period != null) {
+            try {
+                final long micros = Long.parseLong(period.trim());
+                if (micros > 0) {
+                    return micros;
+                }
+            } catch (final NumberFormatException ex) {
+                // Use the default.
+            }
+        }
+        return DEFAULT_UPDATE_PERIOD_MICROS;
+    }
+
+    /**
+     * Returns the update period of the background thread.
+     *
+     * @return the update period in microseconds
+     */
+    public long getUpdatePeriodMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(updatePeriodNanos);
+    }
+
     /**
      * Returns the value of a private long field that is updated by a background
-     * thread once every millisecond. Because timers on most platforms do not
+     * thread once every update period, by default every millisecond. Because timers on most platforms do not
      * have millisecond granularity, the returned value may "jump" every 10 or
      * 16 milliseconds.
      * @return the cached time
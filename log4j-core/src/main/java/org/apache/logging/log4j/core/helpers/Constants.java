@@ -35,6 +35,33 @@ public final class Constants {
 
     public static final String LOG4J_DEFAULT_STATUS_LEVEL = "Log4jDefaultStatusLevel";
 
+    /**
+     * Name of the system property that enables reusing unchanged Appenders when a LoggerContext is reconfigured.
+     */
+    public static final String LOG4J_INCREMENTAL_RECONFIGURATION = "Log4jIncrementalReconfiguration";
+
+    /**
+     * Name of the system property that selects how a LoggerContext holds its Loggers: Strong (the default), Weak
+     * or Soft.
+     */
+    public static final String LOG4J_LOGGER_REGISTRY = "Log4jLoggerRegistry";
+
+    /**
+     * Name of the system property holding the number of Loggers above which a LoggerContext reports that its
+     * registry is growing without bound.
+     */
+    public static final String LOG4J_LOGGER_REGISTRY_MAX_SIZE = "Log4jLoggerRegistryMaxSize";
+
+    /**
+     * Name of the system property holding the number of JMX notifications that can wait to be sent.
+     */
+    public static final String LOG4J_JMX_NOTIFICATION_QUEUE_SIZE = "Log4jJmxNotificationQueueSize";
+
+    /**
+     * Name of the system property holding the number of JMX notifications accepted per second, 0 for no limit.
+     */
+    public static final String LOG4J_JMX_NOTIFICATION_RATE = "Log4jJmxNotificationRate";
+
     /**
      * JNDI context name string literal.
      */
@@ -36,6 +36,21 @@ public final class NameUtil {
         return i > 0 ? name.substring(0, i) : "";
     }
 
+    /**
+     * Determines whether a Logger name is the given ancestor name or lies beneath it, that is whether the ancestor
+     * would be reached by repeatedly applying {@link #getSubName(String)} to the name.
+     * @param name The Logger name.
+     * @param ancestor The candidate ancestor name. The empty name is the ancestor of all names.
+     * @return true if the name is the ancestor or one of its descendants.
+     */
+    public static boolean isDescendant(final String name, final String ancestor) {
+        if (ancestor.isEmpty()) {
+            return true;
+        }
+        return name.startsWith(ancestor) &&
+            (name.length() == ancestor.length() || name.charAt(ancestor.length()) == '.');
+    }
+
     public static String md5(final String string) {
         try {
             final MessageDigest digest = MessageDigest.getInstance("MD5");
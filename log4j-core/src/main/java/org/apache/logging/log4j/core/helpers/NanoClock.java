@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@code PreciseClock} interface that derives the time
+ * from {@code System.nanoTime()}, anchored to the system time when the clock
+ * was created. The time has nanosecond precision and never goes backwards,
+ * even if the system time is changed, but it does not follow adjustments of
+ * the system time made after the clock was created.
+ */
+public final class NanoClock implements PreciseClock {
+
+    private final long originNanos;
+
+    private final long originEpochNanos;
+
+    /**
+     * Creates a clock anchored to the current system time.
+     */
+    public NanoClock() {
+        this.originNanos = System.nanoTime();
+        this.originEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the time in nanoseconds since the epoch.
+     * @return the origin plus the value of {@code System.nanoTime()} elapsed since the clock was created
+     */
+    @Override
+    public long currentTimeNanos() {
+        return originEpochNanos + (System.nanoTime() - originNanos);
+    }
+
+    /**
+     * Returns the time in milliseconds since the epoch.
+     * @return the result of {@link #currentTimeNanos()} in milliseconds
+     */
+    @Override
+    public long currentTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(currentTimeNanos());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that many threads can increment without contending on a single memory location. Each thread increments
+ * one of several stripes, chosen by its id, and the value of the counter is the sum of the stripes. The stripes are
+ * spaced a cache line apart so threads incrementing different stripes do not invalidate each other's caches.
+ * <p>
+ * At most 16 stripes are used, so a counter takes at most 1KB. Reading the value is more expensive than incrementing
+ * it, and a value read while other threads are incrementing the counter may miss some of those increments.
+ * </p>
+ */
+public final class StripedCounter {
+
+    /**
+     * The number of longs between two stripes, 64 bytes.
+     */
+    private static final int PADDING = 8;
+
+    private static final int MAX_STRIPES = 16;
+
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    private static int stripes(final int processors) {
+        int stripes = 1;
+        while (stripes < processors && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Adds a value to the counter.
+     * @param value The value to add.
+     */
+    public void add(final long value) {
+        final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        cells.addAndGet(stripe * PADDING, value);
+    }
+
+    /**
+     * Returns the value of the counter.
+     * @return The sum of all the values added.
+     */
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; ++i) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
@@ -389,10 +389,10 @@ public class Log4jLogEvent implements LogEvent {
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
-        final String n = name.isEmpty() ? "root" : name;
+        final String n = getLoggerName().isEmpty() ? "root" : getLoggerName();
         sb.append("Logger=").append(n);
-        sb.append(" Level=").append(level.name());
-        sb.append(" Message=").append(message.getFormattedMessage());
+        sb.append(" Level=").append(getLevel().name());
+        sb.append(" Message=").append(getMessage().getFormattedMessage());
         return sb.toString();
     }
 
@@ -417,19 +417,22 @@ public class Log4jLogEvent implements LogEvent {
         private final boolean isEndOfBatch;
 
         public LogEventProxy(final Log4jLogEvent event, final boolean includeLocation) {
-            this.fqcnOfLogger = event.fqcnOfLogger;
-            this.marker = event.marker;
-            this.level = event.level;
-            this.name = event.name;
-            this.message = event.message;
-            this.timestamp = event.timestamp;
-            this.throwable = event.throwable;
-            this.mdc = event.mdc;
-            this.ndc = event.ndc;
+            // Use the accessors so that subclasses such as OverlayLogEvent are captured correctly.
+            this.fqcnOfLogger = event.getFQCN();
+            this.marker = event.getMarker();
+            this.level = event.getLevel();
+            this.name = event.getLoggerName();
+            this.message = event.getMessage();
+            this.timestamp = event.getMillis();
+            this.throwable = event.getThrownProxy();
+            final Map<String, String> map = event.getContextMap();
+            this.mdc = map == ThreadContext.EMPTY_MAP ? null : map;
+            final ThreadContext.ContextStack stack = event.getContextStack();
+            this.ndc = stack == ThreadContext.EMPTY_STACK ? null : stack;
             this.location = includeLocation ? event.getSource() : null;
             this.threadName = event.getThreadName();
             this.isLocationRequired = includeLocation;
-            this.isEndOfBatch = event.endOfBatch;
+            this.isEndOfBatch = event.isEndOfBatch();
         }
 
         /**
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * A LogEvent that delegates to another LogEvent and only replaces its Message and/or adds entries to its context
+ * Map. Nothing is copied from the source event, so rewriting an event costs a single small object. The source event
+ * must not change while the overlay is in use, which holds for events that are passed down to Appenders.
+ * <p>
+ * This class extends Log4jLogEvent so that code which expects one, such as the ThrowableProxy based pattern
+ * converters and the AsyncAppender, keeps working. Serializing an OverlayLogEvent captures the merged values.
+ * </p>
+ */
+public class OverlayLogEvent extends Log4jLogEvent {
+
+    private static final long serialVersionUID = 2941376386547462387L;
+
+    private final LogEvent source;
+
+    private final Message message;
+
+    private final Map<String, String> contextData;
+
+    private transient Map<String, String> contextMap;
+
+    private transient ThrowableProxy thrownProxy;
+
+    /**
+     * Constructor.
+     * @param source The LogEvent to delegate to.
+     * @param message The Message replacing the one of the source event, or null to keep it.
+     * @param contextData The entries to add to or replace in the context Map of the source event, or null to keep
+     *                    it. The Map must not be modified afterwards.
+     */
+    public OverlayLogEvent(final LogEvent source, final Message message, final Map<String, String> contextData) {
+        super(source.getMillis());
+        this.source = source;
+        this.message = message;
+        this.contextData = contextData;
+    }
+
+    /**
+     * Returns the event this event delegates to.
+     * @return The source LogEvent.
+     */
+    public LogEvent getSourceEvent() {
+        return source;
+    }
+
+    @Override
+    public Level getLevel() {
+        return source.getLevel();
+    }
+
+    @Override
+    public String getLoggerName() {
+        return source.getLoggerName();
+    }
+
+    @Override
+    public Message getMessage() {
+        return message == null ? source.getMessage() : message;
+    }
+
+    @Override
+    public String getThreadName() {
+        return source.getThreadName();
+    }
+
+    @Override
+    public long getMillis() {
+        return source.getMillis();
+    }
+
+    @Override
+    public Throwable getThrown() {
+        return source.getThrown();
+    }
+
+    @Override
+    public ThrowableProxy getThrownProxy() {
+        if (source instanceof Log4jLogEvent) {
+            return ((Log4jLogEvent) source).getThrownProxy();
+        }
+        if (thrownProxy == null) {
+            final Throwable thrown = source.getThrown();
+            if (thrown != null) {
+                thrownProxy = new ThrowableProxy(thrown);
+            }
+        }
+        return thrownProxy;
+    }
+
+    @Override
+    public Marker getMarker() {
+        return source.getMarker();
+    }
+
+    @Override
+    public String getFQCN() {
+        return source.getFQCN();
+    }
+
+    @Override
+    public Map<String, String> getContextMap() {
+        if (contextData == null) {
+            return source.getContextMap();
+        }
+        if (contextMap == null) {
+            contextMap = new OverlayMap(source.getContextMap(), contextData);
+        }
+        return contextMap;
+    }
+
+    @Override
+    public ThreadContext.ContextStack getContextStack() {
+        return source.getContextStack();
+    }
+
+    @Override
+    public StackTraceElement getSource() {
+        return source.getSource();
+    }
+
+    @Override
+    public boolean isIncludeLocation() {
+        return source.isIncludeLocation();
+    }
+
+    @Override
+    public void setIncludeLocation(final boolean includeLocation) {
+        source.setIncludeLocation(includeLocation);
+    }
+
+    @Override
+    public boolean isEndOfBatch() {
+        return source.isEndOfBatch();
+    }
+
+    @Override
+    public void setEndOfBatch(final boolean endOfBatch) {
+        source.setEndOfBatch(endOfBatch);
+    }
+
+    /**
+     * Returns a Log4jLogEvent holding the current values of this event, which no longer depends on the source event.
+     * @return The copy of this event.
+     */
+    public Log4jLogEvent createMemento() {
+        return Log4jLogEvent.deserialize(Log4jLogEvent.serialize(this, isIncludeLocation()));
+    }
+
+    @Override
+    protected Object writeReplace() {
+        return Log4jLogEvent.serialize(this, isIncludeLocation());
+    }
+
+    /**
+     * A read-only view of a Map with some entries added or replaced. Lookups do not copy anything, the merged Map
+     * is only built when the entries are iterated.
+     */
+    private static final class OverlayMap extends AbstractMap<String, String> implements Serializable {
+
+        private static final long serialVersionUID = 4309461395012463185L;
+
+        private final Map<String, String> base;
+
+        private final Map<String, String> overlay;
+
+        private transient Map<String, String> merged;
+
+        private OverlayMap(final Map<String, String> base, final Map<String, String> overlay) {
+            this.base = base == null ? ThreadContext.EMPTY_MAP : base;
+            this.overlay = overlay;
+        }
+
+        @Override
+        public String get(final Object key) {
+            final String value = overlay.get(key);
+            return value != null || overlay.containsKey(key) ? value : base.get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return overlay.containsKey(key) || base.containsKey(key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return overlay.isEmpty() && base.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return merged().size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return merged().entrySet();
+        }
+
+        private Map<String, String> merged() {
+            if (merged == null) {
+                final Map<String, String> map = new HashMap<String, String>(base);
+                map.putAll(overlay);
+                merged = Collections.unmodifiableMap(map);
+            }
+            return merged;
+        }
+
+        private Object writeReplace() {
+            return new HashMap<String, String>(merged());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.appender.FailoverAppender;
+import org.apache.logging.log4j.core.config.AppenderMetrics;
+import org.apache.logging.log4j.core.helpers.Assert;
+import org.apache.logging.log4j.core.helpers.LatencyHistogram;
+
+/**
+ * Implementation of the {@code AppenderMetricsAdminMBean} interface.
+ */
+public class AppenderMetricsAdmin implements AppenderMetricsAdminMBean {
+
+    private final Appender appender;
+    private final AppenderMetrics metrics;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code AppenderMetricsAdmin} with the specified
+     * contextName and appender.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param appender the instrumented object
+     */
+    public AppenderMetricsAdmin(final String contextName, final Appender appender) {
+        Assert.isNotNull(contextName, "contextName");
+        this.appender = Assert.isNotNull(appender, "appender");
+        this.metrics = AppenderMetrics.getMetrics(appender);
+        try {
+            final String ctxName = Server.escape(contextName);
+            final String appenderName = Server.escape(appender.getName());
+            final String name = String.format(PATTERN, ctxName, appenderName);
+            objectName = new ObjectName(name);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see AppenderMetricsAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String getName() {
+        return appender.getName();
+    }
+
+    @Override
+    public long getAppendedCount() {
+        return metrics.getAppendedCount();
+    }
+
+    @Override
+    public long getFilteredCount() {
+        return metrics.getFilteredCount();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return metrics.getFailedCount();
+    }
+
+    @Override
+    public long getLatencyMean() {
+        return latency().getMean();
+    }
+
+    @Override
+    public long getLatencyMax() {
+        return latency().getMax();
+    }
+
+    @Override
+    public long getLatency50thPercentile() {
+        return latency().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getLatency99thPercentile() {
+        return latency().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getLatency999thPercentile() {
+        return latency().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getLatencyAtPercentile(final double percentile) {
+        return latency().getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public int getQueueSize() {
+        return appender instanceof AsyncAppender ? ((AsyncAppender) appender).getQueueSize() : -1;
+    }
+
+    @Override
+    public int getQueueRemainingCapacity() {
+        return appender instanceof AsyncAppender ? ((AsyncAppender) appender).getQueueRemainingCapacity() : -1;
+    }
+
+    @Override
+    public String getCircuitState() {
+        return appender instanceof FailoverAppender ? ((FailoverAppender) appender).getState().name() : null;
+    }
+
+    @Override
+    public long getCircuitTripCount() {
+        return appender instanceof FailoverAppender ? ((FailoverAppender) appender).getTripCount() : -1;
+    }
+
+    private LatencyHistogram latency() {
+        return metrics.getLatency();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring the events passed to an {@code Appender}
+ * and how long the Appender takes to append them. All durations are in
+ * nanoseconds and include the calls that failed.
+ */
+public interface AppenderMetricsAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for AppenderMetricsAdmin MBeans.
+     * This pattern contains two variables, where the first is the
+     * name of the context, the second is the name of the instrumented appender.
+     * <p>
+     * You can find all registered AppenderMetricsAdmin MBeans like this:
+     * </p>
+     * <pre>
+     * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+     * String pattern = String.format(AppenderMetricsAdminMBean.PATTERN, &quot;*&quot;, &quot;*&quot;);
+     * Set&lt;ObjectName&gt; metricsNames = mbs.queryNames(new ObjectName(pattern), null);
+     * </pre>
+     * @see AppenderAdminMBean#PATTERN
+     * @see Server#escape(String)
+     */
+    String PATTERN = "org.apache.logging.log4j2:type=LoggerContext,ctx=%s,sub=AppenderMetrics,name=%s";
+
+    /**
+     * Returns the name of the instrumented {@code Appender}.
+     *
+     * @return the name of the Appender
+     */
+    String getName();
+
+    /**
+     * Returns the number of events the instrumented {@code Appender} appended.
+     *
+     * @return the number of events appended
+     */
+    long getAppendedCount();
+
+    /**
+     * Returns the number of events that were not passed to the instrumented
+     * {@code Appender} because of a filter or level.
+     *
+     * @return the number of events filtered
+     */
+    long getFilteredCount();
+
+    /**
+     * Returns the number of events the instrumented {@code Appender} failed
+     * to append, whether or not the exception was suppressed.
+     *
+     * @return the number of failures
+     */
+    long getFailedCount();
+
+    /**
+     * Returns the mean time taken to append an event.
+     *
+     * @return the mean duration in nanoseconds
+     */
+    long getLatencyMean();
+
+    /**
+     * Returns the longest time taken to append an event.
+     *
+     * @return the maximum duration in nanoseconds
+     */
+    long getLatencyMax();
+
+    /**
+     * Returns the time half of the events were appended within.
+     *
+     * @return the median duration in nanoseconds
+     */
+    long getLatency50thPercentile();
+
+    /**
+     * Returns the time 99% of the events were appended within.
+     *
+     * @return the 99th percentile duration in nanoseconds
+     */
+    long getLatency99thPercentile();
+
+    /**
+     * Returns the time 99.9% of the events were appended within.
+     *
+     * @return the 99.9th percentile duration in nanoseconds
+     */
+    long getLatency999thPercentile();
+
+    /**
+     * Returns the time the given percentage of the events were appended
+     * within.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the duration in nanoseconds
+     */
+    long getLatencyAtPercentile(double percentile);
+
+    /**
+     * Returns the number of events waiting in the queue of the instrumented
+     * {@code Appender}.
+     *
+     * @return the number of events queued, or -1 if the Appender does not
+     *         queue events
+     */
+    int getQueueSize();
+
+    /**
+     * Returns the number of events that can be added to the queue of the
+     * instrumented {@code Appender} before it is full.
+     *
+     * @return the remaining capacity of the queue, or -1 if the Appender does
+     *         not queue events
+     */
+    int getQueueRemainingCapacity();
+
+    /**
+     * Returns the state of the circuit breaker guarding the primary Appender
+     * of the instrumented {@code FailoverAppender}.
+     *
+     * @return CLOSED, OPEN or HALF_OPEN, or {@code null} if the Appender is
+     *         not a FailoverAppender
+     */
+    String getCircuitState();
+
+    /**
+     * Returns the number of times the instrumented {@code FailoverAppender}
+     * abandoned its primary Appender for the failover Appenders.
+     *
+     * @return the number of times the circuit was opened, or -1 if the
+     *         Appender is not a FailoverAppender
+     */
+    long getCircuitTripCount();
+}
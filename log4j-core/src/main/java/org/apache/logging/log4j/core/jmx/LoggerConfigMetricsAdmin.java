@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.helpers.Assert;
+
+/**
+ * Implementation of the {@code LoggerConfigMetricsAdminMBean} interface.
+ */
+public class LoggerConfigMetricsAdmin implements LoggerConfigMetricsAdminMBean {
+
+    private final LoggerConfig loggerConfig;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code LoggerConfigMetricsAdmin} with the specified
+     * contextName and logger config.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param loggerConfig the instrumented object
+     */
+    public LoggerConfigMetricsAdmin(final String contextName, final LoggerConfig loggerConfig) {
+        Assert.isNotNull(contextName, "contextName");
+        this.loggerConfig = Assert.isNotNull(loggerConfig, "loggerConfig");
+        try {
+            final String ctxName = Server.escape(contextName);
+            final String configName = Server.escape(loggerConfig.getName());
+            final String name = String.format(PATTERN, ctxName, configName);
+            objectName = new ObjectName(name);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see LoggerConfigMetricsAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String getName() {
+        return loggerConfig.getName();
+    }
+
+    @Override
+    public long getFatalCount() {
+        return loggerConfig.getEventCount(Level.FATAL);
+    }
+
+    @Override
+    public long getErrorCount() {
+        return loggerConfig.getEventCount(Level.ERROR);
+    }
+
+    @Override
+    public long getWarnCount() {
+        return loggerConfig.getEventCount(Level.WARN);
+    }
+
+    @Override
+    public long getInfoCount() {
+        return loggerConfig.getEventCount(Level.INFO);
+    }
+
+    @Override
+    public long getDebugCount() {
+        return loggerConfig.getEventCount(Level.DEBUG);
+    }
+
+    @Override
+    public long getTraceCount() {
+        return loggerConfig.getEventCount(Level.TRACE);
+    }
+
+    @Override
+    public long getFilteredCount() {
+        return loggerConfig.getFilteredCount();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring the events logged through a {@code LoggerConfig}.
+ */
+public interface LoggerConfigMetricsAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for LoggerConfigMetricsAdmin MBeans.
+     * This pattern contains two variables, where the first is the name of the
+     * context, the second is the name of the instrumented logger config.
+     * <p>
+     * You can find all registered LoggerConfigMetricsAdmin MBeans like this:
+     * </p>
+     * <pre>
+     * MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+     * String pattern = String.format(LoggerConfigMetricsAdminMBean.PATTERN, &quot;*&quot;, &quot;*&quot;);
+     * Set&lt;ObjectName&gt; metricsNames = mbs.queryNames(new ObjectName(pattern), null);
+     * </pre>
+     * @see LoggerConfigAdminMBean#PATTERN
+     * @see Server#escape(String)
+     */
+    String PATTERN = "org.apache.logging.log4j2:type=LoggerContext,ctx=%s,sub=LoggerConfigMetrics,name=%s";
+
+    /**
+     * Returns the name of the instrumented {@code LoggerConfig}.
+     *
+     * @return the name of the LoggerConfig
+     */
+    String getName();
+
+    /**
+     * Returns the number of FATAL events passed to the instrumented
+     * {@code LoggerConfig}, including those passed on by its children.
+     *
+     * @return the number of FATAL events
+     */
+    long getFatalCount();
+
+    /**
+     * Returns the number of ERROR events passed to the instrumented
+     * {@code LoggerConfig}, including those passed on by its children.
+     *
+     * @return the number of ERROR events
+     */
+    long getErrorCount();
+
+    /**
+     * Returns the number of WARN events passed to the instrumented
+     * {@code LoggerConfig}, including those passed on by its children.
+     *
+     * @return the number of WARN events
+     */
+    long getWarnCount();
+
+    /**
+     * Returns the number of INFO events passed to the instrumented
+     * {@code LoggerConfig}, including those passed on by its children.
+     *
+     * @return the number of INFO events
+     */
+    long getInfoCount();
+
+    /**
+     * Returns the number of DEBUG events passed to the instrumented
+     * {@code LoggerConfig}, including those passed on by its children.
+     *
+     * @return the number of DEBUG events
+     */
+    long getDebugCount();
+
+    /**
+     * Returns the number of TRACE events passed to the instrumented
+     * {@code LoggerConfig}, including those passed on by its children.
+     *
+     * @return the number of TRACE events
+     */
+    long getTraceCount();
+
+    /**
+     * Returns the number of events denied by the filter of the instrumented
+     * {@code LoggerConfig}.
+     *
+     * @return the number of events filtered
+     */
+    long getFilteredCount();
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.core.helpers.Constants;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Sends the notifications of the Log4j MBeans to their listeners on a background thread. Tasks wait in a bounded
+ * queue and at most a configured number of tasks are accepted per second; tasks that do not fit are dropped and
+ * counted, so a burst of status events can neither block the threads that log them nor flood JMX clients.
+ * <p>
+ * The size of the queue is set with the system property {@value Constants#LOG4J_JMX_NOTIFICATION_QUEUE_SIZE}
+ * (1024 by default) and the rate with {@value Constants#LOG4J_JMX_NOTIFICATION_RATE} (100 per second by default,
+ * 0 for no limit).
+ * </p>
+ */
+public final class NotificationDispatcher implements Executor {
+
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    private static final int DEFAULT_RATE = 100;
+
+    private final Executor executor;
+    private final BlockingQueue<Runnable> queue;
+    private final int maxPerSecond;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger acceptedInWindow = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * Constructs a new {@code NotificationDispatcher}.
+     *
+     * @param executor runs the tasks, a single thread is enough
+     * @param queueSize the number of tasks that can wait to be run
+     * @param maxPerSecond the number of tasks accepted per second, or 0 for
+     *            no limit
+     */
+    public NotificationDispatcher(final Executor executor, final int queueSize, final int maxPerSecond) {
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<Runnable>(Math.max(queueSize, 1));
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * Constructs a new {@code NotificationDispatcher} configured by the
+     * system properties.
+     *
+     * @param executor runs the tasks, a single thread is enough
+     * @return a new NotificationDispatcher
+     */
+    public static NotificationDispatcher create(final Executor executor) {
+        final PropertiesUtil props = PropertiesUtil.getProperties();
+        final int queueSize = props.getIntegerProperty(Constants.LOG4J_JMX_NOTIFICATION_QUEUE_SIZE,
+            DEFAULT_QUEUE_SIZE);
+        final int rate = props.getIntegerProperty(Constants.LOG4J_JMX_NOTIFICATION_RATE, DEFAULT_RATE);
+        return new NotificationDispatcher(executor, queueSize, rate);
+    }
+
+    /**
+     * Queues a task without waiting. The task is dropped if the queue is full
+     * or the rate limit has been reached.
+     *
+     * @param task the task to run
+     * @return {@code true} if the task will be run, {@code false} if it was
+     *         dropped
+     */
+    public boolean dispatch(final Runnable task) {
+        if (!acquire() || !queue.offer(task)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Queues a task, dropping it if it cannot be accepted. This allows the
+     * dispatcher to be passed to {@code NotificationBroadcasterSupport}.
+     *
+     * @param task the task to run
+     */
+    @Override
+    public void execute(final Runnable task) {
+        dispatch(task);
+    }
+
+    /**
+     * Returns the number of tasks dropped because the queue was full or the
+     * rate limit had been reached.
+     *
+     * @return the number of tasks dropped
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of tasks waiting to be run.
+     *
+     * @return the number of tasks queued
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private boolean acquire() {
+        if (maxPerSecond <= 0) {
+            return true;
+        }
+        final long now = System.currentTimeMillis();
+        final long start = windowStart.get();
+        if (now - start >= Constants.MILLIS_IN_SECONDS && windowStart.compareAndSet(start, now)) {
+            acceptedInWindow.set(0);
+        }
+        return acceptedInWindow.incrementAndGet() <= maxPerSecond;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(drain);
+            } catch (final RejectedExecutionException ex) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            Runnable task;
+            while ((task = queue.poll()) != null) {
+                try {
+                    task.run();
+                } catch (final RuntimeException ex) {
+                    // Not reported to the StatusLogger, whose listener may have queued the task.
+                }
+            }
+            scheduled.set(false);
+            // A task queued after the last poll but before the flag was cleared is run by this thread.
+        } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.helpers.Assert;
+
+/**
+ * Base implementation of the {@code RingBufferAdminMBean} interface. The
+ * subclasses are created by the async package, so this package does not
+ * depend on the optional LMAX Disruptor library.
+ */
+public abstract class RingBufferAdmin implements RingBufferAdminMBean {
+
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code RingBufferAdmin} with the specified contextName
+     * and logger config name.
+     *
+     * @param contextName used in the {@code ObjectName} for this mbean
+     * @param loggerConfigName the name of the AsyncLoggerConfig, or
+     *            {@code null} for the ring buffer of the AsyncLoggers
+     */
+    protected RingBufferAdmin(final String contextName, final String loggerConfigName) {
+        Assert.isNotNull(contextName, "contextName");
+        try {
+            final String ctxName = Server.escape(contextName);
+            final String name = loggerConfigName == null ? String.format(PATTERN_ASYNC_LOGGER, ctxName) :
+                String.format(PATTERN_ASYNC_LOGGER_CONFIG, ctxName, Server.escape(loggerConfigName));
+            objectName = new ObjectName(name);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see RingBufferAdminMBean#PATTERN_ASYNC_LOGGER
+     * @see RingBufferAdminMBean#PATTERN_ASYNC_LOGGER_CONFIG
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring the ring buffer of the AsyncLoggers or
+ * AsyncLoggerConfigs.
+ */
+public interface RingBufferAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for the RingBufferAdmin MBean of the
+     * AsyncLoggers of a context. This pattern contains one variable, the name
+     * of the context.
+     * @see Server#escape(String)
+     */
+    String PATTERN_ASYNC_LOGGER = "org.apache.logging.log4j2:type=LoggerContext,ctx=%s,sub=AsyncLoggerRingBuffer";
+
+    /**
+     * ObjectName pattern ({@value}) for the RingBufferAdmin MBean of an
+     * AsyncLoggerConfig. This pattern contains two variables, where the first
+     * is the name of the context, the second is the name of the
+     * AsyncLoggerConfig. All AsyncLoggerConfigs share one ring buffer.
+     * @see Server#escape(String)
+     */
+    String PATTERN_ASYNC_LOGGER_CONFIG =
+        "org.apache.logging.log4j2:type=LoggerContext,ctx=%s,sub=AsyncLoggerConfigRingBuffer,name=%s";
+
+    /**
+     * Returns the number of slots of the ring buffer.
+     *
+     * @return the size of the ring buffer
+     */
+    long getBufferSize();
+
+    /**
+     * Returns the number of slots still free in the ring buffer. When it
+     * reaches zero, logging threads wait for the background thread.
+     *
+     * @return the remaining capacity of the ring buffer
+     */
+    long getRemainingCapacity();
+}
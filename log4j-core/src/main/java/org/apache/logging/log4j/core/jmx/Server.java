@@ -34,6 +34,9 @@ import javax.management.ObjectName;
 
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.async.AsyncLogger;
+import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.selector.ContextSelector;
 import org.apache.logging.log4j.status.StatusLogger;
@@ -129,7 +132,9 @@ public final class Server {
             return;
         }
         final Executor executor = Executors.newFixedThreadPool(1);
-        registerStatusLogger(mbs, executor);
+        // status notifications are queued and rate limited so a burst of status events cannot block logging
+        // threads; they have their own dispatcher so the limit never drops the notifications of the contexts
+        registerStatusLogger(mbs, NotificationDispatcher.create(executor));
         registerContextSelector(selector, mbs, executor);
 
         final List<LoggerContext> contexts = selector.getLoggerContexts();
@@ -185,6 +190,11 @@ public final class Server {
         for (final LoggerContext ctx : contexts) {
             final LoggerContextAdmin mbean = new LoggerContextAdmin(ctx, executor);
             mbs.registerMBean(mbean, mbean.getObjectName());
+
+            if (ctx instanceof AsyncLoggerContext) {
+                final RingBufferAdmin rbmbean = AsyncLogger.createRingBufferAdmin(ctx.getName());
+                mbs.registerMBean(rbmbean, rbmbean.getObjectName());
+            }
         }
     }
 
@@ -193,6 +203,13 @@ public final class Server {
         final String pattern = LoggerConfigAdminMBean.PATTERN;
         final String search = String.format(pattern, context.getName(), "*");
         unregisterAllMatching(search, mbs);
+
+        final String metrics = String.format(LoggerConfigMetricsAdminMBean.PATTERN, context.getName(), "*");
+        unregisterAllMatching(metrics, mbs);
+
+        final String ringBuffers = String.format(RingBufferAdminMBean.PATTERN_ASYNC_LOGGER_CONFIG,
+                context.getName(), "*");
+        unregisterAllMatching(ringBuffers, mbs);
     }
 
     private static void unregisterAppenders(final LoggerContext context,
@@ -200,6 +217,9 @@ public final class Server {
         final String pattern = AppenderAdminMBean.PATTERN;
         final String search = String.format(pattern, context.getName(), "*");
         unregisterAllMatching(search, mbs);
+
+        final String metrics = String.format(AppenderMetricsAdminMBean.PATTERN, context.getName(), "*");
+        unregisterAllMatching(metrics, mbs);
     }
 
     private static void unregisterAllMatching(final String search, final MBeanServer mbs) {
@@ -223,6 +243,14 @@ public final class Server {
             final LoggerConfig cfg = map.get(name);
             final LoggerConfigAdmin mbean = new LoggerConfigAdmin(ctx.getName(), cfg);
             mbs.registerMBean(mbean, mbean.getObjectName());
+
+            final LoggerConfigMetricsAdmin metrics = new LoggerConfigMetricsAdmin(ctx.getName(), cfg);
+            mbs.registerMBean(metrics, metrics.getObjectName());
+
+            if (cfg instanceof AsyncLoggerConfig) {
+                final RingBufferAdmin rbmbean = ((AsyncLoggerConfig) cfg).createRingBufferAdmin(ctx.getName());
+                mbs.registerMBean(rbmbean, rbmbean.getObjectName());
+            }
         }
     }
 
@@ -234,6 +262,9 @@ public final class Server {
             final Appender appender = map.get(name);
             final AppenderAdmin mbean = new AppenderAdmin(ctx.getName(), appender);
             mbs.registerMBean(mbean, mbean.getObjectName());
+
+            final AppenderMetricsAdmin metrics = new AppenderMetricsAdmin(ctx.getName(), appender);
+            mbs.registerMBean(metrics, metrics.getObjectName());
         }
     }
 }
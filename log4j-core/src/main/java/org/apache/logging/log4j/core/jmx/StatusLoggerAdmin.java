@@ -17,7 +17,10 @@
 package org.apache.logging.log4j.core.jmx;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.management.MBeanNotificationInfo;
 import javax.management.Notification;
@@ -31,22 +34,40 @@ import org.apache.logging.log4j.status.StatusLogger;
 
 /**
  * Implementation of the {@code StatusLoggerAdminMBean} interface.
+ * <p>
+ * Status events are turned into notifications on the thread of a
+ * {@link NotificationDispatcher}, never on the thread that logged them. While
+ * the notifications for an event are waiting to be sent, events with the same
+ * level and message are counted instead of queued, and the message
+ * notification reports how often the event was repeated.
+ * </p>
  */
 public class StatusLoggerAdmin extends NotificationBroadcasterSupport implements
         StatusListener, StatusLoggerAdminMBean {
 
+    private static final int CLOSED = -1;
+
     private final AtomicLong sequenceNo = new AtomicLong();
     private final ObjectName objectName;
+    private final NotificationDispatcher dispatcher;
+    private final ConcurrentMap<String, Pending> pending = new ConcurrentHashMap<String, Pending>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
     private Level level = Level.WARN;
 
     /**
      * Constructs a new {@code StatusLoggerAdmin} with the {@code Executor} to
      * be used for sending {@code Notification}s asynchronously to listeners.
+     * An {@code Executor} that is not a {@link NotificationDispatcher} is
+     * wrapped in one configured by the system properties.
      *
      * @param executor used to send notifications asynchronously
      */
     public StatusLoggerAdmin(final Executor executor) {
-        super(executor, createNotificationInfo());
+        // notifications are sent synchronously by the tasks run by the dispatcher
+        super((Executor) null, createNotificationInfo());
+        this.dispatcher = executor instanceof NotificationDispatcher ? (NotificationDispatcher) executor :
+            NotificationDispatcher.create(executor);
         try {
             objectName = new ObjectName(NAME);
         } catch (final Exception e) {
@@ -102,8 +123,35 @@ public class StatusLoggerAdmin extends NotificationBroadcasterSupport implements
      */
     @Override
     public void log(final StatusData data) {
+        final String key = data.getLevel().name() + ' ' + data.getMessage().getFormattedMessage();
+        final Pending task = new Pending(key, data);
+        while (true) {
+            final Pending existing = pending.putIfAbsent(key, task);
+            if (existing == null) {
+                break;
+            }
+            if (existing.repeat()) {
+                coalesced.incrementAndGet();
+                return;
+            }
+            // the existing notification has been sent, this event starts a new one
+            if (pending.replace(key, existing, task)) {
+                break;
+            }
+        }
+        if (!dispatcher.dispatch(task)) {
+            task.close();
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void send(final StatusData data, final int repeats) {
+        String message = data.getFormattedStatus();
+        if (repeats > 0) {
+            message = message + " (repeated " + repeats + " more times)";
+        }
         final Notification notifMsg = new Notification(NOTIF_TYPE_MESSAGE,
-                getObjectName(), nextSeqNo(), now(), data.getFormattedStatus());
+                getObjectName(), nextSeqNo(), now(), message);
         sendNotification(notifMsg);
 
         final Notification notifData = new Notification(NOTIF_TYPE_DATA,
@@ -112,6 +160,16 @@ public class StatusLoggerAdmin extends NotificationBroadcasterSupport implements
         sendNotification(notifData);
     }
 
+    @Override
+    public long getCoalescedNotificationCount() {
+        return coalesced.get();
+    }
+
+    @Override
+    public long getDroppedNotificationCount() {
+        return dropped.get();
+    }
+
     /**
      * Returns the {@code ObjectName} of this mbean.
      *
@@ -129,4 +187,52 @@ public class StatusLoggerAdmin extends NotificationBroadcasterSupport implements
     private long now() {
         return System.currentTimeMillis();
     }
+
+    /**
+     * The notifications for a status event, waiting to be sent.
+     */
+    private class Pending implements Runnable {
+        private final String key;
+        private final StatusData data;
+        /** The number of repeated events, or {@code CLOSED} once the count has been read. */
+        private final AtomicInteger repeats = new AtomicInteger();
+
+        public Pending(final String key, final StatusData data) {
+            this.key = key;
+            this.data = data;
+        }
+
+        /**
+         * Counts a repeated event.
+         *
+         * @return {@code false} if the count has already been read
+         */
+        boolean repeat() {
+            while (true) {
+                final int count = repeats.get();
+                if (count == CLOSED) {
+                    return false;
+                }
+                if (repeats.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Reads the number of repeated events; events logged from now on start a new notification.
+         *
+         * @return the number of repeated events
+         */
+        int close() {
+            final int count = repeats.getAndSet(CLOSED);
+            pending.remove(key, this);
+            return count;
+        }
+
+        @Override
+        public void run() {
+            send(data, close());
+        }
+    }
 }
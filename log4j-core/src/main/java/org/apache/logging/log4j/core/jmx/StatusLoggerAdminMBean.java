@@ -81,4 +81,21 @@ public interface StatusLoggerAdminMBean {
      */
     void setLevel(String level);
 
+    /**
+     * Returns the number of status events that were not sent as separate
+     * notifications because an event with the same level and message was
+     * still waiting to be sent.
+     *
+     * @return the number of coalesced status events
+     */
+    long getCoalescedNotificationCount();
+
+    /**
+     * Returns the number of status events that were not sent because the
+     * notification queue was full or the notification rate limit had been
+     * reached.
+     *
+     * @return the number of dropped status events
+     */
+    long getDroppedNotificationCount();
 }
@@ -29,9 +29,11 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.Charsets;
 import org.apache.logging.log4j.core.helpers.Throwables;
-import org.apache.logging.log4j.core.helpers.Transform;
+import org.apache.logging.log4j.core.layout.JsonWriter.Fragment;
+import org.apache.logging.log4j.message.MapMessage;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MultiformatMessage;
+import org.apache.logging.log4j.message.StructuredDataMessage;
 
 /**
  * Appends a series of JSON events as strings serialized as bytes.
@@ -60,7 +62,7 @@ import org.apache.logging.log4j.message.MultiformatMessage;
  *     "level":"ERROR",
  *     "thread":"main",
  *     "message":"Message flushed with immediate flush=true",
- *     "throwable":"java.lang.IllegalArgumentException: badarg\\n\\tat org.apache.logging.log4j.core.appender.JSONCompleteFileAppenderTest.testFlushAtEndOfBatch(JSONCompleteFileAppenderTest.java:54)\\n\\tat sun.reflect.NativeMethodAccessorImpl.invoke0(Native Method)\\n\\tat sun.reflect.NativeMethodAccessorImpl.invoke(NativeMethodAccessorImpl.java:57)\\n\\tat sun.reflect.DelegatingMethodAccessorImpl.invoke(DelegatingMethodAccessorImpl.java:43)\\n\\tat java.lang.reflect.Method.invoke(Method.java:606)\\n\\tat org.junit.runners.model.FrameworkMethod$1.runReflectiveCall(FrameworkMethod.java:47)\\n\\tat org.junit.internal.runners.model.ReflectiveCallable.run(ReflectiveCallable.java:12)\\n\\tat org.junit.runners.model.FrameworkMethod.invokeExplosively(FrameworkMethod.java:44)\\n\\tat org.junit.internal.runners.statements.InvokeMethod.evaluate(InvokeMethod.java:17)\\n\\tat org.junit.runners.ParentRunner.runLeaf(ParentRunner.java:271)\\n\\tat org.junit.runners.BlockJUnit4ClassRunner.runChild(BlockJUnit4ClassRunner.java:70)\\n\\tat org.junit.runners.BlockJUnit4ClassRunner.runChild(BlockJUnit4ClassRunner.java:50)\\n\\tat org.junit.runners.ParentRunner$3.run(ParentRunner.java:238)\\n\\tat org.junit.runners.ParentRunner$1.schedule(ParentRunner.java:63)\\n\\tat org.junit.runners.ParentRunner.runChildren(ParentRunner.java:236)\\n\\tat org.junit.runners.ParentRunner.access$000(ParentRunner.java:53)\\n\\tat org.junit.runners.ParentRunner$2.evaluate(ParentRunner.java:229)\\n\\tat org.junit.internal.runners.statements.RunBefores.evaluate(RunBefores.java:26)\\n\\tat org.junit.runners.ParentRunner.run(ParentRunner.java:309)\\n\\tat org.eclipse.jdt.internal.junit4.runner.JUnit4TestReference.run(JUnit4TestReference.java:50)\\n\\tat org.eclipse.jdt.internal.junit.runner.TestExecution.run(TestExecution.java:38)\\n\\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.runTests(RemoteTestRunner.java:467)\\n\\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.runTests(RemoteTestRunner.java:683)\\n\\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.run(RemoteTestRunner.java:390)\\n\\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.main(RemoteTestRunner.java:197)\\n"
+ *     "throwable":"java.lang.IllegalArgumentException: badarg\n\tat org.apache.logging.log4j.core.appender.JSONCompleteFileAppenderTest.testFlushAtEndOfBatch(JSONCompleteFileAppenderTest.java:54)\n\tat sun.reflect.NativeMethodAccessorImpl.invoke0(Native Method)\n\tat sun.reflect.NativeMethodAccessorImpl.invoke(NativeMethodAccessorImpl.java:57)\n\tat sun.reflect.DelegatingMethodAccessorImpl.invoke(DelegatingMethodAccessorImpl.java:43)\n\tat java.lang.reflect.Method.invoke(Method.java:606)\n\tat org.junit.runners.model.FrameworkMethod$1.runReflectiveCall(FrameworkMethod.java:47)\n\tat org.junit.internal.runners.model.ReflectiveCallable.run(ReflectiveCallable.java:12)\n\tat org.junit.runners.model.FrameworkMethod.invokeExplosively(FrameworkMethod.java:44)\n\tat org.junit.internal.runners.statements.InvokeMethod.evaluate(InvokeMethod.java:17)\n\tat org.junit.runners.ParentRunner.runLeaf(ParentRunner.java:271)\n\tat org.junit.runners.BlockJUnit4ClassRunner.runChild(BlockJUnit4ClassRunner.java:70)\n\tat org.junit.runners.BlockJUnit4ClassRunner.runChild(BlockJUnit4ClassRunner.java:50)\n\tat org.junit.runners.ParentRunner$3.run(ParentRunner.java:238)\n\tat org.junit.runners.ParentRunner$1.schedule(ParentRunner.java:63)\n\tat org.junit.runners.ParentRunner.runChildren(ParentRunner.java:236)\n\tat org.junit.runners.ParentRunner.access$000(ParentRunner.java:53)\n\tat org.junit.runners.ParentRunner$2.evaluate(ParentRunner.java:229)\n\tat org.junit.internal.runners.statements.RunBefores.evaluate(RunBefores.java:26)\n\tat org.junit.runners.ParentRunner.run(ParentRunner.java:309)\n\tat org.eclipse.jdt.internal.junit4.runner.JUnit4TestReference.run(JUnit4TestReference.java:50)\n\tat org.eclipse.jdt.internal.junit.runner.TestExecution.run(TestExecution.java:38)\n\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.runTests(RemoteTestRunner.java:467)\n\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.runTests(RemoteTestRunner.java:683)\n\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.run(RemoteTestRunner.java:390)\n\tat org.eclipse.jdt.internal.junit.runner.RemoteTestRunner.main(RemoteTestRunner.java:197)\n"
  *   }
  * ]</pre>
  * <p>
@@ -81,41 +83,121 @@ import org.apache.logging.log4j.message.MultiformatMessage;
  * appender uses end-of-line characters and indents lines to format the text. If {@code compact="true"}, then no
  * end-of-line or indentation is used. Message content may contain, of course, escaped end-of-lines.
  * </p>
+ * <h4>Newline delimited JSON</h4>
+ * <p>
+ * If {@code ndjson="true"}, each event is written compact and followed by a single {@code \n}, without separating
+ * commas and without header or footer, so every line of the output is a JSON object of its own.
+ * </p>
+ * <h4>Messages</h4>
+ * <p>
+ * A MapMessage is written as a JSON object holding its entries. A StructuredDataMessage is written as a JSON object
+ * holding its id, type, message and a "data" object. Other messages supporting the JSON format are written as is,
+ * all remaining messages as a JSON string.
+ * </p>
  */
 @Plugin(name = "JSONLayout", category = "Core", elementType = "layout", printObject = true)
 public class JSONLayout extends AbstractStringLayout {
 
-    private static final int DEFAULT_SIZE = 256;
-
     // We yield to \r\n for the default.
     private static final String DEFAULT_EOL = "\r\n";
     private static final String COMPACT_EOL = "";
     private static final String DEFAULT_INDENT = "  ";
     private static final String COMPACT_INDENT = "";
+    private static final String NDJSON_EOL = "\n";
 
     private static final String[] FORMATS = new String[] { "json" };
 
+    /**
+     * The nesting depth of the objects written for a MapMessage or StructuredDataMessage.
+     */
+    private static final int MAX_DEPTH = 2;
+
     private final boolean locationInfo;
     private final boolean properties;
     private final boolean complete;
+    private final boolean ndjson;
     private final String eol;
-    private final String indent1;
-    private final String indent2;
-    private final String indent3;
-    private final String indent4;
     private volatile boolean firstLayoutDone;
 
+    private final Fragment separator;
+    private final Fragment loggerField;
+    private final Fragment timestampField;
+    private final Fragment levelField;
+    private final Fragment threadField;
+    private final Fragment messageField;
+    private final Fragment ndcField;
+    private final Fragment throwableField;
+    private final Fragment classField;
+    private final Fragment methodField;
+    private final Fragment fileField;
+    private final Fragment lineField;
+    private final Fragment locationEnd;
+    private final Fragment propertiesField;
+    private final Fragment nameField;
+    private final Fragment valueField;
+    private final Fragment propertyEnd;
+    private final Fragment propertiesEnd;
+    private final Fragment end;
+    private final Fragment newLine;
+    private final Fragment[] objectStart = new Fragment[MAX_DEPTH];
+    private final Fragment[] objectSeparator = new Fragment[MAX_DEPTH];
+    private final Fragment[] objectEnd = new Fragment[MAX_DEPTH];
+
+    /**
+     * Holds the JsonWriter of each thread while it is not in use.
+     */
+    private final ThreadLocal<JsonWriter> writers = new ThreadLocal<JsonWriter>();
+
     protected JSONLayout(final boolean locationInfo, final boolean properties, final boolean complete, boolean compact,
             final Charset charset) {
+        this(locationInfo, properties, complete, compact, false, charset);
+    }
+
+    protected JSONLayout(final boolean locationInfo, final boolean properties, final boolean complete,
+            final boolean compact, final boolean ndjson, final Charset charset) {
         super(charset);
         this.locationInfo = locationInfo;
         this.properties = properties;
-        this.complete = complete;
-        this.eol = compact ? COMPACT_EOL : DEFAULT_EOL;
-        this.indent1 = compact ? COMPACT_INDENT : DEFAULT_INDENT;
-        this.indent2 = this.indent1 + this.indent1;
-        this.indent3 = this.indent2 + this.indent1;
-        this.indent4 = this.indent3 + this.indent1;
+        this.complete = complete && !ndjson;
+        this.ndjson = ndjson;
+        this.eol = compact || ndjson ? COMPACT_EOL : DEFAULT_EOL;
+        final String indent = compact || ndjson ? COMPACT_INDENT : DEFAULT_INDENT;
+        final String[] indents = new String[MAX_DEPTH + 3];
+        indents[0] = "";
+        for (int i = 1; i < indents.length; ++i) {
+            indents[i] = indents[i - 1] + indent;
+        }
+        final String indent1 = indents[1];
+        final String indent2 = indents[2];
+        final String indent3 = indents[3];
+        final String indent4 = indents[4];
+        // Each Fragment ends the value before it so an optional field is written as a single Fragment.
+        this.separator = new Fragment(',' + eol);
+        this.loggerField = new Fragment(indent1 + '{' + eol + indent2 + "\"logger\":\"");
+        this.timestampField = new Fragment("\"," + eol + indent2 + "\"timestamp\":\"");
+        this.levelField = new Fragment("\"," + eol + indent2 + "\"level\":\"");
+        this.threadField = new Fragment("\"," + eol + indent2 + "\"thread\":\"");
+        this.messageField = new Fragment(',' + eol + indent2 + "\"message\":");
+        this.ndcField = new Fragment(',' + eol + indent2 + "\"ndc\":");
+        this.throwableField = new Fragment(',' + eol + indent2 + "\"throwable\":");
+        this.classField = new Fragment(',' + eol + indent2 + "\"LocationInfo\":{" + eol + indent3 + "\"class\":\"");
+        this.methodField = new Fragment("\"," + eol + indent3 + "\"method\":\"");
+        this.fileField = new Fragment("\"," + eol + indent3 + "\"file\":\"");
+        this.lineField = new Fragment("\"," + eol + indent3 + "\"line\":\"");
+        this.locationEnd = new Fragment("\"" + eol + indent2 + '}');
+        this.propertiesField = new Fragment(',' + eol + indent2 + "\"Properties\":[" + eol);
+        this.nameField = new Fragment(indent3 + '{' + eol + indent4 + "\"name\":\"");
+        this.valueField = new Fragment("\"," + eol + indent4 + "\"value\":\"");
+        this.propertyEnd = new Fragment("\"" + eol + indent3 + '}');
+        this.propertiesEnd = new Fragment(indent2 + ']');
+        this.end = new Fragment(eol + indent1 + '}' + (ndjson ? NDJSON_EOL : ""));
+        this.newLine = new Fragment(eol);
+        for (int depth = 0; depth < MAX_DEPTH; ++depth) {
+            // The members of the message are indented one level deeper than the message field.
+            this.objectStart[depth] = new Fragment('{' + eol + indents[depth + 3]);
+            this.objectSeparator[depth] = new Fragment(',' + eol + indents[depth + 3]);
+            this.objectEnd[depth] = new Fragment(eol + indents[depth + 2] + '}');
+        }
     }
 
     /**
@@ -123,169 +205,206 @@ public class JSONLayout extends AbstractStringLayout {
      * 
      * @param event
      *            The LogEvent.
-     * @return The XML representation of the LogEvent.
+     * @return The JSON representation of the LogEvent.
      */
     @Override
     public String toSerializable(final LogEvent event) {
-        final StringBuilder buf = new StringBuilder(DEFAULT_SIZE);
-        // DC locking to avoid synchronizing the whole layout.
-        boolean check = this.firstLayoutDone; 
-        if (!this.firstLayoutDone) {
-            synchronized(this) {
-                check = this.firstLayoutDone;
-                if (!check) {
-                    this.firstLayoutDone = true;
-                } else {
-                    buf.append(',');
-                    buf.append(this.eol);                                
-                }
-            }
-        } else {
-            buf.append(',');
-            buf.append(this.eol);                                            
+        final JsonWriter out = acquireWriter();
+        try {
+            write(event, out);
+            return out.toString();
+        } finally {
+            writers.set(out);
         }
-        buf.append(this.indent1);
-        buf.append('{');
-        buf.append(this.eol);
-        buf.append(this.indent2);
-        buf.append("\"logger\":\"");
+    }
+
+    /**
+     * Formats a {@link org.apache.logging.log4j.core.LogEvent} directly into the bytes of the Layout's Charset.
+     *
+     * @param event
+     *            The LogEvent.
+     * @return The JSON representation of the LogEvent.
+     */
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+        final JsonWriter out = acquireWriter();
+        try {
+            write(event, out);
+            return out.toByteArray();
+        } finally {
+            writers.set(out);
+        }
+    }
+
+    /**
+     * Takes the JsonWriter of the current thread. A new one is created when formatting the message of an event logs
+     * another event through this Layout, as the writer of the outer event is still in use.
+     */
+    private JsonWriter acquireWriter() {
+        final JsonWriter out = writers.get();
+        if (out == null) {
+            return JsonWriter.create(getCharset());
+        }
+        writers.set(null);
+        out.reset();
+        return out;
+    }
+
+    private void write(final LogEvent event, final JsonWriter out) {
+        if (!ndjson && !isFirstEvent()) {
+            out.append(this.separator);
+        }
+        out.append(this.loggerField);
         String name = event.getLoggerName();
         if (name.isEmpty()) {
             name = "root";
         }
-        buf.append(Transform.escapeJsonControlCharacters(name));
-        buf.append("\",");
-        buf.append(this.eol);
-        buf.append(this.indent2);
-        buf.append("\"timestamp\":\"");
-        buf.append(event.getMillis());
-        buf.append("\",");
-        buf.append(this.eol);
-        buf.append(this.indent2);
-        buf.append("\"level\":\"");
-        buf.append(Transform.escapeJsonControlCharacters(String.valueOf(event.getLevel())));
-        buf.append("\",");
-        buf.append(this.eol);
-        buf.append(this.indent2);
-        buf.append("\"thread\":\"");
-        buf.append(Transform.escapeJsonControlCharacters(event.getThreadName()));
-        buf.append("\",");
-        buf.append(this.eol);
+        out.appendEscaped(name);
+        out.append(this.timestampField);
+        out.append(event.getMillis());
+        out.append(this.levelField);
+        out.appendEscaped(String.valueOf(event.getLevel()));
+        out.append(this.threadField);
+        out.appendEscaped(event.getThreadName());
+        out.append('"');
 
         final Message msg = event.getMessage();
         if (msg != null) {
-            boolean jsonSupported = false;
-            if (msg instanceof MultiformatMessage) {
-                final String[] formats = ((MultiformatMessage) msg).getFormats();
-                for (final String format : formats) {
-                    if (format.equalsIgnoreCase("JSON")) {
-                        jsonSupported = true;
-                        break;
-                    }
-                }
-            }
-            buf.append(this.indent2);
-            buf.append("\"message\":\"");
-            if (jsonSupported) {
-                buf.append(((MultiformatMessage) msg).getFormattedMessage(FORMATS));
-            } else {
-                Transform.appendEscapingCDATA(buf, event.getMessage().getFormattedMessage());
-            }
-            buf.append('\"');
+            out.append(this.messageField);
+            writeMessage(out, msg);
         }
 
         if (event.getContextStack().getDepth() > 0) {
-            buf.append(",");
-            buf.append(this.eol);
-            buf.append("\"ndc\":");
-            Transform.appendEscapingCDATA(buf, event.getContextStack().toString());
-            buf.append("\"");
+            out.append(this.ndcField);
+            out.appendString(event.getContextStack().toString());
         }
 
         final Throwable throwable = event.getThrown();
         if (throwable != null) {
-            buf.append(",");
-            buf.append(this.eol);
-            buf.append(this.indent2);
-            buf.append("\"throwable\":\"");
+            out.append(this.throwableField);
+            out.append('"');
             final List<String> list = Throwables.toStringList(throwable);
             for (final String str : list) {
-                buf.append(Transform.escapeJsonControlCharacters(str));
-                buf.append("\\\\n");
+                out.appendEscaped(str);
+                out.appendEscaped("\n");
             }
-            buf.append("\"");
+            out.append('"');
         }
 
         if (this.locationInfo) {
             final StackTraceElement element = event.getSource();
-            buf.append(",");
-            buf.append(this.eol);
-            buf.append(this.indent2);
-            buf.append("\"LocationInfo\":{");
-            buf.append(this.eol);
-            buf.append(this.indent3);
-            buf.append("\"class\":\"");
-            buf.append(Transform.escapeJsonControlCharacters(element.getClassName()));
-            buf.append("\",");
-            buf.append(this.eol);
-            buf.append(this.indent3);
-            buf.append("\"method\":\"");
-            buf.append(Transform.escapeJsonControlCharacters(element.getMethodName()));
-            buf.append("\",");
-            buf.append(this.eol);
-            buf.append(this.indent3);
-            buf.append("\"file\":\"");
-            buf.append(Transform.escapeJsonControlCharacters(element.getFileName()));
-            buf.append("\",");
-            buf.append(this.eol);
-            buf.append(this.indent3);
-            buf.append("\"line\":\"");
-            buf.append(element.getLineNumber());
-            buf.append("\"");
-            buf.append(this.eol);
-            buf.append(this.indent2);
-            buf.append("}");
+            out.append(this.classField);
+            out.appendEscaped(element.getClassName());
+            out.append(this.methodField);
+            out.appendEscaped(element.getMethodName());
+            out.append(this.fileField);
+            out.appendEscaped(element.getFileName());
+            out.append(this.lineField);
+            out.append(element.getLineNumber());
+            out.append(this.locationEnd);
         }
 
         if (this.properties && event.getContextMap().size() > 0) {
-            buf.append(",");
-            buf.append(this.eol);
-            buf.append(this.indent2);
-            buf.append("\"Properties\":[");
-            buf.append(this.eol);
+            out.append(this.propertiesField);
             final Set<Entry<String, String>> entrySet = event.getContextMap().entrySet();
             int i = 1;
             for (final Map.Entry<String, String> entry : entrySet) {
-                buf.append(this.indent3);
-                buf.append('{');
-                buf.append(this.eol);
-                buf.append(this.indent4);
-                buf.append("\"name\":\"");
-                buf.append(Transform.escapeJsonControlCharacters(entry.getKey()));
-                buf.append("\",");
-                buf.append(this.eol);
-                buf.append(this.indent4);
-                buf.append("\"value\":\"");
-                buf.append(Transform.escapeJsonControlCharacters(String.valueOf(entry.getValue())));
-                buf.append("\"");
-                buf.append(this.eol);
-                buf.append(this.indent3);
-                buf.append("}");
+                out.append(this.nameField);
+                out.appendEscaped(entry.getKey());
+                out.append(this.valueField);
+                out.appendEscaped(String.valueOf(entry.getValue()));
+                out.append(this.propertyEnd);
                 if (i < entrySet.size()) {
-                    buf.append(",");
+                    out.append(',');
                 }
-                buf.append(this.eol);
+                out.append(this.newLine);
                 i++;
             }
-            buf.append(this.indent2);
-            buf.append("]");
+            out.append(this.propertiesEnd);
         }
 
-        buf.append(this.eol);
-        buf.append(this.indent1);
-        buf.append("}");
+        out.append(this.end);
+    }
+
+    private boolean isFirstEvent() {
+        // DC locking to avoid synchronizing the whole layout.
+        if (this.firstLayoutDone) {
+            return false;
+        }
+        synchronized (this) {
+            if (this.firstLayoutDone) {
+                return false;
+            }
+            this.firstLayoutDone = true;
+            return true;
+        }
+    }
+
+    private void writeMessage(final JsonWriter out, final Message msg) {
+        if (msg instanceof StructuredDataMessage) {
+            final StructuredDataMessage sdMsg = (StructuredDataMessage) msg;
+            out.append(this.objectStart[0]);
+            boolean first = true;
+            if (sdMsg.getId() != null) {
+                first = writeMember(out, 0, first, "id", sdMsg.getId().toString());
+            }
+            if (sdMsg.getType() != null) {
+                first = writeMember(out, 0, first, "type", sdMsg.getType());
+            }
+            if (sdMsg.getFormat() != null) {
+                first = writeMember(out, 0, first, "message", sdMsg.getFormat());
+            }
+            if (!first) {
+                out.append(this.objectSeparator[0]);
+            }
+            out.appendString("data");
+            out.append(':');
+            writeObject(out, 1, sdMsg.getData());
+            out.append(this.objectEnd[0]);
+        } else if (msg instanceof MapMessage) {
+            writeObject(out, 0, ((MapMessage) msg).getData());
+        } else if (supportsJson(msg)) {
+            out.appendRaw(((MultiformatMessage) msg).getFormattedMessage(FORMATS));
+        } else {
+            out.appendString(msg.getFormattedMessage());
+        }
+    }
+
+    private void writeObject(final JsonWriter out, final int depth, final Map<String, String> map) {
+        if (map.isEmpty()) {
+            out.append('{');
+            out.append('}');
+            return;
+        }
+        out.append(this.objectStart[depth]);
+        boolean first = true;
+        for (final Map.Entry<String, String> entry : map.entrySet()) {
+            first = writeMember(out, depth, first, entry.getKey(), entry.getValue());
+        }
+        out.append(this.objectEnd[depth]);
+    }
 
-        return buf.toString();
+    private boolean writeMember(final JsonWriter out, final int depth, final boolean first, final String name,
+                                final String value) {
+        if (!first) {
+            out.append(this.objectSeparator[depth]);
+        }
+        out.appendString(name);
+        out.append(':');
+        out.appendString(value);
+        return false;
+    }
+
+    private static boolean supportsJson(final Message msg) {
+        if (msg instanceof MultiformatMessage) {
+            final String[] formats = ((MultiformatMessage) msg).getFormats();
+            for (final String format : formats) {
+                if (format.equalsIgnoreCase("JSON")) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -338,7 +457,7 @@ public class JSONLayout extends AbstractStringLayout {
      * @return The content type.
      */
     public String getContentType() {
-        return "application/json; charset=" + this.getCharset();
+        return (ndjson ? "application/x-ndjson; charset=" : "application/json; charset=") + this.getCharset();
     }
 
     /**
@@ -356,18 +475,43 @@ public class JSONLayout extends AbstractStringLayout {
      *            The character set to use, if {@code null}, uses "UTF-8".
      * @return An XML Layout.
      */
+    public static JSONLayout createLayout(final String locationInfo, final String properties,
+            final String completeStr, final String compactStr, final String charsetName) {
+        return createLayout(locationInfo, properties, completeStr, compactStr, null, charsetName);
+    }
+
+    /**
+     * Creates a JSON Layout.
+     * 
+     * @param locationInfo
+     *            If "true", includes the location information in the generated JSON.
+     * @param properties
+     *            If "true", includes the thread context in the generated JSON.
+     * @param completeStr
+     *            If "true", includes the JSON header and footer, defaults to "false".
+     * @param compactStr
+     *            If "true", does not use end-of-lines and indentation, defaults to "false".
+     * @param ndjsonStr
+     *            If "true", writes each event compact on a line of its own, without separating commas, header or
+     *            footer, defaults to "false".
+     * @param charsetName
+     *            The character set to use, if {@code null}, uses "UTF-8".
+     * @return A JSON Layout.
+     */
     @PluginFactory
     public static JSONLayout createLayout(
             @PluginAttribute("locationInfo") final String locationInfo,
             @PluginAttribute("properties") final String properties, 
             @PluginAttribute("complete") final String completeStr,
             @PluginAttribute("compact") final String compactStr, 
+            @PluginAttribute("ndjson") final String ndjsonStr,
             @PluginAttribute("charset") final String charsetName) {
         final Charset charset = Charsets.getSupportedCharset(charsetName, Charsets.UTF_8);
         final boolean info = Boolean.parseBoolean(locationInfo);
         final boolean props = Boolean.parseBoolean(properties);
         final boolean complete = Boolean.parseBoolean(completeStr);
         final boolean compact = Boolean.parseBoolean(compactStr);
-        return new JSONLayout(info, props, complete, compact, charset);
+        final boolean ndjson = Boolean.parseBoolean(ndjsonStr);
+        return new JSONLayout(info, props, complete, compact, ndjson, charset);
     }
 }
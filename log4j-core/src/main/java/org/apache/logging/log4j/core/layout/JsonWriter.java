@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.core.helpers.Charsets;
+
+/**
+ * Writes JSON text into a reusable buffer. When the target Charset is UTF-8 the text is encoded while it is written
+ * so no intermediate Strings are created; constant parts of the output are held as {@link Fragment}s that are
+ * encoded once. For any other Charset the text is collected in a StringBuilder and encoded at the end.
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+abstract class JsonWriter {
+
+    /**
+     * Buffers larger than this are released after use rather than kept for the next event.
+     */
+    static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private static final int DEFAULT_SIZE = 512;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The escape sequence for each ASCII character, or null if the character is written as is.
+     */
+    private static final String[] ESCAPES = new String[128];
+
+    static {
+        for (int i = 0; i < 0x20; ++i) {
+            ESCAPES[i] = "\\u00" + HEX[i >> 4] + HEX[i & 0xF];
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+    }
+
+    /**
+     * Creates a JsonWriter for the given Charset.
+     * @param charset The Charset of the output.
+     * @return The JsonWriter.
+     */
+    static JsonWriter create(final Charset charset) {
+        return Charsets.UTF_8.equals(charset) ? new Utf8() : new Chars(charset);
+    }
+
+    /**
+     * Discards the content of the writer.
+     */
+    abstract void reset();
+
+    /**
+     * Appends constant text.
+     * @param fragment The text.
+     */
+    abstract void append(Fragment fragment);
+
+    /**
+     * Appends an ASCII character as is.
+     * @param ch The character.
+     */
+    abstract void append(char ch);
+
+    /**
+     * Appends a number.
+     * @param value The number.
+     */
+    abstract void append(long value);
+
+    /**
+     * Appends text escaped to be the content of a JSON string. The quotes are not written.
+     * @param text The text, "null" is written when it is null.
+     */
+    abstract void appendEscaped(CharSequence text);
+
+    /**
+     * Appends text that is already valid JSON.
+     * @param text The text.
+     */
+    abstract void appendRaw(CharSequence text);
+
+    /**
+     * Returns the encoded content.
+     * @return A new byte array.
+     */
+    abstract byte[] toByteArray();
+
+    /**
+     * Returns the content as text.
+     * @return The content.
+     */
+    @Override
+    public abstract String toString();
+
+    /**
+     * Appends text as a quoted JSON string.
+     * @param text The text.
+     */
+    void appendString(final CharSequence text) {
+        append('"');
+        appendEscaped(text);
+        append('"');
+    }
+
+    /**
+     * Constant text together with its UTF-8 encoding.
+     */
+    static final class Fragment {
+        private final String text;
+        private final byte[] utf8;
+
+        Fragment(final String text) {
+            this.text = text;
+            this.utf8 = text.getBytes(Charsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * Writes the UTF-8 encoding directly into a byte array.
+     */
+    private static final class Utf8 extends JsonWriter {
+        private byte[] buf = new byte[DEFAULT_SIZE];
+        private int count;
+
+        @Override
+        void reset() {
+            if (buf.length > MAX_RETAINED_SIZE) {
+                buf = new byte[DEFAULT_SIZE];
+            }
+            count = 0;
+        }
+
+        /**
+         * The most bytes a single char is written as, a "\\u00XX" escape being the longest.
+         */
+        private static final int MAX_CHAR_BYTES = 6;
+
+        private void ensureCapacity(final int extra) {
+            final int required = count + extra;
+            if (required < 0) {
+                throw new OutOfMemoryError("JSON text exceeds the maximum array size");
+            }
+            if (required > buf.length) {
+                final int doubled = buf.length << 1;
+                buf = Arrays.copyOf(buf, doubled > required ? doubled : required);
+            }
+        }
+
+        @Override
+        void append(final Fragment fragment) {
+            final byte[] bytes = fragment.utf8;
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buf, count, bytes.length);
+            count += bytes.length;
+        }
+
+        @Override
+        void append(final char ch) {
+            ensureCapacity(1);
+            buf[count++] = (byte) ch;
+        }
+
+        @Override
+        void append(final long value) {
+            if (value == Long.MIN_VALUE) {
+                appendRaw(Long.toString(value));
+                return;
+            }
+            ensureCapacity(20);
+            long v = value;
+            if (v < 0) {
+                buf[count++] = '-';
+                v = -v;
+            }
+            final int start = count;
+            do {
+                buf[count++] = (byte) ('0' + (int) (v % 10));
+                v /= 10;
+            } while (v != 0);
+            // The digits were written least significant first.
+            for (int i = start, j = count - 1; i < j; ++i, --j) {
+                final byte b = buf[i];
+                buf[i] = buf[j];
+                buf[j] = b;
+            }
+        }
+
+        @Override
+        void appendEscaped(final CharSequence text) {
+            final CharSequence str = text == null ? "null" : text;
+            final int len = str.length();
+            // Most text needs one byte per char, the buffer grows further as escapes need it.
+            ensureCapacity(len);
+            for (int i = 0; i < len; ++i) {
+                if (buf.length - count < MAX_CHAR_BYTES) {
+                    ensureCapacity(MAX_CHAR_BYTES);
+                }
+                final char ch = str.charAt(i);
+                if (ch < 0x80) {
+                    final String escape = ESCAPES[ch];
+                    if (escape == null) {
+                        buf[count++] = (byte) ch;
+                    } else {
+                        for (int j = 0; j < escape.length(); ++j) {
+                            buf[count++] = (byte) escape.charAt(j);
+                        }
+                    }
+                } else {
+                    i = encode(str, i, ch);
+                }
+            }
+        }
+
+        @Override
+        void appendRaw(final CharSequence text) {
+            final int len = text.length();
+            ensureCapacity(len);
+            for (int i = 0; i < len; ++i) {
+                if (buf.length - count < MAX_CHAR_BYTES) {
+                    ensureCapacity(MAX_CHAR_BYTES);
+                }
+                final char ch = text.charAt(i);
+                if (ch < 0x80) {
+                    buf[count++] = (byte) ch;
+                } else {
+                    i = encode(text, i, ch);
+                }
+            }
+        }
+
+        /**
+         * Encodes a non ASCII character, consuming the low surrogate of a surrogate pair.
+         * @return The index of the last char consumed.
+         */
+        private int encode(final CharSequence text, final int index, final char ch) {
+            if (ch < 0x800) {
+                buf[count++] = (byte) (0xC0 | (ch >> 6));
+                buf[count++] = (byte) (0x80 | (ch & 0x3F));
+                return index;
+            }
+            if (ch < Character.MIN_SURROGATE || ch > Character.MAX_SURROGATE) {
+                buf[count++] = (byte) (0xE0 | (ch >> 12));
+                buf[count++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (ch & 0x3F));
+                return index;
+            }
+            if (Character.isHighSurrogate(ch) && index + 1 < text.length() &&
+                Character.isLowSurrogate(text.charAt(index + 1))) {
+                final int cp = Character.toCodePoint(ch, text.charAt(index + 1));
+                buf[count++] = (byte) (0xF0 | (cp >> 18));
+                buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (cp & 0x3F));
+                return index + 1;
+            }
+            // Malformed input is replaced in the same way String.getBytes does.
+            buf[count++] = '?';
+            return index;
+        }
+
+        @Override
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buf, 0, count, Charsets.UTF_8);
+        }
+    }
+
+    /**
+     * Collects the text in a StringBuilder for Charsets other than UTF-8.
+     */
+    private static final class Chars extends JsonWriter {
+        private final Charset charset;
+        private StringBuilder buf = new StringBuilder(DEFAULT_SIZE);
+
+        Chars(final Charset charset) {
+            this.charset = charset;
+        }
+
+        @Override
+        void reset() {
+            if (buf.capacity() > MAX_RETAINED_SIZE) {
+                buf = new StringBuilder(DEFAULT_SIZE);
+            }
+            buf.setLength(0);
+        }
+
+        @Override
+        void append(final Fragment fragment) {
+            buf.append(fragment.text);
+        }
+
+        @Override
+        void append(final char ch) {
+            buf.append(ch);
+        }
+
+        @Override
+        void append(final long value) {
+            buf.append(value);
+        }
+
+        @Override
+        void appendEscaped(final CharSequence text) {
+            final CharSequence str = text == null ? "null" : text;
+            final int len = str.length();
+            for (int i = 0; i < len; ++i) {
+                final char ch = str.charAt(i);
+                final String escape = ch < 0x80 ? ESCAPES[ch] : null;
+                if (escape == null) {
+                    buf.append(ch);
+                } else {
+                    buf.append(escape);
+                }
+            }
+        }
+
+        @Override
+        void appendRaw(final CharSequence text) {
+            buf.append(text);
+        }
+
+        @Override
+        byte[] toByteArray() {
+            return buf.toString().getBytes(charset);
+        }
+
+        @Override
+        public String toString() {
+            return buf.toString();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import org.apache.logging.log4j.core.LogEvent;
+
+/**
+ * Serializes the LogEvents sent over one connection onto a single ObjectOutputStream, so class descriptors and
+ * objects shared between events are only written once. The stream is reset every {@code resetInterval} events
+ * to bound the memory held by the handle tables of both ends of the connection.
+ * <p>
+ * The stream header is not written, the manager writes it when the connection is established as it does for
+ * {@link SerializedLayout#getHeader()}. Call {@link #restart()} whenever the manager opens a new connection. As a
+ * stream is only reset every {@code resetInterval} events, objects referenced by an event, such as the parameters of
+ * its Message, must not be modified after the event was logged.
+ * </p>
+ * <p>
+ * Instances are not thread safe, the manager must serialize calls.
+ * </p>
+ */
+public final class ObjectStreamEncoder {
+
+    private static final int DEFAULT_SIZE = 1024;
+
+    /**
+     * Buffers larger than this are released after an event is written.
+     */
+    private static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private final int resetInterval;
+    private final Buffer buffer = new Buffer();
+    private ObjectOutputStream oos;
+    private int count;
+
+    ObjectStreamEncoder(final int resetInterval) {
+        this.resetInterval = resetInterval;
+    }
+
+    /**
+     * Serializes the event and writes it to the stream.
+     * @param event The LogEvent.
+     * @param os The OutputStream of the connection.
+     * @throws IOException if the event cannot be serialized or written.
+     */
+    public void encode(final LogEvent event, final OutputStream os) throws IOException {
+        boolean written = false;
+        try {
+            if (oos == null) {
+                oos = new HeaderlessObjectOutputStream(buffer);
+                // The receiver may still hold the handles of a stream abandoned after a failure.
+                oos.reset();
+            }
+            oos.writeObject(event);
+            if (++count >= resetInterval) {
+                oos.reset();
+                count = 0;
+            }
+            oos.flush();
+            buffer.writeTo(os);
+            written = true;
+        } finally {
+            buffer.clear();
+            if (!written) {
+                // The state of the stream is unknown so a new one is started with the next event.
+                restart();
+            }
+        }
+    }
+
+    /**
+     * Resets the stream if events were written since the last reset. Data written to the connection by other means,
+     * such as events serialized on their own by another Appender sharing the manager, is then read with empty handle
+     * tables as it expects.
+     * @param os The OutputStream of the connection.
+     * @throws IOException if the reset cannot be written.
+     */
+    public void resetStream(final OutputStream os) throws IOException {
+        if (oos == null || count == 0) {
+            return;
+        }
+        boolean written = false;
+        try {
+            oos.reset();
+            oos.flush();
+            buffer.writeTo(os);
+            count = 0;
+            written = true;
+        } finally {
+            buffer.clear();
+            if (!written) {
+                restart();
+            }
+        }
+    }
+
+    /**
+     * Discards the state of the stream. The next event starts a new stream, which must follow a new stream header.
+     */
+    public void restart() {
+        oos = null;
+        count = 0;
+    }
+
+    /**
+     * Returns the number of events written between resets of the stream.
+     * @return The reset interval.
+     */
+    public int getResetInterval() {
+        return resetInterval;
+    }
+
+    /**
+     * The stream header is written by the manager.
+     */
+    private static class HeaderlessObjectOutputStream extends ObjectOutputStream {
+
+        public HeaderlessObjectOutputStream(final OutputStream os) throws IOException {
+            super(os);
+        }
+
+        @Override
+        protected void writeStreamHeader() {
+        }
+    }
+
+    /**
+     * A ByteArrayOutputStream whose buffer is reused between events.
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+
+        public Buffer() {
+            super(DEFAULT_SIZE);
+        }
+
+        void clear() {
+            if (buf.length > MAX_RETAINED_SIZE) {
+                buf = new byte[DEFAULT_SIZE];
+            }
+            count = 0;
+        }
+    }
+}
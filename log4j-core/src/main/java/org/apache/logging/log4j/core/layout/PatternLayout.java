@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.layout;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,7 @@ import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
 import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
 import org.apache.logging.log4j.core.pattern.RegexReplacement;
+import org.apache.logging.log4j.core.pattern.Scrubber;
 
 /**
  * <p>A flexible layout configurable with pattern string. The goal of this class
@@ -91,7 +93,10 @@ public final class PatternLayout extends AbstractStringLayout {
      */
     private final Configuration config;
 
-    private final RegexReplacement replace;
+    /**
+     * Applies the replacement and the Scrubber, if any, in one pass.
+     */
+    private final Scrubber scrubber;
 
     private final boolean alwaysWriteExceptions;
 
@@ -100,15 +105,16 @@ public final class PatternLayout extends AbstractStringLayout {
      *
      * @param config The Configuration.
      * @param replace The regular expression to match.
+     * @param scrubber Further replacements to apply.
      * @param pattern conversion pattern.
      * @param charset The character set.
      * @param alwaysWriteExceptions Whether or not exceptions should always be handled in this pattern (if {@code true},
      *                         exceptions will be written even if the pattern does not specify so).
      */
-    private PatternLayout(final Configuration config, final RegexReplacement replace, final String pattern,
-                          final Charset charset, final boolean alwaysWriteExceptions) {
+    private PatternLayout(final Configuration config, final RegexReplacement replace, final Scrubber scrubber,
+                          final String pattern, final Charset charset, final boolean alwaysWriteExceptions) {
         super(charset);
-        this.replace = replace;
+        this.scrubber = createScrubber(replace, scrubber);
         this.conversionPattern = pattern;
         this.config = config;
         this.alwaysWriteExceptions = alwaysWriteExceptions;
@@ -166,11 +172,19 @@ public final class PatternLayout extends AbstractStringLayout {
         for (final PatternFormatter formatter : formatters) {
             formatter.format(event, buf);
         }
-        String str = buf.toString();
-        if (replace != null) {
-            str = replace.format(str);
+        return scrubber == null ? buf.toString() : scrubber.scrub(buf).toString();
+    }
+
+    private static Scrubber createScrubber(final RegexReplacement replace, final Scrubber scrubber) {
+        if (replace == null) {
+            return scrubber;
+        }
+        final List<RegexReplacement> replacements = new ArrayList<RegexReplacement>();
+        replacements.add(replace);
+        if (scrubber != null) {
+            replacements.addAll(scrubber.getReplacements());
         }
-        return str;
+        return Scrubber.newInstance(replacements.toArray(new RegexReplacement[replacements.size()]));
     }
 
     /**
@@ -207,17 +221,35 @@ public final class PatternLayout extends AbstractStringLayout {
      *               tokens.
      * @return The PatternLayout.
      */
+    public static PatternLayout createLayout(final String pattern, final Configuration config,
+                                             final RegexReplacement replace, final String charsetName,
+                                             final String always) {
+        return createLayout(pattern, config, replace, null, charsetName, always);
+    }
+
+    /**
+     * Create a pattern layout.
+     *
+     * @param pattern The pattern. If not specified, defaults to DEFAULT_CONVERSION_PATTERN.
+     * @param config The Configuration. Some Converters require access to the Interpolator.
+     * @param replace A Regex replacement String.
+     * @param scrubber Replacements applied together with the Regex replacement in a single pass.
+     * @param charsetName The character set.
+     * @param always If {@code "true"} (default) exceptions are always written even if the pattern contains no exception
+     *               tokens.
+     * @return The PatternLayout.
+     */
     @PluginFactory
     public static PatternLayout createLayout(
             @PluginAttribute("pattern") final String pattern,
             @PluginConfiguration final Configuration config,
             @PluginElement("Replace") final RegexReplacement replace,
+            @PluginElement("Scrubber") final Scrubber scrubber,
             @PluginAttribute("charset") final String charsetName,
             @PluginAttribute("alwaysWriteExceptions") final String always) {
         final Charset charset = Charsets.getSupportedCharset(charsetName);
         final boolean alwaysWriteExceptions = Booleans.parseBoolean(always, true);
-        return new PatternLayout(
-                config, replace, pattern == null ? DEFAULT_CONVERSION_PATTERN : pattern, charset, alwaysWriteExceptions
-        );
+        return new PatternLayout(config, replace, scrubber, pattern == null ? DEFAULT_CONVERSION_PATTERN : pattern,
+            charset, alwaysWriteExceptions);
     }
 }
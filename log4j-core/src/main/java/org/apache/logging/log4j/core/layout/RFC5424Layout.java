@@ -25,7 +25,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.Level;
@@ -85,8 +84,11 @@ public class RFC5424Layout extends AbstractStringLayout {
     protected static final String DEFAULT_MDCID = "mdc";
     private static final int TWO_DIGITS = 10;
     private static final int THREE_DIGITS = 100;
+    private static final int MILLIS_PER_SECOND = 1000;
     private static final int MILLIS_PER_MINUTE = 60000;
     private static final int MINUTES_PER_HOUR = 60;
+    private static final int DEFAULT_SIZE = 256;
+    private static final int MAX_RETAINED_SIZE = 32 * 1024;
 
     private static final String COMPONENT_KEY = "RFC5424-Converter";
 
@@ -111,8 +113,22 @@ public class RFC5424Layout extends AbstractStringLayout {
     private final String escapeNewLine;
     private final boolean useTLSMessageFormat;
 
-    private long lastTimestamp = -1;
-    private String timestamppStr;
+    /**
+     * The PRI and VERSION fields for each Level, indexed by ordinal.
+     */
+    private final String[] priorities;
+    /**
+     * The HOSTNAME, APP-NAME and PROCID fields, which are the same for every event, with their separators.
+     */
+    private final String header;
+    private final String mdcSDIDString;
+
+    private volatile CachedTimestamp cachedTimestamp;
+
+    /**
+     * Holds the StringBuilder of each thread while it is not in use.
+     */
+    private final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>();
 
     private final List<PatternFormatter> exceptionFormatters;
     private final Map<String,  FieldFormatter> fieldFormatters;
@@ -131,9 +147,10 @@ public class RFC5424Layout extends AbstractStringLayout {
         this.enterpriseNumber = ein;
         this.includeMDC = includeMDC;
         this.includeNewLine = includeNL;
-        this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
+        this.escapeNewLine = escapeNL;
         this.mdcId = mdcId;
         this.mdcSDID = new StructuredDataId(mdcId, enterpriseNumber, null, null);
+        this.mdcSDIDString = mdcSDID.toString();
         this.mdcPrefix = mdcPrefix;
         this.eventPrefix = eventPrefix;
         this.appName = appName;
@@ -187,6 +204,20 @@ public class RFC5424Layout extends AbstractStringLayout {
         final String name = config == null ? null : config.getName();
         configName = name != null && name.length() > 0 ? name : null;
         this.fieldFormatters = createFieldFormatters(loggerFields, config);
+        final Level[] levels = Level.values();
+        this.priorities = new String[levels.length];
+        for (final Level level : levels) {
+            priorities[level.ordinal()] = "<" + Priority.getPriority(facility, level) + ">1 ";
+        }
+        final StringBuilder sb = new StringBuilder();
+        appendSpace(sb);
+        appendHostName(sb);
+        appendSpace(sb);
+        appendAppName(sb);
+        appendSpace(sb);
+        appendProcessId(sb);
+        appendSpace(sb);
+        this.header = sb.toString();
     }
 
     private Map<String, FieldFormatter> createFieldFormatters(final LoggerFields[] loggerFields,
@@ -258,38 +289,68 @@ public class RFC5424Layout extends AbstractStringLayout {
      */
     @Override
     public String toSerializable(final LogEvent event) {
-        final StringBuilder buf = new StringBuilder();
-        appendPriority(buf, event.getLevel());
-        appendTimestamp(buf, event.getMillis());
-        appendSpace(buf);
-        appendHostName(buf);
-        appendSpace(buf);
-        appendAppName(buf);
-        appendSpace(buf);
-        appendProcessId(buf);
-        appendSpace(buf);
-        appendMessageId(buf, event.getMessage());
-        appendSpace(buf);
-        appendStructuredElements(buf, event);
-        appendMessage(buf, event);
+        final StringBuilder buf = acquireBuffer();
+        final String text;
+        try {
+            buf.append(priorities[event.getLevel().ordinal()]);
+            appendTimestamp(buf, event.getMillis());
+            buf.append(header);
+            appendMessageId(buf, event.getMessage());
+            appendSpace(buf);
+            appendStructuredElements(buf, event);
+            appendMessage(buf, event);
+            text = buf.toString();
+        } finally {
+            releaseBuffer(buf);
+        }
         if (useTLSMessageFormat) {
-            return new TLSSyslogFrame(buf.toString()).toString();
+            return new TLSSyslogFrame(text).toString();
+        }
+        return text;
+    }
+
+    /**
+     * Takes the StringBuilder of the current thread. A new one is created when formatting an event logs another
+     * event through this Layout, as the StringBuilder of the outer event is still in use.
+     */
+    private StringBuilder acquireBuffer() {
+        final StringBuilder buf = buffers.get();
+        if (buf == null) {
+            return new StringBuilder(DEFAULT_SIZE);
         }
-        return buf.toString();
+        buffers.set(null);
+        buf.setLength(0);
+        return buf;
     }
 
-    private void appendPriority(final StringBuilder buffer, final Level logLevel) {
-        buffer.append("<");
-        buffer.append(Priority.getPriority(facility, logLevel));
-        buffer.append(">1 ");
+    private void releaseBuffer(final StringBuilder buf) {
+        if (buf.capacity() <= MAX_RETAINED_SIZE) {
+            buffers.set(buf);
+        }
     }
 
     private void appendTimestamp(final StringBuilder buffer, final long milliseconds)  {
-        buffer.append(computeTimeStampString(milliseconds));
+        CachedTimestamp cached = cachedTimestamp;
+        long second = milliseconds / MILLIS_PER_SECOND;
+        if (milliseconds % MILLIS_PER_SECOND < 0) {
+            // Round towards negative infinity for times before the epoch.
+            --second;
+        }
+        if (cached == null || cached.second != second) {
+            cached = new CachedTimestamp(second, milliseconds);
+            cachedTimestamp = cached;
+        }
+        buffer.append(cached.dateTime);
+        final int millis = (int) (milliseconds - second * MILLIS_PER_SECOND);
+        if (millis != 0) {
+            buffer.append('.');
+            pad(millis, THREE_DIGITS, buffer);
+        }
+        buffer.append(cached.zone);
     }
 
     private void appendSpace(final StringBuilder buffer) {
-        buffer.append(" ");
+        buffer.append(' ');
     }
 
     private void appendHostName(final StringBuilder buffer) {
@@ -327,15 +388,21 @@ public class RFC5424Layout extends AbstractStringLayout {
         final String text = message.getFormat();
 
         if (text != null && text.length() > 0) {
-            buffer.append(" ").append(escapeNewlines(text, escapeNewLine));
+            buffer.append(' ');
+            appendEscaped(buffer, text, false);
         }
 
         if (exceptionFormatters != null && event.getThrown() != null) {
-            final StringBuilder exception = new StringBuilder(LF);
+            final int start = buffer.length();
+            buffer.append(LF);
             for (final PatternFormatter formatter : exceptionFormatters) {
-                formatter.format(event, exception);
+                formatter.format(event, buffer);
+            }
+            if (escapeNewLine != null) {
+                final String exception = buffer.substring(start);
+                buffer.setLength(start);
+                appendEscaped(buffer, exception, false);
             }
-            buffer.append(escapeNewlines(exception.toString(), escapeNewLine));
         }
         if (includeNewLine) {
             buffer.append(LF);
@@ -346,18 +413,19 @@ public class RFC5424Layout extends AbstractStringLayout {
         final Message message = event.getMessage();
         final boolean isStructured = message instanceof StructuredDataMessage;
 
-        if (!isStructured && (fieldFormatters!= null && fieldFormatters.size() == 0) && !includeMDC) {
-            buffer.append("-");
-            return;
-        }
-
-        final Map<String, StructuredDataElement> sdElements = new HashMap<String, StructuredDataElement>();
         final Map<String, String> contextMap = event.getContextMap();
 
         if (mdcRequired != null) {
             checkRequired(contextMap);
         }
 
+        if (!isStructured && fieldFormatters == null && (!includeMDC || contextMap.isEmpty())) {
+            buffer.append('-');
+            return;
+        }
+
+        final Map<String, StructuredDataElement> sdElements = new HashMap<String, StructuredDataElement>();
+
         if (fieldFormatters != null) {
             for (final Map.Entry<String, FieldFormatter> sdElement: fieldFormatters.entrySet()) {
                 final String sdId = sdElement.getKey();
@@ -367,13 +435,12 @@ public class RFC5424Layout extends AbstractStringLayout {
         }
 
         if (includeMDC && contextMap.size() > 0) {
-            if (sdElements.containsKey(mdcSDID.toString())) {
-                final StructuredDataElement union = sdElements.get(mdcSDID.toString());
+            final StructuredDataElement union = sdElements.get(mdcSDIDString);
+            if (union != null) {
                 union.union(contextMap);
-                sdElements.put(mdcSDID.toString(), union);
             } else {
                 final StructuredDataElement formattedContextMap = new StructuredDataElement(contextMap, false);
-                sdElements.put(mdcSDID.toString(), formattedContextMap);
+                sdElements.put(mdcSDIDString, formattedContextMap);
             }
         }
 
@@ -402,11 +469,27 @@ public class RFC5424Layout extends AbstractStringLayout {
         }
     }
 
-    private String escapeNewlines(final String text, final String escapeNewLine) {
-        if (null == escapeNewLine) {
-            return text;
+    /**
+     * Appends text, replacing newlines by the newLineEscape and, for SD-PARAM names and values, escaping the
+     * characters listed by {@link #PARAM_VALUE_ESCAPE_PATTERN} with a backslash. This gives the same result as the
+     * two patterns without creating intermediate Strings.
+     */
+    private void appendEscaped(final StringBuilder buffer, final String text, final boolean sdParam) {
+        final int len = text.length();
+        for (int i = 0; i < len; ++i) {
+            final char ch = text.charAt(i);
+            if (sdParam && (ch == '"' || ch == ']' || ch == '\\')) {
+                buffer.append('\\');
+                buffer.append(ch);
+            } else if (escapeNewLine != null && ch == '\n') {
+                buffer.append(escapeNewLine);
+            } else if (escapeNewLine != null && ch == '\r' && i + 1 < len && text.charAt(i + 1) == '\n') {
+                buffer.append(escapeNewLine);
+                ++i;
+            } else {
+                buffer.append(ch);
+            }
         }
-        return NEWLINE_PATTERN.matcher(text).replaceAll(escapeNewLine);
     }
 
     protected String getProcId() {
@@ -421,69 +504,62 @@ public class RFC5424Layout extends AbstractStringLayout {
         return mdcIncludes;
     }
 
-    private String computeTimeStampString(final long now) {
-        long last;
-        synchronized (this) {
-            last = lastTimestamp;
-            if (now == lastTimestamp) {
-                return timestamppStr;
-            }
-        }
-
-        final StringBuilder buffer = new StringBuilder();
-        final Calendar cal = new GregorianCalendar();
-        cal.setTimeInMillis(now);
-        buffer.append(Integer.toString(cal.get(Calendar.YEAR)));
-        buffer.append("-");
-        pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buffer);
-        buffer.append("-");
-        pad(cal.get(Calendar.DAY_OF_MONTH), TWO_DIGITS, buffer);
-        buffer.append("T");
-        pad(cal.get(Calendar.HOUR_OF_DAY), TWO_DIGITS, buffer);
-        buffer.append(":");
-        pad(cal.get(Calendar.MINUTE), TWO_DIGITS, buffer);
-        buffer.append(":");
-        pad(cal.get(Calendar.SECOND), TWO_DIGITS, buffer);
-
-        final int millis = cal.get(Calendar.MILLISECOND);
-        if (millis != 0) {
-            buffer.append('.');
-            pad(millis, THREE_DIGITS, buffer);
-        }
-
-        int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
-        if (tzmin == 0) {
-            buffer.append("Z");
-        } else {
-            if (tzmin < 0) {
-                tzmin = -tzmin;
-                buffer.append("-");
-            } else {
-                buffer.append("+");
-            }
-            final int tzhour = tzmin / MINUTES_PER_HOUR;
-            tzmin -= tzhour * MINUTES_PER_HOUR;
-            pad(tzhour, TWO_DIGITS, buffer);
-            buffer.append(":");
-            pad(tzmin, TWO_DIGITS, buffer);
-        }
-        synchronized (this) {
-            if (last == lastTimestamp) {
-                lastTimestamp = now;
-                timestamppStr = buffer.toString();
+    private static void pad(final int val, int max, final StringBuilder buf) {
+        while (max > 1) {
+            if (val < max) {
+                buf.append('0');
             }
+            max = max / TWO_DIGITS;
         }
-        return buffer.toString();
+        buf.append(val);
     }
 
-    private void pad(final int val, int max, final StringBuilder buf) {
-        while (max > 1) {
-            if (val < max) {
-                buf.append("0");
+    /**
+     * The date, time and time zone offset of a second. Events within the same second only need to append their
+     * milliseconds. Instances are immutable so they can be shared between threads without locking.
+     */
+    private static final class CachedTimestamp {
+        private final long second;
+        private final String dateTime;
+        private final String zone;
+
+        CachedTimestamp(final long second, final long now) {
+            this.second = second;
+            final Calendar cal = new GregorianCalendar();
+            cal.setTimeInMillis(now);
+            final StringBuilder buffer = new StringBuilder();
+            buffer.append(cal.get(Calendar.YEAR));
+            buffer.append('-');
+            pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buffer);
+            buffer.append('-');
+            pad(cal.get(Calendar.DAY_OF_MONTH), TWO_DIGITS, buffer);
+            buffer.append('T');
+            pad(cal.get(Calendar.HOUR_OF_DAY), TWO_DIGITS, buffer);
+            buffer.append(':');
+            pad(cal.get(Calendar.MINUTE), TWO_DIGITS, buffer);
+            buffer.append(':');
+            pad(cal.get(Calendar.SECOND), TWO_DIGITS, buffer);
+            this.dateTime = buffer.toString();
+
+            buffer.setLength(0);
+            int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
+            if (tzmin == 0) {
+                buffer.append('Z');
+            } else {
+                if (tzmin < 0) {
+                    tzmin = -tzmin;
+                    buffer.append('-');
+                } else {
+                    buffer.append('+');
+                }
+                final int tzhour = tzmin / MINUTES_PER_HOUR;
+                tzmin -= tzhour * MINUTES_PER_HOUR;
+                pad(tzhour, TWO_DIGITS, buffer);
+                buffer.append(':');
+                pad(tzmin, TWO_DIGITS, buffer);
             }
-            max = max / TWO_DIGITS;
+            this.zone = buffer.toString();
         }
-        buf.append(Integer.toString(val));
     }
 
     private void formatStructuredElement(final String id, final String prefix, final StructuredDataElement data,
@@ -492,14 +568,14 @@ public class RFC5424Layout extends AbstractStringLayout {
             return;
         }
 
-        sb.append("[");
+        sb.append('[');
         sb.append(id);
-        if (!mdcSDID.toString().equals(id)) {
+        if (!mdcSDIDString.equals(id)) {
             appendMap(prefix, data.getFields(), sb, noopChecker);
         } else {
             appendMap(prefix, data.getFields(), sb, checker);
         }
-        sb.append("]");
+        sb.append(']');
     }
 
     private String getId(final StructuredDataId id) {
@@ -533,20 +609,18 @@ public class RFC5424Layout extends AbstractStringLayout {
         final SortedMap<String, String> sorted = new TreeMap<String, String>(map);
         for (final Map.Entry<String, String> entry : sorted.entrySet()) {
             if (checker.check(entry.getKey()) && entry.getValue() != null) {
-                sb.append(" ");
+                sb.append(' ');
                 if (prefix != null) {
                     sb.append(prefix);
                 }
-                sb.append(escapeNewlines(escapeSDParams(entry.getKey()), escapeNewLine)).append("=\"")
-                    .append(escapeNewlines(escapeSDParams(entry.getValue()), escapeNewLine)).append("\"");
+                appendEscaped(sb, entry.getKey(), true);
+                sb.append("=\"");
+                appendEscaped(sb, entry.getValue(), true);
+                sb.append('"');
             }
         }
     }
 
-    private String escapeSDParams(final String value) {
-        return PARAM_VALUE_ESCAPE_PATTERN.matcher(value).replaceAll("\\\\$0");
-    }
-
     /**
      * Interface used to check keys in a Map.
      */
@@ -25,14 +25,24 @@ import java.util.Map;
 
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.helpers.Integers;
 
 /**
  * Format a LogEvent in its serialized form.
+ * <p>
+ * By default every event is serialized on its own, including the descriptions of all its classes. When a
+ * {@code resetInterval} greater than one is configured, managers that hold a connection, such as the TCP socket
+ * manager, write all events onto a single object stream through an {@link ObjectStreamEncoder} and only reset it
+ * every {@code resetInterval} events, so class descriptions are sent once per interval.
+ * </p>
  */
 @Plugin(name = "SerializedLayout", category = "Core", elementType = "layout", printObject = true)
 public final class SerializedLayout extends AbstractLayout<LogEvent> {
 
+    private static final int DEFAULT_SIZE = 512;
+
     private static byte[] header;
 
     static {
@@ -46,7 +56,26 @@ public final class SerializedLayout extends AbstractLayout<LogEvent> {
         }
     }
 
-    private SerializedLayout() {
+    private final int resetInterval;
+
+    private SerializedLayout(final int resetInterval) {
+        this.resetInterval = resetInterval;
+    }
+
+    /**
+     * Returns true if managers holding a connection should write events onto a single object stream.
+     * @return true if events are streamed.
+     */
+    public boolean isStreaming() {
+        return resetInterval > 1;
+    }
+
+    /**
+     * Creates the encoder a manager uses to write events onto a single object stream.
+     * @return An ObjectStreamEncoder or null if events are not streamed.
+     */
+    public ObjectStreamEncoder createEncoder() {
+        return isStreaming() ? new ObjectStreamEncoder(resetInterval) : null;
     }
 
     /**
@@ -57,7 +86,7 @@ public final class SerializedLayout extends AbstractLayout<LogEvent> {
      */
     @Override
     public byte[] toByteArray(final LogEvent event) {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(DEFAULT_SIZE);
         try {
             final ObjectOutputStream oos = new PrivateObjectOutputStream(baos);
             try {
@@ -87,10 +116,21 @@ public final class SerializedLayout extends AbstractLayout<LogEvent> {
      * Create a SerializedLayout.
      * @return A SerializedLayout.
      */
-    @PluginFactory
     public static SerializedLayout createLayout() {
 
-        return new SerializedLayout();
+        return new SerializedLayout(1);
+    }
+
+    /**
+     * Create a SerializedLayout.
+     * @param resetInterval The number of events written onto an object stream between resets of the stream. Values
+     * greater than one let managers holding a connection stream the events. The default is 1.
+     * @return A SerializedLayout.
+     */
+    @PluginFactory
+    public static SerializedLayout createLayout(@PluginAttribute("resetInterval") final String resetInterval) {
+        final int interval = Integers.parseInt(resetInterval, 1);
+        return new SerializedLayout(interval);
     }
 
     @Override
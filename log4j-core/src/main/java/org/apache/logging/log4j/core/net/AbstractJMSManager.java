@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.net;
 
 import java.io.Serializable;
 import java.util.Properties;
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageProducer;
@@ -137,18 +138,33 @@ public abstract class AbstractJMSManager extends AbstractManager {
     public synchronized void send(final Serializable object, final Session session, final MessageProducer producer)
         throws Exception {
         try {
-            Message msg;
-            if (object instanceof String) {
-                msg = session.createTextMessage();
-                ((TextMessage) msg).setText((String) object);
-            } else {
-                msg = session.createObjectMessage();
-                ((ObjectMessage) msg).setObject(object);
-            }
-            producer.send(msg);
+            producer.send(createMessage(session, object));
         } catch (final JMSException ex) {
             LOGGER.error("Could not publish message via JMS " + getName());
             throw ex;
         }
     }
+
+    /**
+     * Creates the Message for the Object. Strings are sent as TextMessages, byte arrays as BytesMessages and any
+     * other Object as an ObjectMessage.
+     * @param session The Session.
+     * @param object The Object to send.
+     * @return The Message.
+     * @throws JMSException if the Message cannot be created.
+     */
+    static Message createMessage(final Session session, final Serializable object) throws JMSException {
+        if (object instanceof String) {
+            final TextMessage msg = session.createTextMessage();
+            msg.setText((String) object);
+            return msg;
+        } else if (object instanceof byte[]) {
+            final BytesMessage msg = session.createBytesMessage();
+            msg.writeBytes((byte[]) object);
+            return msg;
+        }
+        final ObjectMessage msg = session.createObjectMessage();
+        msg.setObject(object);
+        return msg;
+    }
 }
@@ -17,6 +17,8 @@
 package org.apache.logging.log4j.core.net;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 import javax.jms.JMSException;
 import javax.jms.Queue;
 import javax.jms.QueueConnection;
@@ -42,6 +44,10 @@ public class JMSQueueManager extends AbstractJMSManager {
     private final String userName;
     private final String password;
     private final Context context;
+    private final int poolSize;
+    private final int batchSize;
+    private final long batchDelay;
+    private volatile JMSSessionPool pool;
 
     /**
      * The Constructor.
@@ -56,6 +62,27 @@ public class JMSQueueManager extends AbstractJMSManager {
     protected JMSQueueManager(final String name, final Context context, final String factoryBindingName,
                               final String queueBindingName, final String userName, final String password,
                               final QueueInfo info) {
+        this(name, context, factoryBindingName, queueBindingName, userName, password, info, 1, 1, 0, null);
+    }
+
+    /**
+     * Constructor for a Manager that sends through a {@link JMSSessionPool}.
+     * @param name The unique name of the connection.
+     * @param context The context.
+     * @param factoryBindingName The factory binding name.
+     * @param queueBindingName The queue binding name.
+     * @param userName The user name.
+     * @param password The credentials for the user.
+     * @param info The Queue connection info, used when the Manager does not pool Sessions.
+     * @param poolSize The number of Sessions.
+     * @param batchSize The number of messages sent in each transaction.
+     * @param batchDelay The maximum number of milliseconds a message remains uncommitted, or 0 for no limit.
+     * @param pool The pool of Sessions, or null.
+     */
+    protected JMSQueueManager(final String name, final Context context, final String factoryBindingName,
+                              final String queueBindingName, final String userName, final String password,
+                              final QueueInfo info, final int poolSize, final int batchSize, final long batchDelay,
+                              final JMSSessionPool pool) {
         super(name);
         this.context = context;
         this.factoryBindingName = factoryBindingName;
@@ -63,6 +90,10 @@ public class JMSQueueManager extends AbstractJMSManager {
         this.userName = userName;
         this.password = password;
         this.info = info;
+        this.poolSize = poolSize;
+        this.batchSize = batchSize;
+        this.batchDelay = batchDelay;
+        this.pool = pool;
     }
 
     /**
@@ -84,6 +115,34 @@ public class JMSQueueManager extends AbstractJMSManager {
                                                      final String securityCredentials, final String factoryBindingName,
                                                      final String queueBindingName, final String userName,
                                                      final String password) {
+        return getJMSQueueManager(factoryName, providerURL, urlPkgPrefixes, securityPrincipalName,
+            securityCredentials, factoryBindingName, queueBindingName, userName, password, 1, 1, 0);
+    }
+
+    /**
+     * Obtain a JMSQueueManager that sends through a pool of Sessions. If batchSize is greater than 1 the Sessions are
+     * transacted and are committed every batchSize messages or after batchDelay milliseconds.
+     * @param factoryName The fully qualified class name of the InitialContextFactory.
+     * @param providerURL The URL of the provider to use.
+     * @param urlPkgPrefixes A colon-separated list of package prefixes for the class name of the factory class that
+     * will create a URL context factory
+     * @param securityPrincipalName The name of the identity of the Principal.
+     * @param securityCredentials The security credentials of the Principal.
+     * @param factoryBindingName The name to locate in the Context that provides the QueueConnectionFactory.
+     * @param queueBindingName The name to use to locate the Queue.
+     * @param userName The userid to use to create the Queue Connection.
+     * @param password The password to use to create the Queue Connection.
+     * @param poolSize The number of Sessions.
+     * @param batchSize The number of messages sent in each transaction.
+     * @param batchDelay The maximum number of milliseconds a message remains uncommitted, or 0 for no limit.
+     * @return The JMSQueueManager.
+     */
+    public static JMSQueueManager getJMSQueueManager(final String factoryName, final String providerURL,
+                                                     final String urlPkgPrefixes, final String securityPrincipalName,
+                                                     final String securityCredentials, final String factoryBindingName,
+                                                     final String queueBindingName, final String userName,
+                                                     final String password, final int poolSize, final int batchSize,
+                                                     final long batchDelay) {
 
         if (factoryBindingName == null) {
             LOGGER.error("No factory name provided for JMSQueueManager");
@@ -94,29 +153,112 @@ public class JMSQueueManager extends AbstractJMSManager {
             return null;
         }
 
-        final String name = "JMSQueue:" + factoryBindingName + '.' + queueBindingName;
+        String name = "JMSQueue:" + factoryBindingName + '.' + queueBindingName;
+        if (poolSize > 1 || batchSize > 1) {
+            name += ":" + poolSize + ':' + batchSize + ':' + batchDelay;
+        }
         return getManager(name, FACTORY, new FactoryData(factoryName, providerURL, urlPkgPrefixes,
-            securityPrincipalName, securityCredentials, factoryBindingName, queueBindingName, userName, password));
+            securityPrincipalName, securityCredentials, factoryBindingName, queueBindingName, userName, password,
+            poolSize, batchSize, batchDelay));
     }
 
     @Override
-    public synchronized void send(final Serializable object) throws Exception {
-        if (info == null) {
-            info = connect(context, factoryBindingName, queueBindingName, userName, password, false);
+    public void send(final Serializable object) throws Exception {
+        if (isPooled()) {
+            sendPooled(object);
+            return;
+        }
+        synchronized (this) {
+            if (info == null) {
+                info = connect(context, factoryBindingName, queueBindingName, userName, password, false);
+            }
+            try {
+                super.send(object, info.session, info.sender);
+            } catch (final Exception ex) {
+                cleanup(true);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Returns true if messages are sent through a pool of Sessions.
+     * @return true if Sessions are pooled.
+     */
+    public boolean isPooled() {
+        return poolSize > 1 || batchSize > 1;
+    }
+
+    private void sendPooled(final Serializable object) throws Exception {
+        JMSSessionPool current = pool;
+        if (current != null && current.isFailed()) {
+            // A commit by the background thread failed.
+            recover(current);
+            current = null;
+        }
+        if (current == null) {
+            current = connectPool();
         }
         try {
-            super.send(object, info.session, info.sender);
-        } catch (final Exception ex) {
-            cleanup(true);
+            current.send(object);
+        } catch (final JMSException ex) {
+            LOGGER.error("Could not publish message via JMS " + getName());
+            recover(current);
             throw ex;
         }
     }
 
+    /**
+     * Replaces a pool that failed and sends again the messages it had not committed.
+     * @param failed The pool that failed.
+     */
+    private void recover(final JMSSessionPool failed) {
+        final List<Serializable> uncommitted = closePool(failed);
+        if (uncommitted.isEmpty()) {
+            return;
+        }
+        int sent = 0;
+        try {
+            final JMSSessionPool current = connectPool();
+            for (final Serializable object : uncommitted) {
+                current.send(object);
+                ++sent;
+            }
+        } catch (final Exception ex) {
+            LOGGER.error("Lost " + (uncommitted.size() - sent) + " messages that were not committed via JMS " +
+                getName(), ex);
+        }
+    }
+
+    private synchronized JMSSessionPool connectPool() throws Exception {
+        if (pool == null) {
+            pool = createPool(getName(), context, factoryBindingName, queueBindingName, userName, password, poolSize,
+                batchSize, batchDelay);
+        }
+        return pool;
+    }
+
+    private synchronized List<Serializable> closePool(final JMSSessionPool current) {
+        if (pool == current) {
+            pool = null;
+            return current.close(true);
+        }
+        return Collections.emptyList();
+    }
+
     @Override
     public void releaseSub() {
         if (info != null) {
             cleanup(false);
         }
+        final JMSSessionPool current = pool;
+        if (current != null) {
+            pool = null;
+            final List<Serializable> lost = current.close(false);
+            if (!lost.isEmpty()) {
+                LOGGER.error("Lost " + lost.size() + " messages that could not be committed via JMS " + getName());
+            }
+        }
     }
 
     private void cleanup(final boolean quiet) {
@@ -150,11 +292,15 @@ public class JMSQueueManager extends AbstractJMSManager {
         private final String queueBindingName;
         private final String userName;
         private final String password;
+        private final int poolSize;
+        private final int batchSize;
+        private final long batchDelay;
 
         public FactoryData(final String factoryName, final String providerURL, final String urlPkgPrefixes,
                            final String securityPrincipalName, final String securityCredentials,
                            final String factoryBindingName, final String queueBindingName, final String userName,
-                           final String password) {
+                           final String password,
+                           final int poolSize, final int batchSize, final long batchDelay) {
             this.factoryName = factoryName;
             this.providerURL = providerURL;
             this.urlPkgPrefixes = urlPkgPrefixes;
@@ -164,6 +310,9 @@ public class JMSQueueManager extends AbstractJMSManager {
             this.queueBindingName = queueBindingName;
             this.userName = userName;
             this.password = password;
+            this.poolSize = poolSize;
+            this.batchSize = batchSize;
+            this.batchDelay = batchDelay;
         }
     }
 
@@ -197,6 +346,28 @@ public class JMSQueueManager extends AbstractJMSManager {
         return null;
     }
 
+    private static JMSSessionPool createPool(final String name, final Context context,
+                                            final String factoryBindingName, final String queueBindingName,
+                                            final String userName, final String password, final int poolSize,
+                                            final int batchSize, final long batchDelay) throws Exception {
+        final QueueConnectionFactory factory = (QueueConnectionFactory) lookup(context, factoryBindingName);
+        final QueueConnection conn = userName != null ? factory.createQueueConnection(userName, password) :
+            factory.createQueueConnection();
+        try {
+            final Queue queue = (Queue) lookup(context, queueBindingName);
+            final JMSSessionPool pool = new JMSSessionPool(name, conn, queue, poolSize, batchSize, batchDelay);
+            conn.start();
+            return pool;
+        } catch (final Exception ex) {
+            try {
+                conn.close();
+            } catch (final Exception e) {
+                // Ignore the error closing the connection.
+            }
+            throw ex;
+        }
+    }
+
     /** Queue connection information */
     private static class QueueInfo {
         private final QueueConnection conn;
@@ -220,6 +391,17 @@ public class JMSQueueManager extends AbstractJMSManager {
             try {
                 final Context ctx = createContext(data.factoryName, data.providerURL, data.urlPkgPrefixes,
                                             data.securityPrincipalName, data.securityCredentials);
+                if (data.poolSize > 1 || data.batchSize > 1) {
+                    JMSSessionPool pool = null;
+                    try {
+                        pool = createPool(name, ctx, data.factoryBindingName, data.queueBindingName, data.userName,
+                            data.password, data.poolSize, data.batchSize, data.batchDelay);
+                    } catch (final Exception ex) {
+                        LOGGER.warn("Unable to create sessions for queue " + data.queueBindingName, ex);
+                    }
+                    return new JMSQueueManager(name, ctx, data.factoryBindingName, data.queueBindingName,
+                        data.userName, data.password, null, data.poolSize, data.batchSize, data.batchDelay, pool);
+                }
                 final QueueInfo info = connect(ctx, data.factoryBindingName, data.queueBindingName, data.userName,
                     data.password, true);
                 return new JMSQueueManager(name, ctx, data.factoryBindingName, data.queueBindingName,
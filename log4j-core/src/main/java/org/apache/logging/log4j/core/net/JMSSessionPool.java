@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * A pool of Sessions and MessageProducers on one Connection. Each send uses the next Session in turn so that several
+ * threads can send at the same time. When batching, the Sessions are transacted and are committed every
+ * {@code batchSize} messages or once the oldest uncommitted message is {@code batchDelay} milliseconds old, whichever
+ * comes first.
+ * <p>
+ * Each Session keeps the messages it has sent since its last commit. Once a send or a commit fails the pool is marked
+ * as failed and should be replaced; {@link #close(boolean)} returns the messages that were not committed so that
+ * they can be sent again.
+ * </p>
+ */
+public final class JMSSessionPool {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger(1);
+
+    private final String name;
+    private final Connection conn;
+    private final Channel[] channels;
+    private final AtomicInteger next = new AtomicInteger();
+    private final boolean transacted;
+    private final int batchSize;
+    private final long batchDelayNanos;
+    private final CommitThread commitThread;
+    private volatile boolean failed;
+
+    /**
+     * Creates the pool. The Connection is owned by the pool and is closed by {@link #close(boolean)}.
+     * @param name The name of the Manager, used in error messages.
+     * @param conn The Connection.
+     * @param destination The Queue or Topic.
+     * @param poolSize The number of Sessions.
+     * @param batchSize The number of messages sent in each transaction. Sessions are not transacted if this is 1.
+     * @param batchDelay The maximum number of milliseconds a message remains uncommitted, or 0 for no limit.
+     * @throws JMSException if the Sessions cannot be created.
+     */
+    public JMSSessionPool(final String name, final Connection conn, final Destination destination,
+                          final int poolSize, final int batchSize, final long batchDelay) throws JMSException {
+        this.name = name;
+        this.conn = conn;
+        this.transacted = batchSize > 1;
+        this.batchSize = batchSize;
+        this.batchDelayNanos = TimeUnit.MILLISECONDS.toNanos(batchDelay);
+        this.channels = new Channel[Math.max(poolSize, 1)];
+        for (int i = 0; i < channels.length; ++i) {
+            final Session session = transacted ? conn.createSession(true, Session.SESSION_TRANSACTED) :
+                conn.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            channels[i] = new Channel(session, session.createProducer(destination));
+        }
+        if (transacted && batchDelay > 0) {
+            commitThread = new CommitThread(Math.max(batchDelay / 2, 1));
+            commitThread.start();
+        } else {
+            commitThread = null;
+        }
+    }
+
+    /**
+     * Sends the object on the next Session of the pool.
+     * @param object The object to send.
+     * @throws JMSException if the object cannot be sent or the batch cannot be committed.
+     */
+    public void send(final Serializable object) throws JMSException {
+        if (failed) {
+            throw new JMSException("A previous send or commit failed for " + name);
+        }
+        final Channel channel = channels[(next.getAndIncrement() & Integer.MAX_VALUE) % channels.length];
+        synchronized (channel) {
+            try {
+                channel.producer.send(AbstractJMSManager.createMessage(channel.session, object));
+            } catch (final JMSException ex) {
+                failed = true;
+                throw ex;
+            }
+            if (transacted) {
+                if (channel.uncommitted.isEmpty()) {
+                    channel.firstUncommitted = System.nanoTime();
+                }
+                channel.uncommitted.add(object);
+                if (channel.uncommitted.size() >= batchSize) {
+                    try {
+                        channel.commit();
+                    } catch (final JMSException ex) {
+                        // The caller is told this message failed, the others of the batch are kept to be resent.
+                        channel.uncommitted.remove(channel.uncommitted.size() - 1);
+                        failed = true;
+                        throw ex;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true once a send or a commit has failed. The pool should then be closed and replaced.
+     * @return true if the pool has failed.
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Commits the messages that are waiting in every Session.
+     * @param olderThanNanos Only commit Sessions whose oldest message was sent at least this many nanoseconds ago.
+     * @throws JMSException if a Session cannot be committed.
+     */
+    private void commit(final long olderThanNanos) throws JMSException {
+        JMSException failure = null;
+        for (final Channel channel : channels) {
+            synchronized (channel) {
+                if (!channel.uncommitted.isEmpty() && System.nanoTime() - channel.firstUncommitted >= olderThanNanos) {
+                    try {
+                        channel.commit();
+                    } catch (final JMSException ex) {
+                        failed = true;
+                        failure = ex;
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Commits any waiting messages and closes the Sessions and the Connection. After an error the waiting messages
+     * are not committed and are discarded by the broker when the Sessions close.
+     * @param quiet true if closing after an error, in which case errors are not reported and nothing is committed.
+     * @return The messages that were sent but not committed, oldest first for each Session.
+     */
+    public List<Serializable> close(final boolean quiet) {
+        if (commitThread != null) {
+            commitThread.shutdown();
+            try {
+                commitThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (final InterruptedException ex) {
+                LOGGER.warn("Interrupted while stopping the JMS commit thread of " + name);
+            }
+        }
+        if (transacted && !quiet && !failed) {
+            try {
+                commit(0);
+            } catch (final JMSException ex) {
+                LOGGER.error("Error committing messages for " + name, ex);
+            }
+        }
+        final List<Serializable> uncommitted = new ArrayList<Serializable>();
+        for (final Channel channel : channels) {
+            synchronized (channel) {
+                uncommitted.addAll(channel.uncommitted);
+                channel.uncommitted.clear();
+            }
+            try {
+                channel.session.close();
+            } catch (final Exception ex) {
+                if (!quiet) {
+                    LOGGER.error("Error closing session for " + name, ex);
+                }
+            }
+        }
+        try {
+            conn.close();
+        } catch (final Exception ex) {
+            if (!quiet) {
+                LOGGER.error("Error closing connection for " + name, ex);
+            }
+        }
+        return uncommitted;
+    }
+
+    /** A Session and its MessageProducer, guarded by the Channel. */
+    private static class Channel {
+        private final Session session;
+        private final MessageProducer producer;
+        /** The messages sent since the last commit. */
+        private final List<Serializable> uncommitted = new ArrayList<Serializable>();
+        private long firstUncommitted;
+
+        public Channel(final Session session, final MessageProducer producer) {
+            this.session = session;
+            this.producer = producer;
+        }
+
+        public void commit() throws JMSException {
+            session.commit();
+            uncommitted.clear();
+        }
+    }
+
+    /**
+     * Thread that commits the batches that have waited too long.
+     */
+    private class CommitThread extends Thread {
+
+        private volatile boolean shutdown = false;
+
+        private final long interval;
+
+        public CommitThread(final long interval) {
+            this.interval = interval;
+            setDaemon(true);
+            setName("JMSCommitThread" + THREAD_SEQUENCE.getAndIncrement());
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                try {
+                    synchronized (this) {
+                        if (!shutdown) {
+                            wait(interval);
+                        }
+                    }
+                } catch (final InterruptedException ex) {
+                    continue;
+                }
+                if (failed) {
+                    // The messages are kept until the Manager replaces the pool.
+                    continue;
+                }
+                try {
+                    commit(batchDelayNanos);
+                } catch (final JMSException ex) {
+                    LOGGER.error("Error committing messages for " + name + ", they will be sent again", ex);
+                }
+            }
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
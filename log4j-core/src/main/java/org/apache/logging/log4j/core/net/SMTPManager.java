@@ -19,8 +19,12 @@ package org.apache.logging.log4j.core.net;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.activation.DataSource;
 import javax.mail.Authenticator;
@@ -42,17 +46,29 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractManager;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.helpers.CyclicBuffer;
+import org.apache.logging.log4j.core.helpers.LatencyHistogram;
 import org.apache.logging.log4j.core.helpers.NameUtil;
 import org.apache.logging.log4j.core.helpers.NetUtils;
 import org.apache.logging.log4j.core.helpers.Strings;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.ObjectMessage;
 import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  * Manager for sending SMTP events.
+ * <p>
+ * When asynchronous delivery is enabled the events are handed to a background thread that waits for the coalescing
+ * window to elapse after the first trigger, so that all the triggers in the window are sent in one message, and
+ * that sends no more than the configured number of messages per rate interval.
+ * </p>
  */
 public class SMTPManager extends AbstractManager {
     private static final SMTPManagerFactory FACTORY = new SMTPManagerFactory();
 
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger(1);
+
     private final Session session;
 
     private final CyclicBuffer<LogEvent> buffer;
@@ -61,6 +77,10 @@ public class SMTPManager extends AbstractManager {
 
     private final FactoryData data;
 
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+
+    private final DeliveryThread deliveryThread;
+
     protected SMTPManager(final String name, final Session session, final MimeMessage message,
                           final FactoryData data) {
         super(name);
@@ -68,10 +88,41 @@ public class SMTPManager extends AbstractManager {
         this.message = message;
         this.data = data;
         this.buffer = new CyclicBuffer<LogEvent>(LogEvent.class, data.numElements);
+        if (data.async) {
+            deliveryThread = new DeliveryThread();
+            deliveryThread.start();
+        } else {
+            deliveryThread = null;
+        }
     }
 
     public void add(final LogEvent event) {
-        buffer.add(event);
+        buffer.add(copy(event));
+    }
+
+    /**
+     * Copies an event so it can be formatted after the call that logged it has returned. Asynchronous loggers reuse
+     * their events and an OverlayLogEvent reflects its source event.
+     * @param event The event to copy.
+     * @return An immutable copy of the event.
+     */
+    private static LogEvent copy(final LogEvent event) {
+        org.apache.logging.log4j.message.Message message = event.getMessage();
+        // Format now so later changes to the message parameters do not change the e-mail.
+        final String formatted = message.getFormattedMessage();
+        if (message instanceof ObjectMessage) {
+            // ObjectMessage formats its object each time it is asked to.
+            message = new ObjectMessage(formatted);
+        } else if (event instanceof Log4jLogEvent) {
+            return Log4jLogEvent.deserialize(Log4jLogEvent.serialize((Log4jLogEvent) event,
+                event.isIncludeLocation()));
+        }
+        final Log4jLogEvent copy = new Log4jLogEvent(event.getLoggerName(), event.getMarker(), event.getFQCN(),
+            event.getLevel(), message, event.getThrown(), event.getContextMap(), event.getContextStack(),
+            event.getThreadName(), event.isIncludeLocation() ? event.getSource() : null, event.getMillis());
+        copy.setIncludeLocation(event.isIncludeLocation());
+        copy.setEndOfBatch(event.isEndOfBatch());
+        return copy;
     }
 
     public static SMTPManager getSMTPManager(final String to, final String cc, final String bcc,
@@ -79,6 +130,40 @@ public class SMTPManager extends AbstractManager {
                                              final String subject, String protocol, final String host,
                                              final int port, final String username, final String password,
                                              final boolean isDebug, final String filterName, final int numElements) {
+        return getSMTPManager(to, cc, bcc, from, replyTo, subject, protocol, host, port, username, password, isDebug,
+            filterName, numElements, false, 0, 0, 0);
+    }
+
+    /**
+     * Returns the SMTPManager for the given settings.
+     * @param to The comma-separated list of recipient email addresses.
+     * @param cc The comma-separated list of CC email addresses.
+     * @param bcc The comma-separated list of BCC email addresses.
+     * @param from The email address of the sender.
+     * @param replyTo The comma-separated list of reply-to email addresses.
+     * @param subject The subject of the email message.
+     * @param protocol The SMTP transport protocol.
+     * @param host The SMTP hostname to send to.
+     * @param port The SMTP port to send to.
+     * @param username The username required to authenticate against the SMTP server.
+     * @param password The password required to authenticate against the SMTP server.
+     * @param isDebug Enable mail session debugging on STDOUT.
+     * @param filterName The name of the filter that triggers the messages.
+     * @param numElements The number of events to buffer.
+     * @param async true if messages are sent by a background thread.
+     * @param coalesceMillis The number of milliseconds to wait after a trigger for further triggers to send in the
+     *                       same message.
+     * @param maxEmails The maximum number of messages to send per rate interval, or 0 for no limit.
+     * @param rateIntervalMillis The length of the rate interval in milliseconds.
+     * @return The SMTPManager.
+     */
+    public static SMTPManager getSMTPManager(final String to, final String cc, final String bcc,
+                                             final String from, final String replyTo,
+                                             final String subject, String protocol, final String host,
+                                             final int port, final String username, final String password,
+                                             final boolean isDebug, final String filterName, final int numElements,
+                                             final boolean async, final long coalesceMillis, final int maxEmails,
+                                             final long rateIntervalMillis) {
         if (Strings.isEmpty(protocol)) {
             protocol = "smtp";
         }
@@ -118,26 +203,69 @@ public class SMTPManager extends AbstractManager {
         }
         sb.append(isDebug ? ":debug:" : "::");
         sb.append(filterName);
+        if (async) {
+            sb.append(":async:").append(coalesceMillis).append(":").append(maxEmails).append(":")
+                .append(rateIntervalMillis);
+        }
 
         final String name = "SMTP:" + NameUtil.md5(sb.toString());
 
         return getManager(name, FACTORY, new FactoryData(to, cc, bcc, from, replyTo, subject,
-            protocol, host, port, username, password, isDebug, numElements));
+            protocol, host, port, username, password, isDebug, numElements, async, coalesceMillis, maxEmails,
+            rateIntervalMillis));
     }
 
     /**
-     * Send the contents of the cyclic buffer as an e-mail message.
+     * Returns the time taken to deliver the messages sent asynchronously, in nanoseconds from the first trigger
+     * coalesced in a message until the message was sent.
+     * @return The delivery latency histogram.
+     */
+    public LatencyHistogram getDeliveryLatency() {
+        return deliveryLatency;
+    }
+
+    /**
+     * Returns true if messages are sent by a background thread.
+     * @return true if delivery is asynchronous.
+     */
+    public boolean isAsync() {
+        return deliveryThread != null;
+    }
+
+    @Override
+    protected void releaseSub() {
+        if (deliveryThread != null) {
+            deliveryThread.shutdown();
+            try {
+                deliveryThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+            } catch (final InterruptedException ex) {
+                LOGGER.warn("Interrupted while stopping the SMTP delivery thread of {}", getName());
+            }
+        }
+    }
+
+    /**
+     * Send the contents of the cyclic buffer as an e-mail message. When delivery is asynchronous the events are
+     * queued for the delivery thread and this method returns immediately.
      * @param layout The layout for formatting the events.
      * @param appendEvent The event that triggered the send.
      */
     public void sendEvents(final Layout<?> layout, final LogEvent appendEvent) {
+        final LogEvent[] priorEvents = buffer.removeAll();
+        // LOG4J-310: log appendEvent even if priorEvents is empty
+        if (deliveryThread != null) {
+            // The prior events were copied when they were buffered.
+            deliveryThread.enqueue(layout, priorEvents, copy(appendEvent));
+        } else {
+            send(layout, priorEvents, appendEvent);
+        }
+    }
+
+    private void send(final Layout<?> layout, final LogEvent[] priorEvents, final LogEvent appendEvent) {
         if (message == null) {
             connect();
         }
         try {
-            final LogEvent[] priorEvents = buffer.removeAll();
-            // LOG4J-310: log appendEvent even if priorEvents is empty
-            
             final byte[] rawBytes = formatContentToBytes(priorEvents, appendEvent, layout);
 
             final String contentType = layout.getContentType();
@@ -259,10 +387,16 @@ public class SMTPManager extends AbstractManager {
         private final String password;
         private final boolean isDebug;
         private final int numElements;
+        private final boolean async;
+        private final long coalesceMillis;
+        private final int maxEmails;
+        private final long rateIntervalMillis;
 
         public FactoryData(final String to, final String cc, final String bcc, final String from, final String replyTo,
                            final String subject, final String protocol, final String host, final int port,
-                           final String username, final String password, final boolean isDebug, final int numElements) {
+                           final String username, final String password, final boolean isDebug, final int numElements,
+                           final boolean async, final long coalesceMillis, final int maxEmails,
+                           final long rateIntervalMillis) {
             this.to = to;
             this.cc = cc;
             this.bcc = bcc;
@@ -276,6 +410,10 @@ public class SMTPManager extends AbstractManager {
             this.password = password;
             this.isDebug = isDebug;
             this.numElements = numElements;
+            this.async = async;
+            this.coalesceMillis = coalesceMillis;
+            this.maxEmails = maxEmails;
+            this.rateIntervalMillis = rateIntervalMillis;
         }
     }
 
@@ -293,6 +431,135 @@ public class SMTPManager extends AbstractManager {
         }
     }
 
+    /**
+     * Thread that coalesces the triggers and sends the messages.
+     */
+    private class DeliveryThread extends Thread {
+
+        private volatile boolean shutdown = false;
+
+        /** The events waiting to be sent, guarded by itself. */
+        private final List<LogEvent> pending = new ArrayList<LogEvent>();
+
+        private final int maxPending;
+
+        private Layout<?> layout;
+
+        private long firstTrigger;
+
+        private int dropped;
+
+        private long intervalStart;
+
+        private int sentInInterval;
+
+        public DeliveryThread() {
+            this.maxPending = Math.max(data.numElements, 1) * 2;
+            this.intervalStart = System.nanoTime();
+            setDaemon(true);
+            setName("SMTPDeliveryThread" + THREAD_SEQUENCE.getAndIncrement());
+        }
+
+        public void enqueue(final Layout<?> eventLayout, final LogEvent[] priorEvents, final LogEvent appendEvent) {
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    firstTrigger = System.nanoTime();
+                }
+                layout = eventLayout;
+                for (final LogEvent event : priorEvents) {
+                    pending.add(event);
+                }
+                pending.add(appendEvent);
+                final int excess = pending.size() - maxPending;
+                if (excess > 0) {
+                    pending.subList(0, excess).clear();
+                    dropped += excess;
+                }
+                pending.notifyAll();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final LogEvent[] events;
+                final Layout<?> eventLayout;
+                final long first;
+                final int droppedEvents;
+                synchronized (pending) {
+                    try {
+                        while (!shutdown && pending.isEmpty()) {
+                            pending.wait();
+                        }
+                        if (pending.isEmpty()) {
+                            break;
+                        }
+                        awaitRateLimit();
+                        waitUntil(firstTrigger + TimeUnit.MILLISECONDS.toNanos(data.coalesceMillis));
+                    } catch (final InterruptedException ex) {
+                        // Send what is pending.
+                    }
+                    events = pending.toArray(new LogEvent[pending.size()]);
+                    pending.clear();
+                    eventLayout = layout;
+                    first = firstTrigger;
+                    droppedEvents = dropped;
+                    dropped = 0;
+                }
+                if (droppedEvents > 0) {
+                    LOGGER.warn("{} events were discarded while waiting to be sent by {}", droppedEvents, getName());
+                }
+                final LogEvent[] priorEvents = new LogEvent[events.length - 1];
+                System.arraycopy(events, 0, priorEvents, 0, priorEvents.length);
+                try {
+                    send(eventLayout, priorEvents, events[events.length - 1]);
+                    deliveryLatency.record(System.nanoTime() - first);
+                } catch (final LoggingException ex) {
+                    // Already logged.
+                }
+                ++sentInInterval;
+            }
+        }
+
+        /**
+         * Waits while the maximum number of messages has been sent in the current interval. Must be called while
+         * holding the lock on pending.
+         */
+        private void awaitRateLimit() throws InterruptedException {
+            if (data.maxEmails <= 0) {
+                return;
+            }
+            final long interval = TimeUnit.MILLISECONDS.toNanos(data.rateIntervalMillis);
+            long now = System.nanoTime();
+            if (sentInInterval >= data.maxEmails && now - intervalStart < interval) {
+                waitUntil(intervalStart + interval);
+                now = System.nanoTime();
+            }
+            if (now - intervalStart >= interval) {
+                intervalStart = now;
+                sentInInterval = 0;
+            }
+        }
+
+        /**
+         * Waits until the deadline or shutdown. Must be called while holding the lock on pending.
+         */
+        private void waitUntil(final long deadline) throws InterruptedException {
+            long remaining = deadline - System.nanoTime();
+            while (!shutdown && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(pending, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            synchronized (pending) {
+                pending.notifyAll();
+            }
+        }
+    }
+
     /**
      * Factory to create the SMTP Manager.
      */
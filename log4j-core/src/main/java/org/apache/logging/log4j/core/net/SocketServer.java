@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.net;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.File;
@@ -158,8 +159,10 @@ public class SocketServer extends AbstractServer implements Runnable {
         private boolean shutdown = false;
 
         public SocketHandler(final Socket socket) throws IOException {
-
-            ois = new ObjectInputStream(socket.getInputStream());
+            // Events may be serialized on their own or streamed by a SerializedLayout with a resetInterval, both
+            // arrive as a sequence of objects on a single stream. Buffering avoids reading the socket in the
+            // small pieces ObjectInputStream asks for.
+            ois = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
         }
 
         public void shutdown() {
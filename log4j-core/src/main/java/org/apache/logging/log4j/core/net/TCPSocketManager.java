@@ -17,10 +17,13 @@
 package org.apache.logging.log4j.core.net;
 
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.appender.OutputStreamManager;
 import org.apache.logging.log4j.core.helpers.Strings;
+import org.apache.logging.log4j.core.layout.ObjectStreamEncoder;
+import org.apache.logging.log4j.core.layout.SerializedLayout;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -59,6 +62,8 @@ public class TCPSocketManager extends AbstractSocketManager {
 
     private final boolean immediateFail;
 
+    private final ObjectStreamEncoder encoder;
+
     /**
      * The Constructor.
      * @param name The unique name of this connection.
@@ -79,6 +84,7 @@ public class TCPSocketManager extends AbstractSocketManager {
         this.socket = sock;
         this.immediateFail = immediateFail;
         retry = delay > 0;
+        this.encoder = layout instanceof SerializedLayout ? ((SerializedLayout) layout).createEncoder() : null;
         if (sock == null) {
             connector = new Reconnector(this);
             connector.setDaemon(true);
@@ -111,6 +117,45 @@ public class TCPSocketManager extends AbstractSocketManager {
 
     @Override
     protected void write(final byte[] bytes, final int offset, final int length)  {
+        awaitSocket();
+        synchronized (this) {
+            try {
+                if (encoder != null) {
+                    encoder.resetStream(getOutputStream());
+                }
+                getOutputStream().write(bytes, offset, length);
+            } catch (final IOException ex) {
+                throw writeFailed(ex);
+            }
+        }
+    }
+
+    /**
+     * Returns true if events are written onto a single object stream through {@link #writeEvent(LogEvent)}
+     * rather than formatted by the Layout.
+     * @return true if the Layout is a SerializedLayout that streams events.
+     */
+    public boolean isStreaming() {
+        return encoder != null;
+    }
+
+    /**
+     * Serializes an event onto the object stream of the connection.
+     * @param event The LogEvent.
+     * @throws AppenderLoggingException if an error occurs.
+     */
+    public void writeEvent(final LogEvent event) {
+        awaitSocket();
+        synchronized (this) {
+            try {
+                encoder.encode(event, getOutputStream());
+            } catch (final IOException ex) {
+                throw writeFailed(ex);
+            }
+        }
+    }
+
+    private void awaitSocket() {
         if (socket == null) {
             if (connector != null && !immediateFail) {
                 connector.latch();
@@ -120,20 +165,17 @@ public class TCPSocketManager extends AbstractSocketManager {
                 throw new AppenderLoggingException(msg);
             }
         }
-        synchronized (this) {
-            try {
-                getOutputStream().write(bytes, offset, length);
-            } catch (final IOException ex) {
-                if (retry && connector == null) {
-                    connector = new Reconnector(this);
-                    connector.setDaemon(true);
-                    connector.setPriority(Thread.MIN_PRIORITY);
-                    connector.start();
-                }
-                final String msg = "Error writing to " + getName();
-                throw new AppenderLoggingException(msg, ex);
-            }
+    }
+
+    private AppenderLoggingException writeFailed(final IOException ex) {
+        if (retry && connector == null) {
+            connector = new Reconnector(this);
+            connector.setDaemon(true);
+            connector.setPriority(Thread.MIN_PRIORITY);
+            connector.start();
         }
+        final String msg = "Error writing to " + getName();
+        return new AppenderLoggingException(msg, ex);
     }
 
     @Override
@@ -203,6 +245,10 @@ public class TCPSocketManager extends AbstractSocketManager {
                         }
 
                         setOutputStream(newOS);
+                        if (encoder != null) {
+                            // The new connection starts with a new stream header.
+                            encoder.restart();
+                        }
                         socket = sock;
                         connector = null;
                         shutdown = true;
@@ -56,6 +56,14 @@ public final class RegexReplacement {
         return pattern.matcher(msg).replaceAll(substitution);
     }
 
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    String getSubstitution() {
+        return substitution;
+    }
+
     @Override
     public String toString() {
         return "replace(regex=" + pattern.pattern() + ", replacement=" + substitution + ")";
@@ -0,0 +1,608 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Applies a set of replacements to text in a single pass.
+ * <p>
+ * Replacements whose regular expression is a plain string are found together with an Aho-Corasick automaton.
+ * The remaining regular expressions are combined into one alternation where possible, so each is matched by the
+ * same Matcher. The match that starts first is replaced. When two matches start at the same place the longer
+ * plain string wins over a shorter one, and otherwise the replacement configured first wins. Replaced text is not
+ * searched again, so a single replacement behaves exactly like Matcher.replaceAll.
+ * </p>
+ * <p>
+ * A replacement String the single pass cannot apply, such as one referring to a named group with
+ * <code>${name}</code>, is applied on its own with {@link RegexReplacement#format(String)} before the single pass,
+ * in the order the replacements are configured, so no replacement is ever left out.
+ * </p>
+ * <pre>
+ * &lt;PatternLayout pattern="%m%n"&gt;
+ *   &lt;Scrubber&gt;
+ *     &lt;replace regex="password=\S+" replacement="password=***"/&gt;
+ *     &lt;replace regex="4111-1111-1111-1111" replacement="****-****-****-****"/&gt;
+ *   &lt;/Scrubber&gt;
+ * &lt;/PatternLayout&gt;
+ * </pre>
+ */
+@Plugin(name = "Scrubber", category = "Core", printObject = true)
+public final class Scrubber {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final RegexReplacement[] replacements;
+
+    private final RegexReplacement[] separate;
+
+    private final LiteralMatcher literals;
+
+    private final RegexUnit[] regexUnits;
+
+    private Scrubber(final RegexReplacement[] replacements) {
+        this.replacements = replacements;
+        final List<String> literalStrings = new ArrayList<String>();
+        final List<Replacement> literalReplacements = new ArrayList<Replacement>();
+        final List<Integer> literalOrder = new ArrayList<Integer>();
+        final List<Integer> combined = new ArrayList<Integer>();
+        final List<RegexUnit> units = new ArrayList<RegexUnit>();
+        final List<RegexReplacement> separateList = new ArrayList<RegexReplacement>();
+        for (int i = 0; i < replacements.length; ++i) {
+            final String regex = replacements[i].getPattern().pattern();
+            final String substitution = replacements[i].getSubstitution();
+            final String literal = toLiteral(regex);
+            if (!isSupported(replacements[i])) {
+                separateList.add(replacements[i]);
+            } else if (literal != null) {
+                literalStrings.add(literal);
+                literalReplacements.add(new Replacement(substitution, 0, 0));
+                literalOrder.add(i);
+            } else if (hasBackReference(regex)) {
+                // Group numbers change when the expression is combined with others.
+                units.add(new RegexUnit(new int[] {i}, new Pattern[] {replacements[i].getPattern()}, replacements));
+            } else {
+                combined.add(i);
+            }
+        }
+        if (!combined.isEmpty()) {
+            final int[] order = new int[combined.size()];
+            final Pattern[] patterns = new Pattern[combined.size()];
+            for (int i = 0; i < order.length; ++i) {
+                order[i] = combined.get(i);
+                patterns[i] = replacements[order[i]].getPattern();
+            }
+            try {
+                units.add(0, new RegexUnit(order, patterns, replacements));
+            } catch (final PatternSyntaxException ex) {
+                // For example the same group name is used twice, so the expressions are matched separately.
+                for (int i = order.length - 1; i >= 0; --i) {
+                    units.add(0, new RegexUnit(new int[] {order[i]}, new Pattern[] {patterns[i]}, replacements));
+                }
+            }
+        }
+        this.separate = separateList.toArray(new RegexReplacement[separateList.size()]);
+        this.literals = literalStrings.isEmpty() ? null :
+            new LiteralMatcher(literalStrings, literalReplacements, literalOrder);
+        this.regexUnits = units.toArray(new RegexUnit[units.size()]);
+    }
+
+    /**
+     * Returns the String of a regular expression that only matches that String.
+     * @param regex The regular expression.
+     * @return The String it matches or null if the expression is not a plain String.
+     */
+    static String toLiteral(final String regex) {
+        if (regex.length() == 0) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); ++i) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 == regex.length()) {
+                    return null;
+                }
+                final char next = regex.charAt(++i);
+                if (Character.isLetterOrDigit(next)) {
+                    return null;
+                }
+                sb.append(next);
+            } else if (METACHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Tests whether the single pass can apply the replacement String.
+     */
+    private static boolean isSupported(final RegexReplacement replacement) {
+        try {
+            new Replacement(replacement.getSubstitution(), 0, replacement.getPattern().matcher("").groupCount());
+            return true;
+        } catch (final IllegalArgumentException ex) {
+            LOGGER.debug("Applying {} on its own: {}", replacement, ex.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean hasBackReference(final String regex) {
+        for (int i = 0; i < regex.length() - 1; ++i) {
+            if (regex.charAt(i) == '\\') {
+                final char next = regex.charAt(i + 1);
+                if (next >= '1' && next <= '9' || next == 'k') {
+                    return true;
+                }
+                ++i;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the replacements applied by this Scrubber.
+     * @return The replacements.
+     */
+    public List<RegexReplacement> getReplacements() {
+        return Arrays.asList(replacements);
+    }
+
+    /**
+     * Tests whether any of the regular expressions occurs in the text.
+     * @param text The text to search.
+     * @return true if the text contains a match.
+     */
+    public boolean find(final CharSequence text) {
+        for (final RegexReplacement replacement : separate) {
+            if (replacement.getPattern().matcher(text).find()) {
+                return true;
+            }
+        }
+        if (literals != null && literals.find(text, 0, new int[2]) >= 0) {
+            return true;
+        }
+        for (final RegexUnit unit : regexUnits) {
+            if (unit.pattern.matcher(text).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies the replacements.
+     * @param text The text to scrub.
+     * @return The scrubbed text.
+     */
+    public String scrub(final String text) {
+        final StringBuilder result = replace(text);
+        return result == null ? text : result.toString();
+    }
+
+    /**
+     * Applies the replacements.
+     * @param text The text to scrub.
+     * @return The text itself if nothing was replaced, otherwise a new StringBuilder with the scrubbed text.
+     */
+    public StringBuilder scrub(final StringBuilder text) {
+        final StringBuilder result = replace(text);
+        return result == null ? text : result;
+    }
+
+    private StringBuilder replace(final CharSequence input) {
+        CharSequence text = input;
+        boolean changed = false;
+        if (separate.length > 0) {
+            String str = input.toString();
+            for (final RegexReplacement replacement : separate) {
+                str = replacement.format(str);
+            }
+            changed = !str.contentEquals(input);
+            text = str;
+        }
+        final int length = text.length();
+        final int[] literal = new int[2];
+        int literalRule = -1;
+        final Matcher[] matchers = new Matcher[regexUnits.length];
+        final boolean[] found = new boolean[regexUnits.length];
+        for (int i = 0; i < regexUnits.length; ++i) {
+            matchers[i] = regexUnits[i].pattern.matcher(text);
+        }
+        StringBuilder out = null;
+        int pos = 0;
+        boolean literalDone = literals == null;
+        final boolean[] regexDone = new boolean[regexUnits.length];
+        while (pos <= length) {
+            if (!literalDone && (literalRule < 0 || literal[0] < pos)) {
+                literalRule = literals.find(text, pos, literal);
+                literalDone = literalRule < 0;
+            }
+            int bestUnit = -1;
+            int bestStart = literalDone ? Integer.MAX_VALUE : literal[0];
+            int bestOrder = literalDone ? Integer.MAX_VALUE : literals.order[literalRule];
+            for (int i = 0; i < matchers.length; ++i) {
+                if (regexDone[i]) {
+                    continue;
+                }
+                if (!found[i] || matchers[i].start() < pos) {
+                    found[i] = matchers[i].find(pos);
+                    if (!found[i]) {
+                        regexDone[i] = true;
+                        continue;
+                    }
+                }
+                final int start = matchers[i].start();
+                final int order = regexUnits[i].getOrder(matchers[i]);
+                if (start < bestStart || start == bestStart && order < bestOrder) {
+                    bestUnit = i;
+                    bestStart = start;
+                    bestOrder = order;
+                }
+            }
+            if (bestStart == Integer.MAX_VALUE) {
+                break;
+            }
+            if (out == null) {
+                out = new StringBuilder(length + 16);
+            }
+            out.append(text, pos, bestStart);
+            final int end;
+            if (bestUnit < 0) {
+                end = literal[1];
+                literals.replacements.get(literalRule).append(out, text, bestStart, end, null);
+                literalRule = -1;
+            } else {
+                final Matcher matcher = matchers[bestUnit];
+                end = matcher.end();
+                regexUnits[bestUnit].getReplacement(matcher).append(out, text, bestStart, end, matcher);
+                found[bestUnit] = false;
+            }
+            pos = end;
+            if (bestStart == end) {
+                // An empty match, step over the next character as Matcher.replaceAll does.
+                if (pos < length) {
+                    out.append(text.charAt(pos));
+                }
+                ++pos;
+            }
+        }
+        if (out == null) {
+            return changed ? new StringBuilder(text) : null;
+        }
+        if (pos < length) {
+            out.append(text, pos, length);
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return "Scrubber" + Arrays.toString(replacements);
+    }
+
+    /**
+     * Creates a Scrubber for replacements, or null if there are none. Null replacements are ignored.
+     * @param replacements The replacements.
+     * @return The Scrubber.
+     */
+    public static Scrubber newInstance(final RegexReplacement... replacements) {
+        final List<RegexReplacement> list = new ArrayList<RegexReplacement>(replacements.length);
+        for (final RegexReplacement replacement : replacements) {
+            if (replacement != null) {
+                list.add(replacement);
+            }
+        }
+        return list.isEmpty() ? null : new Scrubber(list.toArray(new RegexReplacement[list.size()]));
+    }
+
+    /**
+     * Creates a Scrubber.
+     * @param replacements The replacements to apply.
+     * @return The Scrubber.
+     */
+    @PluginFactory
+    public static Scrubber createScrubber(@PluginElement("Replace") final RegexReplacement[] replacements) {
+        if (replacements == null || replacements.length == 0) {
+            LOGGER.error("A Scrubber requires at least one replace element");
+            return null;
+        }
+        return newInstance(replacements);
+    }
+
+    /**
+     * Several regular expressions matched by one Pattern. Each expression is wrapped in a group so that the group
+     * that took part in a match identifies the replacement.
+     */
+    private static final class RegexUnit {
+        private final Pattern pattern;
+        private final int[] order;
+        private final int[] groups;
+        private final Replacement[] replacements;
+
+        RegexUnit(final int[] order, final Pattern[] patterns, final RegexReplacement[] all) {
+            this.order = order;
+            this.groups = new int[order.length];
+            this.replacements = new Replacement[order.length];
+            if (patterns.length == 1) {
+                this.pattern = patterns[0];
+                this.groups[0] = 0;
+                this.replacements[0] = new Replacement(all[order[0]].getSubstitution(), 0,
+                    pattern.matcher("").groupCount());
+                return;
+            }
+            final StringBuilder sb = new StringBuilder();
+            int group = 1;
+            for (int i = 0; i < patterns.length; ++i) {
+                if (i > 0) {
+                    sb.append('|');
+                }
+                sb.append('(').append(patterns[i].pattern()).append(')');
+                final int count = patterns[i].matcher("").groupCount();
+                groups[i] = group;
+                replacements[i] = new Replacement(all[order[i]].getSubstitution(), group, count);
+                group += count + 1;
+            }
+            this.pattern = Pattern.compile(sb.toString());
+        }
+
+        private int indexOf(final Matcher matcher) {
+            for (int i = 0; i < groups.length; ++i) {
+                if (matcher.start(groups[i]) >= 0) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        int getOrder(final Matcher matcher) {
+            return groups.length == 1 ? order[0] : order[indexOf(matcher)];
+        }
+
+        Replacement getReplacement(final Matcher matcher) {
+            return groups.length == 1 ? replacements[0] : replacements[indexOf(matcher)];
+        }
+    }
+
+    /**
+     * A parsed replacement String. As with Matcher.appendReplacement, $n refers to group n of the regular
+     * expression and a backslash quotes the next character.
+     */
+    private static final class Replacement {
+        private final String[] texts;
+        private final int[] groups;
+
+        Replacement(final String substitution, final int offset, final int groupCount) {
+            final List<String> textList = new ArrayList<String>();
+            final List<Integer> groupList = new ArrayList<Integer>();
+            final StringBuilder sb = new StringBuilder();
+            final String s = substitution == null ? "" : substitution;
+            for (int i = 0; i < s.length(); ++i) {
+                final char c = s.charAt(i);
+                if (c == '\\' && i + 1 < s.length()) {
+                    sb.append(s.charAt(++i));
+                } else if (c == '$') {
+                    if (i + 1 == s.length() || !Character.isDigit(s.charAt(i + 1))) {
+                        throw new IllegalArgumentException("Illegal group reference in " + s);
+                    }
+                    int group = s.charAt(++i) - '0';
+                    while (i + 1 < s.length() && Character.isDigit(s.charAt(i + 1))) {
+                        final int next = group * 10 + s.charAt(i + 1) - '0';
+                        if (next > groupCount) {
+                            break;
+                        }
+                        group = next;
+                        ++i;
+                    }
+                    if (group > groupCount) {
+                        throw new IllegalArgumentException("No group " + group + " in " + s);
+                    }
+                    textList.add(sb.toString());
+                    sb.setLength(0);
+                    groupList.add(group + offset);
+                } else {
+                    sb.append(c);
+                }
+            }
+            textList.add(sb.toString());
+            this.texts = textList.toArray(new String[textList.size()]);
+            this.groups = new int[groupList.size()];
+            for (int i = 0; i < groups.length; ++i) {
+                groups[i] = groupList.get(i);
+            }
+        }
+
+        void append(final StringBuilder out, final CharSequence text, final int start, final int end,
+                    final Matcher matcher) {
+            for (int i = 0; i < groups.length; ++i) {
+                out.append(texts[i]);
+                if (matcher == null) {
+                    out.append(text, start, end);
+                } else {
+                    final int groupStart = matcher.start(groups[i]);
+                    if (groupStart >= 0) {
+                        out.append(text, groupStart, matcher.end(groups[i]));
+                    }
+                }
+            }
+            out.append(texts[groups.length]);
+        }
+    }
+
+    /**
+     * Finds the leftmost, longest occurrence of any of a set of Strings with an Aho-Corasick automaton.
+     */
+    private static final class LiteralMatcher {
+        private static final int ASCII = 128;
+
+        private final List<Replacement> replacements;
+        private final int[] order;
+
+        /** Transitions from the root for ASCII characters. */
+        private final int[] rootNext = new int[ASCII];
+        private final List<Map<Character, Integer>> next = new ArrayList<Map<Character, Integer>>();
+        private int[] fail;
+        private int[] depth;
+        /** Index of the String ending in each state, or -1. */
+        private int[] terminal;
+        /** The nearest state reachable through failure links at which a String ends, or 0. */
+        private int[] output;
+
+        LiteralMatcher(final List<String> strings, final List<Replacement> replacements,
+                       final List<Integer> order) {
+            this.replacements = replacements;
+            this.order = new int[order.size()];
+            for (int i = 0; i < this.order.length; ++i) {
+                this.order[i] = order.get(i);
+            }
+            final List<Integer> depths = new ArrayList<Integer>();
+            final List<Integer> terminals = new ArrayList<Integer>();
+            next.add(new HashMap<Character, Integer>());
+            depths.add(0);
+            terminals.add(-1);
+            for (int i = 0; i < strings.size(); ++i) {
+                final String s = strings.get(i);
+                int state = 0;
+                for (int j = 0; j < s.length(); ++j) {
+                    final Character c = s.charAt(j);
+                    Integer target = next.get(state).get(c);
+                    if (target == null) {
+                        target = next.size();
+                        next.add(new HashMap<Character, Integer>());
+                        depths.add(j + 1);
+                        terminals.add(-1);
+                        next.get(state).put(c, target);
+                    }
+                    state = target;
+                }
+                if (terminals.get(state) < 0) {
+                    terminals.set(state, i);
+                }
+            }
+            final int size = next.size();
+            depth = new int[size];
+            terminal = new int[size];
+            for (int i = 0; i < size; ++i) {
+                depth[i] = depths.get(i);
+                terminal[i] = terminals.get(i);
+            }
+            fail = new int[size];
+            output = new int[size];
+            final int[] queue = new int[size];
+            int head = 0;
+            int tail = 0;
+            for (final Integer child : next.get(0).values()) {
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                final int state = queue[head++];
+                for (final Map.Entry<Character, Integer> entry : next.get(state).entrySet()) {
+                    final int child = entry.getValue();
+                    int f = fail[state];
+                    Integer target = null;
+                    while (true) {
+                        target = next.get(f).get(entry.getKey());
+                        if (target != null || f == 0) {
+                            break;
+                        }
+                        f = fail[f];
+                    }
+                    fail[child] = target == null || target == child ? 0 : target;
+                    output[child] = terminal[fail[child]] >= 0 ? fail[child] : output[fail[child]];
+                    queue[tail++] = child;
+                }
+            }
+            for (int c = 0; c < ASCII; ++c) {
+                final Integer target = next.get(0).get((char) c);
+                rootNext[c] = target == null ? 0 : target;
+            }
+        }
+
+        private int step(int state, final char c) {
+            while (true) {
+                final Integer target;
+                if (state == 0) {
+                    if (c < ASCII) {
+                        return rootNext[c];
+                    }
+                    target = next.get(0).get(c);
+                    return target == null ? 0 : target;
+                }
+                target = next.get(state).get(c);
+                if (target != null) {
+                    return target;
+                }
+                state = fail[state];
+            }
+        }
+
+        /**
+         * Finds the leftmost, longest match at or after a position.
+         * @param text The text to search.
+         * @param from The position to start at.
+         * @param bounds Receives the start and end of the match.
+         * @return The index of the String matched or -1 if there is no match.
+         */
+        int find(final CharSequence text, final int from, final int[] bounds) {
+            int best = -1;
+            int bestStart = 0;
+            int bestEnd = 0;
+            int state = 0;
+            final int length = text.length();
+            for (int i = from; i < length; ++i) {
+                state = step(state, text.charAt(i));
+                for (int s = terminal[state] >= 0 ? state : output[state]; s != 0; s = output[s]) {
+                    final int start = i + 1 - depth[s];
+                    final int index = terminal[s];
+                    if (best < 0 || start < bestStart || start == bestStart &&
+                        (i + 1 > bestEnd || i + 1 == bestEnd && order[index] < order[best])) {
+                        best = index;
+                        bestStart = start;
+                        bestEnd = i + 1;
+                    }
+                }
+                // No later match can start before the longest partial match ending here.
+                if (best >= 0 && bestStart < i + 1 - depth[state]) {
+                    break;
+                }
+            }
+            if (best >= 0) {
+                bounds[0] = bestStart;
+                bounds[1] = bestEnd;
+            }
+            return best;
+        }
+    }
+}
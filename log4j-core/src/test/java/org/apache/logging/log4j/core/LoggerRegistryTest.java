@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+import static org.junit.Assert.*;
+
+import org.apache.logging.log4j.core.helpers.Constants;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class LoggerRegistryTest {
+
+    private static final int COUNT = 1000;
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.LOG4J_LOGGER_REGISTRY);
+    }
+
+    @Test
+    public void testStrongRegistry() {
+        final LoggerContext ctx = new LoggerContext("StrongRegistryTest");
+        for (int i = 0; i < COUNT; ++i) {
+            ctx.getLogger("job." + i);
+        }
+        System.gc();
+        assertEquals(COUNT, ctx.getLoggerCount());
+        assertEquals(COUNT, ctx.getLoggersCreated());
+        assertEquals(0, ctx.getLoggersReclaimed());
+        assertSame(ctx.getLogger("job.1"), ctx.getLogger("job.1"));
+        assertEquals(COUNT, ctx.getLoggersCreated());
+    }
+
+    @Test
+    public void testWeakRegistry() throws Exception {
+        System.setProperty(Constants.LOG4J_LOGGER_REGISTRY, "Weak");
+        final LoggerContext ctx = new LoggerContext("WeakRegistryTest");
+        final Logger kept = ctx.getLogger("kept");
+        for (int i = 0; i < COUNT; ++i) {
+            ctx.getLogger("job." + i);
+        }
+        assertEquals(COUNT + 1, ctx.getLoggersCreated());
+        for (int i = 0; i < 50 && ctx.getLoggersReclaimed() < COUNT; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(COUNT, ctx.getLoggersReclaimed());
+        assertEquals(1, ctx.getLoggerCount());
+        assertTrue(ctx.hasLogger("kept"));
+        assertFalse(ctx.hasLogger("job.1"));
+        assertSame(kept, ctx.getLogger("kept"));
+        assertNotNull(ctx.getLogger("job.1"));
+        assertEquals(COUNT + 2, ctx.getLoggersCreated());
+    }
+
+    @Test
+    public void testInvalidRegistry() {
+        System.setProperty(Constants.LOG4J_LOGGER_REGISTRY, "Unknown");
+        final LoggerContext ctx = new LoggerContext("InvalidRegistryTest");
+        ctx.getLogger("job");
+        System.gc();
+        assertTrue(ctx.hasLogger("job"));
+    }
+}
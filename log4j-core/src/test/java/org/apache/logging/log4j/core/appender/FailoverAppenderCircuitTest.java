@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.FailOnceAppender;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.apache.logging.log4j.test.appender.SlowAppender;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class FailoverAppenderCircuitTest {
+    private static final String CONFIG = "log4j-failover-circuit.xml";
+    private static Configuration config;
+    private static ListAppender app;
+    private static LoggerContext ctx;
+
+    @BeforeClass
+    public static void setupClass() {
+        System.setProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        ctx = (LoggerContext) LogManager.getContext(false);
+        config = ctx.getConfiguration();
+        app = (ListAppender) config.getAppenders().get("List");
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        ctx.reconfigure();
+        StatusLogger.getLogger().reset();
+    }
+
+    private static FailoverAppender.State awaitState(final FailoverAppender failover,
+                                                     final FailoverAppender.State state) throws Exception {
+        for (int i = 0; i < 100 && failover.getState() != state; ++i) {
+            Thread.sleep(20);
+        }
+        return failover.getState();
+    }
+
+    @Test
+    public void testAsyncRecovery() throws Exception {
+        final Logger logger = LogManager.getLogger("Once");
+        final FailoverAppender failover = (FailoverAppender) config.getAppenders().get("AsyncFailover");
+        final FailOnceAppender primary = (FailOnceAppender) config.getAppenders().get("Once");
+        app.clear();
+        logger.error("Fail once");
+        assertEquals(FailoverAppender.State.OPEN, failover.getState());
+        assertEquals(1, failover.getTripCount());
+        logger.error("Fail again");
+        assertEquals(2, app.getEvents().size());
+        app.clear();
+
+        Thread.sleep(1100);
+        logger.error("Probe after recovery interval");
+        assertEquals("Did not recover", FailoverAppender.State.CLOSED,
+            awaitState(failover, FailoverAppender.State.CLOSED));
+        logger.error("After recovery");
+        assertEquals("Events were written to the failover appender", 0, app.getEvents().size());
+        assertEquals("No events in primary appender", 2, primary.getEvents().size());
+        assertEquals(1, failover.getTripCount());
+    }
+
+    @Test
+    public void testLatencyBudget() throws Exception {
+        final Logger logger = LogManager.getLogger("Slow");
+        final FailoverAppender failover = (FailoverAppender) config.getAppenders().get("SlowFailover");
+        final SlowAppender primary = (SlowAppender) config.getAppenders().get("Slow");
+        app.clear();
+        logger.error("Slow event");
+        assertEquals("Slow event was not written", 1, primary.getEvents().size());
+        assertEquals(FailoverAppender.State.OPEN, failover.getState());
+        logger.error("Fail over");
+        assertEquals(1, app.getEvents().size());
+        assertEquals(0, primary.getEvents().size());
+    }
+
+    @Test
+    public void testCallStartedBeforeTripDoesNotCloseCircuit() throws Exception {
+        final GatedAppender primary = new GatedAppender("Gated");
+        final ListAppender list = new ListAppender("GatedList");
+        final DefaultConfiguration configuration = new DefaultConfiguration();
+        configuration.addAppender(primary);
+        configuration.addAppender(list);
+        primary.start();
+        list.start();
+        final FailoverAppender failover = FailoverAppender.createAppender("GatedFailover", "Gated",
+            new String[] {"GatedList"}, "0", null, null, configuration, null, "false");
+        failover.start();
+
+        // The first call blocks inside the primary Appender while the circuit is closed.
+        final Thread slow = new Thread("Slow") {
+            @Override
+            public void run() {
+                failover.append(createEvent("Started before the trip"));
+            }
+        };
+        slow.start();
+        assertTrue(primary.entered.await(5, TimeUnit.SECONDS));
+
+        // A concurrent call fails and opens the circuit.
+        primary.fail = true;
+        failover.append(createEvent("Fails"));
+        assertEquals(FailoverAppender.State.OPEN, failover.getState());
+
+        // The first call now succeeds, but the primary Appender has not been probed yet.
+        primary.release.countDown();
+        slow.join();
+        assertEquals("A call started before the trip closed the circuit", FailoverAppender.State.OPEN,
+            failover.getState());
+        assertEquals(1, failover.getTripCount());
+        assertEquals(1, list.getEvents().size());
+
+        primary.fail = false;
+        failover.append(createEvent("Probe"));
+        assertEquals(FailoverAppender.State.CLOSED, failover.getState());
+        assertEquals(1, failover.getTripCount());
+        assertEquals(2, primary.count.get());
+        failover.stop();
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return new Log4jLogEvent("GatedLogger", null, FailoverAppenderCircuitTest.class.getName(), Level.ERROR,
+            new SimpleMessage(message), null);
+    }
+
+    /**
+     * Blocks the first event until it is released and fails while {@code fail} is set.
+     */
+    private static class GatedAppender extends AbstractAppender {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean fail;
+        private final AtomicInteger count = new AtomicInteger();
+
+        public GatedAppender(final String name) {
+            super(name, null, null, false);
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            if (fail) {
+                throw new LoggingException("Gated failure");
+            }
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            count.incrementAndGet();
+        }
+    }
+}
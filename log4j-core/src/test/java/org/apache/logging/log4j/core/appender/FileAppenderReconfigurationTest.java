@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.BaseConfiguration;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.helpers.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that incremental reconfiguration keeps a FileAppender open when only a Logger changes.
+ */
+public class FileAppenderReconfigurationTest {
+
+    private static final String CONFIG = "log4j-incremental-file.xml";
+    private static final String FILENAME = "target/incremental/file.log";
+    private static final String LEVEL_PROPERTY = "FileAppenderReconfigurationTest.level";
+
+    @Before
+    public void before() {
+        new File(FILENAME).delete();
+        System.setProperty(Constants.LOG4J_INCREMENTAL_RECONFIGURATION, "true");
+        System.setProperty(LEVEL_PROPERTY, "info");
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.LOG4J_INCREMENTAL_RECONFIGURATION);
+        System.clearProperty(LEVEL_PROPERTY);
+        new File(FILENAME).delete();
+    }
+
+    @Test
+    public void testManagerIsKeptWhenLevelChanges() throws Exception {
+        final LoggerContext ctx = Configurator.initialize("IncrementalFileTest", CONFIG);
+        try {
+            final FileAppender appender = (FileAppender) ctx.getConfiguration().getAppenders().get("File");
+            final OutputStreamManager manager = appender.getManager();
+            final Logger logger = ctx.getLogger("IncrementalFileTest");
+            logger.debug("Not logged");
+            logger.info("Before reconfiguration");
+
+            System.setProperty(LEVEL_PROPERTY, "debug");
+            ctx.reconfigure();
+            assertSame("FileAppender was not reused", appender, ctx.getConfiguration().getAppenders().get("File"));
+            assertSame("FileManager was replaced", manager, appender.getManager());
+            assertTrue(((BaseConfiguration) ctx.getConfiguration()).getReusedAppenders().contains("File"));
+            assertTrue("Reused appender was stopped", appender.isStarted());
+            assertEquals(Level.DEBUG, ctx.getLogger("IncrementalFileTest").getLevel());
+
+            ctx.getLogger("IncrementalFileTest").debug("After reconfiguration");
+        } finally {
+            Configurator.shutdown(ctx);
+        }
+        assertFalse("Manager for " + FILENAME + " not released", OutputStreamManager.hasManager(FILENAME));
+        final List<String> lines = readLines();
+        assertEquals(2, lines.size());
+        assertEquals("Before reconfiguration", lines.get(0));
+        assertEquals("After reconfiguration", lines.get(1));
+    }
+
+    private static List<String> readLines() throws Exception {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new FileReader(FILENAME));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
@@ -31,8 +31,11 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.async.RingBufferLogEvent;
 import org.apache.logging.log4j.core.helpers.CyclicBuffer;
 import org.apache.logging.log4j.core.net.MimeMessageBuilder;
+import org.apache.logging.log4j.message.ObjectMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.Test;
 
 public class SMTPAppenderTest {
@@ -40,6 +43,8 @@ public class SMTPAppenderTest {
     private static final String HOST = "localhost";
     private static final String PORT = "8199";
     private static final int PORTNUM = Integer.parseInt(PORT);
+    private static final String ASYNC_PORT = "8198";
+    private static final String COPY_PORT = "8197";
 
     @Test
     public void testMessageFactorySetFrom() throws MessagingException {
@@ -133,7 +138,7 @@ public class SMTPAppenderTest {
         final SMTPAppender appender = SMTPAppender.createAppender("Test",
                 "to@example.com", "cc@example.com", "bcc@example.com",
                 "from@example.com", "replyTo@example.com", "Subject", null,
-                HOST, PORT, null, null, "false", "3", null, null, "true");
+                HOST, PORT, null, null, "false", "3", null, null, null, null, null, null, "true");
         appender.start();
 
         final LoggerContext context = (LoggerContext) LogManager.getContext();
@@ -181,4 +186,95 @@ public class SMTPAppenderTest {
         assertFalse(body2.contains("Error with exception"));
         assertTrue(body2.contains("Error message #2"));
     }
+
+    @Test
+    public void testAsyncDelivery() throws Exception {
+        final SMTPAppender appender = SMTPAppender.createAppender("AsyncTest",
+                "to@example.com", null, null, "from@example.com", null, "Subject", null,
+                HOST, ASYNC_PORT, null, null, "false", "3", "true", "500", "1", "60000", null, null, "true");
+        appender.start();
+        assertTrue(appender.getManager().isAsync());
+
+        final LoggerContext context = (LoggerContext) LogManager.getContext();
+        final Logger root = context.getLogger("SMTPAppenderAsyncTest");
+        root.addAppender(appender);
+        root.setAdditive(false);
+        root.setLevel(Level.DEBUG);
+
+        final SimpleSmtpServer server = SimpleSmtpServer.start(Integer.parseInt(ASYNC_PORT));
+        try {
+            root.debug("Debug message #1");
+            root.error("Error message #1");
+            root.error("Error message #2");
+            // Both triggers are within the coalescing window.
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (appender.getManager().getDeliveryLatency().getCount() == 0
+                && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(1, appender.getManager().getDeliveryLatency().getCount());
+
+            // Only one message per minute so this is held until the appender stops.
+            root.error("Error message #3");
+            Thread.sleep(600);
+            assertEquals(1, appender.getManager().getDeliveryLatency().getCount());
+        } finally {
+            root.removeAppender(appender);
+            appender.stop();
+            server.stop();
+        }
+        assertEquals(2, appender.getManager().getDeliveryLatency().getCount());
+        assertEquals(2, server.getReceivedEmailSize());
+        final Iterator<SmtpMessage> messages = server.getReceivedEmail();
+        final String body = messages.next().getBody();
+        assertTrue(body.contains("Debug message #1"));
+        assertTrue(body.contains("Error message #1"));
+        assertTrue(body.contains("Error message #2"));
+        assertFalse(body.contains("Error message #3"));
+        final String body2 = messages.next().getBody();
+        assertFalse(body2.contains("Error message #2"));
+        assertTrue(body2.contains("Error message #3"));
+    }
+
+    @Test
+    public void testAsyncDeliveryCopiesEvents() throws Exception {
+        final SMTPAppender appender = SMTPAppender.createAppender("CopyTest",
+                "to@example.com", null, null, "from@example.com", null, "Subject", null,
+                HOST, COPY_PORT, null, null, "false", "3", "true", "500", "1", "60000", null, null, "true");
+        appender.start();
+
+        final SimpleSmtpServer server = SimpleSmtpServer.start(Integer.parseInt(COPY_PORT));
+        try {
+            // An asynchronous logger hands the appender the RingBufferLogEvent of a slot and later reuses it.
+            final RingBufferLogEvent event = new RingBufferLogEvent();
+            final StringBuilder state = new StringBuilder("Original state");
+            event.setValues(null, "SMTPAppenderCopyTest", null, SMTPAppenderTest.class.getName(), Level.DEBUG,
+                new ObjectMessage(state), null, null, null, "main", null, System.currentTimeMillis());
+            append(appender, event);
+            state.setLength(0);
+            state.append("Changed state");
+
+            event.setValues(null, "SMTPAppenderCopyTest", null, SMTPAppenderTest.class.getName(), Level.ERROR,
+                new SimpleMessage("Error message #1"), null, null, null, "main", null, System.currentTimeMillis());
+            append(appender, event);
+            // The delivery thread is still waiting for the coalescing window to elapse.
+            event.setValues(null, "SMTPAppenderCopyTest", null, SMTPAppenderTest.class.getName(), Level.DEBUG,
+                new SimpleMessage("Recycled message"), null, null, null, "main", null, System.currentTimeMillis());
+        } finally {
+            appender.stop();
+            server.stop();
+        }
+        assertEquals(1, server.getReceivedEmailSize());
+        final String body = server.getReceivedEmail().next().getBody();
+        assertTrue(body, body.contains("Original state"));
+        assertTrue(body, body.contains("Error message #1"));
+        assertFalse(body, body.contains("Changed state"));
+        assertFalse(body, body.contains("Recycled message"));
+    }
+
+    private static void append(final SMTPAppender appender, final RingBufferLogEvent event) {
+        if (!appender.isFiltered(event)) {
+            appender.append(event);
+        }
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class RoutingAppenderPurgeTest {
+    private static final String CONFIG = "log4j-routing-purge.xml";
+    private static Configuration config;
+    private static LoggerContext ctx;
+
+    @BeforeClass
+    public static void setupClass() {
+        System.setProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        ctx = (LoggerContext) LogManager.getContext(false);
+        config = ctx.getConfiguration();
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        ctx.reconfigure();
+        StatusLogger.getLogger().reset();
+    }
+
+    @After
+    public void tearDown() {
+        ThreadContext.clear();
+    }
+
+    private static int awaitAppenderCount(final RoutingAppender routing, final int count) throws Exception {
+        for (int i = 0; i < 100 && routing.getAppenderCount() > count; ++i) {
+            Thread.sleep(20);
+        }
+        return routing.getAppenderCount();
+    }
+
+    @Test
+    public void testPurge() throws Exception {
+        final Logger logger = LogManager.getLogger("RoutingPurgeTest");
+        final RoutingAppender routing = (RoutingAppender) config.getAppenders().get("Routing");
+        final ListAppender list = (ListAppender) config.getAppenders().get("List");
+        list.clear();
+
+        ThreadContext.put("tenant", "Shared");
+        logger.info("Shared");
+        assertEquals(1, list.getEvents().size());
+        assertEquals(1, routing.getAppenderCount());
+
+        for (int i = 0; i < 10; ++i) {
+            ThreadContext.put("tenant", "Tenant" + i);
+            logger.info("Tenant " + i);
+        }
+        assertTrue("Least recently used routes were not purged", awaitAppenderCount(routing, 4) <= 4);
+        assertEquals("Idle routes were not purged", 1, awaitAppenderCount(routing, 1));
+
+        ThreadContext.put("tenant", "Tenant0");
+        logger.info("Tenant 0 again");
+        assertEquals("Purged route was not recreated", 2, routing.getAppenderCount());
+        assertEquals(1, list.getEvents().size());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async.perftest;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.core.helpers.CachedClock;
+import org.apache.logging.log4j.core.helpers.Clock;
+import org.apache.logging.log4j.core.helpers.CoarseCachedClock;
+import org.apache.logging.log4j.core.helpers.NanoClock;
+import org.apache.logging.log4j.core.helpers.SystemClock;
+
+/**
+ * Measures the cost of obtaining a time stamp from each {@code Clock}, with
+ * one or more threads reading the clock at the same time as the logging
+ * threads of the asynchronous loggers do.
+ * <p>
+ * Usage: ClockPerfTest [maxThreads] [iterations]
+ */
+public class ClockPerfTest {
+
+    public static void main(final String[] args) throws Exception {
+        final int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50000000;
+        final Clock[] clocks = {new SystemClock(), CachedClock.instance(), CoarseCachedClock.instance(),
+                new NanoClock()};
+
+        // warm up
+        for (final Clock clock : clocks) {
+            run(clock, 1, iterations / 10);
+        }
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            for (final Clock clock : clocks) {
+                final double nanos = run(clock, threads, iterations);
+                System.out.printf("%-20s threads=%2d %6.1f ns/call%n", clock.getClass().getSimpleName(), threads,
+                        nanos);
+            }
+        }
+    }
+
+    /**
+     * Returns the average number of nanoseconds per call when the given number
+     * of threads each call the clock the given number of times.
+     */
+    private static double run(final Clock clock, final int threadCount, final int iterations)
+            throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final long[] durations = new long[threadCount];
+        final long[] sink = new long[threadCount];
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException ex) {
+                        return;
+                    }
+                    long total = 0;
+                    final long t1 = System.nanoTime();
+                    for (int j = 0; j < iterations; j++) {
+                        total += clock.currentTimeMillis();
+                    }
+                    durations[index] = System.nanoTime() - t1;
+                    sink[index] = total;
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        long total = 0;
+        for (int i = 0; i < threadCount; i++) {
+            threads[i].join();
+            total += durations[i];
+        }
+        if (sink[0] == 0) {
+            throw new IllegalStateException();
+        }
+        return (double) total / threadCount / iterations;
+    }
+}
@@ -211,6 +211,8 @@ public class PerfTestDriver {
                 + AsyncLoggerContextSelector.class.getName();
         final String CACHEDCLOCK = "-Dlog4j.Clock=CachedClock";
         final String SYSCLOCK = "-Dlog4j.Clock=SystemClock";
+        final String COARSECLOCK = "-Dlog4j.Clock=CoarseCachedClock";
+        final String NANOCLOCK = "-Dlog4j.Clock=NanoClock";
         final String LOG12 = RunLog4j1.class.getName();
         final String LOG20 = RunLog4j2.class.getName();
         final String LOGBK = RunLogback.class.getName();
@@ -220,6 +222,11 @@ public class PerfTestDriver {
         // includeLocation=false
         tests.add(s("perf3PlainNoLoc.xml", LOG20, "Loggers all async",
                 ALL_ASYNC, SYSCLOCK));
+        tests.add(s("perf3PlainNoLoc.xml", LOG20,
+                "Loggers all async CoarseCachedClock", ALL_ASYNC,
+                COARSECLOCK));
+        tests.add(s("perf3PlainNoLoc.xml", LOG20,
+                "Loggers all async NanoClock", ALL_ASYNC, NANOCLOCK));
         tests.add(s("perf7MixedNoLoc.xml", LOG20, "Loggers mixed sync/async"));
         tests.add(s("perf-logback.xml", LOGBK, "Sync"));
         tests.add(s("perf-log4j12.xml", LOG12, "Sync"));
@@ -259,6 +266,9 @@ public class PerfTestDriver {
             tests.add(m("perf5AsyncApndNoLoc.xml", LOG20, "Async Appender", i));
             tests.add(m("perf3PlainNoLoc.xml", LOG20, "Loggers all async", i,
                     ALL_ASYNC, SYSCLOCK));
+            tests.add(m("perf3PlainNoLoc.xml", LOG20,
+                    "Loggers all async CoarseCachedClock", i, ALL_ASYNC,
+                    COARSECLOCK));
             tests.add(m("perf7MixedNoLoc.xml", LOG20,
                     "Loggers mixed sync/async", i));
 
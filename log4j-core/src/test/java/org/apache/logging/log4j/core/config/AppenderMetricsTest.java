@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.appender.FailOnceAppender;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class AppenderMetricsTest {
+
+    private static LogEvent event(final Level level) {
+        return new Log4jLogEvent("test", null, null, level, new SimpleMessage("message"), null);
+    }
+
+    @Test
+    public void testAppenderControl() {
+        final ListAppender appender = new ListAppender("List");
+        appender.start();
+        final AppenderControl control = new AppenderControl(appender, Level.INFO,
+            ThresholdFilter.createFilter("ERROR", "NEUTRAL", "DENY"));
+        final AppenderControl other = new AppenderControl(appender, null, null);
+        assertSame(control.getMetrics(), other.getMetrics());
+
+        control.callAppender(event(Level.ERROR));
+        control.callAppender(event(Level.WARN));
+        control.callAppender(event(Level.DEBUG));
+        other.callAppender(event(Level.DEBUG));
+
+        final AppenderMetrics metrics = control.getMetrics();
+        assertEquals(2, metrics.getAppendedCount());
+        assertEquals(2, metrics.getFilteredCount());
+        assertEquals(0, metrics.getFailedCount());
+        assertEquals(2, metrics.getLatency().getCount());
+    }
+
+    @Test
+    public void testFailure() {
+        final FailOnceAppender appender = FailOnceAppender.createAppender("Fail");
+        appender.start();
+        final AppenderControl control = new AppenderControl(appender, null, null);
+        try {
+            control.callAppender(event(Level.ERROR));
+            fail("Expected an exception");
+        } catch (final LoggingException ex) {
+            // expected
+        }
+        control.callAppender(event(Level.ERROR));
+        assertEquals(1, control.getMetrics().getFailedCount());
+        assertEquals(1, control.getMetrics().getAppendedCount());
+    }
+
+    @Test
+    public void testLoggerConfig() {
+        final LoggerConfig config = new LoggerConfig("test", Level.ALL, false);
+        config.addFilter(ThresholdFilter.createFilter("WARN", "NEUTRAL", "DENY"));
+        config.log(event(Level.ERROR));
+        config.log(event(Level.WARN));
+        config.log(event(Level.WARN));
+        config.log(event(Level.INFO));
+        assertEquals(1, config.getEventCount(Level.ERROR));
+        assertEquals(2, config.getEventCount(Level.WARN));
+        assertEquals(1, config.getEventCount(Level.INFO));
+        assertEquals(0, config.getEventCount(Level.DEBUG));
+        assertEquals(1, config.getFilteredCount());
+    }
+}
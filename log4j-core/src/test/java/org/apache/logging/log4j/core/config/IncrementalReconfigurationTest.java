@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import static org.junit.Assert.*;
+
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.helpers.Constants;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class IncrementalReconfigurationTest {
+
+    private static final String CONFIG = "log4j-failover.xml";
+
+    private static final String SUBSTITUTED_CONFIG = "log4j-incremental.xml";
+    private static final String RAW_PROPERTY = "IncrementalReconfigurationTest.raw";
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.LOG4J_INCREMENTAL_RECONFIGURATION);
+        System.clearProperty(RAW_PROPERTY);
+    }
+
+    @Test
+    public void testUnchangedAppendersAreReused() {
+        System.setProperty(Constants.LOG4J_INCREMENTAL_RECONFIGURATION, "true");
+        final LoggerContext ctx = Configurator.initialize("IncrementalTest", CONFIG);
+        try {
+            final Configuration before = ctx.getConfiguration();
+            final ListAppender list = (ListAppender) before.getAppenders().get("List");
+            final Appender failover = before.getAppenders().get("Failover");
+            ctx.reconfigure();
+            final Configuration after = ctx.getConfiguration();
+            assertNotSame(before, after);
+            assertSame("List appender was not reused", list, after.getAppenders().get("List"));
+            assertNotSame("Failover appender refers to its configuration", failover,
+                after.getAppenders().get("Failover"));
+            assertTrue(((BaseConfiguration) after).getReusedAppenders().contains("List"));
+            assertTrue("Reused appender was stopped", list.isStarted());
+            assertFalse(failover.isStarted());
+
+            list.clear();
+            ctx.getLogger("IncrementalTest").error("After reconfiguration");
+            assertEquals(1, list.getEvents().size());
+        } finally {
+            Configurator.shutdown(ctx);
+        }
+    }
+
+    @Test
+    public void testAppendersAreRecreatedByDefault() {
+        final LoggerContext ctx = Configurator.initialize("FullReconfigurationTest", CONFIG);
+        try {
+            final Appender list = ctx.getConfiguration().getAppenders().get("List");
+            ctx.reconfigure();
+            assertNotSame(list, ctx.getConfiguration().getAppenders().get("List"));
+            assertFalse(list.isStarted());
+        } finally {
+            Configurator.shutdown(ctx);
+        }
+    }
+
+    @Test
+    public void testSubstitutedValuesAreCompared() {
+        System.setProperty(Constants.LOG4J_INCREMENTAL_RECONFIGURATION, "true");
+        System.setProperty(RAW_PROPERTY, "false");
+        final LoggerContext ctx = Configurator.initialize("SubstitutionTest", SUBSTITUTED_CONFIG);
+        try {
+            final Configuration before = ctx.getConfiguration();
+            final Appender plain = before.getAppenders().get("Plain");
+            final Appender substituted = before.getAppenders().get("Substituted");
+            ctx.reconfigure();
+            assertSame("Plain appender was not reused", plain, ctx.getConfiguration().getAppenders().get("Plain"));
+            assertSame("Unchanged variable prevented reuse", substituted,
+                ctx.getConfiguration().getAppenders().get("Substituted"));
+
+            System.setProperty(RAW_PROPERTY, "true");
+            ctx.reconfigure();
+            assertSame(plain, ctx.getConfiguration().getAppenders().get("Plain"));
+            assertNotSame("Appender was reused although its variable changed", substituted,
+                ctx.getConfiguration().getAppenders().get("Substituted"));
+        } finally {
+            Configurator.shutdown(ctx);
+        }
+    }
+
+    @Test
+    public void testAppenderWithPatternLayoutIsReused() {
+        System.setProperty(Constants.LOG4J_INCREMENTAL_RECONFIGURATION, "true");
+        System.setProperty(RAW_PROPERTY, "false");
+        final LoggerContext ctx = Configurator.initialize("LayoutTest", SUBSTITUTED_CONFIG);
+        try {
+            final Appender pattern = ctx.getConfiguration().getAppenders().get("Pattern");
+            ctx.reconfigure();
+            assertSame("Appender with a PatternLayout was not reused", pattern,
+                ctx.getConfiguration().getAppenders().get("Pattern"));
+            assertTrue(pattern.isStarted());
+        } finally {
+            Configurator.shutdown(ctx);
+        }
+    }
+}
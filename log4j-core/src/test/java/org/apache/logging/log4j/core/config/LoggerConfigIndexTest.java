@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.helpers.NameUtil;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class LoggerConfigIndexTest {
+
+    private static final String[] CONFIGURED = {
+        "org", "org.apache", "org.apache.logging.log4j", "com.example.tenant1", "a.", "a..b", ".x", "x.y.z"
+    };
+
+    private static final String[] NAMES = {
+        "", "org", "org.apache", "org.apache.commons", "org.apache.logging", "org.apache.logging.log4j.core.Logger",
+        "org.apachex", "com", "com.example", "com.example.tenant1", "com.example.tenant10", "com.example.tenant1.job",
+        "a", "a.", "a..", "a..b", "a..b.c", "a.b", ".", ".x", ".x.y", "..x", "x", "x.y", "x.y.z.w", "x.yz"
+    };
+
+    @Test
+    public void testSameResultAsSubNameLookup() {
+        final Map<String, LoggerConfig> loggers = new HashMap<String, LoggerConfig>();
+        for (final String name : CONFIGURED) {
+            loggers.put(name, new LoggerConfig(name, Level.INFO, true));
+        }
+        final LoggerConfigIndex index = new LoggerConfigIndex(loggers);
+        for (final String name : NAMES) {
+            assertSame(name, lookup(loggers, name), index.get(name));
+        }
+    }
+
+    @Test
+    public void testEmptyNameIsRoot() {
+        final Map<String, LoggerConfig> loggers = new HashMap<String, LoggerConfig>();
+        assertNull(new LoggerConfigIndex(loggers).get("org.apache"));
+        final LoggerConfig root = new LoggerConfig("", Level.ERROR, true);
+        loggers.put("", root);
+        final LoggerConfigIndex index = new LoggerConfigIndex(loggers);
+        assertSame(root, index.get("org.apache"));
+        assertSame(root, index.get(""));
+    }
+
+    @Test
+    public void testManySiblings() {
+        final Map<String, LoggerConfig> loggers = new HashMap<String, LoggerConfig>();
+        for (int i = 0; i < 1000; ++i) {
+            final String name = "tenant.t" + i;
+            loggers.put(name, new LoggerConfig(name, Level.INFO, true));
+        }
+        final LoggerConfigIndex index = new LoggerConfigIndex(loggers);
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals("tenant.t" + i, index.get("tenant.t" + i + ".Job").getName());
+        }
+        assertNull(index.get("tenant.t1000"));
+    }
+
+    private static LoggerConfig lookup(final Map<String, LoggerConfig> loggers, final String name) {
+        if (loggers.containsKey(name)) {
+            return loggers.get(name);
+        }
+        String substr = name;
+        while ((substr = NameUtil.getSubName(substr)) != null) {
+            if (loggers.containsKey(substr)) {
+                return loggers.get(substr);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Verifies the streaming parsers build the same Node hierarchy as the tree based parsers.
+ */
+public class StreamingConfigurationTest {
+
+    private static final String[] XML_CONFIGS = {
+        "target/test-classes/log4j-test1.xml", "target/test-classes/log4j-strict1.xml",
+        "target/test-classes/log4j-routing.xml", "target/test-classes/log4j-rewrite.xml",
+        "target/test-classes/log4j-props.xml"
+    };
+
+    private static final String[] JSON_CONFIGS = {
+        "target/test-classes/log4j-routing.json", "target/test-classes/log4j-routing2.json"
+    };
+
+    @Test
+    public void testXMLStreaming() throws Exception {
+        for (final String config : XML_CONFIGS) {
+            final XMLConfiguration dom = new XMLConfiguration(getSource(config), false);
+            final XMLConfiguration stax = new XMLConfiguration(getSource(config), true);
+            assertEquals(config, dom.getName(), stax.getName());
+            final Node expected = build(dom);
+            assertTrue(config, expected.hasChildren());
+            assertSameHierarchy(config, expected, build(stax));
+        }
+    }
+
+    @Test
+    public void testJSONStreaming() throws Exception {
+        for (final String config : JSON_CONFIGS) {
+            final JSONConfiguration tree = new JSONConfiguration(getSource(config), false);
+            final JSONConfiguration parser = new JSONConfiguration(getSource(config), true);
+            assertEquals(config, tree.getName(), parser.getName());
+            final Node expected = build(tree);
+            assertTrue(config, expected.hasChildren());
+            assertSameHierarchy(config, expected, build(parser));
+        }
+    }
+
+    private static ConfigurationFactory.ConfigurationSource getSource(final String name) throws Exception {
+        final File file = new File(name);
+        return new ConfigurationFactory.ConfigurationSource(new FileInputStream(file), file);
+    }
+
+    private static Node build(final BaseConfiguration config) {
+        config.pluginManager.collectPlugins();
+        config.setup();
+        return config.rootNode;
+    }
+
+    private static void assertSameHierarchy(final String config, final Node expected, final Node actual) {
+        final String path = config + ": " + expected.getName();
+        assertEquals(path, expected.getName(), actual.getName());
+        assertSame(path, expected.getType() == null ? null : expected.getType().getPluginClass(),
+            actual.getType() == null ? null : actual.getType().getPluginClass());
+        assertEquals(path, expected.getValue(), actual.getValue());
+        assertEquals(path, expected.getAttributes(), actual.getAttributes());
+        final List<Node> expectedChildren = expected.getChildren();
+        final List<Node> actualChildren = actual.getChildren();
+        assertEquals(path, expectedChildren.size(), actualChildren.size());
+        for (int i = 0; i < expectedChildren.size(); ++i) {
+            assertSame(path, actual, actualChildren.get(i).getParent());
+            assertSameHierarchy(config, expectedChildren.get(i), actualChildren.get(i));
+        }
+    }
+}
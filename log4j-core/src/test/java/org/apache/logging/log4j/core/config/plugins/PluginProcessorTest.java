@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.helpers.Charsets;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ *
+ */
+public class PluginProcessorTest {
+
+    private static final String PACKAGE = "org.apache.logging.log4j.test.processor";
+
+    private static final String FIXTURE =
+        "package " + PACKAGE + ";\n" +
+        "import org.apache.logging.log4j.core.config.Configuration;\n" +
+        "import org.apache.logging.log4j.core.config.plugins.*;\n" +
+        "@Plugin(name = \"Fixture\", category = \"Core\", elementType = \"fixture\", printObject = true)\n" +
+        "@PluginAliases(\"FixtureAlias\")\n" +
+        "public class FixturePlugin {\n" +
+        "    @PluginFactory\n" +
+        "    public static FixturePlugin create(@PluginAttribute(\"name\") @PluginAliases(\"id\") final String name,\n" +
+        "                                       @PluginElement(\"Items\") final Object[] items,\n" +
+        "                                       @PluginConfiguration final Configuration config,\n" +
+        "                                       @PluginValue(\"text\") final String text,\n" +
+        "                                       final int unbound) {\n" +
+        "        return new FixturePlugin();\n" +
+        "    }\n" +
+        "}\n";
+
+    private static final String SECOND_FIXTURE =
+        "package " + PACKAGE + ";\n" +
+        "import org.apache.logging.log4j.core.config.Node;\n" +
+        "import org.apache.logging.log4j.core.config.plugins.*;\n" +
+        "@Plugin(name = \"Second\", category = \"Other\")\n" +
+        "public class SecondPlugin {\n" +
+        "    @PluginFactory\n" +
+        "    public static SecondPlugin create(@PluginNode final Node node) {\n" +
+        "        return new SecondPlugin();\n" +
+        "    }\n" +
+        "}\n";
+
+    private File outputDir;
+    private File sourceDir;
+
+    @Before
+    public void setUp() {
+        final File root = new File("target/plugin-processor");
+        outputDir = new File(root, "classes");
+        sourceDir = new File(root, "src");
+        delete(root);
+        outputDir.mkdirs();
+        sourceDir.mkdirs();
+    }
+
+    @Test
+    public void testIndexRecordsFactoryBindings() throws Exception {
+        compile("FixturePlugin", FIXTURE);
+        final Map<String, Map<String, PluginIndex.Entry>> index = readIndex();
+        final Map<String, PluginIndex.Entry> core = index.get("Core");
+        assertNotNull("No Core category", core);
+        final PluginIndex.Entry entry = core.get("fixture");
+        assertNotNull("Plugin not indexed", entry);
+        assertEquals(PACKAGE + ".FixturePlugin", entry.getClassName());
+        assertEquals("fixture", entry.getElementName());
+        assertTrue(entry.isPrintable());
+        assertFalse(entry.isDefer());
+        assertNotNull("Alias not indexed", core.get("fixturealias"));
+        assertEquals("create", entry.getFactoryMethodName());
+
+        final PluginParameter[] parameters = entry.getParameters();
+        assertEquals(5, parameters.length);
+        assertEquals(PluginParameter.Kind.ATTRIBUTE, parameters[0].getKind());
+        assertEquals("name", parameters[0].getName());
+        assertArrayEquals(new String[] {"id"}, parameters[0].getAliases());
+        assertEquals(String.class.getName(), parameters[0].getTypeName());
+        assertEquals(PluginParameter.Kind.ELEMENT, parameters[1].getKind());
+        assertEquals("Items", parameters[1].getName());
+        assertEquals(Object[].class.getName(), parameters[1].getTypeName());
+        assertEquals(PluginParameter.Kind.CONFIGURATION, parameters[2].getKind());
+        assertEquals(PluginParameter.Kind.VALUE, parameters[3].getKind());
+        assertEquals("text", parameters[3].getName());
+        assertEquals(PluginParameter.Kind.NONE, parameters[4].getKind());
+        assertEquals("int", parameters[4].getTypeName());
+    }
+
+    @Test
+    public void testIndexedFactoryIsResolved() throws Exception {
+        compile("FixturePlugin", FIXTURE);
+        final URLClassLoader loader = new URLClassLoader(new URL[] {outputDir.toURI().toURL()},
+            getClass().getClassLoader());
+        final ConcurrentMap<String, ConcurrentMap<String, PluginType<?>>> map = PluginManager.decode(loader);
+        assertNotNull("Index not read", map);
+        final PluginType<?> type = map.get("Core").get("fixture");
+        assertNotNull("Plugin not decoded", type);
+        assertEquals("create", type.getFactoryMethod().getName());
+        assertSame(loader, type.getPluginClass().getClassLoader());
+        assertEquals(int.class, type.getFactoryParameterTypes()[4]);
+    }
+
+    @Test
+    public void testIncrementalCompileKeepsOtherPlugins() throws Exception {
+        compile("FixturePlugin", FIXTURE);
+        compile("SecondPlugin", SECOND_FIXTURE);
+        final Map<String, Map<String, PluginIndex.Entry>> index = readIndex();
+        assertNotNull("Plugin from the first compilation was dropped", index.get("Core").get("fixture"));
+        final PluginIndex.Entry second = index.get("Other").get("second");
+        assertNotNull("Plugin from the second compilation is missing", second);
+        assertEquals(PluginParameter.Kind.NODE, second.getParameters()[0].getKind());
+        assertEquals(Node.class.getName(), second.getParameters()[0].getTypeName());
+    }
+
+    @Test
+    public void testRemovedPluginIsDropped() throws Exception {
+        compile("FixturePlugin", FIXTURE);
+        new File(outputDir, PACKAGE.replace('.', '/') + "/FixturePlugin.class").delete();
+        compile("SecondPlugin", SECOND_FIXTURE);
+        final Map<String, Map<String, PluginIndex.Entry>> index = readIndex();
+        assertNull("Removed plugin is still indexed", index.get("Core"));
+        assertNotNull(index.get("Other").get("second"));
+    }
+
+    private void compile(final String className, final String source) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assumeNotNull(compiler);
+        final File file = new File(sourceDir, className + ".java");
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charsets.UTF_8);
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+        final String classPath = outputDir.getPath() + File.pathSeparator + System.getProperty("java.class.path");
+        final int result = compiler.run(null, null, null, "-d", outputDir.getPath(), "-classpath", classPath, "-processor", PluginProcessor.class.getName(),
+            file.getPath());
+        assertEquals("Compilation of " + className + " failed", 0, result);
+    }
+
+    private Map<String, Map<String, PluginIndex.Entry>> readIndex() throws Exception {
+        final File file = new File(outputDir, PluginManager.PATH + PluginManager.FILENAME);
+        assertTrue("No plugin index generated", file.exists());
+        final DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            return PluginIndex.read(dis);
+        } finally {
+            dis.close();
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins;
+
+import java.lang.reflect.Method;
+
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class PluginTypeTest {
+
+    @Test
+    public void testFactoryMethodIsResolvedOnce() {
+        final PluginType<ThresholdFilter> type =
+            new PluginType<ThresholdFilter>(ThresholdFilter.class, "filter", true, false);
+        final Method method = type.getFactoryMethod();
+        assertNotNull("No factory method", method);
+        assertEquals("createFilter", method.getName());
+        assertSame(method, type.getFactoryMethod());
+        assertSame(type.getFactoryParameterTypes(), type.getFactoryParameterTypes());
+        assertEquals(method.getParameterTypes().length, type.getFactoryParameters().length);
+        assertEquals(PluginParameter.Kind.ATTRIBUTE, type.getFactoryParameters()[0].getKind());
+        assertEquals("level", type.getFactoryParameters()[0].getName());
+    }
+
+    @Test
+    public void testIndexedFactoryMethod() {
+        final PluginParameter[] parameters = {
+            new PluginParameter(PluginParameter.Kind.ATTRIBUTE, "level", null, String.class.getName()),
+            new PluginParameter(PluginParameter.Kind.ATTRIBUTE, "onMatch", null, String.class.getName()),
+            new PluginParameter(PluginParameter.Kind.ATTRIBUTE, "onMismatch", null, String.class.getName())
+        };
+        final PluginType<ThresholdFilter> type = new PluginType<ThresholdFilter>(ThresholdFilter.class, "filter",
+            true, false, "createFilter", parameters);
+        assertEquals("createFilter", type.getFactoryMethod().getName());
+        assertSame(parameters, type.getFactoryParameters());
+        assertArrayEquals(new Class<?>[] {String.class, String.class, String.class}, type.getFactoryParameterTypes());
+    }
+
+    @Test
+    public void testStaleIndexFallsBackToAnnotations() {
+        final PluginParameter[] parameters = {
+            new PluginParameter(PluginParameter.Kind.ATTRIBUTE, "level", null, "int")
+        };
+        final PluginType<ThresholdFilter> type = new PluginType<ThresholdFilter>(ThresholdFilter.class, "filter",
+            true, false, "createFilter", parameters);
+        assertEquals("createFilter", type.getFactoryMethod().getName());
+        assertEquals(3, type.getFactoryParameters().length);
+        assertEquals("onMismatch", type.getFactoryParameters()[2].getName());
+    }
+
+    @Test
+    public void testNoFactoryMethod() {
+        final PluginType<String> type = new PluginType<String>(String.class, "string", false, false);
+        assertNull(type.getFactoryMethod());
+        assertNull(type.getFactoryParameters());
+        assertNull(type.getFactoryParameterTypes());
+    }
+}
@@ -17,18 +17,23 @@
  */
 package org.apache.logging.log4j.core.filter;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 import java.util.Map;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -152,4 +157,60 @@ public class BurstFilterTest {
         app.clear();
 
     }
+
+    @Test
+    public void testTokenBucket() throws Exception {
+        final BurstFilter bucket = BurstFilter.createFilter("INFO", "100", "10", "TokenBucket", null, null, null);
+        assertEquals(10, bucket.getAvailable());
+        int accepted = 0;
+        for (int i = 0; i < 20; ++i) {
+            if (bucket.filter(createEvent("Bucket", Level.INFO, "Event {}")) == Filter.Result.NEUTRAL) {
+                ++accepted;
+            }
+        }
+        assertTrue("Incorrect number of events accepted: " + accepted, accepted >= 10 && accepted <= 12);
+        assertEquals(Filter.Result.NEUTRAL, bucket.filter(createEvent("Bucket", Level.WARN, "Warning")));
+        Thread.sleep(50);
+        assertTrue("Tokens were not refilled", bucket.getAvailable() >= 4);
+        assertEquals(Filter.Result.NEUTRAL, bucket.filter(createEvent("Bucket", Level.INFO, "Event {}")));
+    }
+
+    @Test
+    public void testPartitionByMessage() {
+        final BurstFilter partitioned = BurstFilter.createFilter("INFO", "1", "5", null, "Message", null, null);
+        for (int i = 0; i < 5; ++i) {
+            assertEquals(Filter.Result.NEUTRAL, partitioned.filter(createEvent("Partition", Level.INFO, "Chatty {}")));
+        }
+        assertEquals(Filter.Result.DENY, partitioned.filter(createEvent("Partition", Level.INFO, "Chatty {}")));
+        assertEquals(Filter.Result.NEUTRAL, partitioned.filter(createEvent("Partition", Level.INFO, "Quiet {}")));
+        assertEquals(5, partitioned.getAvailable());
+    }
+
+    @Test
+    public void testSlidingWindowExpires() throws Exception {
+        final BurstFilter window = BurstFilter.createFilter("INFO", "100", "10", null, null, null, null);
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(Filter.Result.NEUTRAL, window.filter(createEvent("Window", Level.INFO, "Event {}")));
+        }
+        assertEquals(Filter.Result.DENY, window.filter(createEvent("Window", Level.INFO, "Event {}")));
+        assertEquals(0, window.getAvailable());
+        Thread.sleep(150);
+        assertEquals(10, window.getAvailable());
+        assertEquals(Filter.Result.NEUTRAL, window.filter(createEvent("Window", Level.INFO, "Event {}")));
+    }
+
+    @Test
+    public void testLargeBurstPartitionsUseFixedState() {
+        // With one slot per event this would need maxBurst longs for each of the 1024 partitions.
+        final BurstFilter partitioned = BurstFilter.createFilter("INFO", "1000", "100000000", null, "Message",
+            null, null);
+        for (int i = 0; i < 2000; ++i) {
+            assertEquals(Filter.Result.NEUTRAL, partitioned.filter(createEvent("Large", Level.INFO, "Format " + i)));
+        }
+        assertEquals(100000000 - 976, partitioned.getAvailable());
+    }
+
+    private static Log4jLogEvent createEvent(final String loggerName, final Level level, final String format) {
+        return new Log4jLogEvent(loggerName, null, null, level, new ParameterizedMessage(format, "value"), null);
+    }
 }
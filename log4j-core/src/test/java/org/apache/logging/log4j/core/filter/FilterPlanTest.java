@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class FilterPlanTest {
+
+    private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR};
+
+    private static final Marker AUDIT = MarkerManager.getMarker("FilterPlanAudit");
+
+    private static final Marker[] MARKERS = {null, AUDIT, MarkerManager.getMarker("FilterPlanOther")};
+
+    private static final String[] MESSAGES = {"login ok", "login failed", "debug output"};
+
+    @Test
+    public void testCompile() {
+        final Filter regex = RegexFilter.createFilter(".*failed.*", "false", "NEUTRAL", "DENY");
+        final Filter threshold = ThresholdFilter.createFilter("INFO", null, null);
+        final Filter marker = MarkerFilter.createFilter("FilterPlanAudit", "NEUTRAL", "DENY");
+        final Filter nested = CompositeFilter.createFilters(new Filter[] {marker,
+            ThresholdFilter.createFilter("INFO", null, null)});
+        final CompositeFilter composite = CompositeFilter.createFilters(new Filter[] {regex, threshold, nested});
+        assertEquals(Arrays.asList(threshold, marker, regex), Arrays.asList(composite.getPlan()));
+        assertEquals(3, composite.size());
+    }
+
+    @Test
+    public void testAcceptingFiltersAreNotMoved() {
+        final Filter accept = ThresholdFilter.createFilter("ERROR", "ACCEPT", "NEUTRAL");
+        final Filter regex = RegexFilter.createFilter(".*failed.*", "false", "NEUTRAL", "DENY");
+        final Filter threshold = ThresholdFilter.createFilter("INFO", null, null);
+        final CompositeFilter composite = CompositeFilter.createFilters(new Filter[] {accept, regex, threshold});
+        assertEquals(Arrays.asList(accept, threshold, regex), Arrays.asList(composite.getPlan()));
+        final CompositeFilter burst = CompositeFilter.createFilters(new Filter[] {
+            BurstFilter.createFilter("INFO", "10", "100", null, null, null, null), threshold});
+        assertSame(threshold, burst.getPlan()[1]);
+    }
+
+    @Test
+    public void testSameResults() {
+        final Filter[][] chains = {
+            {RegexFilter.createFilter(".*login.*", "false", "NEUTRAL", "DENY"),
+                ThresholdFilter.createFilter("INFO", null, null),
+                MarkerFilter.createFilter("FilterPlanAudit", "ACCEPT", "NEUTRAL"),
+                ThresholdFilter.createFilter("INFO", null, null)},
+            {ThresholdFilter.createFilter("WARN", "ACCEPT", "NEUTRAL"),
+                CompositeFilter.createFilters(new Filter[] {
+                    RegexFilter.createFilter(".*ok.*", "false", "DENY", "NEUTRAL"),
+                    MarkerFilter.createFilter("FilterPlanAudit", "NEUTRAL", "DENY")}),
+                ThresholdFilter.createFilter("DEBUG", null, null)}
+        };
+        for (final Filter[] chain : chains) {
+            final CompositeFilter composite = CompositeFilter.createFilters(chain);
+            for (final LogEvent event : createEvents()) {
+                assertEquals(evaluate(Arrays.asList(chain), event), composite.filter(event));
+            }
+        }
+    }
+
+    @Test
+    public void testReduce() {
+        final Filter loggerFilter = CompositeFilter.createFilters(new Filter[] {
+            ThresholdFilter.createFilter("INFO", null, null),
+            MarkerFilter.createFilter("FilterPlanAudit", "NEUTRAL", "DENY")});
+        final Filter sameThreshold = ThresholdFilter.createFilter("INFO", null, null);
+        assertNull(FilterPlan.reduce(sameThreshold, loggerFilter));
+        final Filter otherThreshold = ThresholdFilter.createFilter("WARN", null, null);
+        assertSame(otherThreshold, FilterPlan.reduce(otherThreshold, loggerFilter));
+        final Filter appenderFilter = CompositeFilter.createFilters(new Filter[] {sameThreshold, otherThreshold});
+        assertSame(otherThreshold, FilterPlan.reduce(appenderFilter, loggerFilter));
+
+        final Filter accepting = CompositeFilter.createFilters(new Filter[] {
+            ThresholdFilter.createFilter("ERROR", "ACCEPT", "NEUTRAL"),
+            ThresholdFilter.createFilter("INFO", null, null)});
+        assertSame("Filter after an accepting Filter may not have been evaluated", sameThreshold,
+            FilterPlan.reduce(sameThreshold, accepting));
+
+        for (final LogEvent event : createEvents()) {
+            if (loggerFilter.filter(event) != Filter.Result.DENY) {
+                final Filter reduced = FilterPlan.reduce(appenderFilter, loggerFilter);
+                assertEquals(appenderFilter.filter(event) == Filter.Result.DENY,
+                    reduced != null && reduced.filter(event) == Filter.Result.DENY);
+            }
+        }
+    }
+
+    private static Filter.Result evaluate(final List<Filter> filters, final LogEvent event) {
+        Filter.Result result = Filter.Result.NEUTRAL;
+        for (final Filter filter : filters) {
+            result = filter.filter(event);
+            if (result == Filter.Result.ACCEPT || result == Filter.Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    private static LogEvent[] createEvents() {
+        final LogEvent[] events = new LogEvent[LEVELS.length * MARKERS.length * MESSAGES.length];
+        int i = 0;
+        for (final Level level : LEVELS) {
+            for (final Marker marker : MARKERS) {
+                for (final String msg : MESSAGES) {
+                    events[i++] = new Log4jLogEvent("FilterPlanTest", marker, null, level, new SimpleMessage(msg),
+                        null);
+                }
+            }
+        }
+        return events;
+    }
+}
@@ -69,6 +69,18 @@ public class ClockFactoryTest {
         assertEquals(CoarseCachedClock.class, ClockFactory.getClock().getClass());
     }
 
+    @Test
+    public void testSpecifyNanoClockShort() {
+        System.setProperty(ClockFactory.PROPERTY_NAME, "NanoClock");
+        assertEquals(NanoClock.class, ClockFactory.getClock().getClass());
+    }
+
+    @Test
+    public void testSpecifyNanoClockLong() {
+        System.setProperty(ClockFactory.PROPERTY_NAME, NanoClock.class.getName());
+        assertEquals(NanoClock.class, ClockFactory.getClock().getClass());
+    }
+
     static class MyClock implements Clock {
         @Override
         public long currentTimeMillis() {
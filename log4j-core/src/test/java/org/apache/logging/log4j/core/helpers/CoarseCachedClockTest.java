@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CoarseCachedClockTest {
+
+    @Test
+    public void testLessThan17Millis() {
+        final long millis1 = CoarseCachedClock.instance().currentTimeMillis();
+        final long sysMillis = System.currentTimeMillis();
+
+        final long diff = sysMillis - millis1;
+
+        assertTrue("diff too large: " + diff, diff <= 16);
+    }
+
+    @Test
+    public void testAfterWaitStillLessThan17Millis() throws Exception {
+        Thread.sleep(100);
+        final long millis1 = CoarseCachedClock.instance().currentTimeMillis();
+        final long sysMillis = System.currentTimeMillis();
+
+        final long diff = sysMillis - millis1;
+
+        assertTrue("diff too large: " + diff, diff <= 16);
+    }
+
+    @Test
+    public void testDefaultUpdatePeriod() {
+        assertEquals(CoarseCachedClock.DEFAULT_UPDATE_PERIOD_MICROS,
+            CoarseCachedClock.instance().getUpdatePeriodMicros());
+    }
+
+    @Test
+    public void testParseUpdatePeriod() {
+        assertEquals(50000, CoarseCachedClock.parseUpdatePeriodMicros("50000"));
+        assertEquals(250, CoarseCachedClock.parseUpdatePeriodMicros(" 250 "));
+        assertEquals(CoarseCachedClock.DEFAULT_UPDATE_PERIOD_MICROS, CoarseCachedClock.parseUpdatePeriodMicros(null));
+        assertEquals(CoarseCachedClock.DEFAULT_UPDATE_PERIOD_MICROS, CoarseCachedClock.parseUpdatePeriodMicros("0"));
+        assertEquals(CoarseCachedClock.DEFAULT_UPDATE_PERIOD_MICROS, CoarseCachedClock.parseUpdatePeriodMicros("x"));
+    }
+
+}
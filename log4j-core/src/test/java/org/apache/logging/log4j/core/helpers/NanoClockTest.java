@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class NanoClockTest {
+
+    @Test
+    public void testCloseToSystemTime() {
+        final NanoClock clock = new NanoClock();
+        final long diff = Math.abs(System.currentTimeMillis() - clock.currentTimeMillis());
+
+        assertTrue("diff too large: " + diff, diff <= 16);
+    }
+
+    @Test
+    public void testNeverGoesBackwards() {
+        final NanoClock clock = new NanoClock();
+        long previous = clock.currentTimeNanos();
+        for (int i = 0; i < 100000; i++) {
+            final long now = clock.currentTimeNanos();
+            assertTrue("time went backwards", now >= previous);
+            previous = now;
+        }
+        assertTrue("millis behind nanos", clock.currentTimeMillis() >= previous / 1000000);
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+public class OverlayLogEventTest {
+
+    private static Log4jLogEvent createSource() {
+        final Map<String, String> context = new HashMap<String, String>();
+        context.put("user", "alice");
+        context.put("region", "eu");
+        return new Log4jLogEvent("some.test", null, "", Level.INFO, new SimpleMessage("abc"),
+            new IllegalStateException("test"), context, null, "main", null, 42);
+    }
+
+    @Test
+    public void testDelegation() {
+        final Log4jLogEvent source = createSource();
+        final OverlayLogEvent event = new OverlayLogEvent(source, null, null);
+        assertSame(source.getMessage(), event.getMessage());
+        assertSame(source.getContextMap(), event.getContextMap());
+        assertSame(source.getThrownProxy(), event.getThrownProxy());
+        assertEquals(source.getLoggerName(), event.getLoggerName());
+        assertEquals(source.getLevel(), event.getLevel());
+        assertEquals(source.getMillis(), event.getMillis());
+        assertEquals(source.getThreadName(), event.getThreadName());
+
+        final SimpleMessage message = new SimpleMessage("def");
+        assertSame(message, new OverlayLogEvent(source, message, null).getMessage());
+    }
+
+    @Test
+    public void testContextOverlay() {
+        final Log4jLogEvent source = createSource();
+        final Map<String, String> added = new HashMap<String, String>();
+        added.put("region", "us");
+        added.put("tenant", "acme");
+        final OverlayLogEvent event = new OverlayLogEvent(source, null, added);
+        final Map<String, String> context = event.getContextMap();
+        assertEquals("alice", context.get("user"));
+        assertEquals("us", context.get("region"));
+        assertEquals("acme", context.get("tenant"));
+        assertNull(context.get("missing"));
+        assertEquals(3, context.size());
+
+        final Map<String, String> expected = new HashMap<String, String>(source.getContextMap());
+        expected.putAll(added);
+        assertEquals(expected, context);
+        assertEquals("Source event was modified", "eu", source.getContextMap().get("region"));
+    }
+
+    @Test
+    public void testJavaIoSerializable() throws Exception {
+        final Map<String, String> added = new HashMap<String, String>();
+        added.put("tenant", "acme");
+        final OverlayLogEvent evt = new OverlayLogEvent(createSource(), new SimpleMessage("def"), added);
+
+        final ByteArrayOutputStream arr = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(arr);
+        out.writeObject(evt);
+
+        final ByteArrayInputStream inArr = new ByteArrayInputStream(arr.toByteArray());
+        final ObjectInputStream in = new ObjectInputStream(inArr);
+        final Log4jLogEvent evt2 = (Log4jLogEvent) in.readObject();
+
+        assertFalse(evt2 instanceof OverlayLogEvent);
+        assertEquals(evt.getMillis(), evt2.getMillis());
+        assertEquals(evt.getLevel(), evt2.getLevel());
+        assertEquals(evt.getLoggerName(), evt2.getLoggerName());
+        assertEquals(evt.getContextMap(), evt2.getContextMap());
+        assertEquals(evt.getMessage(), evt2.getMessage());
+        assertEquals(evt.getThreadName(), evt2.getThreadName());
+        assertEquals(evt.getThrownProxy().getExtendedStackTrace(), evt2.getThrownProxy().getExtendedStackTrace());
+    }
+}
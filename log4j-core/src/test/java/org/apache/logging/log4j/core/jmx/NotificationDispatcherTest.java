@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class NotificationDispatcherTest {
+
+    /**
+     * Runs the tasks when asked to.
+     */
+    private static class ManualExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    private static class CountingTask implements Runnable {
+        private int runs;
+
+        @Override
+        public void run() {
+            ++runs;
+        }
+    }
+
+    @Test
+    public void testQueueBound() {
+        final ManualExecutor executor = new ManualExecutor();
+        final NotificationDispatcher dispatcher = new NotificationDispatcher(executor, 2, 0);
+        final CountingTask task = new CountingTask();
+        assertTrue(dispatcher.dispatch(task));
+        assertTrue(dispatcher.dispatch(task));
+        assertFalse(dispatcher.dispatch(task));
+        assertEquals(1, dispatcher.getDroppedCount());
+        assertEquals(1, executor.tasks.size());
+        executor.runAll();
+        assertEquals(2, task.runs);
+        assertEquals(0, dispatcher.getQueueSize());
+        assertTrue(dispatcher.dispatch(task));
+        executor.runAll();
+        assertEquals(3, task.runs);
+    }
+
+    @Test
+    public void testRateLimit() {
+        final ManualExecutor executor = new ManualExecutor();
+        final NotificationDispatcher dispatcher = new NotificationDispatcher(executor, 100, 5);
+        final CountingTask task = new CountingTask();
+        for (int i = 0; i < 20; ++i) {
+            dispatcher.execute(task);
+        }
+        executor.runAll();
+        // the limit applies per second, the loop may have spanned two seconds
+        assertTrue(task.runs == 5 || task.runs == 10);
+        assertEquals(20 - task.runs, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void testStatusCoalescing() {
+        final ManualExecutor executor = new ManualExecutor();
+        final StatusLoggerAdmin admin = new StatusLoggerAdmin(new NotificationDispatcher(executor, 10, 0));
+        final List<Notification> notifications = new ArrayList<Notification>();
+        admin.addNotificationListener(new NotificationListener() {
+            @Override
+            public void handleNotification(final Notification notification, final Object handback) {
+                notifications.add(notification);
+            }
+        }, null, null);
+        try {
+            StatusLogger.getLogger().error("Appender failed");
+            StatusLogger.getLogger().error("Appender failed");
+            StatusLogger.getLogger().error("Appender failed");
+            StatusLogger.getLogger().error("Another failure");
+            assertEquals(0, notifications.size());
+            executor.runAll();
+        } finally {
+            StatusLogger.getLogger().removeListener(admin);
+        }
+        assertEquals(2, admin.getCoalescedNotificationCount());
+        assertEquals(4, notifications.size());
+        final String message = notifications.get(0).getMessage();
+        assertTrue(message, message.endsWith("Appender failed (repeated 2 more times)"));
+        assertEquals(StatusLoggerAdminMBean.NOTIF_TYPE_DATA, notifications.get(1).getType());
+        assertTrue(notifications.get(2).getMessage().endsWith("Another failure"));
+
+        StatusLogger.getLogger().registerListener(admin);
+        try {
+            StatusLogger.getLogger().error("Appender failed");
+            executor.runAll();
+        } finally {
+            StatusLogger.getLogger().removeListener(admin);
+        }
+        assertEquals(6, notifications.size());
+        assertTrue(notifications.get(4).getMessage().endsWith("Appender failed"));
+    }
+
+    @Test
+    public void testConcurrentRepeatsAreCounted() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final StatusLoggerAdmin admin = new StatusLoggerAdmin(new NotificationDispatcher(executor, 100000, 0));
+        final List<String> messages = new ArrayList<String>();
+        admin.addNotificationListener(new NotificationListener() {
+            @Override
+            public void handleNotification(final Notification notification, final Object handback) {
+                if (StatusLoggerAdminMBean.NOTIF_TYPE_MESSAGE.equals(notification.getType())) {
+                    messages.add(notification.getMessage());
+                }
+            }
+        }, null, null);
+        final Thread[] threads = new Thread[4];
+        try {
+            for (int i = 0; i < threads.length; ++i) {
+                threads[i] = new Thread() {
+                    @Override
+                    public void run() {
+                        for (int j = 0; j < 5000; ++j) {
+                            StatusLogger.getLogger().error("Repeated failure");
+                        }
+                    }
+                };
+                threads[i].start();
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            StatusLogger.getLogger().removeListener(admin);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        final Pattern repeated = Pattern.compile("\\(repeated (\\d+) more times\\)$");
+        long events = 0;
+        for (final String message : messages) {
+            final Matcher matcher = repeated.matcher(message);
+            events += matcher.find() ? 1 + Long.parseLong(matcher.group(1)) : 1;
+        }
+        assertEquals(0, admin.getDroppedNotificationCount());
+        assertEquals(threads.length * 5000, events);
+    }
+}
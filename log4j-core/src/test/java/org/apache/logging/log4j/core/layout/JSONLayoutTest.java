@@ -16,19 +16,28 @@
  */
 package org.apache.logging.log4j.core.layout;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.Charset;
 import java.util.List;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.BasicConfigurationFactory;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.helpers.Charsets;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.MapMessage;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -126,6 +135,75 @@ public class JSONLayoutTest {
         this.checkAt("\"message\":\"starting mdc pattern test\",", 6, list);
     }
 
+    @Test
+    public void testNdjson() {
+        final JSONLayout layout = JSONLayout.createLayout(null, null, "true", null, "true", null);
+        assertNull(layout.getHeader());
+        final String first = layout.toSerializable(createEvent(new SimpleMessage("first")));
+        final String second = layout.toSerializable(createEvent(new SimpleMessage("second")));
+        assertTrue(first, first.startsWith("{\"logger\":\"a.B\",\"timestamp\":\"1\",\"level\":\"INFO\","));
+        assertTrue(first, first.endsWith("\"message\":\"first\"}\n"));
+        assertTrue(second, second.startsWith("{"));
+        assertEquals(1, first.split("\n").length);
+    }
+
+    @Test
+    public void testEscaping() {
+        final JSONLayout layout = JSONLayout.createLayout(null, null, null, "true", "true", null);
+        final Message msg = new SimpleMessage("a \"quoted\"\\ line\r\n\u0001\u00e9");
+        final String json = layout.toSerializable(createEvent(msg));
+        assertTrue(json, json.contains("\"message\":\"a \\\"quoted\\\"\\\\ line\\r\\n\\u0001\u00e9\"}"));
+    }
+
+    @Test
+    public void testLongEscapedMessage() {
+        final JSONLayout layout = JSONLayout.createLayout(null, null, null, "true", "true", null);
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100000; ++i) {
+            text.append("\u0001\u00e9");
+            expected.append("\\u0001\u00e9");
+        }
+        final LogEvent event = createEvent(new SimpleMessage(text.toString()));
+        final String json = layout.toSerializable(event);
+        assertTrue(json.contains("\"message\":\"" + expected + "\"}"));
+        assertArrayEquals(json.getBytes(Charsets.UTF_8), layout.toByteArray(event));
+    }
+
+    @Test
+    public void testMapMessage() {
+        final JSONLayout layout = JSONLayout.createLayout(null, null, null, "true", "true", null);
+        final MapMessage msg = new MapMessage();
+        msg.put("key", "value");
+        final String json = layout.toSerializable(createEvent(msg));
+        assertTrue(json, json.endsWith("\"message\":{\"key\":\"value\"}}\n"));
+        final StructuredDataMessage sdMsg = new StructuredDataMessage("Audit@18060", "Transfer", "Transfer");
+        sdMsg.put("amount", "200");
+        final String sdJson = layout.toSerializable(createEvent(sdMsg));
+        assertTrue(sdJson, sdJson.endsWith(
+            "\"message\":{\"id\":\"Audit@18060\",\"type\":\"Transfer\",\"message\":\"Transfer\"," +
+            "\"data\":{\"amount\":\"200\"}}}\n"));
+    }
+
+    @Test
+    public void testBytes() {
+        final JSONLayout layout = JSONLayout.createLayout("true", null, null, null, null, null);
+        final JSONLayout utf16 = JSONLayout.createLayout("true", null, null, null, null, "UTF-16");
+        final LogEvent event = createEvent(new SimpleMessage("caf\u00e9 \ud83d\ude00 \u20ac"));
+        // Only the first event is written without a leading separator.
+        layout.toSerializable(event);
+        utf16.toSerializable(event);
+        final String text = layout.toSerializable(event);
+        assertTrue(text, text.startsWith(","));
+        assertArrayEquals(text.getBytes(Charsets.UTF_8), layout.toByteArray(event));
+        assertArrayEquals(text.getBytes(Charset.forName("UTF-16")), utf16.toByteArray(event));
+    }
+
+    private static LogEvent createEvent(final Message msg) {
+        return new Log4jLogEvent("a.B", null, null, Level.INFO, msg, (Throwable) null, null, null, "main",
+            new StackTraceElement("a.B", "run", "B.java", 10), 1);
+    }
+
     private void checkAt(String expected, int lineIndex, List<String> list) {
         final String trimedLine = list.get(lineIndex).trim();
         assertTrue("Incorrect line index " + lineIndex + ": \"" + trimedLine + "\"", trimedLine.equals(expected));
@@ -26,6 +26,8 @@ import org.apache.logging.log4j.core.BasicConfigurationFactory;
 import org.apache.logging.log4j.core.appender.FileAppender;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.pattern.RegexReplacement;
+import org.apache.logging.log4j.core.pattern.Scrubber;
 import org.apache.logging.log4j.core.util.Compare;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.AfterClass;
@@ -143,4 +145,18 @@ public class PatternLayoutTest {
         final byte[] result = layout.toByteArray(event);
         assertEquals("org/apache/logging/log4j/core/layout/PatternLayoutTest Hello, world!", new String(result));
     }
+
+    @Test
+    public void testReplaceWithNamedGroup() throws Exception {
+        final LoggerContext ctx = (LoggerContext) LogManager.getContext();
+        final RegexReplacement replace = RegexReplacement.createRegexReplacement("(?<user>\\w+)@example\\.com",
+            "${user}@***");
+        final Scrubber scrubber = Scrubber.createScrubber(new RegexReplacement[] {
+            RegexReplacement.createRegexReplacement("secret", "******")});
+        final PatternLayout layout = PatternLayout.createLayout("%m", ctx.getConfiguration(), replace, scrubber,
+            null, null);
+        final LogEvent event = new Log4jLogEvent(this.getClass().getName(), null, "org.apache.logging.log4j.core.Logger",
+            Level.INFO, new SimpleMessage("bob@example.com shared a secret"), null);
+        assertEquals("bob@*** shared a ******", layout.toSerializable(event));
+    }
 }
@@ -23,19 +23,24 @@ import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.BasicConfigurationFactory;
 import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.helpers.KeyValuePair;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.Assert;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -424,4 +429,21 @@ public class RFC5424LayoutTest {
             appender.stop();
         }
     }
+
+    @Test
+    public void testTimestamp() {
+        final AbstractStringLayout layout = RFC5424Layout.createLayout("Local0", "Event", "3692", "false", null,
+                null, null, null, null, "ATM", null, null, null, null, null, null, null, null);
+        final long second = 1376676700000L;
+        final long[] times = {second, second + 1, second + 999, second + 1000, second + 3600 * 1000L, -1, 0};
+        for (final long time : times) {
+            final LogEvent event = new Log4jLogEvent("a.B", null, null, Level.INFO, new SimpleMessage("msg"),
+                (Throwable) null, null, null, "main", null, time);
+            final SimpleDateFormat format = new SimpleDateFormat(time % 1000 == 0 ? "yyyy-MM-dd'T'HH:mm:ssXXX" :
+                "yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+            final String expected = "<134>1 " + format.format(new Date(time)) + " ";
+            final String message = layout.toSerializable(event);
+            assertTrue(message + " does not start with " + expected, message.startsWith(expected));
+        }
+    }
 }
@@ -24,6 +24,8 @@ import org.apache.logging.log4j.core.BasicConfigurationFactory;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.junit.AfterClass;
@@ -31,10 +33,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -125,4 +130,38 @@ public class SerializedLayoutTest {
         }
 
     }
+
+    @Test
+    public void testStreaming() throws Exception {
+        final SerializedLayout layout = SerializedLayout.createLayout("4");
+        assertTrue(layout.isStreaming());
+        assertNull(SerializedLayout.createLayout().createEncoder());
+        final ObjectStreamEncoder encoder = layout.createEncoder();
+        final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        streamed.write(layout.getHeader());
+        int separate = 0;
+        for (int i = 0; i < 10; ++i) {
+            final LogEvent event = createEvent("message " + i);
+            encoder.encode(event, streamed);
+            separate += layout.toByteArray(event).length;
+            if (i == 6) {
+                // Another Appender sharing the connection writes an event serialized on its own.
+                encoder.resetStream(streamed);
+                streamed.write(layout.toByteArray(createEvent("separate")));
+            }
+        }
+        assertTrue("Streamed " + streamed.size() + " bytes, separate " + separate, streamed.size() < separate / 2);
+
+        final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(streamed.toByteArray()));
+        for (int i = 0; i < 10; ++i) {
+            assertEquals("message " + i, ((LogEvent) ois.readObject()).getMessage().getFormattedMessage());
+            if (i == 6) {
+                assertEquals("separate", ((LogEvent) ois.readObject()).getMessage().getFormattedMessage());
+            }
+        }
+    }
+
+    private static LogEvent createEvent(final String msg) {
+        return new Log4jLogEvent("a.B", null, null, Level.INFO, new SimpleMessage(msg), null);
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import javax.jms.Queue;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+import javax.jms.QueueReceiver;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.JMSQueueAppender;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.helpers.Charsets;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.status.StatusConsoleListener;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockejb.jms.MockQueue;
+import org.mockejb.jms.QueueConnectionFactoryImpl;
+import org.mockejb.jndi.MockContextFactory;
+
+/**
+ *
+ */
+public class JMSQueueBatchTest {
+
+    private static final String FACTORY_NAME = "TestBatchQueueConnectionFactory";
+    private static final String QUEUE_NAME = "TestBatchQueue";
+    private static final String BYTES_QUEUE_NAME = "TestBytesQueue";
+    private static final int COUNT = 25;
+
+    private static Context context;
+    private static AbstractJMSReceiver receiver;
+
+    LoggerContext ctx = (LoggerContext) LogManager.getContext();
+    Logger root = ctx.getLogger("JMSQueueBatchTest");
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        // MockContextFactory becomes the primary JNDI provider
+        final StatusConsoleListener l = new StatusConsoleListener(Level.ERROR);
+        StatusLogger.getLogger().registerListener(l);
+        MockContextFactory.setAsInitial();
+        context = new InitialContext();
+        context.rebind(FACTORY_NAME, new QueueConnectionFactoryImpl());
+        context.rebind(QUEUE_NAME, new MockQueue(QUEUE_NAME));
+        context.rebind(BYTES_QUEUE_NAME, new MockQueue(BYTES_QUEUE_NAME));
+        ((LoggerContext) LogManager.getContext()).reconfigure();
+        receiver = new JMSQueueReceiver(FACTORY_NAME, QUEUE_NAME, null, null);
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        StatusLogger.getLogger().reset();
+    }
+
+    @After
+    public void teardown() {
+        final Map<String, Appender> map = root.getAppenders();
+        for (final Map.Entry<String, Appender> entry : map.entrySet()) {
+            final Appender app = entry.getValue();
+            root.removeAppender(app);
+            app.stop();
+        }
+    }
+
+    /**
+     * MockEJB delivers each message as soon as it is sent and ignores transactions, so this test does not check that
+     * delivery waits for the commit. JMSSessionPoolTest does.
+     */
+    @Test
+    public void testBatchedPooledSend() throws Exception {
+        final Filter clientFilter = new MessageFilter(Filter.Result.NEUTRAL, Filter.Result.DENY);
+        final Filter serverFilter = new MessageFilter(Filter.Result.DENY, Filter.Result.NEUTRAL);
+        final JMSQueueAppender appender = JMSQueueAppender.createAppender("Batch", null, null, null, null, null,
+            FACTORY_NAME, QUEUE_NAME, null, null, "2", "10", "60000", null, null,
+            CompositeFilter.createFilters(new Filter[]{clientFilter}), "false");
+        appender.start();
+        final ListAppender listApp = new ListAppender("Events",
+            CompositeFilter.createFilters(new Filter[]{serverFilter}), null, false, false);
+        listApp.start();
+
+        root.addAppender(listApp);
+        root.addAppender(appender);
+        root.setAdditive(false);
+        root.setLevel(Level.DEBUG);
+        for (int i = 0; i < COUNT; ++i) {
+            root.debug("Batched message " + i);
+        }
+        // Stopping the Appender commits the last, partial batch.
+        root.removeAppender(appender);
+        appender.stop();
+        Thread.sleep(100);
+        final List<LogEvent> events = listApp.getEvents();
+        assertEquals("Incorrect number of events", COUNT, events.size());
+        final List<String> messages = new ArrayList<String>();
+        for (final LogEvent event : events) {
+            messages.add(event.getMessage().getFormattedMessage());
+        }
+        for (int i = 0; i < COUNT; ++i) {
+            assertTrue("Missing message " + i, messages.contains("Batched message " + i));
+        }
+    }
+
+    @Test
+    public void testBytesMessage() throws Exception {
+        final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+        final QueueConnectionFactory factory = (QueueConnectionFactory) context.lookup(FACTORY_NAME);
+        final QueueConnection conn = factory.createQueueConnection();
+        final QueueSession session = conn.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+        final QueueReceiver queueReceiver = session.createReceiver((Queue) context.lookup(BYTES_QUEUE_NAME));
+        queueReceiver.setMessageListener(new MessageListener() {
+            @Override
+            public void onMessage(final Message message) {
+                try {
+                    final BytesMessage bytes = (BytesMessage) message;
+                    final byte[] data = new byte[(int) bytes.getBodyLength()];
+                    bytes.readBytes(data);
+                    received.add(new String(data, Charsets.UTF_8));
+                } catch (final JMSException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+        conn.start();
+
+        final PatternLayout layout = PatternLayout.createLayout("%m", null, null, null, null);
+        final JMSQueueAppender appender = JMSQueueAppender.createAppender("Bytes", null, null, null, null, null,
+            FACTORY_NAME, BYTES_QUEUE_NAME, null, null, "2", "5", null, "true", layout, null, "false");
+        appender.start();
+        root.addAppender(appender);
+        root.setAdditive(false);
+        root.setLevel(Level.DEBUG);
+        for (int i = 0; i < 3; ++i) {
+            root.debug("Bytes message " + i);
+        }
+        root.removeAppender(appender);
+        appender.stop();
+        Thread.sleep(100);
+        conn.close();
+        assertEquals("Incorrect number of messages", 3, received.size());
+        for (int i = 0; i < 3; ++i) {
+            assertTrue("Missing message " + i, received.contains("Bytes message " + i));
+        }
+    }
+
+    private class MessageFilter extends AbstractFilter {
+        public MessageFilter(final Result onMatch, final Result onMismatch) {
+            super(onMatch, onMismatch);
+        }
+
+        @Override
+        public Result filter(final LogEvent event) {
+            final StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
+            for (final StackTraceElement element : stackTrace) {
+                if (element.getMethodName().equals("onMessage")) {
+                    return onMatch;
+                } else if (element.getMethodName().equals("testBatchedPooledSend")) {
+                    return onMismatch;
+                }
+            }
+            return onMismatch;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.junit.Test;
+
+/**
+ * Tests the JMSSessionPool against a provider that, unlike MockEJB, only delivers messages when their Session
+ * commits.
+ */
+public class JMSSessionPoolTest {
+
+    @Test
+    public void testMessagesAreDeliveredOnCommit() throws Exception {
+        final Broker broker = new Broker();
+        final JMSSessionPool pool = new JMSSessionPool("Test", broker.createConnection(), null, 2, 3, 0);
+        for (int i = 0; i < 5; ++i) {
+            pool.send("Message " + i);
+        }
+        // The first Session has committed a full batch, the second has two messages waiting.
+        assertEquals(Arrays.asList("Message 0", "Message 2", "Message 4"), broker.delivered);
+        assertTrue(pool.close(false).isEmpty());
+        assertEquals(5, broker.delivered.size());
+    }
+
+    @Test
+    public void testFailedCommitKeepsUncommittedMessages() throws Exception {
+        final Broker broker = new Broker();
+        final JMSSessionPool pool = new JMSSessionPool("Test", broker.createConnection(), null, 2, 3, 0);
+        for (int i = 0; i < 4; ++i) {
+            pool.send("Message " + i);
+        }
+        broker.failCommit = true;
+        try {
+            pool.send("Message 4");
+            fail("The failed commit was not reported");
+        } catch (final JMSException ex) {
+            // Expected.
+        }
+        assertTrue(pool.isFailed());
+        try {
+            pool.send("Message 5");
+            fail("A failed pool accepted a message");
+        } catch (final JMSException ex) {
+            // Expected.
+        }
+        final List<Serializable> uncommitted = pool.close(true);
+        assertTrue(broker.delivered.isEmpty());
+        // The message whose send failed is reported to its caller and is not sent again.
+        assertEquals(Arrays.<Serializable>asList("Message 0", "Message 2", "Message 1", "Message 3"), uncommitted);
+        assertFalse(uncommitted.contains("Message 4"));
+    }
+
+    @Test
+    public void testFailedCommitOnCloseReturnsMessages() throws Exception {
+        final Broker broker = new Broker();
+        final JMSSessionPool pool = new JMSSessionPool("Test", broker.createConnection(), null, 2, 3, 0);
+        pool.send("Message 0");
+        pool.send("Message 1");
+        broker.failCommit = true;
+        assertEquals(2, pool.close(false).size());
+        assertTrue(broker.delivered.isEmpty());
+    }
+
+    /**
+     * A JMS provider that holds the messages sent by each Session until it commits.
+     */
+    private static class Broker {
+        private final List<String> delivered = new ArrayList<String>();
+        private boolean failCommit;
+
+        Connection createConnection() {
+            return proxy(Connection.class, new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    if (method.getName().equals("createSession")) {
+                        return createSession();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private Session createSession() {
+            final List<String> pending = new ArrayList<String>();
+            return proxy(Session.class, new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args)
+                    throws JMSException {
+                    final String name = method.getName();
+                    if (name.equals("createProducer")) {
+                        return createProducer(pending);
+                    } else if (name.equals("createTextMessage")) {
+                        return createTextMessage();
+                    } else if (name.equals("commit")) {
+                        if (failCommit) {
+                            pending.clear();
+                            throw new JMSException("Commit failed");
+                        }
+                        delivered.addAll(pending);
+                        pending.clear();
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private MessageProducer createProducer(final List<String> pending) {
+            return proxy(MessageProducer.class, new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args)
+                    throws JMSException {
+                    if (method.getName().equals("send")) {
+                        pending.add(((TextMessage) args[0]).getText());
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private TextMessage createTextMessage() {
+            final String[] text = new String[1];
+            return proxy(TextMessage.class, new InvocationHandler() {
+                @Override
+                public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                    if (method.getName().equals("setText")) {
+                        text[0] = (String) args[0];
+                    } else if (method.getName().equals("getText")) {
+                        return text[0];
+                    }
+                    return null;
+                }
+            });
+        }
+
+        private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(JMSSessionPoolTest.class.getClassLoader(), new Class<?>[] {type},
+                handler));
+        }
+    }
+}
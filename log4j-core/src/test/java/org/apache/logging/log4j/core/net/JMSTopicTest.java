@@ -96,7 +96,7 @@ public class JMSTopicTest {
         final Filter serverFilter = new MessageFilter(Filter.Result.DENY, Filter.Result.NEUTRAL);
         final CompositeFilter clientFilters = CompositeFilter.createFilters(new Filter[]{clientFilter});
         final JMSTopicAppender appender = JMSTopicAppender.createAppender("Test", null, null, null, null, null, FACTORY_NAME,
-                TOPIC_NAME, null, null, null, clientFilters, "true");
+                TOPIC_NAME, null, null, null, null, null, null, null, clientFilters, "true");
         appender.start();
         final CompositeFilter serverFilters = CompositeFilter.createFilters(new Filter[]{serverFilter});
         final ListAppender listApp = new ListAppender("Events", serverFilters, null, false, false);
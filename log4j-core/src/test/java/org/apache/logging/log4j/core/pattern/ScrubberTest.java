@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.ScrubberFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ScrubberTest {
+
+    private static RegexReplacement replace(final String regex, final String replacement) {
+        return RegexReplacement.createRegexReplacement(regex, replacement);
+    }
+
+    private static void assertSameAsReplaceAll(final String regex, final String replacement, final String text) {
+        final Scrubber scrubber = Scrubber.newInstance(replace(regex, replacement));
+        assertEquals(regex, Pattern.compile(regex).matcher(text).replaceAll(replacement), scrubber.scrub(text));
+    }
+
+    @Test
+    public void testSingleReplacement() {
+        assertSameAsReplaceAll("\\/", ".", "/RegexReplacementTest/a/b");
+        assertSameAsReplaceAll("secret", "***", "a secret is a secret");
+        assertSameAsReplaceAll("(\\d{4})-(\\d{4})", "$2-$1", "card 1234-5678 and 0000-1111");
+        assertSameAsReplaceAll("(a)\\1", "<$1>", "aaaa baab");
+        assertSameAsReplaceAll("x*", "-", "abxxc");
+        assertSameAsReplaceAll("\\$", "\\$\\$", "cost $5");
+        assertSameAsReplaceAll("nothing", "x", "no match here");
+    }
+
+    @Test
+    public void testMultipleReplacements() {
+        final Scrubber scrubber = Scrubber.newInstance(replace("password", "********"), replace("pass", "PASS"),
+            replace("\\d{3}-\\d{2}-\\d{4}", "XXX-XX-XXXX"), replace("user=(\\w+)", "user=[$1]"));
+        assertEquals("user=[bob] ******** PASS ssn=XXX-XX-XXXX",
+            scrubber.scrub("user=bob password pass ssn=123-45-6789"));
+    }
+
+    @Test
+    public void testNamedGroupReference() {
+        assertSameAsReplaceAll("(?<user>\\w+)@example\\.com", "${user}@***", "mail bob@example.com now");
+        final Scrubber scrubber = Scrubber.newInstance(replace("(?<user>\\w+)@example\\.com", "${user}@***"),
+            replace("secret", "******"));
+        assertEquals("bob@*** has a ******", scrubber.scrub("bob@example.com has a secret"));
+        assertTrue(scrubber.find("alice@example.com"));
+        final StringBuilder sb = new StringBuilder("bob@example.com");
+        assertEquals("bob@***", scrubber.scrub(sb).toString());
+    }
+
+    @Test
+    public void testOverlappingLiterals() {
+        final Scrubber scrubber = Scrubber.newInstance(replace("he", "1"), replace("she", "2"), replace("hers", "3"));
+        assertEquals("u2rs 3", scrubber.scrub("ushers hers"));
+    }
+
+    @Test
+    public void testFind() {
+        final Scrubber scrubber = Scrubber.newInstance(replace("token", "x"), replace("[0-9]{16}", "x"));
+        assertTrue(scrubber.find("a token"));
+        assertTrue(scrubber.find("4111111111111111"));
+        assertFalse(scrubber.find("nothing to see"));
+    }
+
+    @Test
+    public void testUnchanged() {
+        final Scrubber scrubber = Scrubber.newInstance(replace("secret", "x"));
+        final StringBuilder sb = new StringBuilder("public");
+        assertSame(sb, scrubber.scrub(sb));
+        assertEquals("public", sb.toString());
+        assertNull(Scrubber.newInstance());
+    }
+
+    @Test
+    public void testFilter() {
+        final ScrubberFilter filter = ScrubberFilter.createFilter(
+            new RegexReplacement[] {replace("secret", "x"), replace("key=\\w+", "x")}, "false", "DENY", "NEUTRAL");
+        final LogEvent secret = new Log4jLogEvent(null, null, null, Level.INFO, new SimpleMessage("the key=abc"),
+            null);
+        final LogEvent plain = new Log4jLogEvent(null, null, null, Level.INFO, new SimpleMessage("hello"), null);
+        assertSame(Filter.Result.DENY, filter.filter(secret));
+        assertSame(Filter.Result.NEUTRAL, filter.filter(plain));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.test.appender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+
+/**
+ * Appender that waits before accepting each event.
+ */
+@Plugin(name="Slow", category ="Core",elementType="appender",printObject=true)
+public class SlowAppender extends AbstractAppender {
+
+    private final long delayMillis;
+
+    private final List<LogEvent> events = new ArrayList<LogEvent>();
+
+    private SlowAppender(final String name, final long delayMillis) {
+        super(name, null, null, false);
+        this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public synchronized void append(final LogEvent event) {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        events.add(event);
+    }
+
+    public synchronized List<LogEvent> getEvents() {
+        final List<LogEvent> list = new ArrayList<LogEvent>(events);
+        events.clear();
+        return list;
+    }
+
+    @PluginFactory
+    public static SlowAppender createAppender(@PluginAttribute("name") final String name,
+                                              @PluginAttribute("delay") final String delay) {
+        if (name == null) {
+            LOGGER.error("A name for the Appender must be specified");
+            return null;
+        }
+
+        return new SlowAppender(name, delay == null ? 100 : Long.parseLong(delay));
+    }
+
+}
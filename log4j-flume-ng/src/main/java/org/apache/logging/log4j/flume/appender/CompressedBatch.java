@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.flume.Event;
+import org.apache.flume.event.SimpleEvent;
+
+/**
+ * Packs a batch of events into a single event whose body is compressed once, which costs far less than compressing
+ * the body of every event when the bodies are small. The receiving agent restores the original events with the
+ * {@link CompressedBatchInterceptor}.
+ * <p>
+ * The body is the GZIP compression of, for each event, the number of headers, each header as a pair of modified
+ * UTF-8 strings, the length of the body and the body.
+ * </p>
+ */
+public final class CompressedBatch {
+
+    /** The header that identifies an event holding a compressed batch. */
+    public static final String BATCH_HEADER = "log4j.compressedBatch";
+
+    /** The value of the batch header for the current format. */
+    public static final String FORMAT = "gzip";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private CompressedBatch() {
+    }
+
+    /**
+     * Returns an event holding all the events of a batch.
+     * @param events The events.
+     * @return The event that holds the batch.
+     * @throws IOException if the events cannot be written.
+     */
+    public static Event encode(final List<Event> events) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(BUFFER_SIZE);
+        final DataOutputStream dos = new DataOutputStream(new GZIPOutputStream(baos, BUFFER_SIZE));
+        for (final Event event : events) {
+            final Map<String, String> headers = event.getHeaders();
+            dos.writeInt(headers.size());
+            for (final Map.Entry<String, String> entry : headers.entrySet()) {
+                dos.writeUTF(entry.getKey());
+                dos.writeUTF(entry.getValue());
+            }
+            final byte[] body = event.getBody();
+            dos.writeInt(body.length);
+            dos.write(body);
+        }
+        dos.close();
+        final SimpleEvent batch = new SimpleEvent();
+        final Map<String, String> headers = new HashMap<String, String>(2);
+        headers.put(BATCH_HEADER, FORMAT);
+        batch.setHeaders(headers);
+        batch.setBody(baos.toByteArray());
+        return batch;
+    }
+
+    /**
+     * Returns true if the event holds a compressed batch.
+     * @param event The event.
+     * @return true if the event was created by {@link #encode(List)}.
+     */
+    public static boolean isBatch(final Event event) {
+        return FORMAT.equals(event.getHeaders().get(BATCH_HEADER));
+    }
+
+    /**
+     * Returns the events held by an event created by {@link #encode(List)}.
+     * @param batch The event holding the batch.
+     * @return The events.
+     * @throws IOException if the batch cannot be read.
+     */
+    public static List<Event> decode(final Event batch) throws IOException {
+        final List<Event> events = new ArrayList<Event>();
+        final DataInputStream dis = new DataInputStream(
+            new GZIPInputStream(new ByteArrayInputStream(batch.getBody()), BUFFER_SIZE));
+        try {
+            while (true) {
+                final int count;
+                try {
+                    count = dis.readInt();
+                } catch (final EOFException ex) {
+                    break;
+                }
+                final Map<String, String> headers = new HashMap<String, String>(count * 2);
+                for (int i = 0; i < count; ++i) {
+                    final String key = dis.readUTF();
+                    headers.put(key, dis.readUTF());
+                }
+                final byte[] body = new byte[dis.readInt()];
+                dis.readFully(body);
+                final SimpleEvent event = new SimpleEvent();
+                event.setHeaders(headers);
+                event.setBody(body);
+                events.add(event);
+            }
+        } finally {
+            dis.close();
+        }
+        return events;
+    }
+}
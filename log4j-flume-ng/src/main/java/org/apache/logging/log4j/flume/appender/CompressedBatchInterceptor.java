@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.flume.Context;
+import org.apache.flume.Event;
+import org.apache.flume.FlumeException;
+import org.apache.flume.interceptor.Interceptor;
+
+/**
+ * Flume Interceptor that restores the events packed by a Flume Appender configured with compress="batch". Configure
+ * it on the source that receives the events from the appender:
+ * <pre>
+ * agent.sources.avro.interceptors = i
+ * agent.sources.avro.interceptors.i.type = org.apache.logging.log4j.flume.appender.CompressedBatchInterceptor$Builder
+ * </pre>
+ * Other events are passed on unchanged. The appender sends each compressed batch with appendBatch so the source
+ * passes it to {@link #intercept(List)}.
+ */
+public class CompressedBatchInterceptor implements Interceptor {
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public Event intercept(final Event event) {
+        if (CompressedBatch.isBatch(event)) {
+            throw new FlumeException("A compressed batch cannot be restored one event at a time");
+        }
+        return event;
+    }
+
+    @Override
+    public List<Event> intercept(final List<Event> events) {
+        List<Event> result = null;
+        for (int i = 0; i < events.size(); ++i) {
+            final Event event = events.get(i);
+            if (CompressedBatch.isBatch(event)) {
+                if (result == null) {
+                    result = new ArrayList<Event>(events.subList(0, i));
+                }
+                try {
+                    result.addAll(CompressedBatch.decode(event));
+                } catch (final Exception ex) {
+                    throw new FlumeException("Unable to restore compressed batch", ex);
+                }
+            } else if (result != null) {
+                result.add(event);
+            }
+        }
+        return result == null ? events : result;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Builder for the CompressedBatchInterceptor.
+     */
+    public static class Builder implements Interceptor.Builder {
+
+        @Override
+        public Interceptor build() {
+            return new CompressedBatchInterceptor();
+        }
+
+        @Override
+        public void configure(final Context context) {
+        }
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * A persistent FIFO queue of records stored in a directory of memory mapped segment files.
+ * <p>
+ * Records are appended to the last segment, a new segment being started when a record does not fit. Each record
+ * is preceded by its length and the CRC32 of its content so a record that was only partially written when the
+ * process stopped is discarded when the queue is opened again. The position of the oldest record that has not been
+ * acknowledged is kept in a separate offset file and segments are deleted once all their records are acknowledged.
+ * </p>
+ * <p>
+ * Records are delivered at least once: records read but not acknowledged before the process stopped are read again.
+ * All methods are thread safe, but records must be read and acknowledged by a single thread.
+ * </p>
+ */
+public final class FileQueue {
+
+    /** The default size of a segment file. */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private static final String OFFSET_FILE = "offset";
+
+    /** The length and the CRC32 of the record. */
+    private static final int HEADER_SIZE = 8;
+
+    /** The segment id, the position within the segment and their CRC32. */
+    private static final int OFFSET_SIZE = 16;
+
+    private final File directory;
+    private final int segmentSize;
+    private final LinkedList<Segment> segments = new LinkedList<Segment>();
+    private final MappedByteBuffer offset;
+    private final CRC32 crc = new CRC32();
+    private int readPosition;
+    private long size;
+    private long awaited = Long.MAX_VALUE;
+    private boolean closed;
+
+    private FileQueue(final File directory, final int segmentSize, final MappedByteBuffer offset) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.offset = offset;
+    }
+
+    /**
+     * Opens the queue stored in a directory, creating it if it does not exist.
+     * @param directory The directory.
+     * @param segmentSize The size of new segment files.
+     * @return The FileQueue.
+     * @throws IOException if the queue cannot be opened.
+     */
+    public static FileQueue open(final File directory, final int segmentSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory.getAbsolutePath());
+        }
+        final FileQueue queue = new FileQueue(directory, Math.max(segmentSize, HEADER_SIZE * 2),
+            map(new File(directory, OFFSET_FILE), OFFSET_SIZE));
+        queue.recover();
+        return queue;
+    }
+
+    /**
+     * Appends a record and forces it to the storage device.
+     * @param record The record, which must not be empty.
+     * @throws IOException if the record cannot be written.
+     */
+    public void append(final byte[] record) throws IOException {
+        append(Arrays.asList(record));
+    }
+
+    /**
+     * Appends records and forces them to the storage device.
+     * @param records The records, which must not be empty.
+     * @throws IOException if the records cannot be written.
+     */
+    public synchronized void append(final List<byte[]> records) throws IOException {
+        checkOpen();
+        Segment segment = segments.getLast();
+        Segment forced = segment;
+        for (final byte[] record : records) {
+            if (record.length == 0) {
+                throw new IllegalArgumentException("Records must not be empty");
+            }
+            if (segment.limit + HEADER_SIZE + record.length > segment.buffer.capacity()) {
+                segment.buffer.force();
+                segment = addSegment(segment.id + 1, HEADER_SIZE + record.length);
+                forced = segment;
+            }
+            final MappedByteBuffer buffer = segment.buffer;
+            final int start = segment.limit;
+            // The length is written last so a record is never seen before its content is complete.
+            buffer.putInt(start + 4, checksum(record));
+            buffer.position(start + HEADER_SIZE);
+            buffer.put(record);
+            buffer.putInt(start, record.length);
+            segment.limit = start + HEADER_SIZE + record.length;
+        }
+        forced.buffer.force();
+        size += records.size();
+        if (size >= awaited) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Returns the oldest records that have not been acknowledged without removing them from the queue.
+     * @param max The maximum number of records to return.
+     * @return The records, oldest first.
+     */
+    public synchronized List<byte[]> peek(final int max) {
+        checkOpen();
+        final List<byte[]> records = new ArrayList<byte[]>((int) Math.min(max, size));
+        int position = readPosition;
+        for (final Segment segment : segments) {
+            while (records.size() < max && position < segment.limit) {
+                final int length = segment.buffer.getInt(position);
+                final byte[] record = new byte[length];
+                segment.buffer.position(position + HEADER_SIZE);
+                segment.buffer.get(record);
+                records.add(record);
+                position += HEADER_SIZE + length;
+            }
+            if (records.size() >= max) {
+                break;
+            }
+            position = 0;
+        }
+        return records;
+    }
+
+    /**
+     * Removes the oldest records from the queue and records the new read position. Segments whose records have all
+     * been acknowledged are deleted.
+     * @param count The number of records to remove.
+     */
+    public synchronized void acknowledge(final int count) {
+        checkOpen();
+        int remaining = (int) Math.min(count, size);
+        size -= remaining;
+        Segment segment = segments.getFirst();
+        while (remaining > 0) {
+            if (readPosition >= segment.limit) {
+                deleteFirstSegment();
+                segment = segments.getFirst();
+                continue;
+            }
+            readPosition += HEADER_SIZE + segment.buffer.getInt(readPosition);
+            --remaining;
+        }
+        while (readPosition >= segment.limit && segments.size() > 1) {
+            deleteFirstSegment();
+            segment = segments.getFirst();
+        }
+        writeOffset(segment.id, readPosition);
+    }
+
+    /**
+     * Returns the number of records that have not been acknowledged.
+     * @return The number of records.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Waits until the queue holds at least the given number of records.
+     * @param count The number of records to wait for.
+     * @param timeoutMillis The maximum time to wait in milliseconds.
+     * @return The number of records in the queue.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public synchronized long await(final long count, final long timeoutMillis) throws InterruptedException {
+        final long end = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (size < count && remaining > 0 && !closed) {
+            awaited = count;
+            try {
+                wait(remaining);
+            } finally {
+                awaited = Long.MAX_VALUE;
+            }
+            remaining = end - System.currentTimeMillis();
+        }
+        return size;
+    }
+
+    /**
+     * Forces the queue to the storage device and releases the segments.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.getLast().buffer.force();
+        offset.force();
+        segments.clear();
+        notifyAll();
+    }
+
+    @Override
+    public String toString() {
+        return "FileQueue[" + directory + "]";
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException(this + " is closed");
+        }
+    }
+
+    /**
+     * Reads the persisted read position and the valid records of every segment that follows it.
+     */
+    private void recover() throws IOException {
+        long readId = offset.getLong(0);
+        readPosition = offset.getInt(8);
+        crc.reset();
+        for (int i = 0; i < 12; ++i) {
+            crc.update(offset.get(i));
+        }
+        if (offset.getInt(12) != (int) crc.getValue() || readPosition < 0) {
+            // The offset was never written or the write was torn, all remaining records are read again.
+            readId = -1;
+            readPosition = 0;
+        }
+        final long[] ids = listSegments();
+        for (final long id : ids) {
+            final File file = getSegmentFile(id);
+            if (id < readId) {
+                if (!file.delete()) {
+                    LOGGER.warn("Unable to delete acknowledged segment {}", file);
+                }
+                continue;
+            }
+            if (segments.isEmpty() && id != readId) {
+                readPosition = 0;
+            }
+            final Segment segment = new Segment(id, map(file, 0));
+            segments.add(segment);
+            final int start = segments.size() == 1 ? readPosition : 0;
+            segment.limit = scan(segment, start);
+            if (start > segment.limit) {
+                readPosition = segment.limit;
+            }
+        }
+        if (segments.isEmpty()) {
+            readPosition = 0;
+            addSegment(Math.max(readId, 0), 0);
+            return;
+        }
+        final Segment last = segments.getLast();
+        for (final Segment segment : segments) {
+            if (segment != last && segment.limit + HEADER_SIZE <= segment.buffer.capacity() &&
+                segment.buffer.getInt(segment.limit) != 0) {
+                LOGGER.warn("Discarding corrupt records at position {} of segment {}", segment.limit,
+                    getSegmentFile(segment.id));
+            }
+        }
+        // A partially written record may be followed by older data, which must never be taken for a record.
+        final MappedByteBuffer buffer = last.buffer;
+        for (int i = last.limit; i < buffer.capacity(); ++i) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        buffer.force();
+    }
+
+    /**
+     * Counts the valid records of a segment that start at or after a position.
+     * @return The position that follows the last valid record.
+     */
+    private int scan(final Segment segment, final int start) {
+        final MappedByteBuffer buffer = segment.buffer;
+        final int capacity = buffer.capacity();
+        int position = start;
+        while (position + HEADER_SIZE <= capacity) {
+            final int length = buffer.getInt(position);
+            if (length <= 0 || length > capacity - position - HEADER_SIZE) {
+                break;
+            }
+            final byte[] record = new byte[length];
+            buffer.position(position + HEADER_SIZE);
+            buffer.get(record);
+            if (checksum(record) != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+            ++size;
+        }
+        return position;
+    }
+
+    private long[] listSegments() {
+        final String[] names = directory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        final List<Long> ids = new ArrayList<Long>();
+        if (names != null) {
+            for (final String name : names) {
+                try {
+                    ids.add(Long.valueOf(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (final NumberFormatException ex) {
+                    LOGGER.warn("Ignoring unexpected file {} in {}", name, directory);
+                }
+            }
+        }
+        final long[] result = new long[ids.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = ids.get(i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private Segment addSegment(final long id, final int minimumSize) throws IOException {
+        final Segment segment = new Segment(id, map(getSegmentFile(id), Math.max(segmentSize, minimumSize)));
+        segments.add(segment);
+        return segment;
+    }
+
+    private void deleteFirstSegment() {
+        final Segment segment = segments.removeFirst();
+        readPosition = 0;
+        final File file = getSegmentFile(segment.id);
+        // The mapping is released when the buffer is garbage collected, some platforms refuse to delete the file
+        // until then. A segment left behind is deleted when the queue is next opened.
+        if (!file.delete()) {
+            LOGGER.debug("Unable to delete segment {}", file);
+        }
+    }
+
+    private void writeOffset(final long id, final int position) {
+        offset.putLong(0, id);
+        offset.putInt(8, position);
+        crc.reset();
+        for (int i = 0; i < 12; ++i) {
+            crc.update(offset.get(i));
+        }
+        offset.putInt(12, (int) crc.getValue());
+        offset.force();
+    }
+
+    private int checksum(final byte[] data) {
+        crc.reset();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+
+    private File getSegmentFile(final long id) {
+        return new File(directory, String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Maps a file, extending it to the given size first.
+     */
+    private static MappedByteBuffer map(final File file, final int size) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            if (raf.length() < size) {
+                raf.setLength(size);
+            }
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+        } finally {
+            // The mapping remains valid after the file is closed.
+            raf.close();
+        }
+    }
+
+    /**
+     * A segment file and the end of its valid records.
+     */
+    private static class Segment {
+        private final long id;
+        private final MappedByteBuffer buffer;
+        private int limit;
+
+        public Segment(final long id, final MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+    }
+}
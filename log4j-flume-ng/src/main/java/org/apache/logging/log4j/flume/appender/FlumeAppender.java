@@ -43,6 +43,8 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
 
     private static final int DEFAULT_LOCK_TIMEOUT_RETRY_COUNT = 5;
 
+    private static final String BATCH_COMPRESSION = "batch";
+
     private final AbstractFlumeManager manager;
 
     private final String mdcIncludes;
@@ -149,9 +151,12 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
      * @param required A comma separated list of MDC elements that are required.
      * @param mdcPrefix The prefix to add to MDC key names.
      * @param eventPrefix The prefix to add to event key names.
-     * @param compressBody If true the event body will be compressed.
+     * @param compressBody If true the event body will be compressed. If "batch" the Avro manager compresses each
+     *                     batch of events once instead.
      * @param batchSize Number of events to include in a batch. Defaults to 1.
      * @param lockTimeoutRetries Times to retry a lock timeout when writing to Berkeley DB.
+     * @param maxInFlight The number of batches the Avro manager may send at the same time, each over its own
+     *                    connection. When greater than 1 events are sent asynchronously.
      * @param factory The factory to use to create Flume events.
      * @param layout The layout to format the event.
      * @param filter A Filter to filter events.
@@ -178,6 +183,7 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
                                                @PluginAttribute("compress") final String compressBody,
                                                @PluginAttribute("batchSize") final String batchSize,
                                                @PluginAttribute("lockTimeoutRetries") final String lockTimeoutRetries,
+                                               @PluginAttribute("maxInFlight") final String maxInFlight,
                                                @PluginElement("FlumeEventFactory") final FlumeEventFactory factory,
                                                @PluginElement("Layout") Layout<? extends Serializable> layout,
                                                @PluginElement("Filters") final Filter filter) {
@@ -185,7 +191,6 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
         final boolean embed = embedded != null ? Boolean.parseBoolean(embedded) :
             (agents == null || agents.length == 0) && properties != null && properties.length > 0;
         final boolean ignoreExceptions = Booleans.parseBoolean(ignore, true);
-        final boolean compress = Booleans.parseBoolean(compressBody, true);
         ManagerType managerType;
         if (type != null) {
             if (embed && embedded != null) {
@@ -211,12 +216,19 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
            managerType = ManagerType.AVRO;
         }
 
+        final boolean batchCompression = BATCH_COMPRESSION.equalsIgnoreCase(compressBody) &&
+            managerType == ManagerType.AVRO;
+        if (BATCH_COMPRESSION.equalsIgnoreCase(compressBody) && !batchCompression) {
+            LOGGER.warn("Batch compression is only supported by the Avro type, the body of each event is compressed");
+        }
+        final boolean compress = !batchCompression && Booleans.parseBoolean(compressBody, true);
         final int batchCount = Integers.parseInt(batchSize, 1);
         final int connectTimeout = Integers.parseInt(connectionTimeout, 0);
         final int reqTimeout = Integers.parseInt(requestTimeout, 0);
         final int retries = Integers.parseInt(agentRetries, 0);
         final int lockTimeoutRetryCount = Integers.parseInt(lockTimeoutRetries, DEFAULT_LOCK_TIMEOUT_RETRY_COUNT);
         final int delay = Integers.parseInt(maxDelay, DEFAULT_MAX_DELAY );
+        final int inFlight = Integers.parseInt(maxInFlight, 1);
 
         if (layout == null) {
             layout = RFC5424Layout.createLayout(null, null, null, "True", null, mdcPrefix, eventPrefix,
@@ -239,15 +251,21 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
                     LOGGER.debug("No agents provided, using defaults");
                     agents = new Agent[] {Agent.createAgent(null, null)};
                 }
-                manager = FlumeAvroManager.getManager(name, agents, batchCount, retries, connectTimeout, reqTimeout);
+                manager = FlumeAvroManager.getManager(name, agents, batchCount, retries, connectTimeout, reqTimeout,
+                    inFlight, batchCompression);
                 break;
             case PERSISTENT:
                 if (agents == null || agents.length == 0) {
                     LOGGER.debug("No agents provided, using defaults");
                     agents = new Agent[] {Agent.createAgent(null, null)};
                 }
-                manager = FlumePersistentManager.getManager(name, agents, properties, batchCount, retries,
-                    connectTimeout, reqTimeout, delay, lockTimeoutRetryCount, dataDir);
+                if (FlumeFileQueueManager.isSelected(properties)) {
+                    manager = FlumeFileQueueManager.getManager(name, agents, properties, batchCount, retries,
+                        connectTimeout, reqTimeout, delay, dataDir);
+                } else {
+                    manager = FlumePersistentManager.getManager(name, agents, properties, batchCount, retries,
+                        connectTimeout, reqTimeout, delay, lockTimeoutRetryCount, dataDir);
+                }
                 break;
             default:
                 LOGGER.debug("No manager type specified. Defaulting to AVRO");
@@ -255,7 +273,8 @@ public final class FlumeAppender extends AbstractAppender implements FlumeEventF
                     LOGGER.debug("No agents provided, using defaults");
                     agents = new Agent[] {Agent.createAgent(null, null)};
                 }
-                manager = FlumeAvroManager.getManager(name, agents, batchCount, retries, connectTimeout, reqTimeout);
+                manager = FlumeAvroManager.getManager(name, agents, batchCount, retries, connectTimeout, reqTimeout,
+                    inFlight, batchCompression);
         }
 
         if (manager == null) {
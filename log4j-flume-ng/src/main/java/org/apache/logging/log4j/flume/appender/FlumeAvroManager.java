@@ -16,7 +16,13 @@
  */
 package org.apache.logging.log4j.flume.appender;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.flume.Event;
 import org.apache.flume.api.RpcClient;
@@ -32,6 +38,11 @@ public class FlumeAvroManager extends AbstractFlumeManager {
     private static final int MAX_RECONNECTS = 3;
     private static final int MINIMUM_TIMEOUT = 1000;
 
+    /** The number of batches that may be waiting for each connection when sending asynchronously. */
+    private static final int QUEUED_BATCHES_PER_CONNECTION = 2;
+
+    private static final int SHUTDOWN_WAIT_MILLIS = 60000;
+
     private static AvroManagerFactory factory = new AvroManagerFactory();
 
     private final Agent[] agents;
@@ -46,6 +57,14 @@ public class FlumeAvroManager extends AbstractFlumeManager {
 
     private final int current = 0;
 
+    private final int maxInFlight;
+
+    private final boolean compressBatches;
+
+    private final BlockingQueue<Event> pending;
+
+    private final SenderThread[] senders;
+
     private RpcClient rpcClient = null;
 
     /**
@@ -60,13 +79,62 @@ public class FlumeAvroManager extends AbstractFlumeManager {
      */
     protected FlumeAvroManager(final String name, final String shortName, final Agent[] agents, final int batchSize,
                                final int retries, final int connectTimeout, final int requestTimeout) {
+        this(name, shortName, agents, batchSize, retries, connectTimeout, requestTimeout, 1);
+    }
+
+    /**
+     * Constructor
+     * @param name The unique name of this manager.
+     * @param agents An array of Agents.
+     * @param batchSize The number of events to include in a batch.
+     * @param retries The number of times to retry connecting before giving up.
+     * @param connectTimeout The connection timeout in ms.
+     * @param requestTimeout The request timeout in ms.
+     * @param maxInFlight The number of batches sent concurrently, each over its own connection. When greater than
+     *                    one events are queued and sent asynchronously.
+     */
+    protected FlumeAvroManager(final String name, final String shortName, final Agent[] agents, final int batchSize,
+                               final int retries, final int connectTimeout, final int requestTimeout,
+                               final int maxInFlight) {
+        this(name, shortName, agents, batchSize, retries, connectTimeout, requestTimeout, maxInFlight, false);
+    }
+
+    /**
+     * Constructor
+     * @param name The unique name of this manager.
+     * @param agents An array of Agents.
+     * @param batchSize The number of events to include in a batch.
+     * @param retries The number of times to retry connecting before giving up.
+     * @param connectTimeout The connection timeout in ms.
+     * @param requestTimeout The request timeout in ms.
+     * @param maxInFlight The number of batches sent concurrently, each over its own connection.
+     * @param compressBatches If true each batch is sent as a single event whose body is compressed once. Events are
+     *                        then queued and sent asynchronously whatever the value of maxInFlight.
+     */
+    protected FlumeAvroManager(final String name, final String shortName, final Agent[] agents, final int batchSize,
+                               final int retries, final int connectTimeout, final int requestTimeout,
+                               final int maxInFlight, final boolean compressBatches) {
         super(name);
         this.agents = agents;
         this.batchSize = batchSize;
         this.retries = retries;
         this.connectTimeout = connectTimeout;
         this.requestTimeout = requestTimeout;
-        this.rpcClient = connect(agents, retries, connectTimeout, requestTimeout);
+        this.maxInFlight = Math.max(maxInFlight, 1);
+        this.compressBatches = compressBatches;
+        if (this.maxInFlight > 1 || compressBatches) {
+            this.pending = new ArrayBlockingQueue<Event>(batchSize * this.maxInFlight * QUEUED_BATCHES_PER_CONNECTION);
+            this.senders = new SenderThread[this.maxInFlight];
+            for (int i = 0; i < senders.length; ++i) {
+                // Each connection prefers a different agent and fails over to the others.
+                senders[i] = new SenderThread(this, rotate(agents, i), name + "-Sender-" + (i + 1));
+                senders[i].start();
+            }
+        } else {
+            this.pending = null;
+            this.senders = null;
+            this.rpcClient = connect(agents, retries, connectTimeout, requestTimeout);
+        }
     }
 
     /**
@@ -100,7 +168,75 @@ public class FlumeAvroManager extends AbstractFlumeManager {
         }
         sb.append("]");
         return getManager(sb.toString(), factory,
-                new FactoryData(name, agents, batchSize, retries, connectTimeout, requestTimeout));
+                new FactoryData(name, agents, batchSize, retries, connectTimeout, requestTimeout, 1, false));
+    }
+
+    /**
+     * Returns a FlumeAvroManager that may send several batches at the same time.
+     * @param name The name of the manager.
+     * @param agents The agents to use.
+     * @param batchSize The number of events to include in a batch.
+     * @param retries The number of times to retry connecting before giving up.
+     * @param connectTimeout The connection timeout in ms.
+     * @param requestTimeout The request timeout in ms.
+     * @param maxInFlight The number of batches sent concurrently, each over its own connection.
+     * @return A FlumeAvroManager.
+     */
+    public static FlumeAvroManager getManager(final String name, final Agent[] agents, final int batchSize,
+                                              final int retries, final int connectTimeout, final int requestTimeout,
+                                              final int maxInFlight) {
+        return getManager(name, agents, batchSize, retries, connectTimeout, requestTimeout, maxInFlight, false);
+    }
+
+    /**
+     * Returns a FlumeAvroManager that may send several batches at the same time.
+     * @param name The name of the manager.
+     * @param agents The agents to use.
+     * @param batchSize The number of events to include in a batch.
+     * @param retries The number of times to retry connecting before giving up.
+     * @param connectTimeout The connection timeout in ms.
+     * @param requestTimeout The request timeout in ms.
+     * @param maxInFlight The number of batches sent concurrently, each over its own connection.
+     * @param compressBatches If true each batch is sent as a single event whose body is compressed once.
+     * @return A FlumeAvroManager.
+     */
+    public static FlumeAvroManager getManager(final String name, final Agent[] agents, int batchSize,
+                                              final int retries, final int connectTimeout, final int requestTimeout,
+                                              final int maxInFlight, final boolean compressBatches) {
+        if (maxInFlight <= 1 && !compressBatches) {
+            return getManager(name, agents, batchSize, retries, connectTimeout, requestTimeout);
+        }
+        if (agents == null || agents.length == 0) {
+            throw new IllegalArgumentException("At least one agent is required");
+        }
+
+        if (batchSize <= 0) {
+            batchSize = 1;
+        }
+
+        final StringBuilder sb = new StringBuilder("FlumeAvro[");
+        boolean first = true;
+        for (final Agent agent : agents) {
+            if (!first) {
+                sb.append(",");
+            }
+            sb.append(agent.getHost()).append(":").append(agent.getPort());
+            first = false;
+        }
+        sb.append("] x").append(maxInFlight);
+        if (compressBatches) {
+            sb.append(" compressed");
+        }
+        return getManager(sb.toString(), factory, new FactoryData(name, agents, batchSize, retries, connectTimeout,
+            requestTimeout, maxInFlight, compressBatches));
+    }
+
+    private static Agent[] rotate(final Agent[] agents, final int distance) {
+        final Agent[] rotated = new Agent[agents.length];
+        for (int i = 0; i < agents.length; ++i) {
+            rotated[i] = agents[(i + distance) % agents.length];
+        }
+        return rotated;
     }
 
     /**
@@ -135,7 +271,68 @@ public class FlumeAvroManager extends AbstractFlumeManager {
         return batchSize;
     }
 
-    public synchronized void send(final BatchEvent events) {
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public boolean isCompressBatches() {
+        return compressBatches;
+    }
+
+    public void send(final BatchEvent events) {
+        if (pending != null) {
+            for (final Event event : events.getEvents()) {
+                enqueue(event);
+            }
+        } else {
+            sendBatch(events);
+        }
+    }
+
+    @Override
+    public void send(final Event event) {
+        if (pending != null) {
+            enqueue(event);
+        } else {
+            sendEvent(event);
+        }
+    }
+
+    /**
+     * Queues an event for the sender threads, waiting for space when all connections are busy so the memory used
+     * by queued events stays bounded. The wait ends with an exception if no sender is left to make space.
+     */
+    private void enqueue(final Event event) {
+        if (!isSending()) {
+            throw new AppenderLoggingException("Unable to record event, " + getName() + " is shut down");
+        }
+        // The headers are built now as the Message may be changed once the call returns.
+        event.getHeaders();
+        try {
+            while (!pending.offer(event, SenderThread.POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!isSending()) {
+                    throw new AppenderLoggingException("Unable to record event, " + getName() + " is shut down");
+                }
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new AppenderLoggingException("Interrupted while queuing event for " + getName());
+        }
+    }
+
+    /**
+     * Returns true while at least one sender thread is running and accepting events.
+     */
+    private boolean isSending() {
+        for (final SenderThread sender : senders) {
+            if (sender.isAlive() && !sender.isShutdown()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void sendBatch(final BatchEvent events) {
         if (rpcClient == null) {
             rpcClient = connect(agents, retries, connectTimeout, requestTimeout);
         }
@@ -160,8 +357,7 @@ public class FlumeAvroManager extends AbstractFlumeManager {
         }
     }
 
-    @Override
-    public synchronized void send(final Event event)  {
+    private synchronized void sendEvent(final Event event)  {
         if (rpcClient == null) {
             rpcClient = connect(agents, retries, connectTimeout, requestTimeout);
         }
@@ -232,6 +428,22 @@ public class FlumeAvroManager extends AbstractFlumeManager {
 
     @Override
     protected void releaseSub() {
+        if (senders != null) {
+            for (final SenderThread sender : senders) {
+                sender.shutdown();
+            }
+            final long end = System.currentTimeMillis() + SHUTDOWN_WAIT_MILLIS;
+            for (final SenderThread sender : senders) {
+                try {
+                    sender.join(Math.max(end - System.currentTimeMillis(), 1));
+                } catch (final InterruptedException ie) {
+                    LOGGER.debug("Interrupted while waiting for sender to complete");
+                }
+            }
+            if (!pending.isEmpty()) {
+                LOGGER.warn("{} events were not sent to {}", pending.size(), getName());
+            }
+        }
         if (rpcClient != null) {
             try {
                 rpcClient.close();
@@ -252,6 +464,8 @@ public class FlumeAvroManager extends AbstractFlumeManager {
         private final int retries;
         private final int conntectTimeout;
         private final int requestTimeout;
+        private final int maxInFlight;
+        private final boolean compressBatches;
 
         /**
          * Constructor.
@@ -260,13 +474,16 @@ public class FlumeAvroManager extends AbstractFlumeManager {
          * @param batchSize The number of events to include in a batch.
          */
         public FactoryData(final String name, final Agent[] agents, final int batchSize, final int retries,
-                           final int connectTimeout, final int requestTimeout) {
+                           final int connectTimeout, final int requestTimeout, final int maxInFlight,
+                           final boolean compressBatches) {
             this.name = name;
             this.agents = agents;
             this.batchSize = batchSize;
             this.retries = retries;
             this.conntectTimeout = connectTimeout;
             this.requestTimeout = requestTimeout;
+            this.maxInFlight = maxInFlight;
+            this.compressBatches = compressBatches;
         }
     }
 
@@ -286,7 +503,8 @@ public class FlumeAvroManager extends AbstractFlumeManager {
             try {
 
                 return new FlumeAvroManager(name, data.name, data.agents, data.batchSize, data.retries,
-                    data.conntectTimeout, data.requestTimeout);
+                    data.conntectTimeout, data.requestTimeout, data.maxInFlight,
+                    data.compressBatches);
             } catch (final Exception ex) {
                 LOGGER.error("Could not create FlumeAvroManager", ex);
             }
@@ -294,4 +512,123 @@ public class FlumeAvroManager extends AbstractFlumeManager {
         }
     }
 
+    /**
+     * Thread that sends batches of queued events over its own connection.
+     */
+    private static class SenderThread extends Thread {
+        private static final int POLL_MILLIS = 100;
+        private static final int SEND_ATTEMPTS = 2;
+        private static final int RECONNECT_DELAY_MILLIS = 1000;
+        private volatile boolean shutdown = false;
+        private final FlumeAvroManager manager;
+        private final Agent[] agents;
+        private RpcClient client;
+
+        public SenderThread(final FlumeAvroManager manager, final Agent[] agents, final String name) {
+            super(name);
+            this.manager = manager;
+            this.agents = agents;
+            this.setDaemon(true);
+        }
+
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public void run() {
+            final List<Event> batch = new ArrayList<Event>(manager.batchSize);
+            // Events queued before the shutdown are still sent.
+            while (true) {
+                final Event event;
+                try {
+                    event = manager.pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException ie) {
+                    LOGGER.warn("SenderThread interrupted, continuing");
+                    continue;
+                }
+                if (event == null) {
+                    if (shutdown) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(event);
+                manager.pending.drainTo(batch, manager.batchSize - 1);
+                try {
+                    send(batch);
+                } catch (final RuntimeException ex) {
+                    // The thread must survive, logging threads wait for it to make space in the queue.
+                    LOGGER.error("Unable to write " + batch.size() + " events to " + manager.getName() +
+                        ", the events were discarded", ex);
+                    closeClient();
+                } finally {
+                    batch.clear();
+                }
+            }
+            closeClient();
+        }
+
+        private void closeClient() {
+            if (client != null) {
+                try {
+                    client.close();
+                } catch (final Exception ex) {
+                    LOGGER.error("Attempt to close RPC client failed", ex);
+                }
+                client = null;
+            }
+        }
+
+        /**
+         * Waits before connecting again so an unreachable agent is not retried in a tight loop.
+         */
+        private void pause() {
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (final InterruptedException ie) {
+                LOGGER.warn("SenderThread interrupted, continuing");
+            }
+        }
+
+        private void send(final List<Event> batch) {
+            List<Event> events = batch;
+            if (manager.compressBatches) {
+                try {
+                    // Sent with appendBatch so the interceptor of the source can restore the events.
+                    events = Collections.singletonList(CompressedBatch.encode(batch));
+                } catch (final Exception ex) {
+                    LOGGER.error("Unable to compress " + batch.size() + " events, the events were discarded", ex);
+                    return;
+                }
+            }
+            Exception failure = null;
+            for (int attempt = 0; attempt < SEND_ATTEMPTS; ++attempt) {
+                if (attempt > 0 && client == null) {
+                    pause();
+                }
+                if (client == null) {
+                    client = manager.connect(agents, manager.retries, manager.connectTimeout, manager.requestTimeout);
+                    if (client == null) {
+                        continue;
+                    }
+                }
+                try {
+                    LOGGER.trace("Sending batch of {} events", batch.size());
+                    client.appendBatch(events);
+                    return;
+                } catch (final Exception ex) {
+                    failure = ex;
+                    closeClient();
+                }
+            }
+            final String msg = "Unable to write " + batch.size() + " events to " + manager.getName() + " at " +
+                agents[0].getHost() + ":" + agents[0].getPort() + ", the events were discarded";
+            LOGGER.error(msg, failure);
+        }
+    }
 }
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.zip.GZIPOutputStream;
 
 import org.apache.flume.event.SimpleEvent;
@@ -37,7 +39,8 @@ import org.apache.logging.log4j.message.StructuredDataId;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 
 /**
- * Class that is both a Flume and Log4j Event.
+ * Class that is both a Flume and Log4j Event. The headers and the context Map are only built from the Log4j Event
+ * when they are first requested.
  */
 public class FlumeEvent extends SimpleEvent implements LogEvent {
 
@@ -57,9 +60,27 @@ public class FlumeEvent extends SimpleEvent implements LogEvent {
 
     private static final String TIMESTAMP = "timeStamp";
 
+    /** The maximum number of prefixed keys kept for each prefix. */
+    private static final int MAX_INTERNED_KEYS = 1024;
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, String>> PREFIXED_KEYS =
+        new ConcurrentHashMap<String, ConcurrentMap<String, String>>();
+
     private final LogEvent event;
 
-    private final Map<String, String> ctx = new HashMap<String, String>();
+    private final String includes;
+
+    private final String excludes;
+
+    private final String mdcPrefix;
+
+    private final String eventPrefix;
+
+    private final String guid;
+
+    private Map<String, String> ctx;
+
+    private Map<String, String> headers;
 
     private final boolean compress;
 
@@ -74,25 +95,81 @@ public class FlumeEvent extends SimpleEvent implements LogEvent {
      * @param compress If true the event body should be compressed.
      */
     public FlumeEvent(final LogEvent event, final String includes, final String excludes, final String required,
-                      String mdcPrefix, String eventPrefix, final boolean compress) {
+                      final String mdcPrefix, final String eventPrefix, final boolean compress) {
         this.event = event;
         this.compress = compress;
-        final Map<String, String> headers = getHeaders();
-        headers.put(TIMESTAMP, Long.toString(event.getMillis()));
-        if (mdcPrefix == null) {
-            mdcPrefix = DEFAULT_MDC_PREFIX;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.mdcPrefix = mdcPrefix == null ? DEFAULT_MDC_PREFIX : mdcPrefix;
+        this.eventPrefix = eventPrefix == null ? DEFAULT_EVENT_PREFIX : eventPrefix;
+        // SimpleEvent creates an empty Map, the headers are built when first requested.
+        this.headers = null;
+        if (required != null) {
+            final Map<String, String> mdc = event.getContextMap();
+            final String[] array = required.split(",");
+            if (array.length > 0) {
+                for (String str : array) {
+                    str = str.trim();
+                    if (!mdc.containsKey(str)) {
+                        throw new LoggingException("Required key " + str + " is missing from the MDC");
+                    }
+                }
+            }
+        }
+        this.guid = UUIDUtil.getTimeBasedUUID().toString();
+        final Message message = event.getMessage();
+        if (message instanceof MapMessage) {
+            // Add the guid to the Map so that it can be included in the Layout.
+            ((MapMessage) message).put(GUID, guid);
+        }
+    }
+
+    /**
+     * Returns the headers, building them from the Log4j Event the first time they are requested.
+     * @return The headers.
+     */
+    @Override
+    public Map<String, String> getHeaders() {
+        if (headers == null) {
+            headers = createHeaders();
+        }
+        return headers;
+    }
+
+    @Override
+    public void setHeaders(final Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    private Map<String, String> createHeaders() {
+        final Map<String, String> fields = new HashMap<String, String>();
+        fields.put(TIMESTAMP, Long.toString(event.getMillis()));
+        final Message message = event.getMessage();
+        if (message instanceof MapMessage) {
+            if (message instanceof StructuredDataMessage) {
+                addStructuredData(eventPrefix, fields, (StructuredDataMessage) message);
+            }
+            addMapData(eventPrefix, fields, (MapMessage) message);
+        } else {
+            fields.put(GUID, guid);
         }
-        if (eventPrefix == null) {
-            eventPrefix = DEFAULT_EVENT_PREFIX;
+        final Map<String, String> context = getContextMap();
+        for (final Map.Entry<String, String> entry : context.entrySet()) {
+            fields.put(entry.getKey(), entry.getValue());
         }
+        return fields;
+    }
+
+    private Map<String, String> createContextMap() {
         final Map<String, String> mdc = event.getContextMap();
+        final Map<String, String> context = new HashMap<String, String>();
         if (includes != null) {
             final String[] array = includes.split(",");
             if (array.length > 0) {
                 for (String str : array) {
                     str = str.trim();
                     if (mdc.containsKey(str)) {
-                        ctx.put(str, mdc.get(str));
+                        context.put(str, mdc.get(str));
                     }
                 }
             }
@@ -105,62 +182,68 @@ public class FlumeEvent extends SimpleEvent implements LogEvent {
                 }
                 for (final Map.Entry<String, String> entry : mdc.entrySet()) {
                     if (!list.contains(entry.getKey())) {
-                        ctx.put(entry.getKey(), entry.getValue());
+                        context.put(entry.getKey(), entry.getValue());
                     }
                 }
             }
         } else {
-            ctx.putAll(mdc);
+            context.putAll(mdc);
         }
+        addContextData(mdcPrefix, new HashMap<String, String>(), context);
+        return context;
+    }
 
-        if (required != null) {
-            final String[] array = required.split(",");
-            if (array.length > 0) {
-                for (String str : array) {
-                    str = str.trim();
-                    if (!mdc.containsKey(str)) {
-                        throw new LoggingException("Required key " + str + " is missing from the MDC");
-                    }
-                }
+    /**
+     * Returns the key with the prefix prepended. The prefixed keys are shared between events.
+     * @param prefix The prefix.
+     * @param key The key.
+     * @return The prefixed key.
+     */
+    protected static String prefix(final String prefix, final String key) {
+        if (prefix.length() == 0) {
+            return key;
+        }
+        ConcurrentMap<String, String> keys = PREFIXED_KEYS.get(prefix);
+        if (keys == null) {
+            final ConcurrentMap<String, String> map = new ConcurrentHashMap<String, String>();
+            keys = PREFIXED_KEYS.putIfAbsent(prefix, map);
+            if (keys == null) {
+                keys = map;
             }
         }
-        final String guid =  UUIDUtil.getTimeBasedUUID().toString();
-        final Message message = event.getMessage();
-        if (message instanceof MapMessage) {
-            // Add the guid to the Map so that it can be included in the Layout.
-            ((MapMessage) message).put(GUID, guid);
-            if (message instanceof StructuredDataMessage) {
-                addStructuredData(eventPrefix, headers, (StructuredDataMessage) message);
+        String prefixed = keys.get(key);
+        if (prefixed == null) {
+            prefixed = prefix + key;
+            // Keys that vary without bound, such as generated ids, are not kept.
+            if (keys.size() < MAX_INTERNED_KEYS) {
+                keys.putIfAbsent(key, prefixed);
             }
-            addMapData(eventPrefix, headers, (MapMessage) message);
-        } else {
-            headers.put(GUID, guid);
         }
-
-        addContextData(mdcPrefix, headers, ctx);
+        return prefixed;
     }
 
     protected void addStructuredData(final String prefix, final Map<String, String> fields,
                                      final StructuredDataMessage msg) {
-        fields.put(prefix + EVENT_TYPE, msg.getType());
+        fields.put(prefix(prefix, EVENT_TYPE), msg.getType());
         final StructuredDataId id = msg.getId();
-        fields.put(prefix + EVENT_ID, id.getName());
+        fields.put(prefix(prefix, EVENT_ID), id.getName());
     }
 
     protected void addMapData(final String prefix, final Map<String, String> fields, final MapMessage msg) {
         final Map<String, String> data = msg.getData();
         for (final Map.Entry<String, String> entry : data.entrySet()) {
-            fields.put(prefix + entry.getKey(), entry.getValue());
+            fields.put(prefix(prefix, entry.getKey()), entry.getValue());
         }
     }
 
     protected void addContextData(final String prefix, final Map<String, String> fields,
                                   final Map<String, String> context) {
-        Map<String, String> map = new HashMap<String, String>();
+        final Map<String, String> map = new HashMap<String, String>(context.size() * 2);
         for (final Map.Entry<String, String> entry : context.entrySet()) {
             if (entry.getKey() != null && entry.getValue() != null) {
-                fields.put(prefix + entry.getKey(), entry.getValue());
-                map.put(prefix + entry.getKey(), entry.getValue());
+                final String key = prefix(prefix, entry.getKey());
+                fields.put(key, entry.getValue());
+                map.put(key, entry.getValue());
             }
         }
         context.clear();
@@ -279,6 +362,9 @@ public class FlumeEvent extends SimpleEvent implements LogEvent {
      */
     @Override
     public Map<String, String> getContextMap() {
+        if (ctx == null) {
+            ctx = createContextMap();
+        }
         return ctx;
     }
 
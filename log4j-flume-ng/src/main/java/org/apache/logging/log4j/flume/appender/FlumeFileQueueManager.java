@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+import org.apache.flume.Event;
+import org.apache.flume.event.SimpleEvent;
+import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.helpers.Integers;
+import org.apache.logging.log4j.core.helpers.Strings;
+
+/**
+ * Manager that persists data to a {@link FileQueue} before passing it on to Flume. Events are removed from the
+ * queue once the agent has accepted the batch they were sent in.
+ */
+public class FlumeFileQueueManager extends FlumeAvroManager {
+
+    /** Attribute name for the persistence store. */
+    public static final String STORE = "store";
+
+    /** The value of the store attribute that selects the FileQueue. */
+    public static final String FILE_STORE = "File";
+
+    /** Attribute name for the size of the segment files. */
+    public static final String SEGMENT_SIZE = "segmentSize";
+
+    private static final String DEFAULT_DATA_DIR = ".log4j/flumeData";
+
+    private static final int SHUTDOWN_WAIT = 60;
+
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    /** The longest the sender waits before checking whether it was shut down. */
+    private static final int MAX_WAIT_MILLIS = 1000;
+
+    private static FileQueueManagerFactory factory = new FileQueueManagerFactory();
+
+    private final FileQueue queue;
+
+    private final SecretKey secretKey;
+
+    private final int delay;
+
+    private final SenderThread worker;
+
+    private final Object writeLock = new Object();
+
+    private Cipher cipher;
+
+    /**
+     * Constructor
+     * @param name The unique name of this manager.
+     * @param shortName Original name for the Manager.
+     * @param agents An array of Agents.
+     * @param batchSize The number of events to include in a batch.
+     * @param retries The number of times to retry connecting before giving up.
+     * @param connectionTimeout The amount of time to wait for a connection to be established.
+     * @param requestTimeout The amount of time to wait for a response to a request.
+     * @param delay The amount of time to wait between retries.
+     * @param queue The queue to write to.
+     * @param secretKey The SecretKey to use for encryption.
+     */
+    protected FlumeFileQueueManager(final String name, final String shortName, final Agent[] agents,
+                                    final int batchSize, final int retries, final int connectionTimeout,
+                                    final int requestTimeout, final int delay, final FileQueue queue,
+                                    final SecretKey secretKey) {
+        super(name, shortName, agents, batchSize, retries, connectionTimeout, requestTimeout);
+        this.delay = delay;
+        this.queue = queue;
+        this.secretKey = secretKey;
+        this.worker = new SenderThread(this, queue, batchSize, secretKey);
+        this.worker.start();
+    }
+
+    /**
+     * Returns true if the properties select the FileQueue as the store of a persistent Flume Appender.
+     * @param properties The properties of the Appender.
+     * @return true if the FlumeFileQueueManager should be used.
+     */
+    public static boolean isSelected(final Property[] properties) {
+        final String store = FlumePersistentManager.getProperty(FlumePersistentManager.toMap(properties), STORE);
+        return FILE_STORE.equalsIgnoreCase(store);
+    }
+
+    /**
+     * Returns a FlumeFileQueueManager.
+     * @param name The name of the manager.
+     * @param agents The agents to use.
+     * @param properties Properties to pass to the Manager.
+     * @param batchSize The number of events to include in a batch.
+     * @param retries The number of times to retry connecting before giving up.
+     * @param connectionTimeout The amount of time to wait to establish a connection.
+     * @param requestTimeout The amount of time to wait for a response to a request.
+     * @param delay Amount of time to delay before delivering a batch.
+     * @param dataDir The directory of the queue.
+     * @return A FlumeFileQueueManager.
+     */
+    public static FlumeFileQueueManager getManager(final String name, final Agent[] agents,
+                                                   final Property[] properties, int batchSize, final int retries,
+                                                   final int connectionTimeout, final int requestTimeout,
+                                                   final int delay, final String dataDir) {
+        if (agents == null || agents.length == 0) {
+            throw new IllegalArgumentException("At least one agent is required");
+        }
+
+        if (batchSize <= 0) {
+            batchSize = 1;
+        }
+        final String dataDirectory = Strings.isEmpty(dataDir) ? DEFAULT_DATA_DIR : dataDir;
+
+        final StringBuilder sb = new StringBuilder("FlumeFileQueue[");
+        boolean first = true;
+        for (final Agent agent : agents) {
+            if (!first) {
+                sb.append(",");
+            }
+            sb.append(agent.getHost()).append(":").append(agent.getPort());
+            first = false;
+        }
+        sb.append("]");
+        sb.append(" ").append(dataDirectory);
+        return getManager(sb.toString(), factory, new FactoryData(name, agents, batchSize, retries,
+            connectionTimeout, requestTimeout, delay, dataDirectory, properties));
+    }
+
+    @Override
+    public void send(final Event event)  {
+        if (worker.isShutdown()) {
+            throw new LoggingException("Unable to record event");
+        }
+        try {
+            final byte[] eventData = FlumePersistentManager.serialize(event);
+            synchronized (writeLock) {
+                queue.append(encrypt(eventData));
+            }
+        } catch (final Exception ex) {
+            throw new LoggingException("Exception occurred writing log event", ex);
+        }
+    }
+
+    private byte[] encrypt(final byte[] eventData) throws Exception {
+        if (secretKey == null) {
+            return eventData;
+        }
+        try {
+            if (cipher == null) {
+                cipher = Cipher.getInstance("AES");
+                cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+            }
+            return cipher.doFinal(eventData);
+        } catch (final Exception ex) {
+            cipher = null;
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void releaseSub() {
+        LOGGER.debug("Shutting down FlumeFileQueueManager");
+        worker.shutdown();
+        try {
+            worker.join(SHUTDOWN_WAIT * MILLIS_PER_SECOND);
+        } catch (final InterruptedException ie) {
+            LOGGER.debug("Interrupted while waiting for worker to complete");
+        }
+        synchronized (writeLock) {
+            queue.close();
+        }
+        super.releaseSub();
+    }
+
+    private void doSend(final BatchEvent batch) {
+        super.send(batch);
+    }
+
+    /**
+     * Factory data.
+     */
+    private static class FactoryData {
+        private final String name;
+        private final Agent[] agents;
+        private final int batchSize;
+        private final String dataDir;
+        private final int retries;
+        private final int connectionTimeout;
+        private final int requestTimeout;
+        private final int delay;
+        private final Property[] properties;
+
+        /**
+         * Constructor.
+         * @param name The name of the Appender.
+         * @param agents The agents.
+         * @param batchSize The number of events to include in a batch.
+         * @param dataDir The directory for data.
+         */
+        public FactoryData(final String name, final Agent[] agents, final int batchSize, final int retries,
+                           final int connectionTimeout, final int requestTimeout, final int delay,
+                           final String dataDir, final Property[] properties) {
+            this.name = name;
+            this.agents = agents;
+            this.batchSize = batchSize;
+            this.dataDir = dataDir;
+            this.retries = retries;
+            this.connectionTimeout = connectionTimeout;
+            this.requestTimeout = requestTimeout;
+            this.delay = delay;
+            this.properties = properties;
+        }
+    }
+
+    /**
+     * FileQueue Manager Factory.
+     */
+    private static class FileQueueManagerFactory
+        implements ManagerFactory<FlumeFileQueueManager, FactoryData> {
+
+        /**
+         * Create the FlumeFileQueueManager.
+         * @param name The name of the entity to manage.
+         * @param data The data required to create the entity.
+         * @return The FlumeFileQueueManager.
+         */
+        @Override
+        public FlumeFileQueueManager createManager(final String name, final FactoryData data) {
+            final Map<String, String> properties = FlumePersistentManager.toMap(data.properties);
+            final int segmentSize = Integers.parseInt(FlumePersistentManager.getProperty(properties, SEGMENT_SIZE),
+                FileQueue.DEFAULT_SEGMENT_SIZE);
+            FileQueue queue;
+            try {
+                // Each Appender has its own queue as the segments are not shared.
+                queue = FileQueue.open(new File(data.dataDir, data.name), segmentSize);
+            } catch (final Exception ex) {
+                LOGGER.error("Could not create FlumeFileQueueManager", ex);
+                return null;
+            }
+            final SecretKey secretKey = FlumePersistentManager.getSecretKey(properties);
+            try {
+                return new FlumeFileQueueManager(name, data.name, data.agents, data.batchSize, data.retries,
+                    data.connectionTimeout, data.requestTimeout, data.delay, queue, secretKey);
+            } catch (final Exception ex) {
+                LOGGER.error("Could not create FlumeFileQueueManager", ex);
+                queue.close();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Thread that sends the events in the queue to Flume and acknowledges them once they were accepted.
+     */
+    private static class SenderThread extends Thread {
+        private volatile boolean shutdown = false;
+        private final FlumeFileQueueManager manager;
+        private final FileQueue queue;
+        private final int batchSize;
+        private final SecretKey secretKey;
+        private Cipher cipher;
+
+        public SenderThread(final FlumeFileQueueManager manager, final FileQueue queue, final int batchSize,
+                            final SecretKey secretKey) {
+            this.manager = manager;
+            this.queue = queue;
+            this.batchSize = batchSize;
+            this.secretKey = secretKey;
+            this.setDaemon(true);
+        }
+
+        public void shutdown() {
+            LOGGER.debug("Sender thread shutting down");
+            this.shutdown = true;
+        }
+
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public void run() {
+            LOGGER.trace("SenderThread started - batch size = " + batchSize + ", delay = " + manager.delay);
+            long nextBatch = System.currentTimeMillis() + manager.delay;
+            while (!shutdown) {
+                try {
+                    final long wait = Math.max(nextBatch - System.currentTimeMillis(), 1);
+                    final long count = queue.await(batchSize, Math.min(wait, MAX_WAIT_MILLIS));
+                    if (count >= batchSize || (count > 0 && System.currentTimeMillis() >= nextBatch)) {
+                        if (!sendBatch()) {
+                            Thread.sleep(manager.delay);
+                        }
+                        nextBatch = System.currentTimeMillis() + manager.delay;
+                    } else if (count == 0 && System.currentTimeMillis() >= nextBatch) {
+                        nextBatch = System.currentTimeMillis() + manager.delay;
+                    }
+                } catch (final InterruptedException ie) {
+                    LOGGER.warn("SenderThread interrupted, continuing");
+                } catch (final Exception ex) {
+                    // The events stay in the queue, so keep the thread alive and try the batch again later.
+                    LOGGER.error("SenderThread encountered an exception, retrying", ex);
+                    pause();
+                    nextBatch = System.currentTimeMillis() + manager.delay;
+                }
+            }
+            // Events that cannot be sent now remain in the queue for the next start.
+            try {
+                while (queue.size() > 0 && sendBatch()) {
+                    // Keep sending
+                }
+            } catch (final Exception ex) {
+                LOGGER.warn("Unable to write final batch");
+            }
+            LOGGER.trace("SenderThread exiting");
+        }
+
+        private void pause() {
+            try {
+                Thread.sleep(Math.max(manager.delay, MAX_WAIT_MILLIS));
+            } catch (final InterruptedException ie) {
+                LOGGER.warn("SenderThread interrupted, continuing");
+            }
+        }
+
+        /**
+         * Sends the oldest events in the queue as one batch.
+         * @return true if the batch was accepted.
+         */
+        private boolean sendBatch() {
+            final List<byte[]> records = queue.peek(batchSize);
+            if (records.isEmpty()) {
+                return true;
+            }
+            final BatchEvent batch = new BatchEvent();
+            for (final byte[] record : records) {
+                final SimpleEvent event = createEvent(record);
+                if (event != null) {
+                    batch.addEvent(event);
+                }
+            }
+            if (!batch.getEvents().isEmpty()) {
+                try {
+                    manager.doSend(batch);
+                } catch (final Exception ex) {
+                    LOGGER.error("Error sending events", ex);
+                    return false;
+                }
+            }
+            queue.acknowledge(records.size());
+            return true;
+        }
+
+        private SimpleEvent createEvent(final byte[] record) {
+            try {
+                byte[] eventData = record;
+                if (secretKey != null) {
+                    if (cipher == null) {
+                        cipher = Cipher.getInstance("AES");
+                        cipher.init(Cipher.DECRYPT_MODE, secretKey);
+                    }
+                    eventData = cipher.doFinal(eventData);
+                }
+                return FlumePersistentManager.deserialize(eventData);
+            } catch (final Exception ex) {
+                cipher = null;
+                LOGGER.error("Error retrieving event", ex);
+                return null;
+            }
+        }
+    }
+}
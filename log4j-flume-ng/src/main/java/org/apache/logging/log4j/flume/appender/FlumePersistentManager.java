@@ -21,8 +21,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
@@ -32,6 +35,9 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 
@@ -43,6 +49,7 @@ import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.PluginManager;
 import org.apache.logging.log4j.core.config.plugins.PluginType;
+import org.apache.logging.log4j.core.helpers.Booleans;
 import org.apache.logging.log4j.core.helpers.FileUtils;
 import org.apache.logging.log4j.core.helpers.SecretKeyProvider;
 import org.apache.logging.log4j.core.helpers.Strings;
@@ -67,6 +74,9 @@ public class FlumePersistentManager extends FlumeAvroManager {
     /** Attribute name for the key provider. */
     public static final String KEY_PROVIDER = "keyProvider";
 
+    /** Attribute name for enabling group commit. */
+    public static final String GROUP_COMMIT = "groupCommit";
+
     private static final Charset UTF8 = Charset.forName("UTF-8");
 
     private static final String SHUTDOWN = "Shutdown";
@@ -79,6 +89,8 @@ public class FlumePersistentManager extends FlumeAvroManager {
 
     private static final int LOCK_TIMEOUT_SLEEP_MILLIS = 500;
 
+    private static final int EXPECTED_HEADER_SIZE = 256;
+
     private static BDBManagerFactory factory = new BDBManagerFactory();
 
     private final Database database;
@@ -87,6 +99,8 @@ public class FlumePersistentManager extends FlumeAvroManager {
 
     private final WriterThread worker;
 
+    private final GroupCommitThread committer;
+
     private final Gate gate = new Gate();
 
     private final SecretKey secretKey;
@@ -113,12 +127,13 @@ public class FlumePersistentManager extends FlumeAvroManager {
      * @param environment The database environment.
      * @param secretKey The SecretKey to use for encryption.
      * @param lockTimeoutRetryCount The number of times to retry a lock timeout.
+     * @param groupCommit If true the events of concurrent callers are written in a single transaction.
      */
     protected FlumePersistentManager(final String name, final String shortName, final Agent[] agents,
                                      final int batchSize, final int retries, final int connectionTimeout,
                                      final int requestTimeout, final int delay, final Database database,
                                      final Environment environment, final SecretKey secretKey,
-                                     final int lockTimeoutRetryCount) {
+                                     final int lockTimeoutRetryCount, final boolean groupCommit) {
         super(name, shortName, agents, batchSize, retries, connectionTimeout, requestTimeout);
         this.delay = delay;
         this.database = database;
@@ -127,6 +142,13 @@ public class FlumePersistentManager extends FlumeAvroManager {
         this.worker = new WriterThread(database, environment, this, gate, batchSize, secretKey, dbCount,
             lockTimeoutRetryCount);
         this.worker.start();
+        if (groupCommit) {
+            this.committer = new GroupCommitThread(database, environment, gate, batchSize, secretKey, dbCount,
+                lockTimeoutRetryCount);
+            this.committer.start();
+        } else {
+            this.committer = null;
+        }
         this.secretKey = secretKey;
         this.threadPool = Executors.newCachedThreadPool(new DaemonThreadFactory());
         this.lockTimeoutRetryCount = lockTimeoutRetryCount;
@@ -181,19 +203,13 @@ public class FlumePersistentManager extends FlumeAvroManager {
             throw new LoggingException("Unable to record event");
         }
 
-        final Map<String, String> headers = event.getHeaders();
-        final byte[] keyData = headers.get(FlumeEvent.GUID).getBytes(UTF8);
+        final byte[] keyData = event.getHeaders().get(FlumeEvent.GUID).getBytes(UTF8);
         try {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            final DataOutputStream daos = new DataOutputStream(baos);
-            daos.writeInt(event.getBody().length);
-            daos.write(event.getBody(), 0, event.getBody().length);
-            daos.writeInt(event.getHeaders().size());
-            for (final Map.Entry<String, String> entry : headers.entrySet()) {
-                daos.writeUTF(entry.getKey());
-                daos.writeUTF(entry.getValue());
+            byte[] eventData = serialize(event);
+            if (committer != null) {
+                committer.commit(keyData, eventData);
+                return;
             }
-            byte[] eventData = baos.toByteArray();
             if (secretKey != null) {
                 final Cipher cipher = Cipher.getInstance("AES");
                 cipher.init(Cipher.ENCRYPT_MODE, secretKey);
@@ -212,14 +228,143 @@ public class FlumePersistentManager extends FlumeAvroManager {
                 }
             } while (interrupted && count <= 1);
 
+        } catch (final LoggingException ex) {
+            throw ex;
         } catch (final Exception ex) {
             throw new LoggingException("Exception occurred writing log event", ex);
         }
     }
 
+    /**
+     * Returns the configured properties as a Map.
+     * @param properties The properties, may be null.
+     * @return The Map of property names to values.
+     */
+    static Map<String, String> toMap(final Property[] properties) {
+        final Map<String, String> map = new HashMap<String, String>();
+        if (properties != null) {
+            for (final Property property : properties) {
+                map.put(property.getName(), property.getValue());
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns the value of a property ignoring the case of its name.
+     * @param properties The properties.
+     * @param name The name of the property.
+     * @return The value or null.
+     */
+    static String getProperty(final Map<String, String> properties, final String name) {
+        for (final Map.Entry<String, String> entry : properties.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the SecretKey of the provider named by the keyProvider property.
+     * @param properties The properties.
+     * @return The SecretKey or null if events are not encrypted.
+     */
+    static SecretKey getSecretKey(final Map<String, String> properties) {
+        SecretKey secretKey = null;
+        try {
+            final String key = getProperty(properties, KEY_PROVIDER);
+            if (key != null) {
+                final PluginManager manager = new PluginManager("KeyProvider", SecretKeyProvider.class);
+                manager.collectPlugins();
+                final Map<String, PluginType<?>> plugins = manager.getPlugins();
+                if (plugins != null) {
+                    boolean found = false;
+                    for (final Map.Entry<String, PluginType<?>> entry : plugins.entrySet()) {
+                        if (entry.getKey().equalsIgnoreCase(key)) {
+                            found = true;
+                            final Class<?> cl = entry.getValue().getPluginClass();
+                            try {
+                                final SecretKeyProvider provider = (SecretKeyProvider) cl.newInstance();
+                                secretKey = provider.getSecretKey();
+                                LOGGER.debug("Persisting events using SecretKeyProvider {}", cl.getName());
+                            } catch (final Exception ex) {
+                                LOGGER.error("Unable to create SecretKeyProvider {}, encryption will be disabled",
+                                    cl.getName());
+                            }
+                            break;
+                        }
+                    }
+                    if (!found) {
+                        LOGGER.error("Unable to locate SecretKey provider {}, encryption will be disabled", key);
+                    }
+                } else {
+                    LOGGER.error("Unable to locate SecretKey provider {}, encryption will be disabled", key);
+                }
+            }
+        } catch (final Exception ex) {
+            LOGGER.warn("Error setting up encryption - encryption will be disabled", ex);
+        }
+        return secretKey;
+    }
+
+    /**
+     * Reads an event written by {@link #serialize(Event)}.
+     * @param eventData The serialized event.
+     * @return The event.
+     * @throws IOException if the data is not a valid event.
+     */
+    static SimpleEvent deserialize(final byte[] eventData) throws IOException {
+        final SimpleEvent event = new SimpleEvent();
+        final DataInputStream dais = new DataInputStream(new ByteArrayInputStream(eventData));
+        int length = dais.readInt();
+        final byte[] bytes = new byte[length];
+        dais.readFully(bytes);
+        event.setBody(bytes);
+        length = dais.readInt();
+        final Map<String, String> map = new HashMap<String, String>(length);
+        for (int i = 0; i < length; ++i) {
+            final String headerKey = dais.readUTF();
+            final String value = dais.readUTF();
+            map.put(headerKey, value);
+        }
+        event.setHeaders(map);
+        return event;
+    }
+
+    /**
+     * Writes the body and headers of an event.
+     * @param event The event.
+     * @return The serialized event.
+     * @throws IOException if the event cannot be written.
+     */
+    static byte[] serialize(final Event event) throws IOException {
+        final byte[] body = event.getBody();
+        final Map<String, String> headers = event.getHeaders();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(body.length + EXPECTED_HEADER_SIZE);
+        final DataOutputStream daos = new DataOutputStream(baos);
+        daos.writeInt(body.length);
+        daos.write(body, 0, body.length);
+        daos.writeInt(headers.size());
+        for (final Map.Entry<String, String> entry : headers.entrySet()) {
+            daos.writeUTF(entry.getKey());
+            daos.writeUTF(entry.getValue());
+        }
+        return baos.toByteArray();
+    }
+
     @Override
     protected void releaseSub() {
         LOGGER.debug("Shutting down FlumePersistentManager");
+        if (committer != null) {
+            // Events that were accepted must reach the database before the worker sends its final batch.
+            committer.shutdown();
+            try {
+                committer.join(SHUTDOWN_WAIT * MILLIS_PER_SECOND);
+            } catch (final InterruptedException ie) {
+                LOGGER.debug("Interrupted while waiting for group commit to complete");
+            }
+        }
         worker.shutdown();
         try {
             worker.join(SHUTDOWN_WAIT * MILLIS_PER_SECOND);
@@ -340,6 +485,201 @@ public class FlumePersistentManager extends FlumeAvroManager {
         }
     }
 
+    /**
+     * Thread that writes the events staged by concurrent callers to Berkeley DB, committing all the events staged
+     * since the previous commit in a single transaction. Each group of events is identified by a sequence number and
+     * callers wait until the group they joined has been committed.
+     */
+    static class GroupCommitThread extends Thread {
+        private final Database database;
+        private final Environment environment;
+        private final Gate gate;
+        private final int batchSize;
+        private final SecretKey secretKey;
+        private final AtomicLong dbCount;
+        private final int lockTimeoutRetryCount;
+        private final Lock lock = new ReentrantLock();
+        private final Condition staged = lock.newCondition();
+        private final Condition committed = lock.newCondition();
+        private StagedGroup staging = new StagedGroup(1);
+        private long lastCommitted;
+        private boolean shutdown;
+        private Cipher cipher;
+
+        public GroupCommitThread(final Database database, final Environment environment, final Gate gate,
+                                 final int batchSize, final SecretKey secretKey, final AtomicLong dbCount,
+                                 final int lockTimeoutRetryCount) {
+            super("FlumePersistentManager-GroupCommit");
+            this.database = database;
+            this.environment = environment;
+            this.gate = gate;
+            this.batchSize = batchSize;
+            this.secretKey = secretKey;
+            this.dbCount = dbCount;
+            this.lockTimeoutRetryCount = lockTimeoutRetryCount;
+            this.setDaemon(true);
+        }
+
+        /**
+         * Stages an event and waits until it has been committed.
+         * @param keyData The key of the event.
+         * @param eventData The serialized event, which is encrypted by this thread.
+         * @throws Exception if the group the event was committed with could not be written.
+         */
+        public void commit(final byte[] keyData, final byte[] eventData) throws Exception {
+            final StagedGroup group;
+            boolean interrupted = false;
+            lock.lock();
+            try {
+                if (shutdown) {
+                    throw new LoggingException("Unable to record event");
+                }
+                group = staging;
+                group.keys.add(keyData);
+                group.events.add(eventData);
+                if (group.keys.size() == 1) {
+                    staged.signal();
+                }
+                // The event is only safe once it is in the database so an interrupt does not end the wait.
+                while (lastCommitted < group.sequence) {
+                    try {
+                        committed.await();
+                    } catch (final InterruptedException ie) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (group.failure != null) {
+                throw group.failure;
+            }
+        }
+
+        public void shutdown() {
+            LOGGER.debug("Group commit thread shutting down");
+            lock.lock();
+            try {
+                shutdown = true;
+                staged.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            LOGGER.trace("GroupCommitThread started");
+            while (true) {
+                final StagedGroup group;
+                lock.lock();
+                try {
+                    while (staging.keys.isEmpty() && !shutdown) {
+                        try {
+                            staged.await();
+                        } catch (final InterruptedException ie) {
+                            LOGGER.warn("GroupCommitThread interrupted, continuing");
+                        }
+                    }
+                    if (staging.keys.isEmpty()) {
+                        break;
+                    }
+                    group = staging;
+                    staging = new StagedGroup(group.sequence + 1);
+                } finally {
+                    lock.unlock();
+                }
+                final Exception failure = write(group);
+                lock.lock();
+                try {
+                    group.failure = failure;
+                    lastCommitted = group.sequence;
+                    committed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            LOGGER.trace("GroupCommitThread exiting");
+        }
+
+        private Exception write(final StagedGroup group) {
+            final int count = group.keys.size();
+            final List<DatabaseEntry> data = new ArrayList<DatabaseEntry>(count);
+            try {
+                for (final byte[] eventData : group.events) {
+                    data.add(new DatabaseEntry(encrypt(eventData)));
+                }
+            } catch (final Exception ex) {
+                cipher = null;
+                return ex;
+            }
+            Exception exception = null;
+            for (int retryIndex = 0; retryIndex < lockTimeoutRetryCount; ++retryIndex) {
+                Transaction txn = null;
+                try {
+                    txn = environment.beginTransaction(null, null);
+                    for (int i = 0; i < count; ++i) {
+                        database.put(txn, new DatabaseEntry(group.keys.get(i)), data.get(i));
+                    }
+                    txn.commit();
+                    txn = null;
+                    if (dbCount.addAndGet(count) >= batchSize) {
+                        gate.open();
+                    }
+                    return null;
+                } catch (final LockConflictException lce) {
+                    exception = lce;
+                    // Fall through and retry.
+                } catch (final Exception ex) {
+                    return ex;
+                } finally {
+                    if (txn != null) {
+                        try {
+                            txn.abort();
+                        } catch (final Exception ex) {
+                            // Ignore exception
+                        }
+                    }
+                }
+                try {
+                    Thread.sleep(LOCK_TIMEOUT_SLEEP_MILLIS);
+                } catch (InterruptedException ie) {
+                    // Ignore the error
+                }
+            }
+            return exception;
+        }
+
+        private byte[] encrypt(final byte[] eventData) throws Exception {
+            if (secretKey == null) {
+                return eventData;
+            }
+            if (cipher == null) {
+                cipher = Cipher.getInstance("AES");
+                cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+            }
+            // doFinal leaves the Cipher ready to encrypt the next event with the same key.
+            return cipher.doFinal(eventData);
+        }
+    }
+
+    /**
+     * The events committed together in one transaction.
+     */
+    private static class StagedGroup {
+        private final long sequence;
+        private final List<byte[]> keys = new ArrayList<byte[]>();
+        private final List<byte[]> events = new ArrayList<byte[]>();
+        private Exception failure;
+
+        public StagedGroup(final long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
     /**
      * Factory data.
      */
@@ -391,17 +731,10 @@ public class FlumePersistentManager extends FlumeAvroManager {
          */
         @Override
         public FlumePersistentManager createManager(final String name, final FactoryData data) {
-            SecretKey secretKey = null;
-
             Database database;
             Environment environment;
 
-            final Map<String, String> properties = new HashMap<String, String>();
-            if (data.properties != null) {
-                for (final Property property : data.properties) {
-                    properties.put(property.getName(), property.getValue());
-                }
-            }
+            final Map<String, String> properties = toMap(data.properties);
 
             try {
 
@@ -421,48 +754,12 @@ public class FlumePersistentManager extends FlumeAvroManager {
                 return null;
             }
 
-            try {
-                String key = null;
-                for (final Map.Entry<String, String> entry : properties.entrySet()) {
-                    if (entry.getKey().equalsIgnoreCase(KEY_PROVIDER)) {
-                        key = entry.getValue();
-                        break;
-                    }
-                }
-                if (key != null) {
-                    final PluginManager manager = new PluginManager("KeyProvider", SecretKeyProvider.class);
-                    manager.collectPlugins();
-                    final Map<String, PluginType<?>> plugins = manager.getPlugins();
-                    if (plugins != null) {
-                        boolean found = false;
-                        for (final Map.Entry<String, PluginType<?>> entry : plugins.entrySet()) {
-                            if (entry.getKey().equalsIgnoreCase(key)) {
-                                found = true;
-                                final Class<?> cl = entry.getValue().getPluginClass();
-                                try {
-                                    final SecretKeyProvider provider = (SecretKeyProvider) cl.newInstance();
-                                    secretKey = provider.getSecretKey();
-                                    LOGGER.debug("Persisting events using SecretKeyProvider {}", cl.getName());
-                                } catch (final Exception ex) {
-                                    LOGGER.error("Unable to create SecretKeyProvider {}, encryption will be disabled",
-                                        cl.getName());
-                                }
-                                break;
-                            }
-                        }
-                        if (!found) {
-                            LOGGER.error("Unable to locate SecretKey provider {}, encryption will be disabled", key);
-                        }
-                    } else {
-                        LOGGER.error("Unable to locate SecretKey provider {}, encryption will be disabled", key);
-                    }
-                }
-            } catch (final Exception ex) {
-                LOGGER.warn("Error setting up encryption - encryption will be disabled", ex);
-            }
+            final boolean groupCommit = Booleans.parseBoolean(getProperty(properties, GROUP_COMMIT), false);
+
+            final SecretKey secretKey = getSecretKey(properties);
             return new FlumePersistentManager(name, data.name, data.agents, data.batchSize, data.retries,
                 data.connectionTimeout, data.requestTimeout, data.delay, database, environment, secretKey,
-                data.lockTimeoutRetryCount);
+                data.lockTimeoutRetryCount, groupCommit);
         }
     }
 
@@ -768,7 +1065,6 @@ public class FlumePersistentManager extends FlumeAvroManager {
         }
 
         private SimpleEvent createEvent(final DatabaseEntry data) {
-            final SimpleEvent event = new SimpleEvent();
             try {
                 byte[] eventData = data.getData();
                 if (secretKey != null) {
@@ -776,21 +1072,7 @@ public class FlumePersistentManager extends FlumeAvroManager {
                     cipher.init(Cipher.DECRYPT_MODE, secretKey);
                     eventData = cipher.doFinal(eventData);
                 }
-                final ByteArrayInputStream bais = new ByteArrayInputStream(eventData);
-                final DataInputStream dais = new DataInputStream(bais);
-                int length = dais.readInt();
-                final byte[] bytes = new byte[length];
-                dais.read(bytes, 0, length);
-                event.setBody(bytes);
-                length = dais.readInt();
-                final Map<String, String> map = new HashMap<String, String>(length);
-                for (int i = 0; i < length; ++i) {
-                    final String headerKey = dais.readUTF();
-                    final String value = dais.readUTF();
-                    map.put(headerKey, value);
-                }
-                event.setHeaders(map);
-                return event;
+                return deserialize(eventData);
             } catch (final Exception ex) {
                 LOGGER.error("Error retrieving event", ex);
                 return null;
@@ -826,7 +1108,7 @@ public class FlumePersistentManager extends FlumeAvroManager {
         }
     }
 
-    private static class Gate {
+    static class Gate {
 
         private boolean isOpen = false;
 
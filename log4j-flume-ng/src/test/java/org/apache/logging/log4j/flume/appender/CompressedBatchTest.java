@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.flume.Event;
+import org.apache.flume.event.SimpleEvent;
+import org.apache.logging.log4j.core.helpers.Charsets;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class CompressedBatchTest {
+
+    private static Event createEvent(final int i) {
+        final SimpleEvent event = new SimpleEvent();
+        final Map<String, String> headers = new HashMap<String, String>();
+        headers.put("guId", Integer.toString(i));
+        headers.put("key", "value " + i);
+        event.setHeaders(headers);
+        event.setBody(("Test message " + i).getBytes(Charsets.UTF_8));
+        return event;
+    }
+
+    private static void assertEvents(final List<Event> expected, final List<Event> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).getHeaders(), actual.get(i).getHeaders());
+            assertArrayEquals(expected.get(i).getBody(), actual.get(i).getBody());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final List<Event> events = new ArrayList<Event>();
+        for (int i = 0; i < 100; ++i) {
+            events.add(createEvent(i));
+        }
+        final Event batch = CompressedBatch.encode(events);
+        assertTrue(CompressedBatch.isBatch(batch));
+        assertFalse(CompressedBatch.isBatch(events.get(0)));
+        assertEvents(events, CompressedBatch.decode(batch));
+    }
+
+    @Test
+    public void testInterceptor() throws Exception {
+        final CompressedBatchInterceptor interceptor = new CompressedBatchInterceptor();
+        final List<Event> plain = Arrays.asList(createEvent(0), createEvent(1));
+        assertSame(plain, interceptor.intercept(plain));
+
+        final Event first = createEvent(0);
+        final List<Event> packed = Arrays.asList(createEvent(1), createEvent(2));
+        final Event last = createEvent(3);
+        final List<Event> result = interceptor.intercept(Arrays.asList(first, CompressedBatch.encode(packed), last));
+        assertEvents(Arrays.asList(first, packed.get(0), packed.get(1), last), result);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import org.apache.logging.log4j.core.helpers.Charsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class FileQueueTest {
+
+    private static final File DIR = new File("target/file-queue");
+
+    @Before
+    public void setUp() {
+        delete(DIR);
+    }
+
+    @After
+    public void tearDown() {
+        delete(DIR);
+    }
+
+    private static void delete(final File dir) {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private static byte[] record(final int i) {
+        return ("record " + i).getBytes(Charsets.UTF_8);
+    }
+
+    private static void assertRecords(final List<byte[]> records, final int first, final int count) {
+        assertEquals(count, records.size());
+        for (int i = 0; i < count; ++i) {
+            assertEquals("record " + (first + i), new String(records.get(i), Charsets.UTF_8));
+        }
+    }
+
+    private static int countSegments() {
+        int count = 0;
+        for (final String name : DIR.list()) {
+            if (name.endsWith(".segment")) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testAppendPeekAcknowledge() throws Exception {
+        final FileQueue queue = FileQueue.open(DIR, 64);
+        for (int i = 0; i < 20; ++i) {
+            queue.append(record(i));
+        }
+        assertEquals(20, queue.size());
+        assertTrue("Expected several segments", countSegments() > 2);
+        assertRecords(queue.peek(5), 0, 5);
+        assertRecords(queue.peek(5), 0, 5);
+        queue.acknowledge(5);
+        assertRecords(queue.peek(100), 5, 15);
+        queue.acknowledge(15);
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.peek(10).size());
+        assertEquals("Acknowledged segments were not deleted", 1, countSegments());
+        queue.close();
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        FileQueue queue = FileQueue.open(DIR, 64);
+        for (int i = 0; i < 10; ++i) {
+            queue.append(record(i));
+        }
+        queue.acknowledge(3);
+        queue.peek(4);
+        queue.close();
+
+        queue = FileQueue.open(DIR, 64);
+        assertEquals(7, queue.size());
+        assertRecords(queue.peek(100), 3, 7);
+        queue.append(record(10));
+        assertRecords(queue.peek(100), 3, 8);
+        queue.close();
+    }
+
+    @Test
+    public void testPartialRecordDiscarded() throws Exception {
+        FileQueue queue = FileQueue.open(DIR, 1024);
+        queue.append(record(0));
+        queue.append(record(1));
+        queue.close();
+
+        // Corrupt the content of the second record as if the process stopped while writing it.
+        final File segment = new File(DIR, String.format("%020d.segment", 0));
+        final RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+        try {
+            raf.seek(8 + record(0).length + 8);
+            raf.write('X');
+        } finally {
+            raf.close();
+        }
+
+        queue = FileQueue.open(DIR, 1024);
+        assertEquals(1, queue.size());
+        queue.append(record(2));
+        assertEquals(2, queue.size());
+        assertRecords(queue.peek(1), 0, 1);
+        queue.acknowledge(1);
+        assertRecords(queue.peek(10), 2, 1);
+        queue.close();
+    }
+
+    @Test
+    public void testLargeRecord() throws Exception {
+        final FileQueue queue = FileQueue.open(DIR, 32);
+        final byte[] large = new byte[100];
+        large[99] = 1;
+        queue.append(record(0));
+        queue.append(large);
+        queue.append(record(1));
+        final List<byte[]> records = queue.peek(3);
+        assertEquals(3, records.size());
+        assertEquals(100, records.get(1).length);
+        assertEquals(1, records.get(1)[99]);
+        queue.close();
+    }
+
+    @Test
+    public void testAwait() throws Exception {
+        final FileQueue queue = FileQueue.open(DIR, 1024);
+        assertEquals(0, queue.await(1, 10));
+        final Thread producer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    queue.append(record(0));
+                    queue.append(record(1));
+                } catch (final Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        };
+        producer.start();
+        assertEquals(2, queue.await(2, 10000));
+        producer.join();
+        queue.close();
+    }
+}
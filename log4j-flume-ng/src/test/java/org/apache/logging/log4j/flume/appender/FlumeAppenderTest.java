@@ -21,8 +21,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.zip.GZIPInputStream;
 
@@ -134,7 +136,7 @@ public class FlumeAppenderTest {
         final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
                 null, "false", "Avro", null, "1000", "1000", "1", "1000",
                 "avro", "false", null, null, null, null, null, "true", "1",
-                null, null, null, null);
+                null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -163,7 +165,7 @@ public class FlumeAppenderTest {
         final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
                 null, "false", "Avro", null, "1000", "1000", "1", "1000",
                 "avro", "false", null, null, null, "ReqCtx_", null, "true",
-                "1", null, null, null, null);
+                "1", null, null, null, null, null);
         avroAppender.start();
         final Logger eventLogger = (Logger) LogManager.getLogger("EventLogger");
         Assert.assertNotNull(eventLogger);
@@ -203,7 +205,7 @@ public class FlumeAppenderTest {
         final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
                 null, "false", "Avro", null, "1000", "1000", "1", "1000",
                 "avro", "false", null, null, null, null, null, "true", "1",
-                null, null, null, null);
+                null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -237,7 +239,7 @@ public class FlumeAppenderTest {
         final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
                 null, "false", "Avro", null, "1000", "1000", "1", "1000",
                 "avro", "false", null, null, null, null, null, "true", "10",
-                null, null, null, null);
+                null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -264,6 +266,46 @@ public class FlumeAppenderTest {
         eventSource.stop();
     }
 
+    @Test
+    public void testMaxInFlight() throws InterruptedException, IOException {
+        final Agent[] agents = new Agent[] { Agent.createAgent("localhost",
+                testPort) };
+        final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
+                null, "false", "Avro", null, "1000", "1000", "1", "1000",
+                "avro", "false", null, null, null, null, null, "true", "5",
+                null, "2", null, null, null);
+        avroAppender.start();
+        avroLogger.addAppender(avroAppender);
+        avroLogger.setLevel(Level.ALL);
+
+        for (int i = 0; i < 20; ++i) {
+            avroLogger.info("Test message " + i);
+        }
+        // Stopping the appender waits for the queued events to be sent.
+        avroLogger.removeAppender(avroAppender);
+        avroAppender.stop();
+
+        final Transaction transaction = channel.getTransaction();
+        transaction.begin();
+
+        // Batches sent over different connections may arrive in any order.
+        final Set<String> bodies = new HashSet<String>();
+        for (int i = 0; i < 20; ++i) {
+            final Event event = channel.take();
+            Assert.assertNotNull("No event for item " + i, event);
+            final String body = getBody(event);
+            bodies.add(body.substring(body.indexOf("Test message ")));
+        }
+        transaction.commit();
+        transaction.close();
+
+        for (int i = 0; i < 20; ++i) {
+            Assert.assertTrue("Missing message " + i, bodies.contains("Test message " + i));
+        }
+
+        eventSource.stop();
+    }
+
     @Test
     public void testConnectionRefused() {
         final Agent[] agents = new Agent[] { Agent.createAgent("localhost",
@@ -271,7 +313,7 @@ public class FlumeAppenderTest {
         final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
                 null, "false", "Avro", null, "1000", "1000", "1", "1000",
                 "avro", "false", null, null, null, null, null, "true", "1",
-                null, null, null, null);
+                null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -301,7 +343,7 @@ public class FlumeAppenderTest {
         final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
                 null, "false", "Avro", null, "1000", "1000", "1", "1000",
                 "avro", "false", null, null, null, null, null, "true", "1",
-                null, null, null, null);
+                null, null, null, null, null);
         avroAppender.start();
         Assert.assertTrue("Appender Not started", avroAppender.isStarted());
         avroLogger.addAppender(avroAppender);
@@ -349,7 +391,7 @@ public class FlumeAppenderTest {
         final FlumeAppender avroAppender = FlumeAppender.createAppender(agents,
                 null, "false", "Avro", null, "1000", "1000", "1", "1000",
                 "avro", "false", null, null, null, null, null, "true", "1",
-                null, null, null, null);
+                null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.avro.AvroRemoteException;
+import org.apache.avro.ipc.NettyServer;
+import org.apache.avro.ipc.Responder;
+import org.apache.avro.ipc.specific.SpecificResponder;
+import org.apache.flume.Event;
+import org.apache.flume.event.EventBuilder;
+import org.apache.flume.source.avro.AvroFlumeEvent;
+import org.apache.flume.source.avro.AvroSourceProtocol;
+import org.apache.flume.source.avro.Status;
+import org.apache.logging.log4j.EventLogger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs a persistent Flume Appender configured with store="File".
+ */
+public class FlumeFileQueueAppenderTest {
+    private static final String CONFIG = "file-queue.xml";
+    private static final String HOSTNAME = "localhost";
+    private static LoggerContext ctx;
+
+    private int port;
+    private EventCollector primary;
+
+    @AfterClass
+    public static void cleanupClass() {
+        StatusLogger.getLogger().reset();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        deleteFiles(new File("target/file-queue"));
+        port = findFreePort();
+        System.setProperty("primaryPort", Integer.toString(port));
+        primary = new EventCollector(port);
+        System.setProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        ctx = (LoggerContext) LogManager.getContext(false);
+        ctx.reconfigure();
+    }
+
+    @After
+    public void teardown() throws Exception {
+        System.clearProperty(ConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        ctx.reconfigure();
+        primary.stop();
+        deleteFiles(new File("target/file-queue"));
+    }
+
+    @Test
+    public void testMultiple() throws IOException {
+        Assert.assertTrue("The file queue was not created", new File("target/file-queue/eventLogger").isDirectory());
+        logEvents("Test Multiple ", 25);
+        receiveEvents("Test Multiple ", 25);
+    }
+
+    @Test
+    public void testEventsQueuedWhileAgentIsDown() throws IOException {
+        primary.stop();
+        logEvents("Test Queued ", 25);
+        // The sender keeps the events in the queue and sends them once the agent is back.
+        primary = new EventCollector(port);
+        receiveEvents("Test Queued ", 25);
+    }
+
+    private void logEvents(final String prefix, final int count) {
+        for (int i = 0; i < count; ++i) {
+            final StructuredDataMessage msg = new StructuredDataMessage("Test", prefix + i, "Test");
+            msg.put("counter", Integer.toString(i));
+            EventLogger.logEvent(msg);
+        }
+    }
+
+    private void receiveEvents(final String prefix, final int count) throws IOException {
+        final boolean[] fields = new boolean[count];
+        for (int i = 0; i < count; ++i) {
+            final Event event = primary.poll();
+            Assert.assertNotNull("Received " + i + " events. Event " + (i + 1) + " is null", event);
+            final String value = event.getHeaders().get("counter");
+            Assert.assertNotNull("Missing counter", value);
+            final int counter = Integer.parseInt(value);
+            if (fields[counter]) {
+                Assert.fail("Duplicate event");
+            } else {
+                fields[counter] = true;
+            }
+            final String body = getBody(event);
+            Assert.assertTrue("Unexpected message. Received: " + body, body.endsWith(prefix + counter));
+        }
+        for (int i = 0; i < count; ++i) {
+            Assert.assertTrue("Channel contained event, but not expected message " + i, fields[i]);
+        }
+    }
+
+    private String getBody(final Event event) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final InputStream is = new GZIPInputStream(new ByteArrayInputStream(event.getBody()));
+        int n = 0;
+        while (-1 != (n = is.read())) {
+            baos.write(n);
+        }
+        return new String(baos.toByteArray());
+    }
+
+    private static boolean deleteFiles(final File file) {
+        boolean result = true;
+        if (file.isDirectory()) {
+            final File[] files = file.listFiles();
+            for (final File child : files) {
+                result &= deleteFiles(child);
+            }
+        } else if (!file.exists()) {
+            return true;
+        }
+        return result &= file.delete();
+    }
+
+    private static int findFreePort() throws IOException {
+        final ServerSocket socket = new ServerSocket(0);
+        try {
+            return socket.getLocalPort();
+        } finally {
+            socket.close();
+        }
+    }
+
+    private static class EventCollector implements AvroSourceProtocol {
+        private final LinkedBlockingQueue<AvroFlumeEvent> eventQueue = new LinkedBlockingQueue<AvroFlumeEvent>();
+
+        private final NettyServer nettyServer;
+
+        public EventCollector(final int port) {
+            final Responder responder = new SpecificResponder(AvroSourceProtocol.class, this);
+            nettyServer = new NettyServer(responder, new InetSocketAddress(HOSTNAME, port));
+            nettyServer.start();
+        }
+
+        public void stop() {
+            nettyServer.close();
+        }
+
+        public Event poll() {
+            AvroFlumeEvent avroEvent = null;
+            try {
+                avroEvent = eventQueue.poll(30000, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException ie) {
+                // Ignore the exception.
+            }
+            if (avroEvent != null) {
+                return EventBuilder.withBody(avroEvent.getBody().array(), toStringMap(avroEvent.getHeaders()));
+            }
+            System.out.println("No Event returned");
+            return null;
+        }
+
+        @Override
+        public Status append(final AvroFlumeEvent event) throws AvroRemoteException {
+            eventQueue.add(event);
+            return Status.OK;
+        }
+
+        @Override
+        public Status appendBatch(final List<AvroFlumeEvent> events) throws AvroRemoteException {
+            eventQueue.addAll(events);
+            return Status.OK;
+        }
+    }
+
+    private static Map<String, String> toStringMap(final Map<CharSequence, CharSequence> charSeqMap) {
+        final Map<String, String> stringMap = new HashMap<String, String>();
+        for (final Map.Entry<CharSequence, CharSequence> entry : charSeqMap.entrySet()) {
+            stringMap.put(entry.getKey().toString(), entry.getValue().toString());
+        }
+        return stringMap;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseConfig;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.EnvironmentConfig;
+import com.sleepycat.je.LockMode;
+import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
+
+/**
+ * Commits events from several threads through the group commit thread while another transaction holds the lock on
+ * one of the keys, so the group containing that key fails.
+ */
+public class GroupCommitThreadTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int PRODUCERS = 8;
+
+    private static final int EVENTS = 200;
+
+    private static final String LOCKED_KEY = "0-100";
+
+    private File dir;
+    private Environment environment;
+    private Database database;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = new File("target/group-commit");
+        deleteFiles(dir);
+        dir.mkdirs();
+        final EnvironmentConfig envConfig = new EnvironmentConfig();
+        envConfig.setTransactional(true);
+        envConfig.setAllowCreate(true);
+        envConfig.setLockTimeout(50, TimeUnit.MILLISECONDS);
+        environment = new Environment(dir, envConfig);
+        final DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setTransactional(true);
+        dbConfig.setAllowCreate(true);
+        database = environment.openDatabase(null, "GroupCommit", dbConfig);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        database.close();
+        environment.close();
+        deleteFiles(dir);
+    }
+
+    @Test
+    public void testConcurrentCommitsWithFailure() throws Exception {
+        final AtomicLong dbCount = new AtomicLong();
+        final FlumePersistentManager.GroupCommitThread committer = new FlumePersistentManager.GroupCommitThread(
+            database, environment, new FlumePersistentManager.Gate(), Integer.MAX_VALUE, null, dbCount, 1);
+        committer.start();
+
+        // Holding a write lock on one key makes the transaction that writes it time out.
+        final Transaction blocker = environment.beginTransaction(null, null);
+        database.put(blocker, entry(LOCKED_KEY), entry("blocker"));
+
+        final Set<String> acknowledged = newSet();
+        final Set<String> failed = newSet();
+        final Thread[] producers = new Thread[PRODUCERS];
+        for (int i = 0; i < PRODUCERS; ++i) {
+            final int producer = i;
+            producers[i] = new Thread("Producer-" + i) {
+                @Override
+                public void run() {
+                    for (int j = 0; j < EVENTS; ++j) {
+                        final String key = producer + "-" + j;
+                        try {
+                            committer.commit(key.getBytes(UTF8), ("event " + key).getBytes(UTF8));
+                            acknowledged.add(key);
+                        } catch (final Exception ex) {
+                            failed.add(key);
+                        }
+                    }
+                }
+            };
+            producers[i].start();
+        }
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+        blocker.abort();
+        committer.shutdown();
+        committer.join();
+
+        Assert.assertTrue("The failed commit was not reported to the producer", failed.contains(LOCKED_KEY));
+        Assert.assertEquals(PRODUCERS * EVENTS, acknowledged.size() + failed.size());
+        Assert.assertEquals("Acknowledged events were written more or less than once",
+            acknowledged.size(), database.count());
+        Assert.assertEquals(acknowledged.size(), dbCount.get());
+        final DatabaseEntry value = new DatabaseEntry();
+        for (final String key : acknowledged) {
+            Assert.assertEquals("Missing " + key, OperationStatus.SUCCESS,
+                database.get(null, entry(key), value, LockMode.DEFAULT));
+            Assert.assertTrue("Wrong event for " + key, Arrays.equals(("event " + key).getBytes(UTF8),
+                value.getData()));
+        }
+        for (final String key : failed) {
+            Assert.assertEquals("Failed event " + key + " was written", OperationStatus.NOTFOUND,
+                database.get(null, entry(key), value, LockMode.DEFAULT));
+        }
+    }
+
+    private static DatabaseEntry entry(final String text) {
+        return new DatabaseEntry(text.getBytes(UTF8));
+    }
+
+    private static void deleteFiles(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (final File child : files) {
+                deleteFiles(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static Set<String> newSet() {
+        return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+}